@@ -1,5 +1,6 @@
 package com.rapidreserve.api_gateway.route;
 
+import com.rapidreserve.api_gateway.waitingroom.AdmissionFilter;
 import org.springframework.cloud.gateway.server.mvc.filter.CircuitBreakerFilterFunctions;
 import org.springframework.cloud.gateway.server.mvc.handler.GatewayRouterFunctions;
 import org.springframework.cloud.gateway.server.mvc.handler.HandlerFunctions;
@@ -19,14 +20,18 @@ import static org.springframework.cloud.gateway.server.mvc.filter.FilterFunction
 public class BookingServiceRoutes {
 
     @Bean
-    public RouterFunction<ServerResponse> bookingRoutes() {
+    public RouterFunction<ServerResponse> bookingRoutes(AdmissionFilter admissionFilter) {
         return GatewayRouterFunctions.route("booking-service")
-                // Create booking
+                // Create booking, with an admission pass from the waiting room
                 .route(RequestPredicates.POST("/api/v1/booking"),
-                        HandlerFunctions.http("http://localhost:8081/api/v1/booking"))
+                        admissionFilter.apply(HandlerFunctions.http("http://localhost:8081/api/v1/booking")))
                 .filter(CircuitBreakerFilterFunctions.circuitBreaker("bookingServiceCircuitBreaker",
                         URI.create("forward:/fallbackRoute")))
 
+                // Create several bookings, all or nothing, with a pass for each event
+                .route(RequestPredicates.POST("/api/v1/booking/batch"),
+                        admissionFilter.apply(HandlerFunctions.http("http://localhost:8081/api/v1/booking/batch")))
+
                 // Get booking by ID
                 .route(RequestPredicates.GET("/api/v1/booking/{id}"),
                         request -> forwardWithPathVariable(request, "id",
@@ -44,6 +44,10 @@ public class InventoryServiceRoutes {
                 .route(RequestPredicates.GET("/api/v1/inventory/events"),
                         request -> HandlerFunctions.http("http://localhost:8080/api/v1/inventory/events").handle(request))
 
+                // Search Events
+                .route(RequestPredicates.GET("/api/v1/inventory/events/search"),
+                        HandlerFunctions.http("http://localhost:8080/api/v1/inventory/events/search"))
+
                 //Get Venue by ID
                 .route(RequestPredicates.GET("/api/v1/inventory/venue/{venueId}"),
                         request -> forwardWithPathVariable(request, "venueId",
@@ -72,6 +76,40 @@ public class InventoryServiceRoutes {
                                     .http("http://localhost:8080/api/v1/inventory/event/" + eventId + "/capacity/" + capacity)
                                     .handle(request);
                         })
+
+                // Batch Update Event Capacity
+                .route(RequestPredicates.PUT("/api/v1/inventory/events/capacity:batch"),
+                        HandlerFunctions.http("http://localhost:8080/api/v1/inventory/events/capacity:batch"))
+
+                // Bulk Import Venues and Events
+                .route(RequestPredicates.POST("/api/v1/inventory/import"),
+                        HandlerFunctions.http("http://localhost:8080/api/v1/inventory/import"))
+
+                // Event and Venue Write Contention
+                .route(RequestPredicates.GET("/api/v1/inventory/contention"),
+                        HandlerFunctions.http("http://localhost:8080/api/v1/inventory/contention"))
+
+                // Place Hold
+                .route(RequestPredicates.POST("/api/v1/inventory/event/{eventId}/holds"),
+                        request -> HandlerFunctions
+                                .http("http://localhost:8080/api/v1/inventory/event/" + request.pathVariable("eventId") + "/holds")
+                                .handle(request))
+
+                // Get Hold
+                .route(RequestPredicates.GET("/api/v1/inventory/holds/{holdId}"),
+                        request -> forwardWithPathVariable(request, "holdId",
+                                "http://localhost:8080/api/v1/inventory/holds/"))
+
+                // Confirm Hold
+                .route(RequestPredicates.POST("/api/v1/inventory/holds/{holdId}/confirm"),
+                        request -> HandlerFunctions
+                                .http("http://localhost:8080/api/v1/inventory/holds/" + request.pathVariable("holdId") + "/confirm")
+                                .handle(request))
+
+                // Release Hold
+                .route(RequestPredicates.DELETE("/api/v1/inventory/holds/{holdId}"),
+                        request -> forwardWithPathVariable(request, "holdId",
+                                "http://localhost:8080/api/v1/inventory/holds/"))
                 .build();
     }
 
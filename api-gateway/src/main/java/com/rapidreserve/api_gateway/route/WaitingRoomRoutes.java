@@ -0,0 +1,73 @@
+package com.rapidreserve.api_gateway.route;
+
+import com.rapidreserve.api_gateway.waitingroom.QueueStatus;
+import com.rapidreserve.api_gateway.waitingroom.WaitingRoom;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.function.RequestPredicates;
+import org.springframework.web.servlet.function.RouterFunction;
+import org.springframework.web.servlet.function.RouterFunctions;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The waiting room is served by the gateway itself: join an event's queue, then poll its status
+ * with the queue token until it returns an admission pass.
+ */
+@Configuration
+public class WaitingRoomRoutes {
+
+    public static final String QUEUE_TOKEN = "X-Queue-Token";
+
+    @Bean
+    public RouterFunction<ServerResponse> waitingRoomEndpoints(WaitingRoom waitingRoom) {
+        return RouterFunctions.route()
+                // Join an event's queue
+                .route(RequestPredicates.POST("/api/v1/waiting-room/{eventId}/join"),
+                        request -> respond(() -> waitingRoom.join(eventId(request), subject(request))))
+
+                // Queue position, and the admission pass once admitted
+                .route(RequestPredicates.GET("/api/v1/waiting-room/{eventId}/status"),
+                        request -> respond(() -> waitingRoom.status(eventId(request),
+                                request.param("token").orElseGet(() -> request.headers().firstHeader(QUEUE_TOKEN)),
+                                subject(request))))
+                .build();
+    }
+
+    private static ServerResponse respond(Supplier<QueueStatus> status) {
+        try {
+            QueueStatus queueStatus = status.get();
+            return ServerResponse.ok()
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(queueStatus.pollAfterSeconds()))
+                    .body(queueStatus);
+        } catch (WaitingRoom.QueueExpiredException e) {
+            return error(HttpStatus.GONE, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return error(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            return error(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    private static ServerResponse error(HttpStatus status, String message) {
+        return ServerResponse.status(status).body(Map.of("message", message));
+    }
+
+    private static long eventId(ServerRequest request) {
+        try {
+            return Long.parseLong(request.pathVariable("eventId"));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid event ID: " + request.pathVariable("eventId"));
+        }
+    }
+
+    private static String subject(ServerRequest request) {
+        return request.principal().map(Principal::getName).orElse(null);
+    }
+}
@@ -0,0 +1,150 @@
+package com.rapidreserve.api_gateway.waitingroom;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.server.mvc.common.MvcUtils;
+import org.springframework.cloud.gateway.server.mvc.filter.BodyFilterFunctions;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.function.HandlerFilterFunction;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lets a booking request through only if it carries an admission pass for every event it books,
+ * and reports how booking-service handled it to the {@link WaitingRoom}.
+ * <p>
+ * The event ids are read from the JSON body, {@code eventId} for a single booking and
+ * {@code items[].eventId} for a batch; the body is cached and replayed to booking-service. Passes
+ * go in {@code X-Admission-Pass}, one per event, repeated or comma separated. A request without
+ * them gets 429 with the waiting room to join. The passes are used up once the whole request is
+ * admitted, whatever booking-service answers. A body without event ids is passed on for
+ * booking-service to reject.
+ */
+@Component
+public class AdmissionFilter implements HandlerFilterFunction<ServerResponse, ServerResponse> {
+
+    public static final String ADMISSION_PASS = "X-Admission-Pass";
+
+    private final WaitingRoom waitingRoom;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    @Autowired
+    public AdmissionFilter(WaitingRoom waitingRoom, ObjectMapper objectMapper,
+                           @Value("${gateway.waiting-room.enabled:true}") boolean enabled) {
+        this.waitingRoom = waitingRoom;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    @Override
+    public ServerResponse filter(ServerRequest request, HandlerFunction<ServerResponse> next) throws Exception {
+        if (!enabled) {
+            return forward(request, next);
+        }
+        final ByteArrayInputStream body = MvcUtils.getOrCacheBody(request);
+        final Set<Long> eventIds = eventIds(body);
+        body.reset();
+
+        final String subject = request.principal().map(Principal::getName).orElse(null);
+        final List<String> passes = passes(request);
+        final Map<Long, String> admissions = new LinkedHashMap<>();
+        final List<Long> notAdmitted = new ArrayList<>();
+        for (Long eventId : eventIds) {
+            passes.stream()
+                    .filter(pass -> waitingRoom.isAdmitted(pass, eventId, subject))
+                    .findFirst()
+                    .ifPresentOrElse(pass -> admissions.put(eventId, pass), () -> notAdmitted.add(eventId));
+        }
+        if (notAdmitted.isEmpty()) {
+            // A concurrent request with the same pass may have used it since
+            admissions.forEach((eventId, pass) -> {
+                if (!waitingRoom.usePass(pass, eventId, subject)) {
+                    notAdmitted.add(eventId);
+                }
+            });
+        }
+        if (!notAdmitted.isEmpty()) {
+            final long eventId = notAdmitted.get(0);
+            return ServerResponse.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(Map.of(
+                            "message", "Booking requires an admission pass for events " + notAdmitted,
+                            "eventIds", notAdmitted,
+                            "join", "/api/v1/waiting-room/" + eventId + "/join"));
+        }
+        return forward(BodyFilterFunctions.adaptCachedBody().apply(request), next);
+    }
+
+    // =============================================
+    // PRIVATE HELPER METHODS
+    // =============================================
+
+    private ServerResponse forward(ServerRequest request, HandlerFunction<ServerResponse> next) throws Exception {
+        final ServerResponse response;
+        try {
+            response = next.handle(request);
+        } catch (Exception e) {
+            waitingRoom.recordDownstream(false);
+            throw e;
+        }
+        waitingRoom.recordDownstream(!response.statusCode().is5xxServerError());
+        return response;
+    }
+
+    private Set<Long> eventIds(ByteArrayInputStream body) {
+        final Set<Long> eventIds = new LinkedHashSet<>();
+        try {
+            final JsonNode json = objectMapper.readTree(body);
+            if (json == null) {
+                return eventIds;
+            }
+            addEventId(json, eventIds);
+            for (JsonNode item : json.path("items")) {
+                addEventId(item, eventIds);
+            }
+        } catch (IOException e) {
+            // Not JSON; booking-service rejects it
+        }
+        return eventIds;
+    }
+
+    private static void addEventId(JsonNode node, Set<Long> eventIds) {
+        final JsonNode eventId = node.path("eventId");
+        // booking-service also binds numbers sent as strings
+        if (eventId.canConvertToLong() || eventId.isTextual()) {
+            try {
+                eventIds.add(eventId.isTextual() ? Long.parseLong(eventId.asText().trim()) : eventId.asLong());
+            } catch (NumberFormatException e) {
+                // Not an id; booking-service rejects it
+            }
+        }
+    }
+
+    private static List<String> passes(ServerRequest request) {
+        final List<String> passes = new ArrayList<>();
+        for (String header : request.headers().header(ADMISSION_PASS)) {
+            for (String pass : header.split(",")) {
+                if (!pass.isBlank()) {
+                    passes.add(pass.trim());
+                }
+            }
+        }
+        return passes;
+    }
+}
@@ -0,0 +1,21 @@
+package com.rapidreserve.api_gateway.waitingroom;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * Where a waiter stands in an event's queue. Once admitted it carries the admission pass to send
+ * as {@code X-Admission-Pass} when creating bookings for the event.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record QueueStatus(long eventId,
+                          String token,
+                          long position,
+                          long ahead,
+                          boolean admitted,
+                          long estimatedWaitSeconds,
+                          long pollAfterSeconds,
+                          String admissionPass,
+                          Instant passExpiresAt) {
+}
@@ -0,0 +1,145 @@
+package com.rapidreserve.api_gateway.waitingroom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Signs and checks the two tokens of the waiting room.
+ * <p>
+ * A queue token records a place in an event's queue; an admission pass names the same place and
+ * when the pass expires, and the {@link WaitingRoom} lets it through for one booking. Both are {@code payload.signature} in base64url, with
+ * an HMAC-SHA256 over the payload and the subject of the caller's JWT, so a token only works for
+ * the user it was issued to.
+ * <p>
+ * Gateway instances that share {@code gateway.waiting-room.secret} accept each other's tokens.
+ * Without one, each instance signs with a random key of its own.
+ */
+@Component
+public class QueueTokens {
+
+    private static final Logger log = LoggerFactory.getLogger(QueueTokens.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String TICKET = "t";
+    private static final String PASS = "p";
+
+    private final SecretKeySpec key;
+
+    @Autowired
+    public QueueTokens(@Value("${gateway.waiting-room.secret:}") String secret) {
+        this(secret.isBlank() ? randomKey() : secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    QueueTokens(byte[] secret) {
+        this.key = new SecretKeySpec(secret, ALGORITHM);
+    }
+
+    public record Ticket(long eventId, long queueId, long position) {
+    }
+
+    public record Pass(long eventId, long queueId, long position, long expiresAtMillis) {
+    }
+
+    // =============================================
+    // QUEUE TOKENS
+    // =============================================
+
+    public String issueTicket(Ticket ticket, String subject) {
+        return sign(TICKET + "." + ticket.eventId() + "." + ticket.queueId() + "." + ticket.position(), subject);
+    }
+
+    /**
+     * @return the ticket, or empty if the token is malformed, tampered with or issued to someone else
+     */
+    public Optional<Ticket> readTicket(String token, String subject) {
+        return verify(token, subject, TICKET, 3)
+                .map(fields -> new Ticket(fields[0], fields[1], fields[2]));
+    }
+
+    // =============================================
+    // ADMISSION PASSES
+    // =============================================
+
+    public String issuePass(Pass pass, String subject) {
+        return sign(PASS + "." + pass.eventId() + "." + pass.queueId() + "." + pass.position() + "."
+                + pass.expiresAtMillis(), subject);
+    }
+
+    /**
+     * @return the pass, or empty if the token is malformed, tampered with or issued to someone else
+     */
+    public Optional<Pass> readPass(String token, String subject) {
+        return verify(token, subject, PASS, 4)
+                .map(fields -> new Pass(fields[0], fields[1], fields[2], fields[3]));
+    }
+
+    // =============================================
+    // PRIVATE HELPER METHODS
+    // =============================================
+
+    private String sign(String payload, String subject) {
+        final Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payload.getBytes(StandardCharsets.US_ASCII)) + "."
+                + encoder.encodeToString(mac(payload, subject));
+    }
+
+    private Optional<long[]> verify(String token, String subject, String kind, int fieldCount) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        final int dot = token.indexOf('.');
+        if (dot < 0) {
+            return Optional.empty();
+        }
+        try {
+            final Base64.Decoder decoder = Base64.getUrlDecoder();
+            final String payload = new String(decoder.decode(token.substring(0, dot)), StandardCharsets.US_ASCII);
+            final byte[] signature = decoder.decode(token.substring(dot + 1));
+            if (!MessageDigest.isEqual(signature, mac(payload, subject))) {
+                return Optional.empty();
+            }
+            final String[] parts = payload.split("\\.");
+            if (parts.length != fieldCount + 1 || !kind.equals(parts[0])) {
+                return Optional.empty();
+            }
+            final long[] fields = new long[fieldCount];
+            for (int i = 0; i < fieldCount; i++) {
+                fields[i] = Long.parseLong(parts[i + 1]);
+            }
+            return Optional.of(fields);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] mac(String payload, String subject) {
+        try {
+            final Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            mac.update(payload.getBytes(StandardCharsets.US_ASCII));
+            mac.update((byte) '\n');
+            return mac.doFinal((subject == null ? "" : subject).getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot sign waiting room tokens", e);
+        }
+    }
+
+    private static byte[] randomKey() {
+        log.warn("gateway.waiting-room.secret is not set; waiting room tokens are only valid on this instance");
+        final byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        return key;
+    }
+}
@@ -0,0 +1,362 @@
+package com.rapidreserve.api_gateway.waitingroom;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-event FIFO queues that admit waiters at a rate the booking chain can take.
+ * <p>
+ * A queue is two counters, the last position handed out and the last position admitted, and the
+ * position of each user in it. Joining takes the next position and returns it in a signed
+ * {@link QueueTokens queue token}; joining again returns the same place. A waiter is admitted once
+ * the admitted counter reaches their position, and from then on every status poll returns the same
+ * admission pass. The pass lets one booking through: using it, or letting it expire, removes the
+ * user from the queue, and they have to join again to book again. Queues are in memory on each
+ * gateway instance, so every request for one event's queue has to reach the same instance.
+ * <p>
+ * Every tick admits waiters at the admission rate, shared evenly between the events that have a
+ * backlog. The rate follows the outcome of the bookings the gateway forwards: it is halved when
+ * booking-service fails, at most once per second, and grows back by the recovery step per second
+ * while bookings succeed, up to the configured admission rate. A drained queue is dropped after
+ * it has been idle for a minute and its passes are used or expired; tokens from it are then
+ * refused and their holders join again.
+ * <p>
+ * Meters: {@code gateway.waiting.room.admission.rate}, {@code gateway.waiting.room.waiting},
+ * {@code gateway.waiting.room.joined}, {@code gateway.waiting.room.admitted},
+ * {@code gateway.waiting.room.downstream} by outcome, and
+ * {@code gateway.waiting.room.downstream.throughput}, the smoothed rate of successful bookings.
+ */
+@Component
+public class WaitingRoom {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitingRoom.class);
+
+    private static final long IDLE_MILLIS = 60_000;
+    private static final long DECREASE_INTERVAL_MILLIS = 1_000;
+    private static final long MAX_POLL_SECONDS = 30;
+    private static final long SWEEP_INTERVAL_MILLIS = 1_000;
+
+    private final QueueTokens tokens;
+    private final Clock clock;
+    private final double maxRate;
+    private final double minRate;
+    private final double recoveryPerSecond;
+    private final Duration passTtl;
+    private final int maxEvents;
+    private final ConcurrentMap<Long, EventQueue> queues = new ConcurrentHashMap<>();
+    private final AtomicLong successes = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private final Counter joinedCounter;
+    private final Counter admittedCounter;
+    private final Counter succeededCounter;
+    private final Counter failedCounter;
+    private volatile double rate;
+    private volatile double throughput;
+    private volatile int backloggedEvents;
+    private long lastTickMillis;
+    private long lastDecreaseMillis;
+    private long lastSweepMillis;
+
+    @Autowired
+    public WaitingRoom(QueueTokens tokens,
+                       MeterRegistry meterRegistry,
+                       @Value("${gateway.waiting-room.admission-rate:200}") double maxRate,
+                       @Value("${gateway.waiting-room.min-admission-rate:10}") double minRate,
+                       @Value("${gateway.waiting-room.recovery-per-second:10}") double recoveryPerSecond,
+                       @Value("${gateway.waiting-room.pass-ttl-seconds:300}") long passTtlSeconds,
+                       @Value("${gateway.waiting-room.max-events:10000}") int maxEvents) {
+        this(tokens, meterRegistry, maxRate, minRate, recoveryPerSecond, Duration.ofSeconds(passTtlSeconds),
+                maxEvents, Clock.systemUTC());
+    }
+
+    WaitingRoom(QueueTokens tokens, MeterRegistry meterRegistry, double maxRate, double minRate,
+                double recoveryPerSecond, Duration passTtl, int maxEvents, Clock clock) {
+        this.tokens = tokens;
+        this.clock = clock;
+        this.maxRate = maxRate;
+        this.minRate = Math.min(minRate, maxRate);
+        this.recoveryPerSecond = recoveryPerSecond;
+        this.passTtl = passTtl;
+        this.maxEvents = maxEvents;
+        this.rate = maxRate;
+        this.lastTickMillis = clock.millis();
+        this.lastSweepMillis = lastTickMillis;
+
+        Gauge.builder("gateway.waiting.room.admission.rate", this, room -> room.rate)
+                .description("Waiters admitted per second, across all events")
+                .register(meterRegistry);
+        Gauge.builder("gateway.waiting.room.waiting", this, WaitingRoom::waiting)
+                .description("Waiters not yet admitted, across all events")
+                .register(meterRegistry);
+        Gauge.builder("gateway.waiting.room.downstream.throughput", this, room -> room.throughput)
+                .description("Bookings forwarded per second that booking-service completed")
+                .register(meterRegistry);
+        this.joinedCounter = Counter.builder("gateway.waiting.room.joined").register(meterRegistry);
+        this.admittedCounter = Counter.builder("gateway.waiting.room.admitted").register(meterRegistry);
+        this.succeededCounter = Counter.builder("gateway.waiting.room.downstream")
+                .tag("outcome", "success")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("gateway.waiting.room.downstream")
+                .tag("outcome", "failure")
+                .register(meterRegistry);
+    }
+
+    // =============================================
+    // WAITERS
+    // =============================================
+
+    /**
+     * Puts the caller at the back of the event's queue, or returns their place if they already have one.
+     *
+     * @throws IllegalStateException if the gateway already holds the maximum number of queues
+     */
+    public QueueStatus join(long eventId, String subject) {
+        final long now = clock.millis();
+        final Waiter[] waiter = new Waiter[1];
+        final boolean[] added = new boolean[1];
+        // Joining inside compute keeps a queue from being dropped between lookup and increment
+        final EventQueue queue = queues.compute(eventId, (id, existing) -> {
+            final EventQueue joined = existing != null ? existing : newQueue();
+            waiter[0] = joined.waiters.compute(key(subject), (key, current) -> {
+                if (current != null && !lapsed(current, now)) {
+                    return current;
+                }
+                added[0] = true;
+                return new Waiter(joined.joined.incrementAndGet());
+            });
+            joined.lastJoinMillis = now;
+            return joined;
+        });
+        if (added[0]) {
+            joinedCounter.increment();
+        }
+        final String token = tokens.issueTicket(new QueueTokens.Ticket(eventId, queue.id, waiter[0].position), subject);
+        return status(eventId, queue, token, waiter[0], subject);
+    }
+
+    /**
+     * Reports the waiter's place; once admitted, the status carries their admission pass.
+     *
+     * @throws IllegalArgumentException if the token was not issued to this caller for this event
+     * @throws QueueExpiredException    if the token's queue has been dropped, or its pass used or expired
+     */
+    public QueueStatus status(long eventId, String token, String subject) {
+        final QueueTokens.Ticket ticket = tokens.readTicket(token, subject)
+                .filter(t -> t.eventId() == eventId)
+                .orElseThrow(() -> new IllegalArgumentException("Invalid queue token for event " + eventId));
+        final EventQueue queue = queues.get(eventId);
+        final Waiter waiter = queue == null || queue.id != ticket.queueId() ? null : queue.waiters.get(key(subject));
+        if (waiter == null || waiter.position != ticket.position() || lapsed(waiter, clock.millis())) {
+            throw new QueueExpiredException("Queue token for event " + eventId + " has expired, join again");
+        }
+        return status(eventId, queue, token, waiter, subject);
+    }
+
+    public boolean isAdmitted(String pass, long eventId, String subject) {
+        return holder(queues.get(eventId), pass, eventId, subject) != null;
+    }
+
+    /**
+     * Spends the pass on a booking; it is refused from then on and its holder leaves the queue.
+     *
+     * @return false if the pass is not valid for this caller and event, or has already been used
+     */
+    public boolean usePass(String pass, long eventId, String subject) {
+        final EventQueue queue = queues.get(eventId);
+        final Waiter waiter = holder(queue, pass, eventId, subject);
+        return waiter != null && queue.waiters.remove(key(subject), waiter);
+    }
+
+    // =============================================
+    // ADMISSION
+    // =============================================
+
+    /**
+     * Records how a booking forwarded to booking-service ended; failures slow admission down.
+     */
+    public void recordDownstream(boolean succeeded) {
+        if (succeeded) {
+            successes.incrementAndGet();
+            succeededCounter.increment();
+        } else {
+            failures.incrementAndGet();
+            failedCounter.increment();
+        }
+    }
+
+    @Scheduled(fixedRateString = "${gateway.waiting-room.tick-ms:100}")
+    public void tick() {
+        tick(clock.millis());
+    }
+
+    synchronized void tick(long now) {
+        // A stalled scheduler must not release a burst when it resumes
+        final double elapsed = Math.min(Math.max(now - lastTickMillis, 0), 1_000) / 1_000.0;
+        lastTickMillis = now;
+        adjustRate(now, elapsed);
+        if (now - lastSweepMillis >= SWEEP_INTERVAL_MILLIS) {
+            lastSweepMillis = now;
+            queues.values().forEach(queue -> sweep(queue, now));
+        }
+
+        final List<EventQueue> backlogged = new ArrayList<>();
+        queues.forEach((eventId, queue) -> {
+            if (queue.backlog() > 0) {
+                backlogged.add(queue);
+            } else if (queue.waiters.isEmpty() && now - queue.lastJoinMillis > IDLE_MILLIS) {
+                queues.computeIfPresent(eventId, (id, current) -> current.backlog() == 0
+                        && current.waiters.isEmpty() && now - current.lastJoinMillis > IDLE_MILLIS ? null : current);
+            }
+        });
+        backloggedEvents = backlogged.size();
+        if (backlogged.isEmpty()) {
+            return;
+        }
+
+        final double share = rate * elapsed / backlogged.size();
+        for (EventQueue queue : backlogged) {
+            final long backlog = queue.backlog();
+            queue.credit += share;
+            final long admit = Math.min((long) queue.credit, backlog);
+            queue.admitted += admit;
+            // Credit is not banked for a queue that has drained
+            queue.credit = admit == backlog ? 0 : queue.credit - admit;
+            admittedCounter.increment(admit);
+        }
+    }
+
+    double rate() {
+        return rate;
+    }
+
+    // =============================================
+    // PRIVATE HELPER METHODS
+    // =============================================
+
+    private void adjustRate(long now, double elapsed) {
+        final long succeeded = successes.getAndSet(0);
+        final long failed = failures.getAndSet(0);
+        if (elapsed > 0) {
+            throughput = throughput * 0.8 + succeeded / elapsed * 0.2;
+        }
+        if (failed > 0) {
+            if (now - lastDecreaseMillis >= DECREASE_INTERVAL_MILLIS && rate > minRate) {
+                rate = Math.max(minRate, rate / 2);
+                lastDecreaseMillis = now;
+                log.warn("Booking service failing, admitting {} waiters per second", rate);
+            }
+        } else if (succeeded > 0 && rate < maxRate) {
+            rate = Math.min(maxRate, rate + recoveryPerSecond * elapsed);
+        }
+    }
+
+    private QueueStatus status(long eventId, EventQueue queue, String token, Waiter waiter, String subject) {
+        final long position = waiter.position;
+        final long ahead = Math.max(0, position - queue.admitted - 1);
+        if (position <= queue.admitted) {
+            final long expiresAt = passExpiresAt(waiter, clock.millis());
+            // Signed from the same fields, so every poll returns the same pass
+            final String pass = tokens.issuePass(new QueueTokens.Pass(eventId, queue.id, position, expiresAt), subject);
+            return new QueueStatus(eventId, token, position, 0, true, 0, 0, pass, Instant.ofEpochMilli(expiresAt));
+        }
+        final double share = rate / Math.max(1, backloggedEvents);
+        final long waitSeconds = (long) Math.ceil((ahead + 1) / share);
+        final long pollAfterSeconds = Math.max(1, Math.min(MAX_POLL_SECONDS, waitSeconds / 4));
+        return new QueueStatus(eventId, token, position, ahead, false, waitSeconds, pollAfterSeconds, null, null);
+    }
+
+    private Waiter holder(EventQueue queue, String pass, long eventId, String subject) {
+        final QueueTokens.Pass read = tokens.readPass(pass, subject).orElse(null);
+        if (queue == null || read == null || read.eventId() != eventId || read.queueId() != queue.id
+                || read.expiresAtMillis() <= clock.millis()) {
+            return null;
+        }
+        final Waiter waiter = queue.waiters.get(key(subject));
+        return waiter != null && waiter.position == read.position() ? waiter : null;
+    }
+
+    /**
+     * Fixes when the waiter's pass expires the first time they are seen admitted.
+     */
+    private long passExpiresAt(Waiter waiter, long now) {
+        waiter.passExpiresAtMillis.compareAndSet(0, now + passTtl.toMillis());
+        return waiter.passExpiresAtMillis.get();
+    }
+
+    private static boolean lapsed(Waiter waiter, long now) {
+        final long expiresAt = waiter.passExpiresAtMillis.get();
+        return expiresAt != 0 && expiresAt <= now;
+    }
+
+    private void sweep(EventQueue queue, long now) {
+        final long admitted = queue.admitted;
+        // Starts the pass of admitted waiters who have not polled yet, so they too are dropped in time
+        queue.waiters.values().removeIf(waiter -> waiter.position <= admitted && passExpiresAt(waiter, now) <= now);
+    }
+
+    private static String key(String subject) {
+        return subject == null ? "" : subject;
+    }
+
+    private EventQueue newQueue() {
+        if (queues.size() >= maxEvents) {
+            throw new IllegalStateException("Too many events with a waiting room, try again later");
+        }
+        return new EventQueue(ThreadLocalRandom.current().nextLong());
+    }
+
+    private double waiting() {
+        return queues.values().stream().mapToLong(EventQueue::backlog).sum();
+    }
+
+    private static final class EventQueue {
+        private final long id;
+        private final AtomicLong joined = new AtomicLong();
+        // By subject, until their pass is used or expires
+        private final ConcurrentMap<String, Waiter> waiters = new ConcurrentHashMap<>();
+        // Only advanced by the tick
+        private volatile long admitted;
+        private double credit;
+        private volatile long lastJoinMillis;
+
+        private EventQueue(long id) {
+            this.id = id;
+        }
+
+        private long backlog() {
+            return joined.get() - admitted;
+        }
+    }
+
+    private static final class Waiter {
+        private final long position;
+        private final AtomicLong passExpiresAtMillis = new AtomicLong();
+
+        private Waiter(long position) {
+            this.position = position;
+        }
+    }
+
+    public static class QueueExpiredException extends RuntimeException {
+        public QueueExpiredException(String message) {
+            super(message);
+        }
+    }
+}
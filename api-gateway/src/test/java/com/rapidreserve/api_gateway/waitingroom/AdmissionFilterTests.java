@@ -0,0 +1,117 @@
+package com.rapidreserve.api_gateway.waitingroom;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.function.HandlerFunction;
+import org.springframework.web.servlet.function.ServerRequest;
+import org.springframework.web.servlet.function.ServerResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdmissionFilterTests {
+
+    private final WaitingRoom waitingRoom = mock(WaitingRoom.class);
+    private final AdmissionFilter filter = new AdmissionFilter(waitingRoom, new ObjectMapper(), true);
+    private final AtomicReference<String> forwardedBody = new AtomicReference<>();
+    private final HandlerFunction<ServerResponse> bookingService = request -> {
+        forwardedBody.set(new String(request.servletRequest().getInputStream().readAllBytes(),
+                StandardCharsets.UTF_8));
+        return ServerResponse.status(HttpStatus.CREATED).build();
+    };
+
+    @Test
+    void forwardsTheUntouchedBodyWithAPassForTheEvent() throws Exception {
+        admit("pass-7", 7L);
+        final String body = "{\"userId\":1,\"eventId\":7,\"ticketCount\":2}";
+
+        final ServerResponse response = filter.filter(request(body, "pass-7"), bookingService);
+
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(forwardedBody.get()).isEqualTo(body);
+        verify(waitingRoom).usePass("pass-7", 7L, "alice");
+        verify(waitingRoom).recordDownstream(true);
+    }
+
+    @Test
+    void turnsAwayBookingsWithoutAPassForEveryEvent() throws Exception {
+        admit("pass-10", 10L);
+        final String batch = "{\"userId\":1,\"items\":[{\"eventId\":10,\"ticketCount\":1},"
+                + "{\"eventId\":\"20\",\"ticketCount\":1}]}";
+
+        final ServerResponse response = filter.filter(request(batch, "pass-10"), bookingService);
+
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(response.headers().getFirst("Retry-After")).isEqualTo("1");
+        assertThat(forwardedBody.get()).isNull();
+        // The pass it did have is kept for another try
+        verify(waitingRoom, never()).usePass(any(), anyLong(), any());
+        verify(waitingRoom, never()).recordDownstream(any(Boolean.class));
+    }
+
+    @Test
+    void turnsAwayAPassThatWasUsedMeanwhile() throws Exception {
+        when(waitingRoom.isAdmitted("pass-7", 7L, "alice")).thenReturn(true);
+        when(waitingRoom.usePass("pass-7", 7L, "alice")).thenReturn(false);
+
+        final ServerResponse response = filter.filter(request("{\"eventId\":7}", "pass-7"), bookingService);
+
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(forwardedBody.get()).isNull();
+    }
+
+    @Test
+    void acceptsOnePassPerEventInOneHeader() throws Exception {
+        when(waitingRoom.isAdmitted(any(), anyLong(), eq("alice"))).thenAnswer(invocation ->
+                invocation.getArgument(0).equals("pass-" + invocation.getArgument(1)));
+        when(waitingRoom.usePass(any(), anyLong(), eq("alice"))).thenAnswer(invocation ->
+                invocation.getArgument(0).equals("pass-" + invocation.getArgument(1)));
+        final String batch = "{\"userId\":1,\"items\":[{\"eventId\":10,\"ticketCount\":1},"
+                + "{\"eventId\":20,\"ticketCount\":1}]}";
+
+        final ServerResponse response = filter.filter(request(batch, "pass-10, pass-20"), bookingService);
+
+        assertThat(response.statusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(forwardedBody.get()).isEqualTo(batch);
+    }
+
+    @Test
+    void reportsBookingServiceFailuresToTheWaitingRoom() {
+        admit("pass-7", 7L);
+        final HandlerFunction<ServerResponse> unreachable = request -> {
+            throw new IllegalStateException("Connection refused");
+        };
+
+        assertThatThrownBy(() -> filter.filter(request("{\"eventId\":7}", "pass-7"), unreachable))
+                .hasMessage("Connection refused");
+        verify(waitingRoom).recordDownstream(false);
+    }
+
+    private void admit(final String pass, final long eventId) {
+        when(waitingRoom.isAdmitted(pass, eventId, "alice")).thenReturn(true);
+        when(waitingRoom.usePass(pass, eventId, "alice")).thenReturn(true);
+    }
+
+    private static ServerRequest request(final String body, final String pass) {
+        final MockHttpServletRequest servletRequest = new MockHttpServletRequest("POST", "/api/v1/booking");
+        servletRequest.setContentType("application/json");
+        servletRequest.setContent(body.getBytes(StandardCharsets.UTF_8));
+        servletRequest.addHeader(AdmissionFilter.ADMISSION_PASS, pass);
+        servletRequest.setUserPrincipal(() -> "alice");
+        return ServerRequest.create(servletRequest, List.of(new MappingJackson2HttpMessageConverter()));
+    }
+}
@@ -0,0 +1,220 @@
+package com.rapidreserve.api_gateway.waitingroom;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+class WaitingRoomTests {
+
+    private final MutableClock clock = new MutableClock();
+    private final QueueTokens tokens = new QueueTokens("test-secret".getBytes(StandardCharsets.UTF_8));
+    private final WaitingRoom waitingRoom = new WaitingRoom(tokens, new SimpleMeterRegistry(), 100, 10, 10,
+            Duration.ofMinutes(5), 3, clock);
+
+    @Test
+    void admitsInJoinOrderAtTheAdmissionRate() {
+        final List<QueueStatus> joined = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            joined.add(waitingRoom.join(7L, "user-" + i));
+        }
+        assertThat(joined).extracting(QueueStatus::position).startsWith(1L, 2L, 3L).endsWith(250L);
+        assertThat(joined.get(249).ahead()).isEqualTo(249);
+        assertThat(joined.get(249).estimatedWaitSeconds()).isEqualTo(3);
+
+        // 100 per second, one tick every 100 ms
+        for (int tick = 0; tick < 10; tick++) {
+            advance(100);
+        }
+
+        assertThat(status(joined.get(99), 99).admitted()).isTrue();
+        final QueueStatus next = status(joined.get(100), 100);
+        assertThat(next.admitted()).isFalse();
+        assertThat(next.ahead()).isZero();
+        assertThat(next.admissionPass()).isNull();
+        assertThat(status(joined.get(249), 249).ahead()).isEqualTo(149);
+    }
+
+    @Test
+    void sharesTheRateBetweenEventsAndIgnoresSchedulerStalls() {
+        for (int i = 0; i < 100; i++) {
+            waitingRoom.join(1L, "a-" + i);
+            waitingRoom.join(2L, "b-" + i);
+        }
+        final QueueStatus last = waitingRoom.join(2L, "b-100");
+
+        // A 10 second stall admits one second's worth, split between the two events
+        advance(10_000);
+
+        assertThat(waitingRoom.status(2L, last.token(), "b-100").ahead()).isEqualTo(50);
+    }
+
+    @Test
+    void anAdmittedWaiterGetsAPassForTheirEventOnly() {
+        final QueueStatus joined = waitingRoom.join(7L, "alice");
+        advance(100);
+
+        final QueueStatus admitted = waitingRoom.status(7L, joined.token(), "alice");
+
+        assertThat(admitted.admitted()).isTrue();
+        assertThat(admitted.passExpiresAt()).isEqualTo(clock.instant().plus(Duration.ofMinutes(5)));
+        assertThat(waitingRoom.isAdmitted(admitted.admissionPass(), 7L, "alice")).isTrue();
+        assertThat(waitingRoom.isAdmitted(admitted.admissionPass(), 8L, "alice")).isFalse();
+        assertThat(waitingRoom.isAdmitted(admitted.admissionPass(), 7L, "mallory")).isFalse();
+        // A queue token is not a pass
+        assertThat(waitingRoom.isAdmitted(joined.token(), 7L, "alice")).isFalse();
+
+        clock.advance(Duration.ofMinutes(5));
+        assertThat(waitingRoom.isAdmitted(admitted.admissionPass(), 7L, "alice")).isFalse();
+        assertThatThrownBy(() -> waitingRoom.status(7L, joined.token(), "alice"))
+                .isInstanceOf(WaitingRoom.QueueExpiredException.class);
+    }
+
+    @Test
+    void anAdmittedWaiterGetsOnePassThatBooksOnce() {
+        final QueueStatus joined = waitingRoom.join(7L, "alice");
+        advance(100);
+        final QueueStatus admitted = waitingRoom.status(7L, joined.token(), "alice");
+
+        // Polling again does not extend or add to it
+        clock.advance(Duration.ofMinutes(1));
+        final QueueStatus polledAgain = waitingRoom.status(7L, joined.token(), "alice");
+        assertThat(polledAgain.admissionPass()).isEqualTo(admitted.admissionPass());
+        assertThat(polledAgain.passExpiresAt()).isEqualTo(admitted.passExpiresAt());
+
+        assertThat(waitingRoom.usePass(admitted.admissionPass(), 7L, "alice")).isTrue();
+        assertThat(waitingRoom.usePass(admitted.admissionPass(), 7L, "alice")).isFalse();
+        assertThat(waitingRoom.isAdmitted(admitted.admissionPass(), 7L, "alice")).isFalse();
+        assertThatThrownBy(() -> waitingRoom.status(7L, joined.token(), "alice"))
+                .isInstanceOf(WaitingRoom.QueueExpiredException.class);
+        // Booking again means queueing again
+        assertThat(waitingRoom.join(7L, "alice").position()).isEqualTo(2);
+    }
+
+    @Test
+    void joiningAgainKeepsTheSamePlace() {
+        final QueueStatus first = waitingRoom.join(7L, "alice");
+
+        assertThat(waitingRoom.join(7L, "alice").position()).isEqualTo(first.position());
+        assertThat(waitingRoom.join(7L, "bob").position()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsTokensThatWereTamperedWithOrIssuedToSomeoneElse() {
+        final String token = waitingRoom.join(7L, "alice").token();
+        // Moved to the front, keeping the original signature
+        final String[] payload = decode(token.substring(0, token.indexOf('.'))).split("\\.");
+        final String forged = encode(payload[0] + "." + payload[1] + "." + payload[2] + ".0")
+                + token.substring(token.indexOf('.'));
+
+        assertThatThrownBy(() -> waitingRoom.status(7L, token, "mallory"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> waitingRoom.status(8L, token, "alice"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> waitingRoom.status(7L, forged, "alice"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> waitingRoom.status(7L, "not-a-token", "alice"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void halvesTheRateWhenBookingsFailAndRecoversWhileTheySucceed() {
+        waitingRoom.recordDownstream(false);
+        advance(100);
+        assertThat(waitingRoom.rate()).isEqualTo(50);
+
+        // Further failures within the second do not cut it again
+        waitingRoom.recordDownstream(false);
+        advance(100);
+        assertThat(waitingRoom.rate()).isEqualTo(50);
+
+        for (int tick = 0; tick < 10; tick++) {
+            waitingRoom.recordDownstream(true);
+            advance(100);
+        }
+        assertThat(waitingRoom.rate()).isCloseTo(60, offset(1e-9));
+
+        for (int tick = 0; tick < 100; tick++) {
+            waitingRoom.recordDownstream(false);
+            advance(1_000);
+        }
+        assertThat(waitingRoom.rate()).isEqualTo(10);
+    }
+
+    @Test
+    void dropsDrainedQueuesOnceIdleAndExpiresTheirTokens() {
+        final QueueStatus joined = waitingRoom.join(7L, "alice");
+        advance(100);
+        advance(61_000);
+        // Kept while the admitted waiter's pass is good, even though they never asked for it
+        assertThat(waitingRoom.status(7L, joined.token(), "alice").admitted()).isTrue();
+        advance(300_000);
+
+        assertThatThrownBy(() -> waitingRoom.status(7L, joined.token(), "alice"))
+                .isInstanceOf(WaitingRoom.QueueExpiredException.class);
+        // A new queue starts again from the front
+        assertThat(waitingRoom.join(7L, "bob").position()).isEqualTo(1);
+    }
+
+    @Test
+    void capsTheNumberOfQueues() {
+        waitingRoom.join(1L, "a");
+        waitingRoom.join(2L, "a");
+        waitingRoom.join(3L, "a");
+
+        assertThatThrownBy(() -> waitingRoom.join(4L, "a")).isInstanceOf(IllegalStateException.class);
+        assertThat(waitingRoom.join(3L, "b").position()).isEqualTo(2);
+    }
+
+    private QueueStatus status(final QueueStatus joined, final int user) {
+        return waitingRoom.status(joined.eventId(), joined.token(), "user-" + user);
+    }
+
+    private void advance(final long millis) {
+        clock.advance(Duration.ofMillis(millis));
+        waitingRoom.tick(clock.millis());
+    }
+
+    private static String decode(final String part) {
+        return new String(Base64.getUrlDecoder().decode(part), StandardCharsets.US_ASCII);
+    }
+
+    private static String encode(final String part) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(part.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2026-06-01T10:00:00Z");
+
+        void advance(final Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(final ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.rapidreserve.booking_service.client;
+
+import com.rapidreserve.booking_service.event.InventoryChangeEvent;
+import com.rapidreserve.booking_service.response.InventoryResponse;
+import com.rapidreserve.booking_service.response.VenueResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Local copy of event inventory, kept up to date from inventory-service's change stream.
+ * <p>
+ * Every instance reads the compacted topic from the beginning under its own consumer group, so
+ * the replica is rebuilt on startup. Stream updates always win; an entry filled from an HTTP
+ * response after a cold miss is only kept until the stream delivers that event.
+ */
+@Component
+@Slf4j
+public class InventoryReplica {
+
+    private final Map<Long, InventoryResponse> events = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final Counter hits;
+    private final Counter misses;
+    private final Timer lag;
+    private final AtomicLong lastLagMillis = new AtomicLong();
+    private final AtomicLong lastAppliedAt = new AtomicLong();
+
+    @Autowired
+    public InventoryReplica(final MeterRegistry meterRegistry,
+                            @Value("${inventory.replica.enabled:true}") final boolean enabled) {
+        this.enabled = enabled;
+        this.hits = Counter.builder("inventory.replica.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("inventory.replica.lookups").tag("result", "miss").register(meterRegistry);
+        this.lag = Timer.builder("inventory.replica.lag")
+                .description("Time from inventory-service taking a snapshot to it being applied here")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("inventory.replica.lag.last", lastLagMillis, AtomicLong::get)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("inventory.replica.since.last.update", lastAppliedAt,
+                        appliedAt -> appliedAt.get() == 0 ? Double.NaN : System.currentTimeMillis() - appliedAt.get())
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("inventory.replica.size", events, Map::size).register(meterRegistry);
+    }
+
+    public Optional<InventoryResponse> get(final Long eventId) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        final InventoryResponse inventory = events.get(eventId);
+        (inventory == null ? misses : hits).increment();
+        return Optional.ofNullable(inventory);
+    }
+
+    /**
+     * Stores an HTTP response after a cold miss unless the stream has delivered the event meanwhile.
+     */
+    public void fill(final Long eventId, final InventoryResponse inventory) {
+        if (enabled && inventory != null) {
+            events.putIfAbsent(eventId, inventory);
+        }
+    }
+
+    @KafkaListener(topics = "inventory-changes",
+            groupId = "booking-inventory-replica-${random.uuid}",
+            autoStartup = "${inventory.replica.enabled:true}",
+            properties = "auto.offset.reset=earliest")
+    public void onInventoryChange(final ConsumerRecord<String, InventoryChangeEvent> record) {
+        final Long eventId = Long.valueOf(record.key());
+        final InventoryChangeEvent change = record.value();
+        if (change == null) {
+            events.remove(eventId);
+            log.debug("Removed event {} from inventory replica", eventId);
+            return;
+        }
+        events.put(eventId, mapToInventoryResponse(change));
+
+        final long now = System.currentTimeMillis();
+        lastAppliedAt.set(now);
+        if (change.getPublishedAt() != null) {
+            final long lagMillis = Math.max(now - change.getPublishedAt(), 0);
+            lastLagMillis.set(lagMillis);
+            lag.record(Duration.ofMillis(lagMillis));
+        }
+    }
+
+    private InventoryResponse mapToInventoryResponse(final InventoryChangeEvent change) {
+        return InventoryResponse.builder()
+                .eventId(change.getEventId())
+                .event(change.getEvent())
+                .venue(VenueResponse.builder()
+                        .id(change.getVenueId())
+                        .name(change.getVenueName())
+                        .totalCapacity(change.getVenueTotalCapacity())
+                        .build())
+                .ticketPrice(change.getTicketPrice())
+                .totalCapacity(change.getTotalCapacity())
+                .availableCapacity(change.getAvailableCapacity())
+                .build();
+    }
+}
@@ -1,33 +1,143 @@
 package com.rapidreserve.booking_service.client;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rapidreserve.booking_service.response.HoldResponse;
 import com.rapidreserve.booking_service.response.InventoryResponse;
-import org.springframework.beans.factory.annotation.Value;
+import com.rapidreserve.inventory_client.InventoryClientException;
+import com.rapidreserve.inventory_client.InventoryHttpClient;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @Service
 public class InventoryServiceClient {
 
-    @Value("${inventory.service.url}")
-    private String inventoryServiceUrl;
+    private final InventoryHttpClient inventoryHttpClient;
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final InventoryReplica inventoryReplica;
 
+    @Autowired
+    public InventoryServiceClient(final InventoryHttpClient inventoryHttpClient,
+                                  final InventoryReplica inventoryReplica) {
+        this.inventoryHttpClient = inventoryHttpClient;
+        this.inventoryReplica = inventoryReplica;
+    }
+
+    /**
+     * Served from the local replica; only a cold miss goes to inventory-service over HTTP.
+     */
     public InventoryResponse getInventory(final Long eventId){
-        final RestTemplate restTemplate = new RestTemplate();
-        String url = inventoryServiceUrl + "/event/" + eventId;
-
-        // Get the response as a Map
-        Map responseBody = restTemplate.getForObject(url, Map.class);
-
-        if (responseBody != null && responseBody.containsKey("data")) {
-            // Convert the "data" map to InventoryResponse using ObjectMapper
-            Map<String, Object> data = (Map<String, Object>) responseBody.get("data");
-            return objectMapper.convertValue(data, InventoryResponse.class);
-        } else {
-            throw new RuntimeException("Invalid response from inventory service");
+        return inventoryReplica.get(eventId).orElseGet(() -> {
+            InventoryResponse inventory = fetchInventory(eventId);
+            inventoryReplica.fill(eventId, inventory);
+            return inventory;
+        });
+    }
+
+    /**
+     * Like {@link #getInventory}, but a cold miss is fetched on a virtual thread. Cancelling the
+     * future aborts the fetch.
+     */
+    public CompletableFuture<InventoryResponse> getInventoryAsync(final Long eventId) {
+        return inventoryReplica.get(eventId)
+                .map(CompletableFuture::completedFuture)
+                .orElseGet(() -> {
+                    // Hand out the fetch itself rather than a dependent stage, so cancelling reaches it
+                    final CompletableFuture<InventoryResponse> fetch = fetchInventoryAsync(eventId);
+                    fetch.thenAccept(inventory -> inventoryReplica.fill(eventId, inventory));
+                    return fetch;
+                });
+    }
+
+    /**
+     * Inventory of several events, keyed by event id. The replica answers what it can; the rest
+     * is fetched in a single call.
+     */
+    public Map<Long, InventoryResponse> getInventories(final Collection<Long> eventIds) {
+        final Map<Long, InventoryResponse> inventories = new HashMap<>();
+        final List<Long> missing = new ArrayList<>();
+        for (Long eventId : eventIds) {
+            inventoryReplica.get(eventId).ifPresentOrElse(inventory -> inventories.put(eventId, inventory),
+                    () -> missing.add(eventId));
+        }
+        if (!missing.isEmpty()) {
+            for (InventoryResponse inventory : fetchInventories(missing)) {
+                inventoryReplica.fill(inventory.getEventId(), inventory);
+                inventories.put(inventory.getEventId(), inventory);
+            }
+        }
+        return inventories;
+    }
+
+    public List<InventoryResponse> fetchInventories(final Collection<Long> eventIds) {
+        final String ids = eventIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        return List.of(inventoryHttpClient.get("getInventories", "/events:batch?ids=" + ids,
+                InventoryResponse[].class));
+    }
+
+    public InventoryResponse fetchInventory(final Long eventId){
+        return inventoryHttpClient.get("getInventory", "/event/" + eventId, InventoryResponse.class);
+    }
+
+    public CompletableFuture<InventoryResponse> fetchInventoryAsync(final Long eventId) {
+        return inventoryHttpClient.getAsync("getInventory", "/event/" + eventId, InventoryResponse.class);
+    }
+
+    /**
+     * Takes the tickets from inventory immediately; they are given back if the hold is
+     * released or expires before it is confirmed.
+     */
+    public HoldResponse placeHold(final Long eventId, final Long tickets) {
+        return inventoryHttpClient.post("placeHold", "/event/" + eventId + "/holds", Map.of("tickets", tickets),
+                HoldResponse.class);
+    }
+
+    public CompletableFuture<HoldResponse> placeHoldAsync(final Long eventId, final Long tickets) {
+        return inventoryHttpClient.postAsync("placeHold", "/event/" + eventId + "/holds", Map.of("tickets", tickets),
+                HoldResponse.class);
+    }
+
+    /**
+     * Current state of a hold; empty when inventory-service does not know it.
+     */
+    public Optional<HoldResponse> getHold(final String holdId) {
+        try {
+            return Optional.of(inventoryHttpClient.get("getHold", "/holds/" + holdId, HoldResponse.class));
+        } catch (InventoryClientException e) {
+            if (e.isNotFound()) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    public HoldResponse confirmHold(final String holdId) {
+        return inventoryHttpClient.post("confirmHold", "/holds/" + holdId + "/confirm", null, HoldResponse.class);
+    }
+
+    public HoldResponse releaseHold(final String holdId) {
+        return inventoryHttpClient.delete("releaseHold", "/holds/" + holdId, HoldResponse.class);
+    }
+
+    /**
+     * Gives a hold's tickets back, whether it is still pending or already confirmed. Safe to
+     * repeat; empty when inventory-service does not know the hold.
+     */
+    public Optional<HoldResponse> cancelHold(final String holdId) {
+        try {
+            return Optional.of(inventoryHttpClient.post("cancelHold", "/holds/" + holdId + "/cancel", null,
+                    HoldResponse.class));
+        } catch (InventoryClientException e) {
+            if (e.isNotFound()) {
+                return Optional.empty();
+            }
+            throw e;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,28 @@
+package com.rapidreserve.booking_service.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rapidreserve.inventory_client.InventoryClientSettings;
+import com.rapidreserve.inventory_client.InventoryHttpClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+public class InventoryClientConfig {
+
+    @Bean(destroyMethod = "close")
+    public InventoryHttpClient inventoryHttpClient(@Value("${inventory.service.url}") final String url,
+                                                   @Value("${inventory.client.connect-timeout-ms:1000}") final long connectTimeoutMillis,
+                                                   @Value("${inventory.client.read-timeout-ms:3000}") final long readTimeoutMillis,
+                                                   @Value("${inventory.client.max-connections:50}") final int maxConnections,
+                                                   @Value("${inventory.client.idle-timeout-seconds:30}") final long idleTimeoutSeconds,
+                                                   final ObjectMapper objectMapper,
+                                                   final MeterRegistry meterRegistry) {
+        return new InventoryHttpClient(new InventoryClientSettings(url, Duration.ofMillis(connectTimeoutMillis),
+                Duration.ofMillis(readTimeoutMillis), maxConnections, Duration.ofSeconds(idleTimeoutSeconds)),
+                objectMapper, meterRegistry);
+    }
+}
@@ -0,0 +1,97 @@
+package com.rapidreserve.booking_service.config;
+
+import com.rapidreserve.read_replica.ReadYourWritesFilter;
+import com.rapidreserve.read_replica.ReplicaLagMonitor;
+import com.rapidreserve.read_replica.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Routes read-only transactions, such as booking lookups, to a read replica of the booking
+ * database. The primary keeps the usual {@code spring.datasource.*} settings; the replica is
+ * configured under {@code booking.read-replica.*}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "booking.read-replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(final DataSourceProperties properties) {
+        final HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("booking-primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(@Value("${booking.read-replica.url}") final String url,
+                                              @Value("${booking.read-replica.username:}") final String username,
+                                              @Value("${booking.read-replica.password:}") final String password,
+                                              @Value("${booking.read-replica.pool-size:10}") final int poolSize) {
+        final HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("booking-replica");
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(final HikariDataSource primaryDataSource,
+                                               final HikariDataSource replicaDataSource,
+                                               @Value("${spring.application.name}") final String applicationName,
+                                               @Value("${booking.read-replica.max-lag-ms:1000}") final long maxLagMillis,
+                                               final MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(primaryDataSource, replicaDataSource, applicationName, maxLagMillis,
+                "booking", meterRegistry);
+    }
+
+    @Bean
+    public SchedulingConfigurer replicaHeartbeat(final ReplicaLagMonitor replicaLagMonitor,
+                                                 @Value("${booking.read-replica.heartbeat-interval-ms:250}") final long intervalMillis) {
+        return registrar -> registrar.addFixedDelayTask(replicaLagMonitor::check, Duration.ofMillis(intervalMillis));
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(final HikariDataSource primaryDataSource,
+                                                             final HikariDataSource replicaDataSource,
+                                                             final ReplicaLagMonitor replicaLagMonitor,
+                                                             final MeterRegistry meterRegistry) {
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor,
+                "booking", meterRegistry);
+    }
+
+    /**
+     * The datasource JPA, JDBC and the transaction manager see. Connections are only taken from the
+     * routing datasource at the first statement, once the transaction's read-only flag is known.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(final ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter() {
+        return new ReadYourWritesFilter();
+    }
+}
@@ -1,9 +1,15 @@
 package com.rapidreserve.booking_service.controller;
 
+import com.rapidreserve.booking_service.entity.Booking;
+import com.rapidreserve.booking_service.exception.IdempotencyConflictException;
+import com.rapidreserve.booking_service.request.BatchBookingRequest;
 import com.rapidreserve.booking_service.request.BookingRequest;
 import com.rapidreserve.booking_service.response.ApiResponse;
+import com.rapidreserve.booking_service.response.BookingPageResponse;
 import com.rapidreserve.booking_service.response.BookingResponse;
 import com.rapidreserve.booking_service.service.BookingService;
+import com.rapidreserve.booking_service.service.CustomerCache;
+import com.rapidreserve.booking_service.service.IdempotencyStore;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,17 +22,53 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    private final IdempotencyStore idempotencyStore;
+    private final CustomerCache customerCache;
 
     @Autowired
-    public BookingController(BookingService bookingService) {
+    public BookingController(BookingService bookingService, IdempotencyStore idempotencyStore,
+                             CustomerCache customerCache) {
         this.bookingService = bookingService;
+        this.idempotencyStore = idempotencyStore;
+        this.customerCache = customerCache;
     }
 
+    /**
+     * With an Idempotency-Key, a retry of the same request returns the original booking instead of creating another.
+     */
     @PostMapping(consumes = "application/json", produces = "application/json", path = "/booking")
-    public ResponseEntity<ApiResponse<BookingResponse>> createBooking(@RequestBody BookingRequest request) {
+    public ResponseEntity<ApiResponse<BookingResponse>> createBooking(
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @RequestBody BookingRequest request) {
         try {
-            BookingResponse booking = bookingService.createBooking(request);
+            BookingResponse booking = idempotencyKey == null
+                    ? bookingService.createBooking(request)
+                    : idempotencyStore.execute(idempotencyKey, request, () -> bookingService.createBooking(request));
             return ResponseEntity.ok(ApiResponse.success(booking, "Booking created successfully"));
+        } catch (IdempotencyConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(HttpStatus.CONFLICT.value(), e.getMessage()));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(HttpStatus.BAD_REQUEST.value(), e.getMessage()));
+        }
+    }
+
+    /**
+     * Books several events for one customer; either every booking is created or none is.
+     */
+    @PostMapping(consumes = "application/json", produces = "application/json", path = "/booking/batch")
+    public ResponseEntity<ApiResponse<List<BookingResponse>>> createBookings(
+            @RequestHeader(name = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @RequestBody BatchBookingRequest request) {
+        try {
+            List<BookingResponse> bookings = idempotencyKey == null
+                    ? bookingService.createBookings(request)
+                    : idempotencyStore.execute(idempotencyKey, request, () -> bookingService.createBookings(request));
+            return ResponseEntity.ok(ApiResponse.success(bookings, "Bookings created successfully"));
+        } catch (IdempotencyConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(HttpStatus.CONFLICT.value(), e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                     .body(ApiResponse.error(HttpStatus.BAD_REQUEST.value(), e.getMessage()));
@@ -44,11 +86,22 @@ public class BookingController {
         }
     }
 
+    /**
+     * A user's bookings newest first, a page at a time. Pass the nextCursor of a page as {@code cursor}
+     * to get the next one.
+     */
     @GetMapping("/booking/user/{userId}")
-    public ResponseEntity<ApiResponse<List<BookingResponse>>> getUserBookings(@PathVariable Long userId) {
+    public ResponseEntity<ApiResponse<BookingPageResponse>> getUserBookings(
+            @PathVariable Long userId,
+            @RequestParam(name = "status", required = false) Booking.BookingStatus status,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "limit", required = false) Integer limit) {
         try {
-            List<BookingResponse> bookings = bookingService.getUserBookings(userId);
+            BookingPageResponse bookings = bookingService.getUserBookings(userId, status, cursor, limit);
             return ResponseEntity.ok(ApiResponse.success(bookings, "User bookings retrieved successfully"));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error(HttpStatus.BAD_REQUEST.value(), e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(ApiResponse.error(HttpStatus.INTERNAL_SERVER_ERROR.value(), e.getMessage()));
@@ -87,4 +140,13 @@ public class BookingController {
                     .body(ApiResponse.error(HttpStatus.BAD_REQUEST.value(), e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Drops this instance's cached copy of a customer after it was changed outside booking-service.
+     */
+    @DeleteMapping("/booking/customer/{customerId}/cache")
+    public ResponseEntity<ApiResponse<String>> invalidateCustomer(@PathVariable Long customerId) {
+        customerCache.invalidate(customerId);
+        return ResponseEntity.ok(ApiResponse.success("Customer " + customerId + " invalidated", "Customer cache invalidated"));
+    }
+}
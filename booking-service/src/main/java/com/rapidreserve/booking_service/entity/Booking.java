@@ -14,7 +14,17 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "booking")
+// Inventory reconciliation scans bookings by updated_at and sums them per event;
+// a user's history is paged newest first, optionally for one status; pending bookings are
+// checked for expired holds oldest first
+@Table(name = "booking", indexes = {
+        @Index(name = "idx_booking_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_booking_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_booking_user_status_created", columnList = "user_id, status, created_at"),
+        @Index(name = "idx_booking_status_updated", columnList = "status, updated_at"),
+        @Index(name = "idx_booking_event_id", columnList = "event_id"),
+        @Index(name = "idx_booking_hold_release_pending", columnList = "hold_release_pending")
+})
 public class Booking {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -25,6 +35,12 @@ public class Booking {
     private Long ticketCount;
     private BigDecimal totalPrice;
 
+    // Inventory hold backing this booking's tickets
+    private String holdId;
+
+    // Set when the booking is cancelled, cleared once inventory-service has taken the tickets back
+    private Boolean holdReleasePending;
+
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
 
@@ -0,0 +1,27 @@
+package com.rapidreserve.booking_service.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Heartbeat row the read replica lag check writes on the primary and reads back from the replica.
+ * Mapped so the table exists wherever the booking schema is generated.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "replica_heartbeat")
+public class ReplicaHeartbeat {
+    @Id
+    @Column(length = 64)
+    private String source;
+
+    @Column(name = "beat_millis", nullable = false)
+    private Long beatMillis;
+}
@@ -18,6 +18,7 @@ public class BookingEvent {
     private Long eventId;
     private Long ticketCount;
     private BigDecimal totalPrice;
+    private String holdId;
     private String status;
     private LocalDateTime timestamp;
 }
@@ -0,0 +1,26 @@
+package com.rapidreserve.booking_service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryChangeEvent {
+    private Long eventId;
+    private String event;
+    private Long totalCapacity;
+    private Long availableCapacity;
+    private BigDecimal ticketPrice;
+    private Boolean hot;
+    private Long venueId;
+    private String venueName;
+    private Long venueTotalCapacity;
+    // Epoch millis when inventory-service took the snapshot
+    private Long publishedAt;
+}
@@ -0,0 +1,7 @@
+package com.rapidreserve.booking_service.exception;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
@@ -1,12 +1,88 @@
 package com.rapidreserve.booking_service.repository;
 
 import com.rapidreserve.booking_service.entity.Booking;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByUserId(Long userId);
-    List<Booking> findByUserIdAndStatus(Long userId, Booking.BookingStatus status);
-}
\ No newline at end of file
+    /**
+     * One keyset page of a user's history, newest first: bookings created before the cursor, or at
+     * the same instant with a lower id. Served from idx_booking_user_created.
+     */
+    @Query("SELECT " + HISTORY_COLUMNS + " FROM Booking b " +
+            "WHERE b.userId = :userId " +
+            "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+            "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BookingHistoryView> findHistoryPage(@Param("userId") Long userId,
+                                             @Param("createdAt") LocalDateTime createdAt,
+                                             @Param("id") Long id,
+                                             Limit limit);
+
+    /**
+     * Same page restricted to one status, served from idx_booking_user_status_created.
+     */
+    @Query("SELECT " + HISTORY_COLUMNS + " FROM Booking b " +
+            "WHERE b.userId = :userId AND b.status = :status " +
+            "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+            "ORDER BY b.createdAt DESC, b.id DESC")
+    List<BookingHistoryView> findHistoryPageByStatus(@Param("userId") Long userId,
+                                                     @Param("status") Booking.BookingStatus status,
+                                                     @Param("createdAt") LocalDateTime createdAt,
+                                                     @Param("id") Long id,
+                                                     Limit limit);
+
+    List<Booking> findByHoldReleasePendingTrueOrderByIdAsc(Pageable pageable);
+
+    /**
+     * Bookings in a status that have a hold and have not changed since the cutoff, least recently
+     * changed first. Served from idx_booking_status_updated.
+     */
+    List<Booking> findByStatusAndHoldIdIsNotNullAndUpdatedAtBeforeOrderByUpdatedAtAsc(Booking.BookingStatus status,
+                                                                                      LocalDateTime cutoff,
+                                                                                      Pageable pageable);
+
+    /**
+     * Cancels a pending booking whose hold inventory-service has let go of. Does nothing if the
+     * booking has meanwhile changed status or moved to another hold.
+     */
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :cancelled, b.updatedAt = :now " +
+            "WHERE b.id = :bookingId AND b.holdId = :holdId AND b.status = :pending")
+    int cancelPendingWithHold(@Param("bookingId") Long bookingId,
+                              @Param("holdId") String holdId,
+                              @Param("pending") Booking.BookingStatus pending,
+                              @Param("cancelled") Booking.BookingStatus cancelled,
+                              @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Booking b SET b.holdReleasePending = false WHERE b.id = :bookingId")
+    int clearHoldReleasePending(@Param("bookingId") Long bookingId);
+
+    String HISTORY_COLUMNS = "b.id AS id, b.userId AS userId, b.eventId AS eventId, b.ticketCount AS ticketCount, " +
+            "b.totalPrice AS totalPrice, b.holdId AS holdId, b.status AS status, " +
+            "b.createdAt AS createdAt, b.updatedAt AS updatedAt";
+
+    interface BookingHistoryView {
+        Long getId();
+        Long getUserId();
+        Long getEventId();
+        Long getTicketCount();
+        BigDecimal getTotalPrice();
+        String getHoldId();
+        Booking.BookingStatus getStatus();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getUpdatedAt();
+    }
+}
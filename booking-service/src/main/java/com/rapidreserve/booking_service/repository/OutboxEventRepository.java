@@ -0,0 +1,41 @@
+package com.rapidreserve.booking_service.repository;
+
+import com.rapidreserve.booking_service.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * The oldest events no relay has a live claim on, locked until the caller's transaction
+     * claims them. An event is left out while an earlier event of its booking is claimed, so a
+     * booking's events are never sent by two relays at once.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OutboxEvent o WHERE (o.claimedUntil IS NULL OR o.claimedUntil < :now) " +
+            "AND NOT EXISTS (SELECT e FROM OutboxEvent e WHERE e.bookingId = o.bookingId AND e.id < o.id " +
+            "AND e.claimedUntil >= :now) ORDER BY o.id")
+    List<OutboxEvent> findUnclaimedForRelay(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.claimedBy = :claimant, o.claimedUntil = :until WHERE o.id IN :ids")
+    int claim(@Param("ids") List<Long> ids, @Param("claimant") String claimant, @Param("until") LocalDateTime until);
+
+    /**
+     * Gives back events a relay claimed but did not get acknowledged, so the next run can send
+     * them without waiting for the lease to run out.
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent o SET o.claimedBy = NULL, o.claimedUntil = NULL WHERE o.id IN :ids AND o.claimedBy = :claimant")
+    int unclaim(@Param("ids") List<Long> ids, @Param("claimant") String claimant);
+}
@@ -0,0 +1,26 @@
+package com.rapidreserve.booking_service.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BatchBookingRequest {
+    private Long userId;
+    // One entry per event; all are booked or none
+    private List<Item> items;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Item {
+        private Long eventId;
+        private Long ticketCount;
+    }
+}
@@ -0,0 +1,18 @@
+package com.rapidreserve.booking_service.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BookingPageResponse {
+    private List<BookingResponse> bookings;
+    // Pass back as the cursor parameter to get the next page; null on the last page
+    private String nextCursor;
+}
@@ -18,6 +18,7 @@ public class BookingResponse {
     private Long eventId;
     private Long ticketCount;
     private BigDecimal totalPrice;
+    private String holdId;
     private String status;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
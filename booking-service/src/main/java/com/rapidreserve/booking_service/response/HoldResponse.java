@@ -0,0 +1,20 @@
+package com.rapidreserve.booking_service.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class HoldResponse {
+    private String holdId;
+    private Long eventId;
+    private Long tickets;
+    private String status;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,263 @@
+package com.rapidreserve.booking_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rapidreserve.booking_service.entity.OutboxEvent;
+import com.rapidreserve.booking_service.event.BookingEvent;
+import com.rapidreserve.booking_service.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Transactional outbox for booking events. Booking changes append their event to the outbox in
+ * their own transaction, so an event exists exactly when its booking change committed, and the
+ * request never waits on Kafka.
+ * <p>
+ * A scheduled relay claims the oldest events in a short transaction, sends them keyed by booking
+ * id without holding any database lock, and deletes them in a second short transaction once Kafka
+ * has acknowledged them. A claim is a lease: events of a relay that dies are picked up again once
+ * it runs out, and other instances skip claimed events and every later event of their booking.
+ * <p>
+ * A booking has at most one event in flight: the batch is sent in rounds, each round sending the
+ * next event of every booking that has one. When a send fails, that event and every later event
+ * of the same booking stay in the outbox and are sent again in order; delivery is therefore at
+ * least once.
+ */
+@Component
+@Slf4j
+public class BookingEventOutbox {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, BookingEvent> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Timer relayDelay;
+    private final Counter published;
+    private final Counter failed;
+    private volatile long oldestAgeMillis;
+    private volatile int lastBatchSize;
+
+    @Autowired
+    public BookingEventOutbox(final OutboxEventRepository outboxEventRepository,
+                              final KafkaTemplate<String, BookingEvent> kafkaTemplate,
+                              final ObjectMapper objectMapper,
+                              final PlatformTransactionManager transactionManager,
+                              final MeterRegistry meterRegistry,
+                              @Value("${booking.outbox.enabled:true}") final boolean enabled,
+                              @Value("${booking.outbox.batch-size:200}") final int batchSize,
+                              @Value("${booking.outbox.send-timeout-ms:10000}") final long sendTimeoutMillis) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.sendTimeout = Duration.ofMillis(sendTimeoutMillis);
+        this.relayDelay = Timer.builder("booking.outbox.relay.delay")
+                .description("Time from a booking change committing to Kafka acknowledging its event")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.published = Counter.builder("booking.outbox.events").tag("result", "published").register(meterRegistry);
+        this.failed = Counter.builder("booking.outbox.events").tag("result", "failed").register(meterRegistry);
+        Gauge.builder("booking.outbox.lag", this, outbox -> outbox.oldestAgeMillis)
+                .description("Age of the oldest event still in the outbox at the last relay run")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("booking.outbox.batch", this, outbox -> outbox.lastBatchSize)
+                .description("Events picked up by the last relay run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Adds an event to the outbox as part of the caller's transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(final String topic, final Long bookingId, final BookingEvent event) {
+        outboxEventRepository.save(outboxEvent(topic, bookingId, event));
+        log.debug("Queued {} event for booking ID: {}", topic, bookingId);
+    }
+
+    /**
+     * Adds the events of several bookings, each keyed by its own booking id, as part of the
+     * caller's transaction; they are relayed together in the order given.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(final String topic, final List<BookingEvent> events) {
+        outboxEventRepository.saveAll(events.stream()
+                .map(event -> outboxEvent(topic, event.getBookingId(), event))
+                .toList());
+        log.debug("Queued {} {} event(s)", events.size(), topic);
+    }
+
+    /**
+     * Age of the oldest event seen by the last relay run, zero when the outbox was empty.
+     */
+    public long lagMillis() {
+        return oldestAgeMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.outbox.poll-interval-ms:100}")
+    public void scheduledRelay() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            // Keep going while batches come back full
+            while (relay() == batchSize) {
+                log.debug("Outbox batch was full, relaying the next one");
+            }
+        } catch (DataAccessException e) {
+            log.warn("Failed to relay booking events, retrying on next run: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Sends one batch and removes what Kafka acknowledged. Returns the number of events sent.
+     */
+    public int relay() {
+        final String claimant = UUID.randomUUID().toString();
+        final List<OutboxEvent> batch = claim(claimant);
+        if (batch == null || batch.isEmpty()) {
+            return 0;
+        }
+
+        // Each booking's events in outbox order; a round sends the head of every queue
+        final Map<Long, Queue<OutboxEvent>> byBooking = new LinkedHashMap<>();
+        for (OutboxEvent outboxEvent : batch) {
+            byBooking.computeIfAbsent(outboxEvent.getBookingId(), bookingId -> new ArrayDeque<>()).add(outboxEvent);
+        }
+        final long deadline = System.nanoTime() + sendTimeout.toNanos();
+        final List<Long> acknowledged = new ArrayList<>(batch.size());
+        final List<Long> unsent = new ArrayList<>();
+        int failedBookings = 0;
+        while (!byBooking.isEmpty()) {
+            final List<OutboxEvent> round = byBooking.values().stream().map(Queue::remove).toList();
+            final List<CompletableFuture<SendResult<String, BookingEvent>>> sends = new ArrayList<>(round.size());
+            for (OutboxEvent outboxEvent : round) {
+                sends.add(send(outboxEvent));
+            }
+            for (int i = 0; i < round.size(); i++) {
+                final OutboxEvent outboxEvent = round.get(i);
+                if (await(sends.get(i), deadline, outboxEvent)) {
+                    acknowledged.add(outboxEvent.getId());
+                    relayDelay.record(Duration.between(outboxEvent.getCreatedAt(), LocalDateTime.now()));
+                    if (byBooking.get(outboxEvent.getBookingId()).isEmpty()) {
+                        byBooking.remove(outboxEvent.getBookingId());
+                    }
+                } else {
+                    // Later events of this booking wait until this one has been sent
+                    unsent.add(outboxEvent.getId());
+                    byBooking.remove(outboxEvent.getBookingId()).forEach(later -> unsent.add(later.getId()));
+                    failedBookings++;
+                }
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxEventRepository.deleteAllByIdInBatch(acknowledged);
+            if (!unsent.isEmpty()) {
+                outboxEventRepository.unclaim(unsent, claimant);
+            }
+        });
+        published.increment(acknowledged.size());
+        failed.increment(unsent.size());
+        if (failedBookings > 0) {
+            log.warn("Relayed {} of {} booking event(s); {} booking(s) will be retried",
+                    acknowledged.size(), batch.size(), failedBookings);
+        }
+        return acknowledged.size();
+    }
+
+    /**
+     * Claims the oldest unclaimed events for long enough to send them, and commits straight away
+     * so that bookings can keep appending while the batch is sent.
+     */
+    private List<OutboxEvent> claim(final String claimant) {
+        return transactionTemplate.execute(status -> {
+            final LocalDateTime now = LocalDateTime.now();
+            final List<OutboxEvent> batch = outboxEventRepository.findUnclaimedForRelay(now, PageRequest.of(0, batchSize));
+            lastBatchSize = batch.size();
+            oldestAgeMillis = batch.isEmpty() ? 0 : Duration.between(batch.get(0).getCreatedAt(), now).toMillis();
+            if (!batch.isEmpty()) {
+                // Twice the send timeout, so a lease only runs out under a relay that stopped
+                outboxEventRepository.claim(batch.stream().map(OutboxEvent::getId).toList(), claimant,
+                        now.plus(sendTimeout.multipliedBy(2)));
+            }
+            return batch;
+        });
+    }
+
+    private CompletableFuture<SendResult<String, BookingEvent>> send(final OutboxEvent outboxEvent) {
+        try {
+            return kafkaTemplate.send(outboxEvent.getTopic(), outboxEvent.getBookingId().toString(),
+                    objectMapper.readValue(outboxEvent.getPayload(), BookingEvent.class));
+        } catch (JsonProcessingException | RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private boolean await(final CompletableFuture<SendResult<String, BookingEvent>> send, final long deadline,
+                          final OutboxEvent outboxEvent) {
+        try {
+            send.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            final Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+            log.warn("Failed to relay {} event {} for booking ID: {}: {}", outboxEvent.getTopic(),
+                    outboxEvent.getId(), outboxEvent.getBookingId(), cause.toString());
+            return false;
+        }
+    }
+
+    private OutboxEvent outboxEvent(final String topic, final Long bookingId, final BookingEvent event) {
+        return OutboxEvent.builder()
+                .bookingId(bookingId)
+                .topic(topic)
+                .payload(write(event))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private String write(final BookingEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Booking event cannot be serialized: " + event, e);
+        }
+    }
+}
@@ -5,36 +5,56 @@ import com.rapidreserve.booking_service.entity.Booking;
 import com.rapidreserve.booking_service.entity.Customer;
 import com.rapidreserve.booking_service.event.BookingEvent;
 import com.rapidreserve.booking_service.repository.BookingRepository;
-import com.rapidreserve.booking_service.repository.CustomerRepository;
+import com.rapidreserve.booking_service.request.BatchBookingRequest;
 import com.rapidreserve.booking_service.request.BookingRequest;
+import com.rapidreserve.booking_service.response.BookingPageResponse;
 import com.rapidreserve.booking_service.response.BookingResponse;
+import com.rapidreserve.booking_service.response.HoldResponse;
 import com.rapidreserve.booking_service.response.InventoryResponse;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 @Slf4j
 public class BookingService {
 
-    private final CustomerRepository customerRepository;
+    private static final int HISTORY_DEFAULT_PAGE_SIZE = 20;
+    private static final int HISTORY_MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_ITEMS = 20;
+
+    private final CustomerCache customerCache;
     private final InventoryServiceClient inventoryServiceClient;
-    private final KafkaTemplate<String, BookingEvent> kafkaTemplate;
+    private final BookingEventOutbox bookingEventOutbox;
     private final BookingRepository bookingRepository;
+    private final HoldCompensationService holdCompensationService;
 
-    public BookingService(final CustomerRepository customerRepository,
+    public BookingService(final CustomerCache customerCache,
                           final InventoryServiceClient inventoryServiceClient,
-                          final KafkaTemplate<String, BookingEvent> kafkaTemplate,
-                          final BookingRepository bookingRepository) {
-        this.customerRepository = customerRepository;
+                          final BookingEventOutbox bookingEventOutbox,
+                          final BookingRepository bookingRepository,
+                          final HoldCompensationService holdCompensationService) {
+        this.customerCache = customerCache;
         this.inventoryServiceClient = inventoryServiceClient;
-        this.kafkaTemplate = kafkaTemplate;
+        this.bookingEventOutbox = bookingEventOutbox;
         this.bookingRepository = bookingRepository;
+        this.holdCompensationService = holdCompensationService;
     }
 
     /**
@@ -45,12 +65,21 @@ public class BookingService {
         log.info("Creating booking for user: {}, event: {}, tickets: {}",
                 request.getUserId(), request.getEventId(), request.getTicketCount());
 
-        // Validate user exists
-        final Customer customer = customerRepository.findById(request.getUserId())
-                .orElseThrow(() -> new RuntimeException("User not found with ID: " + request.getUserId()));
+        // Get event inventory information while the user is looked up
+        final CompletableFuture<InventoryResponse> inventoryFetch =
+                inventoryServiceClient.getInventoryAsync(request.getEventId());
+
+        // Validate user exists, usually from the cache; the inventory fetch is abandoned if it does not
+        final Customer customer;
+        try {
+            customer = customerCache.find(request.getUserId())
+                    .orElseThrow(() -> new RuntimeException("User not found with ID: " + request.getUserId()));
+        } catch (RuntimeException e) {
+            inventoryFetch.cancel(true);
+            throw e;
+        }
 
-        // Get event inventory information
-        final InventoryResponse inventoryResponse = inventoryServiceClient.getInventory(request.getEventId());
+        final InventoryResponse inventoryResponse = await(inventoryFetch);
         log.info("Inventory Service Response: {}", inventoryResponse);
 
         // Validate inventory response
@@ -62,23 +91,95 @@ public class BookingService {
                     request.getTicketCount() + ", Available: " + inventoryResponse.getAvailableCapacity());
         }
 
+        // Hold the tickets so they cannot be sold to anyone else while the booking is pending
+        final HoldResponse hold = inventoryServiceClient.placeHold(request.getEventId(), request.getTicketCount());
+        releaseHoldUnlessCommitted(hold.getHoldId());
+
         // Create and save booking in database
-        Booking booking = createAndSaveBooking(request, customer, inventoryResponse);
+        Booking booking = createAndSaveBooking(request, customer, inventoryResponse, hold);
 
         // Create booking event for Kafka
         final BookingEvent bookingEvent = createBookingEvent(booking, inventoryResponse);
 
-        // Send booking event to Kafka
-        kafkaTemplate.send("booking", bookingEvent);
-        log.info("Booking sent to Kafka: {}", bookingEvent);
+        // Queue the booking event; the outbox relay sends it to Kafka once this commits
+        bookingEventOutbox.append("booking", booking.getId(), bookingEvent);
+        log.info("Booking event queued: {}", bookingEvent);
 
         // Return booking response
         return mapToBookingResponse(booking);
     }
 
+    /**
+     * Book several events for one customer, all or nothing. The customer is checked once and the
+     * inventory of every event fetched in one call; the holds are placed concurrently. The bookings
+     * and their events are written in one transaction, and if anything fails every hold placed is
+     * given back.
+     */
+    @Transactional
+    public List<BookingResponse> createBookings(final BatchBookingRequest request) {
+        final List<BatchBookingRequest.Item> items = request.getItems() == null ? List.of() : request.getItems();
+        log.info("Creating {} booking(s) for user: {}", items.size(), request.getUserId());
+        validateBatch(items);
+
+        // Validate user exists
+        final Customer customer = customerCache.find(request.getUserId())
+                .orElseThrow(() -> new RuntimeException("User not found with ID: " + request.getUserId()));
+
+        // Get inventory of every event and check all of them before holding anything
+        final Map<Long, InventoryResponse> inventories = inventoryServiceClient.getInventories(
+                items.stream().map(BatchBookingRequest.Item::getEventId).toList());
+        for (BatchBookingRequest.Item item : items) {
+            final InventoryResponse inventory = inventories.get(item.getEventId());
+            validateInventoryResponse(inventory);
+            if (inventory.getAvailableCapacity() < item.getTicketCount()) {
+                throw new RuntimeException("Not enough tickets available for event " + item.getEventId()
+                        + ". Requested: " + item.getTicketCount() + ", Available: " + inventory.getAvailableCapacity());
+            }
+        }
+
+        // Hold every event's tickets at once; holds that were placed are given back if anything fails
+        final List<CompletableFuture<HoldResponse>> holdCalls = items.stream()
+                .map(item -> inventoryServiceClient.placeHoldAsync(item.getEventId(), item.getTicketCount()))
+                .toList();
+        final List<HoldResponse> holds = new ArrayList<>(items.size());
+        RuntimeException holdFailure = null;
+        for (CompletableFuture<HoldResponse> holdCall : holdCalls) {
+            try {
+                final HoldResponse hold = await(holdCall);
+                releaseHoldUnlessCommitted(hold.getHoldId());
+                holds.add(hold);
+            } catch (RuntimeException e) {
+                holdFailure = holdFailure == null ? e : holdFailure;
+            }
+        }
+        if (holdFailure != null) {
+            throw holdFailure;
+        }
+
+        // Create and save all bookings in this transaction
+        final List<Booking> bookings = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            final BatchBookingRequest.Item item = items.get(i);
+            bookings.add(buildBooking(customer, item.getEventId(), item.getTicketCount(),
+                    inventories.get(item.getEventId()), holds.get(i)));
+        }
+        final List<Booking> savedBookings = bookingRepository.saveAll(bookings);
+        log.info("Created {} booking(s) in database for user: {}", savedBookings.size(), customer.getId());
+
+        // Queue the booking events together; the outbox relay sends them once this commits
+        bookingEventOutbox.appendAll("booking", savedBookings.stream()
+                .map(booking -> createBookingEvent(booking, inventories.get(booking.getEventId())))
+                .toList());
+
+        return savedBookings.stream()
+                .map(this::mapToBookingResponse)
+                .toList();
+    }
+
     /**
      * Get booking by ID
      */
+    @Transactional(readOnly = true)
     public BookingResponse getBookingById(Long id) {
         log.info("Fetching booking with ID: {}", id);
 
@@ -89,20 +190,46 @@ public class BookingService {
     }
 
     /**
-     * Get all bookings for a user
+     * One page of a user's bookings, newest first, optionally only those with {@code status}.
+     * Pass the returned nextCursor back as {@code cursor} to get the following page; each page is
+     * a single indexed query however many bookings the user has.
      */
-    public List<BookingResponse> getUserBookings(Long userId) {
-        log.info("Fetching bookings for user ID: {}", userId);
+    @Transactional(readOnly = true)
+    public BookingPageResponse getUserBookings(final Long userId, final Booking.BookingStatus status,
+                                               final String cursor, final Integer limit) {
+        log.info("Fetching bookings for user ID: {}, status: {}, cursor: {}", userId, status, cursor);
+        if (limit != null && limit <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than 0");
+        }
+        final int pageSize = limit == null ? HISTORY_DEFAULT_PAGE_SIZE : Math.min(limit, HISTORY_MAX_PAGE_SIZE);
 
         // Verify user exists
-        if (!customerRepository.existsById(userId)) {
+        if (!customerCache.exists(userId)) {
             throw new RuntimeException("User not found with ID: " + userId);
         }
 
-        List<Booking> bookings = bookingRepository.findByUserId(userId);
-        return bookings.stream()
+        // Start after the newest possible booking, or after the last one of the previous page
+        final HistoryCursor after = cursor == null ? HistoryCursor.START : HistoryCursor.decode(cursor);
+
+        // One row more than the page tells whether another page follows
+        final Limit rows = Limit.of(pageSize + 1);
+        final List<BookingRepository.BookingHistoryView> page = status == null
+                ? bookingRepository.findHistoryPage(userId, after.createdAt(), after.bookingId(), rows)
+                : bookingRepository.findHistoryPageByStatus(userId, status, after.createdAt(), after.bookingId(), rows);
+
+        final List<BookingResponse> bookings = page.stream()
+                .limit(pageSize)
                 .map(this::mapToBookingResponse)
                 .toList();
+        String nextCursor = null;
+        if (page.size() > pageSize) {
+            final BookingResponse last = bookings.get(bookings.size() - 1);
+            nextCursor = new HistoryCursor(last.getCreatedAt(), last.getBookingId()).encode();
+        }
+        return BookingPageResponse.builder()
+                .bookings(bookings)
+                .nextCursor(nextCursor)
+                .build();
     }
 
     /**
@@ -125,7 +252,7 @@ public class BookingService {
             throw new RuntimeException("User ID mismatch. Cannot update booking for different user");
         }
 
-        Customer customer = customerRepository.findById(request.getUserId())
+        Customer customer = customerCache.find(request.getUserId())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         // If event is changed, validate new event
@@ -149,6 +276,15 @@ public class BookingService {
             }
         }
 
+        // Swap the hold when the event or ticket count changes; the old one is released only once the update commits
+        if (booking.getHoldId() != null && (!booking.getEventId().equals(request.getEventId()) ||
+                !booking.getTicketCount().equals(request.getTicketCount()))) {
+            HoldResponse newHold = inventoryServiceClient.placeHold(request.getEventId(), request.getTicketCount());
+            releaseHoldUnlessCommitted(newHold.getHoldId());
+            releaseHoldAfterCommit(booking.getHoldId());
+            booking.setHoldId(newHold.getHoldId());
+        }
+
         // Update booking details
         booking.setEventId(request.getEventId());
         booking.setTicketCount(request.getTicketCount());
@@ -164,9 +300,9 @@ public class BookingService {
         booking.setUpdatedAt(LocalDateTime.now());
         Booking updatedBooking = bookingRepository.save(booking);
 
-        // Send update event to Kafka
+        // Queue update event for Kafka
         BookingEvent updateEvent = createBookingEvent(updatedBooking, null);
-        kafkaTemplate.send("booking-update", updateEvent);
+        bookingEventOutbox.append("booking-update", updatedBooking.getId(), updateEvent);
 
         log.info("Booking updated successfully: {}", updatedBooking.getId());
         return mapToBookingResponse(updatedBooking);
@@ -193,13 +329,17 @@ public class BookingService {
             throw new RuntimeException("Cannot cancel booking with status: " + booking.getStatus());
         }
 
+        // Give the tickets back once the cancellation commits, pending or confirmed
+        holdCompensationService.releaseAfterCommit(booking);
+
         // Update booking status
         booking.setStatus(Booking.BookingStatus.CANCELLED);
         booking.setUpdatedAt(LocalDateTime.now());
         Booking cancelledBooking = bookingRepository.save(booking);
 
-        // Send cancellation event to Kafka
+        // Queue cancellation event for Kafka
         BookingEvent cancellationEvent = BookingEvent.builder()
+                .bookingId(cancelledBooking.getId())
                 .userId(cancelledBooking.getUserId())
                 .eventId(cancelledBooking.getEventId())
                 .ticketCount(cancelledBooking.getTicketCount())
@@ -207,7 +347,7 @@ public class BookingService {
                 .status(Booking.BookingStatus.CANCELLED.toString())
                 .timestamp(LocalDateTime.now())
                 .build();
-        kafkaTemplate.send("booking-cancellation", cancellationEvent);
+        bookingEventOutbox.append("booking-cancellation", cancelledBooking.getId(), cancellationEvent);
 
         log.info("Booking cancelled successfully: {}", bookingId);
         return mapToBookingResponse(cancelledBooking);
@@ -228,12 +368,17 @@ public class BookingService {
             throw new RuntimeException("Only pending bookings can be confirmed. Current status: " + booking.getStatus());
         }
 
-        // Double-check inventory before confirming
-        InventoryResponse inventory = inventoryServiceClient.getInventory(booking.getEventId());
-        validateInventoryResponse(inventory);
+        if (booking.getHoldId() != null) {
+            // Fails once the hold has expired or been released
+            inventoryServiceClient.confirmHold(booking.getHoldId());
+        } else {
+            // Double-check inventory before confirming
+            InventoryResponse inventory = inventoryServiceClient.getInventory(booking.getEventId());
+            validateInventoryResponse(inventory);
 
-        if (inventory.getAvailableCapacity() < booking.getTicketCount()) {
-            throw new RuntimeException("Cannot confirm booking. Not enough tickets available");
+            if (inventory.getAvailableCapacity() < booking.getTicketCount()) {
+                throw new RuntimeException("Cannot confirm booking. Not enough tickets available");
+            }
         }
 
         // Update booking status
@@ -241,16 +386,18 @@ public class BookingService {
         booking.setUpdatedAt(LocalDateTime.now());
         Booking confirmedBooking = bookingRepository.save(booking);
 
-        // Send confirmation event to Kafka
+        // Queue confirmation event for Kafka
         BookingEvent confirmationEvent = BookingEvent.builder()
+                .bookingId(confirmedBooking.getId())
                 .userId(confirmedBooking.getUserId())
                 .eventId(confirmedBooking.getEventId())
                 .ticketCount(confirmedBooking.getTicketCount())
                 .totalPrice(confirmedBooking.getTotalPrice())
+                .holdId(confirmedBooking.getHoldId())
                 .status(Booking.BookingStatus.CONFIRMED.toString())
                 .timestamp(LocalDateTime.now())
                 .build();
-        kafkaTemplate.send("booking-confirmation", confirmationEvent);
+        bookingEventOutbox.append("booking-confirmation", confirmedBooking.getId(), confirmationEvent);
 
         log.info("Booking confirmed successfully: {}", bookingId);
         return mapToBookingResponse(confirmedBooking);
@@ -278,24 +425,66 @@ public class BookingService {
         }
     }
 
+    /**
+     * Wait for a concurrent call, rethrowing its own exception
+     */
+    private <T> T await(CompletableFuture<T> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
     /**
      * Create and save booking in database
      */
-    private Booking createAndSaveBooking(BookingRequest request, Customer customer, InventoryResponse inventoryResponse) {
-        Booking booking = Booking.builder()
+    private Booking createAndSaveBooking(BookingRequest request, Customer customer, InventoryResponse inventoryResponse,
+                                         HoldResponse hold) {
+        Booking booking = buildBooking(customer, request.getEventId(), request.getTicketCount(), inventoryResponse, hold);
+
+        Booking savedBooking = bookingRepository.save(booking);
+        log.info("Booking created in database with ID: {}", savedBooking.getId());
+        return savedBooking;
+    }
+
+    private Booking buildBooking(Customer customer, Long eventId, Long ticketCount, InventoryResponse inventoryResponse,
+                                 HoldResponse hold) {
+        return Booking.builder()
                 .userId(customer.getId())
-                .eventId(request.getEventId())
-                .ticketCount(request.getTicketCount())
+                .eventId(eventId)
+                .ticketCount(ticketCount)
                 .totalPrice(inventoryResponse.getTicketPrice()
-                        .multiply(BigDecimal.valueOf(request.getTicketCount())))
+                        .multiply(BigDecimal.valueOf(ticketCount)))
+                .holdId(hold.getHoldId())
                 .status(Booking.BookingStatus.PENDING)
                 .createdAt(LocalDateTime.now())
                 .updatedAt(LocalDateTime.now())
                 .build();
+    }
 
-        Booking savedBooking = bookingRepository.save(booking);
-        log.info("Booking created in database with ID: {}", savedBooking.getId());
-        return savedBooking;
+    /**
+     * Validate the items of a batch booking before anything is looked up
+     */
+    private void validateBatch(List<BatchBookingRequest.Item> items) {
+        if (items.isEmpty() || items.size() > MAX_BATCH_ITEMS) {
+            throw new IllegalArgumentException("A batch booking needs between 1 and " + MAX_BATCH_ITEMS + " items");
+        }
+        final Set<Long> eventIds = new HashSet<>();
+        for (BatchBookingRequest.Item item : items) {
+            if (item.getEventId() == null) {
+                throw new IllegalArgumentException("Event ID is required for every item");
+            }
+            if (item.getTicketCount() == null || item.getTicketCount() < 1) {
+                throw new IllegalArgumentException("Ticket count must be at least 1 for event " + item.getEventId());
+            }
+            if (!eventIds.add(item.getEventId())) {
+                throw new IllegalArgumentException("Event " + item.getEventId() + " appears more than once");
+            }
+        }
     }
 
     /**
@@ -303,15 +492,70 @@ public class BookingService {
      */
     private BookingEvent createBookingEvent(Booking booking, InventoryResponse inventoryResponse) {
         return BookingEvent.builder()
+                .bookingId(booking.getId())
                 .userId(booking.getUserId())
                 .eventId(booking.getEventId())
                 .ticketCount(booking.getTicketCount())
                 .totalPrice(booking.getTotalPrice())
+                .holdId(booking.getHoldId())
                 .status(booking.getStatus().toString())
                 .timestamp(LocalDateTime.now())
                 .build();
     }
 
+    /**
+     * Release a hold if the surrounding transaction does not commit
+     */
+    private void releaseHoldUnlessCommitted(String holdId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    releaseHoldQuietly(holdId);
+                }
+            }
+        });
+    }
+
+    /**
+     * Release a hold once the surrounding transaction commits
+     */
+    private void releaseHoldAfterCommit(String holdId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                releaseHoldQuietly(holdId);
+            }
+        });
+    }
+
+    private void releaseHoldQuietly(String holdId) {
+        try {
+            inventoryServiceClient.releaseHold(holdId);
+            log.info("Released hold: {}", holdId);
+        } catch (RuntimeException e) {
+            // The hold still expires on its own in inventory-service
+            log.warn("Failed to release hold {}: {}", holdId, e.getMessage());
+        }
+    }
+
+    /**
+     * Map a booking history row to BookingResponse DTO
+     */
+    private BookingResponse mapToBookingResponse(BookingRepository.BookingHistoryView view) {
+        return BookingResponse.builder()
+                .bookingId(view.getId())
+                .userId(view.getUserId())
+                .eventId(view.getEventId())
+                .ticketCount(view.getTicketCount())
+                .totalPrice(view.getTotalPrice())
+                .holdId(view.getHoldId())
+                .status(view.getStatus().toString())
+                .createdAt(view.getCreatedAt())
+                .updatedAt(view.getUpdatedAt())
+                .build();
+    }
+
     /**
      * Map Booking entity to BookingResponse DTO
      */
@@ -322,6 +566,7 @@ public class BookingService {
                 .eventId(booking.getEventId())
                 .ticketCount(booking.getTicketCount())
                 .totalPrice(booking.getTotalPrice())
+                .holdId(booking.getHoldId())
                 .status(booking.getStatus().toString())
                 .createdAt(booking.getCreatedAt())
                 .updatedAt(booking.getUpdatedAt())
@@ -346,4 +591,33 @@ public class BookingService {
                 inventoryResponse
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Position in a user's history: the createdAt and id of the last booking returned. Clients
+     * get it as an opaque string.
+     */
+    private record HistoryCursor(LocalDateTime createdAt, Long bookingId) {
+
+        // Later than any booking; the first page starts here
+        private static final HistoryCursor START =
+                new HistoryCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+
+        private String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((createdAt + "|" + bookingId).getBytes(StandardCharsets.UTF_8));
+        }
+
+        private static HistoryCursor decode(final String cursor) {
+            try {
+                final String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                        .split("\\|");
+                if (position.length == 2) {
+                    return new HistoryCursor(LocalDateTime.parse(position[0]), Long.parseLong(position[1]));
+                }
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                log.debug("Unreadable booking history cursor {}: {}", cursor, e.getMessage());
+            }
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.rapidreserve.booking_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.rapidreserve.booking_service.entity.Customer;
+import com.rapidreserve.booking_service.repository.CustomerRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of customer lookups keyed by customer id, so validating the user of a booking
+ * request does not cost a query each time.
+ * <p>
+ * Customers that exist are kept for the TTL; ids that do not exist are remembered for a much
+ * shorter negative TTL, so a flood of invalid ids reaches the database once per id and a customer
+ * created meanwhile is seen soon after. Customers are not written by booking-service;
+ * {@link #invalidate} drops an entry when one changes elsewhere.
+ * <p>
+ * Loads run outside the cache's locks, so a virtual thread is never pinned on the query; two
+ * concurrent misses for the same id may both query. A load that overlaps an invalidation is not
+ * cached. Cached customers are shared between requests and must not be modified.
+ * <p>
+ * Meters: the {@code cache.*} meters of the {@value #CACHE_NAME} cache, and
+ * {@code booking.customer.cache.hit.ratio}.
+ */
+@Component
+@Slf4j
+public class CustomerCache {
+
+    public static final String CACHE_NAME = "customers";
+
+    private final CustomerRepository customerRepository;
+    private final Cache<Long, Optional<Customer>> cache;
+    private final AtomicLong invalidations = new AtomicLong();
+
+    @Autowired
+    public CustomerCache(final CustomerRepository customerRepository,
+                         final MeterRegistry meterRegistry,
+                         @Value("${booking.customer-cache.maximum-size:100000}") final long maximumSize,
+                         @Value("${booking.customer-cache.ttl-seconds:600}") final long ttlSeconds,
+                         @Value("${booking.customer-cache.negative-ttl-seconds:30}") final long negativeTtlSeconds) {
+        this(customerRepository, meterRegistry, maximumSize, Duration.ofSeconds(ttlSeconds),
+                Duration.ofSeconds(negativeTtlSeconds), Ticker.systemTicker());
+    }
+
+    CustomerCache(final CustomerRepository customerRepository, final MeterRegistry meterRegistry,
+                  final long maximumSize, final Duration ttl, final Duration negativeTtl, final Ticker ticker) {
+        this.customerRepository = customerRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.<Long, Optional<Customer>>writing(
+                        (customerId, customer) -> customer.isPresent() ? ttl : negativeTtl))
+                .ticker(ticker)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        Gauge.builder("booking.customer.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of customer lookups answered from the cache")
+                .register(meterRegistry);
+    }
+
+    public Optional<Customer> find(final Long customerId) {
+        final Optional<Customer> cached = cache.getIfPresent(customerId);
+        if (cached != null) {
+            return cached;
+        }
+        final long generation = invalidations.get();
+        final Optional<Customer> customer = customerRepository.findById(customerId);
+        // Skip caching what may have been read before an invalidation
+        if (invalidations.get() == generation) {
+            cache.put(customerId, customer);
+        }
+        return customer;
+    }
+
+    public boolean exists(final Long customerId) {
+        return find(customerId).isPresent();
+    }
+
+    /**
+     * Forgets a customer, found or not, so the next lookup reads it again.
+     */
+    public void invalidate(final Long customerId) {
+        invalidations.incrementAndGet();
+        cache.invalidate(customerId);
+        log.info("Invalidated cached customer ID: {}", customerId);
+    }
+}
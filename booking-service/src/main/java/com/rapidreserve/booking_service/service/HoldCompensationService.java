@@ -0,0 +1,141 @@
+package com.rapidreserve.booking_service.service;
+
+import com.rapidreserve.booking_service.client.InventoryServiceClient;
+import com.rapidreserve.booking_service.entity.Booking;
+import com.rapidreserve.booking_service.repository.BookingRepository;
+import com.rapidreserve.booking_service.response.HoldResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Gives the tickets of cancelled bookings back to inventory. A cancellation marks its booking as
+ * pending release in the same transaction; the hold is cancelled as soon as that commits and, if
+ * inventory-service could not be reached, again on every retry until it answers. Cancelling a hold
+ * is a no-op in inventory-service once its tickets are back, so a retry after a lost response
+ * never gives them back twice.
+ */
+@Service
+@Slf4j
+public class HoldCompensationService {
+
+    private final InventoryServiceClient inventoryServiceClient;
+    private final BookingRepository bookingRepository;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Counter released;
+    private final Counter missing;
+    private final Counter failed;
+
+    @Autowired
+    public HoldCompensationService(final InventoryServiceClient inventoryServiceClient,
+                                   final BookingRepository bookingRepository,
+                                   final MeterRegistry meterRegistry,
+                                   @Value("${booking.compensation.enabled:true}") final boolean enabled,
+                                   @Value("${booking.compensation.batch-size:100}") final int batchSize) {
+        this.inventoryServiceClient = inventoryServiceClient;
+        this.bookingRepository = bookingRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.released = compensations(meterRegistry, "released");
+        this.missing = compensations(meterRegistry, "missing");
+        this.failed = compensations(meterRegistry, "failed");
+    }
+
+    /**
+     * Marks a booking's hold for release and releases it once the surrounding transaction
+     * commits. Must be called before the booking is saved.
+     */
+    public void releaseAfterCommit(final Booking booking) {
+        if (booking.getHoldId() == null) {
+            return;
+        }
+        booking.setHoldReleasePending(true);
+
+        final Long bookingId = booking.getId();
+        final String holdId = booking.getHoldId();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(bookingId, holdId);
+            }
+        });
+    }
+
+    /**
+     * Cancels the hold and clears the booking's pending release. Returns false when
+     * inventory-service could not be reached; the booking is then retried later.
+     */
+    public boolean release(final Long bookingId, final String holdId) {
+        final Optional<HoldResponse> hold;
+        try {
+            hold = inventoryServiceClient.cancelHold(holdId);
+        } catch (RuntimeException e) {
+            failed.increment();
+            log.warn("Failed to release hold {} of cancelled booking {}, will retry: {}",
+                    holdId, bookingId, e.getMessage());
+            return false;
+        }
+
+        if (hold.isPresent()) {
+            released.increment();
+            log.info("Released hold {} of cancelled booking {}: {}", holdId, bookingId, hold.get().getStatus());
+        } else {
+            missing.increment();
+            log.warn("Hold {} of cancelled booking {} is unknown to inventory, nothing to release", holdId, bookingId);
+        }
+        bookingRepository.clearHoldReleasePending(bookingId);
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.compensation.retry-interval-ms:10000}",
+            initialDelayString = "${booking.compensation.retry-interval-ms:10000}")
+    public void scheduledRetry() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            retryPending();
+        } catch (DataAccessException e) {
+            log.warn("Failed to look up cancelled bookings pending release: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Retries up to one batch of pending releases, oldest booking first. Stops at the first
+     * failure rather than calling an unreachable inventory-service for every booking.
+     */
+    public int retryPending() {
+        final List<Booking> pending =
+                bookingRepository.findByHoldReleasePendingTrueOrderByIdAsc(PageRequest.of(0, batchSize));
+        int releasedCount = 0;
+        for (Booking booking : pending) {
+            if (!release(booking.getId(), booking.getHoldId())) {
+                break;
+            }
+            releasedCount++;
+        }
+        if (!pending.isEmpty()) {
+            log.info("Retried hold releases: {} of {} pending booking(s) released", releasedCount, pending.size());
+        }
+        return releasedCount;
+    }
+
+    private static Counter compensations(final MeterRegistry meterRegistry, final String result) {
+        return Counter.builder("booking.hold.compensations")
+                .description("Hold releases attempted for cancelled bookings")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
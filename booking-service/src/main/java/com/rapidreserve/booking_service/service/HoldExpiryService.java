@@ -0,0 +1,140 @@
+package com.rapidreserve.booking_service.service;
+
+import com.rapidreserve.booking_service.client.InventoryServiceClient;
+import com.rapidreserve.booking_service.entity.Booking;
+import com.rapidreserve.booking_service.event.BookingEvent;
+import com.rapidreserve.booking_service.repository.BookingRepository;
+import com.rapidreserve.booking_service.response.HoldResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Cancels pending bookings whose hold inventory-service has given up on. A hold that expires
+ * puts its tickets back on sale and can no longer be confirmed, so its booking would otherwise
+ * stay pending for good.
+ * <p>
+ * Pending bookings unchanged for longer than a hold lives are checked against inventory-service,
+ * oldest first. A booking whose hold has expired, was released or is unknown is cancelled and a
+ * cancellation event queued, in one transaction; one whose hold is still active is left for the
+ * next run. A run stops at the first call inventory-service does not answer.
+ */
+@Service
+@Slf4j
+public class HoldExpiryService {
+
+    // Hold states in which the tickets are no longer held for the booking
+    private static final Set<String> LAPSED = Set.of("EXPIRED", "RELEASED");
+
+    private final InventoryServiceClient inventoryServiceClient;
+    private final BookingRepository bookingRepository;
+    private final BookingEventOutbox bookingEventOutbox;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration holdTtl;
+    private final int batchSize;
+    private final Counter expired;
+
+    @Autowired
+    public HoldExpiryService(final InventoryServiceClient inventoryServiceClient,
+                             final BookingRepository bookingRepository,
+                             final BookingEventOutbox bookingEventOutbox,
+                             final PlatformTransactionManager transactionManager,
+                             final MeterRegistry meterRegistry,
+                             @Value("${booking.hold-expiry.enabled:true}") final boolean enabled,
+                             @Value("${booking.hold-expiry.hold-ttl-seconds:600}") final long holdTtlSeconds,
+                             @Value("${booking.hold-expiry.batch-size:100}") final int batchSize) {
+        this.inventoryServiceClient = inventoryServiceClient;
+        this.bookingRepository = bookingRepository;
+        this.bookingEventOutbox = bookingEventOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.holdTtl = Duration.ofSeconds(holdTtlSeconds);
+        this.batchSize = batchSize;
+        this.expired = Counter.builder("booking.hold.expired")
+                .description("Pending bookings cancelled because their hold expired")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.hold-expiry.check-interval-ms:30000}",
+            initialDelayString = "${booking.hold-expiry.check-interval-ms:30000}")
+    public void scheduledCheck() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            cancelExpired();
+        } catch (DataAccessException e) {
+            log.warn("Failed to check pending bookings for expired holds: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Checks up to one batch of pending bookings and returns how many were cancelled.
+     */
+    public int cancelExpired() {
+        final List<Booking> pending = bookingRepository.findByStatusAndHoldIdIsNotNullAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+                Booking.BookingStatus.PENDING, LocalDateTime.now().minus(holdTtl), PageRequest.of(0, batchSize));
+        int cancelled = 0;
+        for (Booking booking : pending) {
+            final Optional<HoldResponse> hold;
+            try {
+                hold = inventoryServiceClient.getHold(booking.getHoldId());
+            } catch (RuntimeException e) {
+                log.warn("Failed to look up hold {} of pending booking {}, will retry: {}",
+                        booking.getHoldId(), booking.getId(), e.getMessage());
+                break;
+            }
+            if (hold.isEmpty() || LAPSED.contains(hold.get().getStatus())) {
+                if (cancel(booking)) {
+                    cancelled++;
+                }
+            }
+        }
+        if (cancelled > 0) {
+            log.info("Cancelled {} pending booking(s) whose hold had expired", cancelled);
+        }
+        return cancelled;
+    }
+
+    private boolean cancel(final Booking booking) {
+        final Boolean cancelled = transactionTemplate.execute(status -> {
+            final LocalDateTime now = LocalDateTime.now();
+            if (bookingRepository.cancelPendingWithHold(booking.getId(), booking.getHoldId(),
+                    Booking.BookingStatus.PENDING, Booking.BookingStatus.CANCELLED, now) == 0) {
+                return false;
+            }
+            bookingEventOutbox.append("booking-cancellation", booking.getId(), BookingEvent.builder()
+                    .bookingId(booking.getId())
+                    .userId(booking.getUserId())
+                    .eventId(booking.getEventId())
+                    .ticketCount(booking.getTicketCount())
+                    .totalPrice(booking.getTotalPrice())
+                    .holdId(booking.getHoldId())
+                    .status(Booking.BookingStatus.CANCELLED.toString())
+                    .timestamp(now)
+                    .build());
+            return true;
+        });
+        if (Boolean.TRUE.equals(cancelled)) {
+            expired.increment();
+            log.info("Cancelled booking {}: hold {} expired before it was confirmed", booking.getId(), booking.getHoldId());
+            return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,128 @@
+package com.rapidreserve.booking_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.rapidreserve.booking_service.exception.IdempotencyConflictException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the outcome of requests sent with an {@code Idempotency-Key}, so a retried request
+ * gets the original response instead of doing the work again.
+ * <p>
+ * The first request with a key runs the work; a duplicate that arrives while it is still running
+ * waits for that result rather than racing it, and later duplicates get it straight from the
+ * store. Only successes are kept: when the work fails every waiting duplicate sees the same
+ * failure and the key is forgotten, so the client can retry. Reusing a key for a different
+ * request is refused. Keys are bounded in number and forgotten after a TTL, and are held per
+ * instance, which covers retries from the gateway to the same instance.
+ * <p>
+ * Meters: {@code booking.idempotency.requests} tagged by result ({@code executed},
+ * {@code replayed}, {@code conflict}).
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<String, Entry> entries;
+    private final Duration waitTimeout;
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter conflicts;
+
+    @Autowired
+    public IdempotencyStore(final MeterRegistry meterRegistry,
+                            @Value("${booking.idempotency.maximum-keys:100000}") final long maximumKeys,
+                            @Value("${booking.idempotency.ttl-seconds:86400}") final long ttlSeconds,
+                            @Value("${booking.idempotency.wait-timeout-ms:30000}") final long waitTimeoutMillis) {
+        this(meterRegistry, maximumKeys, Duration.ofSeconds(ttlSeconds), Duration.ofMillis(waitTimeoutMillis),
+                Ticker.systemTicker());
+    }
+
+    IdempotencyStore(final MeterRegistry meterRegistry, final long maximumKeys, final Duration ttl,
+                     final Duration waitTimeout, final Ticker ticker) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maximumKeys)
+                .expireAfterWrite(ttl)
+                .ticker(ticker)
+                .build();
+        this.waitTimeout = waitTimeout;
+        this.executed = Counter.builder("booking.idempotency.requests").tag("result", "executed").register(meterRegistry);
+        this.replayed = Counter.builder("booking.idempotency.requests").tag("result", "replayed").register(meterRegistry);
+        this.conflicts = Counter.builder("booking.idempotency.requests").tag("result", "conflict").register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code work} once per key and returns its result to every request with that key.
+     *
+     * @param request what the key was sent with; a later request with the same key must be equal to it
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(final String key, final Object request, final Supplier<T> work) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+
+        final Entry entry = new Entry(request, new CompletableFuture<>());
+        final Entry existing = entries.asMap().putIfAbsent(key, entry);
+        if (existing != null) {
+            if (!Objects.equals(existing.request(), request)) {
+                conflicts.increment();
+                throw new IdempotencyConflictException(HEADER + " " + key + " was already used for a different request");
+            }
+            replayed.increment();
+            log.info("Replaying result for {} {}", HEADER, key);
+            return (T) await(key, existing.result());
+        }
+
+        executed.increment();
+        try {
+            final T result = work.get();
+            entry.result().complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            entries.asMap().remove(key, entry);
+            entry.result().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private Object await(final String key, final CompletableFuture<Object> result) {
+        try {
+            return result.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            conflicts.increment();
+            throw new IdempotencyConflictException("A request with " + HEADER + " " + key + " is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for " + HEADER + " " + key, e);
+        }
+    }
+
+    private record Entry(Object request, CompletableFuture<Object> result) {
+    }
+}
@@ -0,0 +1,68 @@
+package com.rapidreserve.booking_service.client;
+
+import com.rapidreserve.booking_service.event.InventoryChangeEvent;
+import com.rapidreserve.booking_service.response.InventoryResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InventoryReplicaTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InventoryReplica replica = new InventoryReplica(meterRegistry, true);
+
+    @Test
+    void appliesSnapshotsAndTombstones() {
+        replica.onInventoryChange(record(7L, change(7L, 40L, System.currentTimeMillis() - 25)));
+
+        final InventoryResponse inventory = replica.get(7L).orElseThrow();
+        assertThat(inventory.getAvailableCapacity()).isEqualTo(40);
+        assertThat(inventory.getVenue().getName()).isEqualTo("Replica Hall");
+        assertThat(meterRegistry.get("inventory.replica.lag").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("inventory.replica.lag.last").gauge().value()).isGreaterThanOrEqualTo(25);
+
+        replica.onInventoryChange(record(7L, null));
+        assertThat(replica.get(7L)).isEmpty();
+        assertThat(meterRegistry.get("inventory.replica.lookups").tag("result", "miss").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void streamUpdatesWinOverHttpFills() {
+        replica.onInventoryChange(record(8L, change(8L, 10L, System.currentTimeMillis())));
+        replica.fill(8L, InventoryResponse.builder().eventId(8L).availableCapacity(99L).build());
+        assertThat(replica.get(8L).orElseThrow().getAvailableCapacity()).isEqualTo(10);
+
+        replica.fill(9L, InventoryResponse.builder().eventId(9L).availableCapacity(5L).build());
+        replica.onInventoryChange(record(9L, change(9L, 4L, System.currentTimeMillis())));
+        assertThat(replica.get(9L).orElseThrow().getAvailableCapacity()).isEqualTo(4);
+    }
+
+    @Test
+    void disabledReplicaAlwaysMisses() {
+        final InventoryReplica disabled = new InventoryReplica(new SimpleMeterRegistry(), false);
+        disabled.fill(1L, InventoryResponse.builder().eventId(1L).build());
+        assertThat(disabled.get(1L)).isEmpty();
+    }
+
+    private ConsumerRecord<String, InventoryChangeEvent> record(final Long eventId, final InventoryChangeEvent change) {
+        return new ConsumerRecord<>("inventory-changes", 0, 0L, eventId.toString(), change);
+    }
+
+    private InventoryChangeEvent change(final Long eventId, final Long available, final long publishedAt) {
+        return InventoryChangeEvent.builder()
+                .eventId(eventId)
+                .event("Replica Night")
+                .totalCapacity(50L)
+                .availableCapacity(available)
+                .ticketPrice(BigDecimal.TEN)
+                .venueId(1L)
+                .venueName("Replica Hall")
+                .venueTotalCapacity(100L)
+                .publishedAt(publishedAt)
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package com.rapidreserve.booking_service.service;
+
+import com.rapidreserve.booking_service.client.InventoryServiceClient;
+import com.rapidreserve.booking_service.entity.Booking;
+import com.rapidreserve.booking_service.entity.Customer;
+import com.rapidreserve.booking_service.event.BookingEvent;
+import com.rapidreserve.booking_service.repository.BookingRepository;
+import com.rapidreserve.booking_service.request.BatchBookingRequest;
+import com.rapidreserve.booking_service.response.BookingResponse;
+import com.rapidreserve.booking_service.response.HoldResponse;
+import com.rapidreserve.booking_service.response.InventoryResponse;
+import com.rapidreserve.inventory_client.InventoryClientException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BatchBookingTests {
+
+    private final CustomerCache customerCache = mock(CustomerCache.class);
+    private final InventoryServiceClient inventoryServiceClient = mock(InventoryServiceClient.class);
+    private final BookingEventOutbox bookingEventOutbox = mock(BookingEventOutbox.class);
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final BookingService bookingService = new BookingService(customerCache, inventoryServiceClient,
+            bookingEventOutbox, bookingRepository, mock(HoldCompensationService.class));
+    private final AtomicLong bookingIds = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        TransactionSynchronizationManager.initSynchronization();
+        when(customerCache.find(1L)).thenReturn(Optional.of(Customer.builder().id(1L).build()));
+        when(inventoryServiceClient.getInventories(anyList())).thenReturn(Map.of(
+                10L, inventory(10L, 100L, "40.00"),
+                20L, inventory(20L, 5L, "15.00")));
+        when(inventoryServiceClient.placeHoldAsync(anyLong(), anyLong())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(HoldResponse.builder()
+                        .holdId("hold-" + invocation.getArgument(0))
+                        .status("ACTIVE")
+                        .build()));
+        when(bookingRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            final List<Booking> bookings = invocation.getArgument(0);
+            bookings.forEach(booking -> booking.setId(bookingIds.incrementAndGet()));
+            return bookings;
+        });
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void booksEveryEventWithOneInventoryLookupAndOneInsertBatch() {
+        final List<BookingResponse> bookings = bookingService.createBookings(request(item(10L, 2L), item(20L, 3L)));
+
+        assertThat(bookings).extracting(BookingResponse::getEventId).containsExactly(10L, 20L);
+        assertThat(bookings).extracting(BookingResponse::getHoldId).containsExactly("hold-10", "hold-20");
+        assertThat(bookings).extracting(BookingResponse::getTotalPrice)
+                .containsExactly(new BigDecimal("80.00"), new BigDecimal("45.00"));
+        verify(inventoryServiceClient).getInventories(List.of(10L, 20L));
+
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<List<BookingEvent>> events = ArgumentCaptor.forClass(List.class);
+        verify(bookingEventOutbox).appendAll(eq("booking"), events.capture());
+        assertThat(events.getValue()).extracting(BookingEvent::getBookingId).containsExactly(1L, 2L);
+        verify(bookingEventOutbox, never()).append(any(), any(), any());
+    }
+
+    @Test
+    void aFailedHoldGivesBackTheOthersAndBooksNothing() {
+        when(inventoryServiceClient.placeHoldAsync(20L, 3L)).thenReturn(CompletableFuture.failedFuture(
+                new InventoryClientException(409, "Not enough tickets available for event 20")));
+
+        assertThatThrownBy(() -> bookingService.createBookings(request(item(10L, 2L), item(20L, 3L))))
+                .hasMessage("Not enough tickets available for event 20");
+        verify(bookingRepository, never()).saveAll(anyList());
+        verify(bookingEventOutbox, never()).appendAll(any(), anyList());
+
+        // The transaction rolls back and the hold that was placed is released
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        verify(inventoryServiceClient).releaseHold("hold-10");
+        verify(inventoryServiceClient, never()).releaseHold("hold-20");
+    }
+
+    @Test
+    void checksEveryEventBeforeHoldingAny() {
+        assertThatThrownBy(() -> bookingService.createBookings(request(item(10L, 2L), item(20L, 6L))))
+                .hasMessage("Not enough tickets available for event 20. Requested: 6, Available: 5");
+        verify(inventoryServiceClient, never()).placeHoldAsync(anyLong(), anyLong());
+    }
+
+    @Test
+    void rejectsInvalidBatchesBeforeAnyLookup() {
+        assertThatThrownBy(() -> bookingService.createBookings(request(item(10L, 2L), item(10L, 1L))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Event 10 appears more than once");
+        assertThatThrownBy(() -> bookingService.createBookings(request()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bookingService.createBookings(request(item(10L, 0L))))
+                .isInstanceOf(IllegalArgumentException.class);
+        verify(customerCache, never()).find(any());
+        verify(inventoryServiceClient, never()).getInventories(anyList());
+    }
+
+    private static BatchBookingRequest request(final BatchBookingRequest.Item... items) {
+        return new BatchBookingRequest(1L, List.of(items));
+    }
+
+    private static BatchBookingRequest.Item item(final Long eventId, final Long tickets) {
+        return new BatchBookingRequest.Item(eventId, tickets);
+    }
+
+    private static InventoryResponse inventory(final Long eventId, final Long available, final String price) {
+        return InventoryResponse.builder()
+                .eventId(eventId)
+                .event("Festival " + eventId)
+                .availableCapacity(available)
+                .totalCapacity(available)
+                .ticketPrice(new BigDecimal(price))
+                .build();
+    }
+}
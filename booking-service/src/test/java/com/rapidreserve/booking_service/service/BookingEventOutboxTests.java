@@ -0,0 +1,122 @@
+package com.rapidreserve.booking_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.rapidreserve.booking_service.entity.OutboxEvent;
+import com.rapidreserve.booking_service.event.BookingEvent;
+import com.rapidreserve.booking_service.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BookingEventOutboxTests {
+
+    private final OutboxEventRepository repository = mock(OutboxEventRepository.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, BookingEvent> kafkaTemplate = mock(KafkaTemplate.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BookingEventOutbox outbox = new BookingEventOutbox(repository, kafkaTemplate, objectMapper,
+            mock(PlatformTransactionManager.class), meterRegistry, true, 100, 1_000);
+
+    @Test
+    void relaysInOrderKeyedByBookingAndDeletesWhatWasSent() throws Exception {
+        final List<OutboxEvent> batch = List.of(
+                outboxEvent(1L, 10L, "booking", 500),
+                outboxEvent(2L, 11L, "booking", 400),
+                outboxEvent(3L, 10L, "booking-confirmation", 300));
+        when(repository.findUnclaimedForRelay(any(), any())).thenReturn(batch);
+        when(kafkaTemplate.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        assertThat(outbox.relay()).isEqualTo(3);
+
+        final ArgumentCaptor<String> topics = ArgumentCaptor.forClass(String.class);
+        final ArgumentCaptor<String> keys = ArgumentCaptor.forClass(String.class);
+        final ArgumentCaptor<BookingEvent> events = ArgumentCaptor.forClass(BookingEvent.class);
+        verify(kafkaTemplate, times(3)).send(topics.capture(), keys.capture(), events.capture());
+        assertThat(topics.getAllValues()).containsExactly("booking", "booking", "booking-confirmation");
+        assertThat(keys.getAllValues()).containsExactly("10", "11", "10");
+        assertThat(events.getAllValues()).extracting(BookingEvent::getBookingId).containsExactly(10L, 11L, 10L);
+        verify(repository).claim(eq(List.of(1L, 2L, 3L)), anyString(), any());
+        verify(repository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+        verify(repository, never()).unclaim(any(), any());
+
+        assertThat(outbox.lagMillis()).isGreaterThanOrEqualTo(500);
+        assertThat(meterRegistry.get("booking.outbox.relay.delay").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void keepsAFailedEventAndEverythingAfterItForTheSameBooking() throws Exception {
+        final List<OutboxEvent> batch = List.of(
+                outboxEvent(1L, 10L, "booking", 0),
+                outboxEvent(2L, 11L, "booking", 0),
+                outboxEvent(3L, 10L, "booking-confirmation", 0),
+                outboxEvent(4L, 11L, "booking-cancellation", 0));
+        when(repository.findUnclaimedForRelay(any(), any())).thenReturn(batch);
+        final List<CompletableFuture<SendResult<String, BookingEvent>>> results = new ArrayList<>(List.of(
+                CompletableFuture.failedFuture(new RuntimeException("Broker unavailable")),
+                CompletableFuture.completedFuture(null),
+                CompletableFuture.completedFuture(null),
+                CompletableFuture.completedFuture(null)));
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenAnswer(invocation -> results.remove(0));
+
+        assertThat(outbox.relay()).isEqualTo(2);
+
+        // Booking 10's confirmation is not sent behind its failed booking event
+        final ArgumentCaptor<BookingEvent> events = ArgumentCaptor.forClass(BookingEvent.class);
+        verify(kafkaTemplate, times(3)).send(anyString(), anyString(), events.capture());
+        assertThat(events.getAllValues()).extracting(BookingEvent::getBookingId).containsExactly(10L, 11L, 11L);
+        verify(repository).deleteAllByIdInBatch(List.of(2L, 4L));
+        verify(repository).unclaim(eq(List.of(1L, 3L)), anyString());
+        assertThat(meterRegistry.get("booking.outbox.events").tag("result", "failed").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void emptyOutboxHasNoLag() {
+        when(repository.findUnclaimedForRelay(any(), any())).thenReturn(List.of());
+
+        assertThat(outbox.relay()).isZero();
+        assertThat(outbox.lagMillis()).isZero();
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+        verify(repository, never()).claim(any(), any(), any());
+        verify(repository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private OutboxEvent outboxEvent(final Long id, final Long bookingId, final String topic, final long ageMillis)
+            throws Exception {
+        final BookingEvent event = BookingEvent.builder()
+                .bookingId(bookingId)
+                .eventId(7L)
+                .ticketCount(2L)
+                .status("PENDING")
+                .timestamp(LocalDateTime.now())
+                .build();
+        return OutboxEvent.builder()
+                .id(id)
+                .bookingId(bookingId)
+                .topic(topic)
+                .payload(objectMapper.writeValueAsString(event))
+                .createdAt(LocalDateTime.now().minusNanos(ageMillis * 1_000_000))
+                .build();
+    }
+}
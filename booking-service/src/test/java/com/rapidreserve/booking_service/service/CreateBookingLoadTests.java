@@ -0,0 +1,244 @@
+package com.rapidreserve.booking_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.rapidreserve.booking_service.client.InventoryReplica;
+import com.rapidreserve.booking_service.client.InventoryServiceClient;
+import com.rapidreserve.booking_service.entity.Booking;
+import com.rapidreserve.booking_service.entity.Customer;
+import com.rapidreserve.booking_service.repository.BookingRepository;
+import com.rapidreserve.booking_service.repository.CustomerRepository;
+import com.rapidreserve.booking_service.request.BookingRequest;
+import com.rapidreserve.booking_service.response.BookingResponse;
+import com.rapidreserve.inventory_client.InventoryClientSettings;
+import com.rapidreserve.inventory_client.InventoryHttpClient;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * createBooking against a slow local inventory-service that takes {@value #INVENTORY_DELAY_MS} ms
+ * per call and a customer lookup that takes {@value #CUSTOMER_DELAY_MS} ms, so requests spend their
+ * time blocked rather than on the CPU.
+ */
+class CreateBookingLoadTests {
+
+    private static final long INVENTORY_DELAY_MS = 300;
+    private static final long CUSTOMER_DELAY_MS = 250;
+    private static final int CLIENTS = 2_000;
+    private static final int REQUESTS_PER_CLIENT = 2;
+    // Tomcat's default maximum
+    private static final int PLATFORM_THREADS = 200;
+    // Inventory answers this event too late for any test to wait on, so only an abort ends the call
+    private static final long ABANDONED_EVENT_ID = 8L;
+    private static final String NODELAY = "sun.net.httpserver.nodelay";
+    private static final String MAX_IDLE_CONNECTIONS = "sun.net.httpserver.maxIdleConnections";
+
+    private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final AtomicLong bookingIds = new AtomicLong();
+    private final SimpleMeterRegistry clientMetrics = new SimpleMeterRegistry();
+    private String previousNodelay;
+    private String previousMaxIdleConnections;
+    private HttpServer server;
+    private InventoryHttpClient inventoryHttpClient;
+    private InventoryServiceClient inventoryServiceClient;
+    private BookingService bookingService;
+
+    @BeforeEach
+    void startInventory() throws IOException {
+        // Without it the test server's small writes wait on delayed ACKs
+        previousNodelay = System.setProperty(NODELAY, "true");
+        // The default of 200 closes most of the client's pooled connections between requests
+        previousMaxIdleConnections = System.setProperty(MAX_IDLE_CONNECTIONS, "4096");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 4_096);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/api/v1/inventory/event/", exchange -> {
+            final String path = exchange.getRequestURI().getPath();
+            sleep(path.endsWith("/event/" + ABANDONED_EVENT_ID) ? 60_000 : INVENTORY_DELAY_MS);
+            if (path.endsWith("/holds")) {
+                respond(exchange, "{\"data\":{\"holdId\":\"hold-" + System.nanoTime() + "\",\"status\":\"ACTIVE\"}}");
+            } else {
+                respond(exchange, "{\"data\":{\"eventId\":7,\"event\":\"Load Night\",\"availableCapacity\":1000000,"
+                        + "\"ticketPrice\":25.00}}");
+            }
+        });
+        server.start();
+
+        inventoryHttpClient = new InventoryHttpClient(new InventoryClientSettings(
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v1/inventory",
+                Duration.ofSeconds(30), Duration.ofSeconds(30), 1_000, Duration.ofSeconds(30)),
+                new ObjectMapper(), clientMetrics);
+        inventoryServiceClient = new InventoryServiceClient(inventoryHttpClient,
+                new InventoryReplica(new SimpleMeterRegistry(), false));
+        // Nothing is cached, so every booking pays for the customer lookup
+        final CustomerCache customerCache = new CustomerCache(customerRepository, new SimpleMeterRegistry(), 0,
+                Duration.ZERO, Duration.ZERO, Ticker.systemTicker());
+        bookingService = new BookingService(customerCache, inventoryServiceClient,
+                mock(BookingEventOutbox.class), bookingRepository, mock(HoldCompensationService.class));
+
+        when(customerRepository.findById(anyLong())).thenAnswer(invocation -> {
+            sleep(CUSTOMER_DELAY_MS);
+            final Long id = invocation.getArgument(0);
+            return id < 0 ? Optional.empty() : Optional.of(Customer.builder().id(id).build());
+        });
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> {
+            final Booking booking = invocation.getArgument(0);
+            booking.setId(bookingIds.incrementAndGet());
+            return booking;
+        });
+    }
+
+    @AfterEach
+    void stopInventory() {
+        inventoryHttpClient.close();
+        server.stop(0);
+        restoreProperty(NODELAY, previousNodelay);
+        restoreProperty(MAX_IDLE_CONNECTIONS, previousMaxIdleConnections);
+    }
+
+    @Test
+    void unknownUserAbandonsTheInventoryFetch() throws InterruptedException {
+        assertThatThrownBy(() -> inTransaction(() ->
+                bookingService.createBooking(new BookingRequest(-1L, ABANDONED_EVENT_ID, 2L))))
+                .hasMessage("User not found with ID: -1");
+
+        // The call is aborted once the lookup fails, rather than left waiting on inventory
+        final long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (clientMetrics.find("inventory.client.requests").tag("operation", "getInventory").timer() == null
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(clientMetrics.get("inventory.client.requests").tag("operation", "getInventory")
+                .tag("outcome", "IO_ERROR").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentClientsBenchmark() throws Exception {
+        final Result platform;
+        try (ExecutorService tomcatPool = Executors.newFixedThreadPool(PLATFORM_THREADS)) {
+            platform = run(tomcatPool, this::sequentialLookups);
+        }
+        final Result virtual;
+        try (ExecutorService virtualThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            virtual = run(virtualThreads, this::createBooking);
+        }
+
+        assertThat(platform.completed()).isEqualTo(CLIENTS * REQUESTS_PER_CLIENT);
+        assertThat(virtual.completed()).isEqualTo(CLIENTS * REQUESTS_PER_CLIENT);
+        System.out.printf("createBooking with %d concurrent clients: %d platform threads, lookups in sequence "
+                        + "%.0f req/s, p99 %d ms; virtual threads with fan-out %.0f req/s, p99 %d ms%n",
+                CLIENTS, PLATFORM_THREADS, platform.throughput(), platform.p99Millis(),
+                virtual.throughput(), virtual.p99Millis());
+    }
+
+    private BookingResponse createBooking() {
+        return inTransaction(() -> bookingService.createBooking(new BookingRequest(1L, 7L, 2L)));
+    }
+
+    /**
+     * What createBooking did before the fan-out: user, then inventory, then the hold.
+     */
+    private BookingResponse sequentialLookups() {
+        customerRepository.findById(1L).orElseThrow();
+        inventoryServiceClient.fetchInventory(7L);
+        inventoryServiceClient.placeHold(7L, 2L);
+        return BookingResponse.builder().bookingId(bookingIds.incrementAndGet()).build();
+    }
+
+    /**
+     * Each client sends its requests one after the other; latency includes time queued for a thread.
+     */
+    private Result run(final ExecutorService executor, final Supplier<BookingResponse> request) throws Exception {
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<long[]>> clients = new ArrayList<>(CLIENTS);
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < CLIENTS; i++) {
+                clients.add(clientThreads.submit(() -> {
+                    start.await();
+                    final long[] latencies = new long[REQUESTS_PER_CLIENT];
+                    for (int r = 0; r < REQUESTS_PER_CLIENT; r++) {
+                        final long sentAt = System.nanoTime();
+                        executor.submit(request::get).get();
+                        latencies[r] = System.nanoTime() - sentAt;
+                    }
+                    return latencies;
+                }));
+            }
+            final long startedAt = System.nanoTime();
+            start.countDown();
+            final long[] latencies = new long[CLIENTS * REQUESTS_PER_CLIENT];
+            int completed = 0;
+            for (Future<long[]> client : clients) {
+                for (long latency : client.get()) {
+                    latencies[completed++] = latency;
+                }
+            }
+            final double seconds = (System.nanoTime() - startedAt) / 1e9;
+            Arrays.sort(latencies);
+            return new Result(completed, completed / seconds, latencies[latencies.length * 99 / 100] / 1_000_000);
+        }
+    }
+
+    private static <T> T inTransaction(final Supplier<T> work) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            return work.get();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static void restoreProperty(final String key, final String value) {
+        if (value == null) {
+            System.clearProperty(key);
+        } else {
+            System.setProperty(key, value);
+        }
+    }
+
+    private static void respond(final HttpExchange exchange, final String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private static void sleep(final long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Result(int completed, double throughput, long p99Millis) {
+    }
+}
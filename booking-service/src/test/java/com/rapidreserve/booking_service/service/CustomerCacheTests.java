@@ -0,0 +1,72 @@
+package com.rapidreserve.booking_service.service;
+
+import com.rapidreserve.booking_service.entity.Customer;
+import com.rapidreserve.booking_service.repository.CustomerRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CustomerCacheTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CustomerRepository customerRepository = mock(CustomerRepository.class);
+    private final AtomicLong nanos = new AtomicLong();
+    private final CustomerCache cache = new CustomerCache(customerRepository, meterRegistry, 100,
+            Duration.ofMinutes(10), Duration.ofSeconds(30), nanos::get);
+
+    @Test
+    void repeatLookupsDoNotQueryUntilTheTtlPasses() {
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(Customer.builder().id(1L).build()));
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(cache.find(1L)).map(Customer::getId).contains(1L);
+        }
+        assertThat(cache.exists(1L)).isTrue();
+        verify(customerRepository, times(1)).findById(1L);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", CustomerCache.CACHE_NAME).tag("result", "hit")
+                .functionCounter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("booking.customer.cache.hit.ratio").gauge().value()).isEqualTo(5.0 / 6);
+
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(11));
+        cache.find(1L);
+        verify(customerRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void unknownIdsAreRememberedOnlyBriefly() {
+        when(customerRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(cache.exists(-1L)).isFalse();
+        }
+        verify(customerRepository, times(1)).findById(-1L);
+
+        // The customer is created elsewhere; it is found once the negative entry expires
+        when(customerRepository.findById(-1L)).thenReturn(Optional.of(Customer.builder().id(-1L).build()));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(31));
+        assertThat(cache.exists(-1L)).isTrue();
+    }
+
+    @Test
+    void invalidateForcesTheNextLookupToQuery() {
+        when(customerRepository.findById(2L)).thenReturn(Optional.of(Customer.builder().id(2L).name("Old").build()));
+        cache.find(2L);
+
+        when(customerRepository.findById(2L)).thenReturn(Optional.of(Customer.builder().id(2L).name("New").build()));
+        cache.invalidate(2L);
+
+        assertThat(cache.find(2L)).map(Customer::getName).contains("New");
+        verify(customerRepository, times(2)).findById(2L);
+    }
+}
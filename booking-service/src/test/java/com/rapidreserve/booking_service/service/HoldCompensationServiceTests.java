@@ -0,0 +1,94 @@
+package com.rapidreserve.booking_service.service;
+
+import com.rapidreserve.booking_service.client.InventoryServiceClient;
+import com.rapidreserve.booking_service.entity.Booking;
+import com.rapidreserve.booking_service.repository.BookingRepository;
+import com.rapidreserve.booking_service.response.HoldResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HoldCompensationServiceTests {
+
+    private final InventoryServiceClient inventoryServiceClient = mock(InventoryServiceClient.class);
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HoldCompensationService service = new HoldCompensationService(inventoryServiceClient,
+            bookingRepository, meterRegistry, true, 100);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void releasesOnlyOnceTheCancellationCommits() {
+        final Booking booking = booking(1L, "hold-1");
+        when(inventoryServiceClient.cancelHold("hold-1")).thenReturn(Optional.of(hold("CANCELLED")));
+
+        TransactionSynchronizationManager.initSynchronization();
+        service.releaseAfterCommit(booking);
+        assertThat(booking.getHoldReleasePending()).isTrue();
+        verify(inventoryServiceClient, never()).cancelHold(any());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(inventoryServiceClient).cancelHold("hold-1");
+        verify(bookingRepository).clearHoldReleasePending(1L);
+    }
+
+    @Test
+    void failedReleasesAreRetriedUntilInventoryAnswers() {
+        when(inventoryServiceClient.cancelHold("hold-2"))
+                .thenThrow(new RuntimeException("Connection refused"))
+                .thenReturn(Optional.of(hold("RELEASED")));
+        when(inventoryServiceClient.cancelHold("hold-3")).thenReturn(Optional.empty());
+        when(bookingRepository.findByHoldReleasePendingTrueOrderByIdAsc(any()))
+                .thenReturn(List.of(booking(2L, "hold-2"), booking(3L, "hold-3")));
+
+        assertThat(service.release(2L, "hold-2")).isFalse();
+        verify(bookingRepository, never()).clearHoldReleasePending(2L);
+
+        assertThat(service.retryPending()).isEqualTo(2);
+        verify(inventoryServiceClient, times(2)).cancelHold("hold-2");
+        verify(bookingRepository).clearHoldReleasePending(2L);
+        // A hold inventory does not know about has nothing to give back
+        verify(bookingRepository).clearHoldReleasePending(3L);
+        assertThat(meterRegistry.get("booking.hold.compensations").tag("result", "failed").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("booking.hold.compensations").tag("result", "missing").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void retriesStopAtTheFirstFailure() {
+        when(inventoryServiceClient.cancelHold(any())).thenThrow(new RuntimeException("Connection refused"));
+        when(bookingRepository.findByHoldReleasePendingTrueOrderByIdAsc(any()))
+                .thenReturn(List.of(booking(4L, "hold-4"), booking(5L, "hold-5")));
+
+        assertThat(service.retryPending()).isZero();
+        verify(inventoryServiceClient, never()).cancelHold("hold-5");
+    }
+
+    private static Booking booking(final Long id, final String holdId) {
+        return Booking.builder().id(id).holdId(holdId).status(Booking.BookingStatus.CANCELLED).build();
+    }
+
+    private static HoldResponse hold(final String status) {
+        return HoldResponse.builder().holdId("hold").status(status).build();
+    }
+}
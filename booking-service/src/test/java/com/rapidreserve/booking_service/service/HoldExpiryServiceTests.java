@@ -0,0 +1,87 @@
+package com.rapidreserve.booking_service.service;
+
+import com.rapidreserve.booking_service.client.InventoryServiceClient;
+import com.rapidreserve.booking_service.entity.Booking;
+import com.rapidreserve.booking_service.event.BookingEvent;
+import com.rapidreserve.booking_service.repository.BookingRepository;
+import com.rapidreserve.booking_service.response.HoldResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HoldExpiryServiceTests {
+
+    private final InventoryServiceClient inventoryServiceClient = mock(InventoryServiceClient.class);
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final BookingEventOutbox bookingEventOutbox = mock(BookingEventOutbox.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final HoldExpiryService service = new HoldExpiryService(inventoryServiceClient, bookingRepository,
+            bookingEventOutbox, mock(PlatformTransactionManager.class), meterRegistry, true, 600, 100);
+
+    @Test
+    void cancelsPendingBookingsWhoseHoldLapsed() {
+        pending(booking(1L, "hold-1"), booking(2L, "hold-2"), booking(3L, "hold-3"), booking(4L, "hold-4"));
+        when(inventoryServiceClient.getHold("hold-1")).thenReturn(Optional.of(hold("EXPIRED")));
+        when(inventoryServiceClient.getHold("hold-2")).thenReturn(Optional.of(hold("ACTIVE")));
+        when(inventoryServiceClient.getHold("hold-3")).thenReturn(Optional.empty());
+        when(inventoryServiceClient.getHold("hold-4")).thenReturn(Optional.of(hold("RELEASED")));
+        when(bookingRepository.cancelPendingWithHold(any(), anyString(), any(), any(), any())).thenReturn(1);
+
+        assertThat(service.cancelExpired()).isEqualTo(3);
+
+        verify(bookingRepository, never()).cancelPendingWithHold(eq(2L), any(), any(), any(), any());
+        final ArgumentCaptor<BookingEvent> event = ArgumentCaptor.forClass(BookingEvent.class);
+        verify(bookingEventOutbox).append(eq("booking-cancellation"), eq(1L), event.capture());
+        assertThat(event.getValue().getStatus()).isEqualTo("CANCELLED");
+        assertThat(event.getValue().getHoldId()).isEqualTo("hold-1");
+        assertThat(meterRegistry.get("booking.hold.expired").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    void leavesBookingsThatChangedMeanwhile() {
+        pending(booking(5L, "hold-5"));
+        when(inventoryServiceClient.getHold("hold-5")).thenReturn(Optional.of(hold("EXPIRED")));
+        // Confirmed, cancelled or moved to another hold since it was read
+        when(bookingRepository.cancelPendingWithHold(eq(5L), eq("hold-5"), eq(Booking.BookingStatus.PENDING),
+                eq(Booking.BookingStatus.CANCELLED), any())).thenReturn(0);
+
+        assertThat(service.cancelExpired()).isZero();
+        verify(bookingEventOutbox, never()).append(any(), any(), any());
+    }
+
+    @Test
+    void stopsAtTheFirstLookupInventoryDoesNotAnswer() {
+        pending(booking(6L, "hold-6"), booking(7L, "hold-7"));
+        when(inventoryServiceClient.getHold("hold-6")).thenThrow(new RuntimeException("Connection refused"));
+
+        assertThat(service.cancelExpired()).isZero();
+        verify(inventoryServiceClient, never()).getHold("hold-7");
+    }
+
+    private void pending(final Booking... bookings) {
+        when(bookingRepository.findByStatusAndHoldIdIsNotNullAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+                eq(Booking.BookingStatus.PENDING), any(), any())).thenReturn(List.of(bookings));
+    }
+
+    private static Booking booking(final Long id, final String holdId) {
+        return Booking.builder().id(id).userId(1L).eventId(7L).ticketCount(2L).holdId(holdId)
+                .status(Booking.BookingStatus.PENDING).build();
+    }
+
+    private static HoldResponse hold(final String status) {
+        return HoldResponse.builder().holdId("hold").status(status).build();
+    }
+}
@@ -0,0 +1,110 @@
+package com.rapidreserve.booking_service.service;
+
+import com.rapidreserve.booking_service.exception.IdempotencyConflictException;
+import com.rapidreserve.booking_service.request.BookingRequest;
+import com.rapidreserve.booking_service.response.BookingResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyStoreTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong nanos = new AtomicLong();
+    private final IdempotencyStore store = new IdempotencyStore(meterRegistry, 100, Duration.ofMinutes(10),
+            Duration.ofSeconds(5), nanos::get);
+    private final AtomicInteger bookingsCreated = new AtomicInteger();
+
+    @Test
+    void repeatRequestsGetTheOriginalResponse() {
+        final BookingResponse first = store.execute("key-1", request(2), this::createBooking);
+        final BookingResponse retry = store.execute("key-1", request(2), this::createBooking);
+
+        assertThat(retry).isSameAs(first);
+        assertThat(bookingsCreated).hasValue(1);
+        assertThat(meterRegistry.get("booking.idempotency.requests").tag("result", "replayed").counter().count())
+                .isEqualTo(1);
+
+        // Expired keys run again
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(11));
+        assertThat(store.execute("key-1", request(2), this::createBooking).getBookingId()).isEqualTo(2L);
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForTheInFlightRequest() throws Exception {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch finish = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final Future<BookingResponse> original = executor.submit(() -> store.execute("key-2", request(4), () -> {
+                started.countDown();
+                await(finish);
+                return createBooking();
+            }));
+            started.await();
+
+            final List<Future<BookingResponse>> duplicates = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                duplicates.add(executor.submit(() -> store.execute("key-2", request(4), this::createBooking)));
+            }
+            finish.countDown();
+
+            final BookingResponse booking = original.get(5, TimeUnit.SECONDS);
+            for (Future<BookingResponse> duplicate : duplicates) {
+                assertThat(duplicate.get(5, TimeUnit.SECONDS)).isSameAs(booking);
+            }
+            assertThat(bookingsCreated).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void failuresAreNotRemembered() {
+        assertThatThrownBy(() -> store.execute("key-3", request(1), () -> {
+            throw new RuntimeException("Not enough tickets available");
+        })).hasMessage("Not enough tickets available");
+
+        assertThat(store.execute("key-3", request(1), this::createBooking).getBookingId()).isEqualTo(1L);
+    }
+
+    @Test
+    void keysCannotBeReusedForAnotherRequest() {
+        store.execute("key-4", request(1), this::createBooking);
+
+        assertThatThrownBy(() -> store.execute("key-4", request(3), this::createBooking))
+                .isInstanceOf(IdempotencyConflictException.class);
+        assertThatThrownBy(() -> store.execute(" ", request(1), this::createBooking))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(bookingsCreated).hasValue(1);
+    }
+
+    private BookingResponse createBooking() {
+        return BookingResponse.builder().bookingId((long) bookingsCreated.incrementAndGet()).build();
+    }
+
+    private static BookingRequest request(final long tickets) {
+        return new BookingRequest(1L, 10L, tickets);
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
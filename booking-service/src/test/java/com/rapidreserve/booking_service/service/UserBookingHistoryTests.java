@@ -0,0 +1,130 @@
+package com.rapidreserve.booking_service.service;
+
+import com.rapidreserve.booking_service.entity.Booking;
+import com.rapidreserve.booking_service.repository.BookingRepository;
+import com.rapidreserve.booking_service.response.BookingPageResponse;
+import com.rapidreserve.booking_service.response.BookingResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class UserBookingHistoryTests {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private BookingService bookingService;
+
+    @BeforeEach
+    void setUp() {
+        final CustomerCache customerCache = mock(CustomerCache.class);
+        when(customerCache.exists(1L)).thenReturn(true);
+        when(customerCache.exists(2L)).thenReturn(true);
+        bookingService = new BookingService(customerCache, null, null, bookingRepository, null);
+    }
+
+    @Test
+    void pagesNewestFirstWithOneQueryPerPage() {
+        // Three bookings per instant, so pages split rows that share a createdAt
+        final List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            bookings.add(save(1L, i % 3 == 0 ? Booking.BookingStatus.CONFIRMED : Booking.BookingStatus.PENDING,
+                    START.plusMinutes(i / 3)));
+        }
+        save(2L, Booking.BookingStatus.CONFIRMED, START);
+        final List<Long> newestFirst = bookings.stream()
+                .sorted(Comparator.comparing(Booking::getCreatedAt).thenComparing(Booking::getId).reversed())
+                .map(Booking::getId)
+                .toList();
+
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        final List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            final BookingPageResponse page = bookingService.getUserBookings(1L, null, cursor, 40);
+            page.getBookings().forEach(booking -> seen.add(booking.getBookingId()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(seen).containsExactlyElementsOf(newestFirst);
+        assertThat(pages).isEqualTo(7);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(7);
+        // Rows are read straight into the projection, never as managed bookings
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void filtersByStatus() {
+        for (int i = 0; i < 30; i++) {
+            save(1L, i % 3 == 0 ? Booking.BookingStatus.CANCELLED : Booking.BookingStatus.CONFIRMED,
+                    START.plusSeconds(i));
+        }
+
+        final BookingPageResponse first = bookingService.getUserBookings(1L, Booking.BookingStatus.CANCELLED, null, 6);
+        final BookingPageResponse second =
+                bookingService.getUserBookings(1L, Booking.BookingStatus.CANCELLED, first.getNextCursor(), 6);
+
+        assertThat(first.getBookings()).hasSize(6).extracting(BookingResponse::getStatus).containsOnly("CANCELLED");
+        assertThat(first.getBookings().get(0).getCreatedAt()).isEqualTo(START.plusSeconds(27));
+        assertThat(second.getBookings()).hasSize(4).extracting(BookingResponse::getStatus).containsOnly("CANCELLED");
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    @Test
+    void rejectsCursorsItDidNotIssue() {
+        assertThatThrownBy(() -> bookingService.getUserBookings(1L, null, "not-a-cursor", 10))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid cursor: not-a-cursor");
+        assertThatThrownBy(() -> bookingService.getUserBookings(1L, null, null, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Booking save(final Long userId, final Booking.BookingStatus status, final LocalDateTime createdAt) {
+        final Booking booking = bookingRepository.saveAndFlush(Booking.builder()
+                .userId(userId)
+                .eventId(7L)
+                .ticketCount(1L)
+                .totalPrice(BigDecimal.TEN)
+                .status(status)
+                .build());
+        // createdAt is stamped on insert; move it to the instant the test needs
+        entityManager.createQuery("UPDATE Booking b SET b.createdAt = :createdAt WHERE b.id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", booking.getId())
+                .executeUpdate();
+        entityManager.clear();
+        booking.setCreatedAt(createdAt);
+        return booking;
+    }
+}
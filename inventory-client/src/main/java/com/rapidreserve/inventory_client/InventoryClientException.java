@@ -0,0 +1,33 @@
+package com.rapidreserve.inventory_client;
+
+/**
+ * A call to inventory-service that did not succeed. The message is inventory-service's own error
+ * message when it sent one.
+ */
+public class InventoryClientException extends RuntimeException {
+
+    /**
+     * Status of calls that got no response at all.
+     */
+    public static final int NO_RESPONSE = 0;
+
+    private final int statusCode;
+
+    public InventoryClientException(final int statusCode, final String message) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public InventoryClientException(final int statusCode, final String message, final Throwable cause) {
+        super(message, cause);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public boolean isNotFound() {
+        return statusCode == 404;
+    }
+}
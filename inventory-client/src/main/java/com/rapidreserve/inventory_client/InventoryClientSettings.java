@@ -0,0 +1,26 @@
+package com.rapidreserve.inventory_client;
+
+import java.time.Duration;
+
+/**
+ * Connection settings of an {@link InventoryHttpClient}.
+ *
+ * @param baseUrl        inventory-service API root, e.g. {@code http://localhost:8080/api/v1/inventory}
+ * @param connectTimeout time to open a connection, and to wait for a free one when the pool is exhausted
+ * @param readTimeout    time to wait for a response once the request is sent
+ * @param maxConnections connections kept open to inventory-service
+ * @param idleTimeout    idle connections are closed after this long
+ */
+public record InventoryClientSettings(String baseUrl, Duration connectTimeout, Duration readTimeout,
+                                      int maxConnections, Duration idleTimeout) {
+
+    public InventoryClientSettings {
+        if (baseUrl == null || baseUrl.isBlank()) {
+            throw new IllegalArgumentException("Inventory service URL is required");
+        }
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("At least one connection is required");
+        }
+        baseUrl = baseUrl.trim().replaceAll("/+$", "");
+    }
+}
@@ -0,0 +1,264 @@
+package com.rapidreserve.inventory_client;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Typed client for the inventory-service API, shared by the services that call it.
+ * <p>
+ * Calls go over a pool of keep-alive connections with connect and read timeouts. inventory-service
+ * wraps every response in {@code {"meta": ..., "data": ...}}; the client streams the body and binds
+ * {@code data} straight into the requested type instead of building a map first. Errors surface as
+ * {@link InventoryClientException} carrying inventory-service's own message.
+ * <p>
+ * Every call is timed under {@code inventory.client.requests}, tagged with its operation name and
+ * outcome, with a latency histogram. The async variants run the same call on a virtual thread; the
+ * connection pool still bounds how many are in flight.
+ */
+public class InventoryHttpClient implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryHttpClient.class);
+
+    private static final String REQUESTS = "inventory.client.requests";
+
+    private final InventoryClientSettings settings;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader reader;
+    private final MeterRegistry meterRegistry;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final RestClient restClient;
+    private final ExecutorService asyncExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public InventoryHttpClient(final InventoryClientSettings settings, final ObjectMapper objectMapper,
+                               final MeterRegistry meterRegistry) {
+        this.settings = settings;
+        this.objectMapper = objectMapper;
+        // inventory-service may add fields before its callers know about them
+        this.reader = objectMapper.reader().without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.meterRegistry = meterRegistry;
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(settings.maxConnections())
+                .setMaxConnPerRoute(settings.maxConnections())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(settings.connectTimeout()))
+                        .setSocketTimeout(Timeout.of(settings.readTimeout()))
+                        // Catches connections the server closed while they sat in the pool
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(settings.connectTimeout()))
+                        .setResponseTimeout(Timeout.of(settings.readTimeout()))
+                        .build())
+                .evictIdleConnections(TimeValue.of(settings.idleTimeout()))
+                .disableCookieManagement()
+                .build();
+        this.restClient = RestClient.builder()
+                .requestFactory(new HttpComponentsClientHttpRequestFactory(httpClient))
+                .messageConverters(converters -> {
+                    converters.clear();
+                    converters.add(new MappingJackson2HttpMessageConverter(objectMapper));
+                })
+                .build();
+
+        connectionGauge("leased", pool -> pool.getTotalStats().getLeased());
+        connectionGauge("available", pool -> pool.getTotalStats().getAvailable());
+        connectionGauge("pending", pool -> pool.getTotalStats().getPending());
+    }
+
+    // =============================================
+    // BLOCKING CALLS
+    // =============================================
+
+    public <T> T get(final String operation, final String path, final Class<T> type) {
+        return exchange(operation, HttpMethod.GET, path, null, type);
+    }
+
+    public <T> T post(final String operation, final String path, final Object body, final Class<T> type) {
+        return exchange(operation, HttpMethod.POST, path, body, type);
+    }
+
+    public <T> T put(final String operation, final String path, final Object body, final Class<T> type) {
+        return exchange(operation, HttpMethod.PUT, path, body, type);
+    }
+
+    public <T> T delete(final String operation, final String path, final Class<T> type) {
+        return exchange(operation, HttpMethod.DELETE, path, null, type);
+    }
+
+    /**
+     * Sends one request and returns its {@code data}, or null for {@code Void.class}.
+     *
+     * @param operation name the call is timed under
+     * @param path      path below the base URL, starting with {@code /}
+     */
+    public <T> T exchange(final String operation, final HttpMethod method, final String path, final Object body,
+                          final Class<T> type) {
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        final String[] outcome = {"IO_ERROR"};
+        try {
+            final RestClient.RequestBodySpec request = restClient.method(method)
+                    .uri(URI.create(settings.baseUrl() + path))
+                    .accept(MediaType.APPLICATION_JSON);
+            if (body != null) {
+                request.contentType(MediaType.APPLICATION_JSON).body(body);
+            }
+            return request.exchange((clientRequest, response) -> {
+                final int status = response.getStatusCode().value();
+                outcome[0] = outcome(status);
+                if (status >= 400) {
+                    throw error(status, response.getBody());
+                }
+                return type == Void.class ? null : readData(status, response.getBody(), type);
+            });
+        } catch (RestClientException e) {
+            throw new InventoryClientException(InventoryClientException.NO_RESPONSE,
+                    "Inventory service unavailable: " + e.getMessage(), e);
+        } finally {
+            sample.stop(Timer.builder(REQUESTS)
+                    .description("Calls to inventory-service")
+                    .tag("operation", operation)
+                    .tag("outcome", outcome[0])
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    // =============================================
+    // ASYNC CALLS
+    // =============================================
+
+    public <T> CompletableFuture<T> getAsync(final String operation, final String path, final Class<T> type) {
+        return exchangeAsync(operation, HttpMethod.GET, path, null, type);
+    }
+
+    public <T> CompletableFuture<T> postAsync(final String operation, final String path, final Object body,
+                                              final Class<T> type) {
+        return exchangeAsync(operation, HttpMethod.POST, path, body, type);
+    }
+
+    public <T> CompletableFuture<T> putAsync(final String operation, final String path, final Object body,
+                                             final Class<T> type) {
+        return exchangeAsync(operation, HttpMethod.PUT, path, body, type);
+    }
+
+    /**
+     * Runs the call on its own virtual thread. Cancelling the returned future interrupts that
+     * thread, which closes the connection if the call is blocked on it.
+     */
+    public <T> CompletableFuture<T> exchangeAsync(final String operation, final HttpMethod method, final String path,
+                                                  final Object body, final Class<T> type) {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        final Future<?> call = asyncExecutor.submit(() -> {
+            try {
+                result.complete(exchange(operation, method, path, body, type));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+            }
+        });
+        result.whenComplete((value, e) -> {
+            if (result.isCancelled()) {
+                call.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    @Override
+    public void close() {
+        asyncExecutor.shutdown();
+        try {
+            httpClient.close();
+        } catch (IOException e) {
+            log.warn("Failed to close inventory client: {}", e.getMessage());
+        }
+    }
+
+    // =============================================
+    // PRIVATE HELPER METHODS
+    // =============================================
+
+    /**
+     * Reads up to the {@code data} field and binds it; whatever follows is never parsed.
+     */
+    private <T> T readData(final int status, final InputStream body, final Class<T> type) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    final String field = parser.currentName();
+                    parser.nextToken();
+                    if ("data".equals(field)) {
+                        return parser.currentToken() == JsonToken.VALUE_NULL ? null : reader.readValue(parser, type);
+                    }
+                    parser.skipChildren();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new InventoryClientException(status, "Invalid response from inventory service: "
+                    + e.getOriginalMessage(), e);
+        }
+        throw new InventoryClientException(status, "Invalid response from inventory service");
+    }
+
+    private InventoryClientException error(final int status, final InputStream body) {
+        try {
+            final JsonNode message = objectMapper.readTree(body).path("meta").path("message");
+            if (message.isTextual()) {
+                return new InventoryClientException(status, message.asText());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Unreadable error response from inventory service: {}", e.getMessage());
+        }
+        return new InventoryClientException(status, "Inventory service error: " + status);
+    }
+
+    private static String outcome(final int status) {
+        if (status >= 500) {
+            return "SERVER_ERROR";
+        }
+        return status >= 400 ? "CLIENT_ERROR" : "SUCCESS";
+    }
+
+    private void connectionGauge(final String state, final ToDoubleFunction<PoolingHttpClientConnectionManager> value) {
+        Gauge.builder("inventory.client.connections", connectionManager, value)
+                .description("Pooled connections to inventory-service")
+                .tag("state", state)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,122 @@
+package com.rapidreserve.inventory_client;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Load benchmark of the shared client against what both services used to do on every call: a new
+ * RestTemplate, the body parsed into a map, then converted into the response type.
+ */
+class InventoryClientBenchmarkTests {
+
+    private static final Logger log = LoggerFactory.getLogger(InventoryClientBenchmarkTests.class);
+
+    private static final String NODELAY = "sun.net.httpserver.nodelay";
+    private static final int WARMUP_CALLS = 1_000;
+    private static final int MEASURED_CALLS = 5_000;
+    private static final String INVENTORY = "{\"meta\":{\"code\":200,\"success\":true,"
+            + "\"message\":\"Event inventory retrieved successfully\"},\"data\":{\"eventId\":7,"
+            + "\"event\":\"Opening Night\",\"capacity\":5000,\"availableCapacity\":4120,\"ticketPrice\":49.90,"
+            + "\"venue\":{\"id\":3,\"name\":\"Benchmark Arena\",\"address\":\"1 Load Street\",\"totalCapacity\":20000}}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private HttpServer server;
+    private String baseUrl;
+    private InventoryHttpClient client;
+    private String previousNodelay;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        // Without it the test server's small writes wait on delayed ACKs
+        previousNodelay = System.setProperty(NODELAY, "true");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(4));
+        server.createContext("/api/v1/inventory/event/7",
+                exchange -> InventoryHttpClientTests.respond(exchange, 200, INVENTORY));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v1/inventory";
+        client = new InventoryHttpClient(new InventoryClientSettings(baseUrl, Duration.ofSeconds(1),
+                Duration.ofSeconds(5), 8, Duration.ofSeconds(30)), objectMapper, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void stopServer() {
+        client.close();
+        server.stop(0);
+        if (previousNodelay == null) {
+            System.clearProperty(NODELAY);
+        } else {
+            System.setProperty(NODELAY, previousNodelay);
+        }
+    }
+
+    @Test
+    void sharedClientBenchmark() {
+        final Result legacy = measure(this::legacyCall);
+        final Result shared = measure(() -> client.get("getInventory", "/event/7", InventoryHttpClientTests.Inventory.class));
+
+        assertThat(legacy.last().availableCapacity()).isEqualTo(4120L);
+        // The map holds prices as doubles, so only the value survives the legacy round trip, not the scale
+        assertThat(shared.last()).usingRecursiveComparison()
+                .withComparatorForType(BigDecimal::compareTo, BigDecimal.class)
+                .isEqualTo(legacy.last());
+
+        log.info("inventory client over {} calls: per-call RestTemplate + Map p50 {} us, p99 {} us, "
+                        + "{} bytes allocated; shared client p50 {} us, p99 {} us, {} bytes allocated",
+                MEASURED_CALLS, legacy.p50Micros(), legacy.p99Micros(), legacy.bytesPerCall(),
+                shared.p50Micros(), shared.p99Micros(), shared.bytesPerCall());
+    }
+
+    @SuppressWarnings("unchecked")
+    private InventoryHttpClientTests.Inventory legacyCall() {
+        final RestTemplate restTemplate = new RestTemplate();
+        final Map responseBody = restTemplate.getForObject(baseUrl + "/event/7", Map.class);
+        final Map<String, Object> data = (Map<String, Object>) responseBody.get("data");
+        return new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .convertValue(data, InventoryHttpClientTests.Inventory.class);
+    }
+
+    private Result measure(final Supplier<InventoryHttpClientTests.Inventory> call) {
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            call.get();
+        }
+        final com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        final long[] nanos = new long[MEASURED_CALLS];
+        InventoryHttpClientTests.Inventory last = null;
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            final long startedAt = System.nanoTime();
+            last = call.get();
+            nanos[i] = System.nanoTime() - startedAt;
+        }
+        final long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        Arrays.sort(nanos);
+        return new Result(last, nanos[MEASURED_CALLS / 2] / 1_000, nanos[MEASURED_CALLS * 99 / 100] / 1_000,
+                allocated / MEASURED_CALLS);
+    }
+
+    private record Result(InventoryHttpClientTests.Inventory last, long p50Micros, long p99Micros, long bytesPerCall) {
+    }
+}
@@ -0,0 +1,163 @@
+package com.rapidreserve.inventory_client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InventoryHttpClientTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> requestBodies = new CopyOnWriteArrayList<>();
+    private final CountDownLatch slowRequestReceived = new CountDownLatch(1);
+    private HttpServer server;
+    private InventoryHttpClient client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        // Without it the test server's small writes wait on delayed ACKs
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/v1/inventory/event/7", exchange -> respond(exchange, 200,
+                "{\"meta\":{\"code\":200,\"success\":true,\"message\":\"ok\"},\"data\":{\"eventId\":7,"
+                        + "\"event\":\"Opening Night\",\"availableCapacity\":40,\"ticketPrice\":12.50,"
+                        + "\"venue\":{\"id\":3,\"name\":\"Client Hall\"},\"unknown\":[1,2]},\"trailer\":{}}"));
+        server.createContext("/api/v1/inventory/event/8", exchange -> respond(exchange, 404,
+                "{\"meta\":{\"code\":404,\"success\":false,\"message\":\"Event not found with id: 8\"},\"data\":null}"));
+        server.createContext("/api/v1/inventory/event/9", exchange -> respond(exchange, 502, "Bad gateway"));
+        server.createContext("/api/v1/inventory/slow", exchange -> {
+            slowRequestReceived.countDown();
+            sleep(Duration.ofMillis(500));
+            respond(exchange, 200, "{\"data\":null}");
+        });
+        server.createContext("/api/v1/inventory/holds", exchange -> {
+            requestBodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            respond(exchange, 200, "{\"meta\":{\"message\":\"Hold placed\"},\"data\":{\"holdId\":\"h-1\",\"status\":\"ACTIVE\"}}");
+        });
+        server.start();
+
+        client = new InventoryHttpClient(new InventoryClientSettings(
+                "http://127.0.0.1:" + server.getAddress().getPort() + "/api/v1/inventory/",
+                Duration.ofSeconds(1), Duration.ofMillis(200), 4, Duration.ofSeconds(30)),
+                new ObjectMapper(), meterRegistry);
+    }
+
+    @AfterEach
+    void stopServer() {
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    void bindsTheDataFieldIntoTheRequestedType() {
+        final Inventory inventory = client.get("getInventory", "/event/7", Inventory.class);
+
+        assertThat(inventory.eventId()).isEqualTo(7L);
+        assertThat(inventory.availableCapacity()).isEqualTo(40L);
+        assertThat(inventory.ticketPrice()).isEqualByComparingTo("12.50");
+        assertThat(inventory.venue().name()).isEqualTo("Client Hall");
+        assertThat(client.get("getInventory", "/event/7", Void.class)).isNull();
+
+        final Hold hold = client.post("placeHold", "/holds", Map.of("tickets", 2), Hold.class);
+        assertThat(hold.holdId()).isEqualTo("h-1");
+        assertThat(requestBodies).containsExactly("{\"tickets\":2}");
+    }
+
+    @Test
+    void errorsCarryTheInventoryMessageAndStatus() {
+        assertThatThrownBy(() -> client.get("getInventory", "/event/8", Inventory.class))
+                .isInstanceOfSatisfying(InventoryClientException.class, e -> {
+                    assertThat(e.isNotFound()).isTrue();
+                    assertThat(e.getMessage()).isEqualTo("Event not found with id: 8");
+                });
+        assertThatThrownBy(() -> client.get("getInventory", "/event/9", Inventory.class))
+                .isInstanceOfSatisfying(InventoryClientException.class, e ->
+                        assertThat(e.getMessage()).isEqualTo("Inventory service error: 502"));
+        assertThatThrownBy(() -> client.get("slow", "/slow", Inventory.class))
+                .isInstanceOfSatisfying(InventoryClientException.class, e ->
+                        assertThat(e.getStatusCode()).isEqualTo(InventoryClientException.NO_RESPONSE));
+
+        assertThat(meterRegistry.get("inventory.client.requests").tag("operation", "getInventory")
+                .tag("outcome", "CLIENT_ERROR").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("inventory.client.requests").tag("operation", "getInventory")
+                .tag("outcome", "SERVER_ERROR").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("inventory.client.requests").tag("operation", "slow")
+                .tag("outcome", "IO_ERROR").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void asyncCallsShareThePooledConnections() {
+        final List<CompletableFuture<Inventory>> calls = IntStream.range(0, 50)
+                .mapToObj(i -> client.getAsync("getInventory", "/event/7", Inventory.class))
+                .toList();
+
+        assertThat(calls).allSatisfy(call -> assertThat(call.join().eventId()).isEqualTo(7L));
+        assertThat(meterRegistry.get("inventory.client.requests").tag("outcome", "SUCCESS").timer().count())
+                .isEqualTo(50);
+        assertThat(meterRegistry.get("inventory.client.connections").tag("state", "leased").gauge().value())
+                .isZero();
+        assertThat(meterRegistry.get("inventory.client.connections").tag("state", "available").gauge().value())
+                .isBetween(1.0, 4.0);
+    }
+
+    @Test
+    void cancellingAnAsyncCallAbortsIt() throws InterruptedException {
+        final CompletableFuture<Inventory> call = client.getAsync("slow", "/slow", Inventory.class);
+        assertThat(slowRequestReceived.await(1, TimeUnit.SECONDS)).isTrue();
+        call.cancel(true);
+
+        // Aborted well before the 200 ms read timeout would have ended it
+        final long deadline = System.nanoTime() + Duration.ofMillis(100).toNanos();
+        while (meterRegistry.find("inventory.client.requests").tag("operation", "slow").timer() == null
+                && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(meterRegistry.get("inventory.client.requests").tag("operation", "slow")
+                .tag("outcome", "IO_ERROR").timer().count()).isEqualTo(1);
+        assertThat(call).isCancelled();
+    }
+
+    record Inventory(Long eventId, String event, Long availableCapacity, BigDecimal ticketPrice, Venue venue) {
+    }
+
+    record Venue(Long id, String name) {
+    }
+
+    record Hold(String holdId, String status) {
+    }
+
+    static void respond(final HttpExchange exchange, final int status, final String body) throws IOException {
+        final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private static void sleep(final Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.rapidreserve.inventory_service.config;
+
+import com.rapidreserve.inventory_service.service.InventoryChangePublisher;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+@ConditionalOnProperty(name = "inventory.changes.enabled", havingValue = "true")
+public class KafkaConfig {
+
+    // Compacted so a new consumer can rebuild the latest state of every event from the topic alone
+    @Bean
+    public NewTopic inventoryChangesTopic() {
+        return TopicBuilder.name(InventoryChangePublisher.TOPIC)
+                .compact()
+                .build();
+    }
+}
@@ -0,0 +1,104 @@
+package com.rapidreserve.inventory_service.config;
+
+import com.rapidreserve.read_replica.ReadYourWritesFilter;
+import com.rapidreserve.read_replica.ReplicaLagMonitor;
+import com.rapidreserve.read_replica.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Routes read-only transactions to a read replica of the inventory database. The primary keeps
+ * the usual {@code spring.datasource.*} settings; the replica is configured under
+ * {@code inventory.read-replica.*}. Not supported together with sharding, where every shard would
+ * need replicas of its own.
+ */
+@Configuration
+@ConditionalOnProperty(name = "inventory.read-replica.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    public ReadReplicaConfig(@Value("${inventory.sharding.enabled:false}") final boolean shardingEnabled) {
+        if (shardingEnabled) {
+            throw new IllegalStateException("inventory.read-replica.enabled cannot be combined with inventory.sharding.enabled");
+        }
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(final DataSourceProperties properties) {
+        final HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("inventory-primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(@Value("${inventory.read-replica.url}") final String url,
+                                              @Value("${inventory.read-replica.username:}") final String username,
+                                              @Value("${inventory.read-replica.password:}") final String password,
+                                              @Value("${inventory.read-replica.pool-size:10}") final int poolSize) {
+        final HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("inventory-replica");
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(final HikariDataSource primaryDataSource,
+                                               final HikariDataSource replicaDataSource,
+                                               @Value("${spring.application.name}") final String applicationName,
+                                               @Value("${inventory.read-replica.max-lag-ms:1000}") final long maxLagMillis,
+                                               final MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(primaryDataSource, replicaDataSource, applicationName, maxLagMillis,
+                "inventory", meterRegistry);
+    }
+
+    @Bean
+    public SchedulingConfigurer replicaHeartbeat(final ReplicaLagMonitor replicaLagMonitor,
+                                                 @Value("${inventory.read-replica.heartbeat-interval-ms:250}") final long intervalMillis) {
+        return registrar -> registrar.addFixedDelayTask(replicaLagMonitor::check, Duration.ofMillis(intervalMillis));
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(final HikariDataSource primaryDataSource,
+                                                             final HikariDataSource replicaDataSource,
+                                                             final ReplicaLagMonitor replicaLagMonitor,
+                                                             final MeterRegistry meterRegistry) {
+        return new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor,
+                "inventory", meterRegistry);
+    }
+
+    /**
+     * The datasource JPA, JDBC and the transaction manager see. Connections are only taken from the
+     * routing datasource at the first statement, once the transaction's read-only flag is known.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(final ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter() {
+        return new ReadYourWritesFilter();
+    }
+}
@@ -0,0 +1,66 @@
+package com.rapidreserve.inventory_service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out connections from the shard bound to the current thread, or from the primary shard
+ * when none is bound. The binding is read when a connection is first needed, so it has to be in
+ * place before a transaction runs its first statement and must not change until it completes.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private final List<HikariDataSource> shards;
+
+    public ShardRoutingDataSource(final List<HikariDataSource> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = List.copyOf(shards);
+        final Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        setLenientFallback(false);
+    }
+
+    public static Integer currentShard() {
+        return CURRENT_SHARD.get();
+    }
+
+    public static void bindShard(final Integer shard) {
+        if (shard == null) {
+            CURRENT_SHARD.remove();
+        } else {
+            CURRENT_SHARD.set(shard);
+        }
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public DataSource shard(final int shard) {
+        return shards.get(shard);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT_SHARD.get();
+    }
+
+    @Override
+    public void destroy() {
+        shards.forEach(HikariDataSource::close);
+    }
+}
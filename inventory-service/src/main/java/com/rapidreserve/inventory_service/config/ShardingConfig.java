@@ -0,0 +1,108 @@
+package com.rapidreserve.inventory_service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits the event table across several datasources. Every shard carries the full schema: an
+ * event and its holds live on the shard that owns the event id, venues are replicated to all of
+ * them so events can keep their foreign key and listing join.
+ * <p>
+ * Shard {@code i} of {@code N} only hands out event ids {@code i + 1}, {@code i + 1 + N}, ...
+ * (MySQL through the session's auto-increment offset and step, H2 through the identity column),
+ * so the owner of any event follows from its id alone. That ties existing ids to the shard count:
+ * shards must start empty and their number cannot change once events exist.
+ */
+@Configuration
+@ConditionalOnProperty(name = "inventory.sharding.enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+@Slf4j
+public class ShardingConfig {
+
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(final ShardingProperties properties) {
+        final int shardCount = properties.getShards().size();
+        if (shardCount == 0) {
+            throw new IllegalStateException("inventory.sharding.shards must list at least one datasource");
+        }
+        final List<HikariDataSource> shards = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            final ShardingProperties.Shard settings = properties.getShards().get(shard);
+            final HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(settings.getUrl())
+                    .username(settings.getUsername())
+                    .password(settings.getPassword())
+                    .build();
+            dataSource.setPoolName("inventory-shard-" + shard);
+            dataSource.setMaximumPoolSize(properties.getPoolSize());
+            if (settings.getUrl().startsWith("jdbc:mysql:")) {
+                dataSource.addDataSourceProperty("rewriteBatchedStatements", "true");
+                dataSource.setConnectionInitSql("SET SESSION auto_increment_increment = " + shardCount +
+                        ", auto_increment_offset = " + (shard + 1));
+            }
+            shards.add(dataSource);
+        }
+        log.info("Sharding events across {} datasource(s)", shardCount);
+        return new ShardRoutingDataSource(shards);
+    }
+
+    /**
+     * The datasource JPA, JDBC and the transaction manager see. Connections are only taken from
+     * the routing datasource at the first statement, so a service can pick the shard after its
+     * transaction has begun.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(final ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    /**
+     * Applies the migrations to every shard rather than only to the primary, then lines up each
+     * shard's event ids with its residue.
+     */
+    @Bean
+    public FlywayMigrationStrategy shardMigrationStrategy(final ShardRoutingDataSource shardRoutingDataSource) {
+        return flyway -> {
+            final int shardCount = shardRoutingDataSource.shardCount();
+            for (int shard = 0; shard < shardCount; shard++) {
+                final DataSource dataSource = shardRoutingDataSource.shard(shard);
+                Flyway.configure()
+                        .configuration(flyway.getConfiguration())
+                        .dataSource(dataSource)
+                        .load()
+                        .migrate();
+                alignEventIds(new JdbcTemplate(dataSource), shard, shardCount);
+            }
+        };
+    }
+
+    private static void alignEventIds(final JdbcTemplate jdbcTemplate, final int shard, final int shardCount) {
+        final String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+        if (!"H2".equals(product)) {
+            // MySQL takes the offset and step from the session variables set on every pooled connection
+            return;
+        }
+        final long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM event", Long.class);
+        final long nextId = maxId + 1 + Math.floorMod(shard - maxId, (long) shardCount);
+        jdbcTemplate.execute("ALTER TABLE event ALTER COLUMN id RESTART WITH " + nextId +
+                " SET INCREMENT BY " + shardCount);
+    }
+}
@@ -0,0 +1,32 @@
+package com.rapidreserve.inventory_service.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Datasources that the event table is sharded across, in shard order. Shard 0 is the primary:
+ * it allocates venue ids and is the source the other shards' venue replicas are copied from.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "inventory.sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+
+    private int poolSize = 10;
+
+    private List<Shard> shards = new ArrayList<>();
+
+    @Getter
+    @Setter
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -1,18 +1,45 @@
 package com.rapidreserve.inventory_service.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rapidreserve.inventory_service.dto.AllocateSeatsRequest;
+import com.rapidreserve.inventory_service.dto.BatchCapacityUpdateRequest;
 import com.rapidreserve.inventory_service.dto.CreateEventRequest;
+import com.rapidreserve.inventory_service.dto.CreateHoldRequest;
+import com.rapidreserve.inventory_service.dto.CreateSeatMapRequest;
 import com.rapidreserve.inventory_service.dto.CreateVenueRequest;
+import com.rapidreserve.inventory_service.dto.ReleaseSeatsRequest;
 import com.rapidreserve.inventory_service.dto.UpdateEventRequest;
 import com.rapidreserve.inventory_service.dto.UpdateVenueRequest;
 import com.rapidreserve.inventory_service.response.ApiResponse;
+import com.rapidreserve.inventory_service.response.BatchCapacityUpdateResponse;
+import com.rapidreserve.inventory_service.response.ContentionResponse;
 import com.rapidreserve.inventory_service.response.EventInventoryResponse;
+import com.rapidreserve.inventory_service.response.EventSearchResponse;
+import com.rapidreserve.inventory_service.response.HoldResponse;
+import com.rapidreserve.inventory_service.response.InventoryImportResponse;
+import com.rapidreserve.inventory_service.response.ReconciliationReportResponse;
+import com.rapidreserve.inventory_service.response.SeatAllocationResponse;
+import com.rapidreserve.inventory_service.response.SeatMapResponse;
 import com.rapidreserve.inventory_service.response.VenueInventoryResponse;
+import com.rapidreserve.inventory_service.service.EventInventoryCache;
+import com.rapidreserve.inventory_service.service.InventoryImportService;
+import com.rapidreserve.inventory_service.service.InventoryReconciliationService;
 import com.rapidreserve.inventory_service.service.InventoryService;
+import com.rapidreserve.inventory_service.service.OptimisticRetryExecutor;
+import com.rapidreserve.inventory_service.service.SeatAllocationService;
+import com.rapidreserve.inventory_service.service.SeatHoldService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -20,16 +47,59 @@ import java.util.List;
 public class InventoryController {
 
     private InventoryService inventoryService;
+    private SeatHoldService seatHoldService;
+    private SeatAllocationService seatAllocationService;
+    private InventoryImportService inventoryImportService;
+    private InventoryReconciliationService inventoryReconciliationService;
+    private OptimisticRetryExecutor optimisticRetryExecutor;
+    private ObjectMapper objectMapper;
 
     @Autowired
-    public InventoryController(final InventoryService inventoryService){
+    public InventoryController(final InventoryService inventoryService, final SeatHoldService seatHoldService,
+                               final SeatAllocationService seatAllocationService,
+                               final InventoryImportService inventoryImportService,
+                               final InventoryReconciliationService inventoryReconciliationService,
+                               final OptimisticRetryExecutor optimisticRetryExecutor, final ObjectMapper objectMapper){
         this.inventoryService = inventoryService;
+        this.seatHoldService = seatHoldService;
+        this.seatAllocationService = seatAllocationService;
+        this.inventoryImportService = inventoryImportService;
+        this.inventoryReconciliationService = inventoryReconciliationService;
+        this.optimisticRetryExecutor = optimisticRetryExecutor;
+        this.objectMapper = objectMapper;
     }
 
+    /**
+     * Lists events in id order. Pass the last eventId of a page as {@code afterId} to get the next
+     * one. The body is written as the rows are read, so the whole catalog can be fetched without a limit.
+     */
     @GetMapping("/inventory/events")
-    public @ResponseBody ApiResponse<List<EventInventoryResponse>> inventoryGetAllEvents(){
-        List<EventInventoryResponse> events = inventoryService.getAllEvents();
-        return ApiResponse.success(events, "Events retrieved successfully");
+    public ResponseEntity<StreamingResponseBody> inventoryGetAllEvents(
+            @RequestParam(name = "afterId", required = false) Long afterId,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "venueId", required = false) Long venueId,
+            @RequestParam(name = "available", defaultValue = "false") boolean available) {
+        if (limit != null && limit <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than 0");
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writePOJOField("meta", ApiResponse.success(null, "Events retrieved successfully").getMeta());
+                generator.writeArrayFieldStart("data");
+                inventoryService.streamEvents(afterId, limit, venueId, available, event -> {
+                    try {
+                        generator.writePOJO(event);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
 
     @GetMapping("/inventory/venue/{venueId}")
@@ -38,10 +108,34 @@ public class InventoryController {
         return ApiResponse.success(venue, "Venue retrieved successfully");
     }
 
+    @GetMapping("/inventory/events/search")
+    public @ResponseBody ApiResponse<List<EventSearchResponse>> searchEvents(
+            @RequestParam("q") String query,
+            @RequestParam(name = "limit", defaultValue = "20") int limit,
+            @RequestParam(name = "available", defaultValue = "false") boolean available) {
+        List<EventSearchResponse> events = inventoryService.searchEvents(query, limit, available);
+        return ApiResponse.success(events, "Events retrieved successfully");
+    }
+
+    /**
+     * Inventory of several events in one call, in the order of {@code ids}; 404 if any is unknown.
+     */
+    @GetMapping("/inventory/events:batch")
+    public @ResponseBody ApiResponse<List<EventInventoryResponse>> inventoryForEvents(
+            @RequestParam("ids") List<Long> eventIds) {
+        List<EventInventoryResponse> events = inventoryService.getEventInventories(eventIds);
+        return ApiResponse.success(events, "Events retrieved successfully");
+    }
+
+    /**
+     * Answers If-None-Match with 304 when the cached inventory for the event has not changed.
+     */
     @GetMapping("/inventory/event/{eventId}")
-    public @ResponseBody ApiResponse<EventInventoryResponse> inventoryForEvent (@PathVariable("eventId") Long eventId){
-        EventInventoryResponse event = inventoryService.getEventInventory(eventId);
-        return ApiResponse.success(event, "Events retrieved successfully");
+    public ResponseEntity<ApiResponse<EventInventoryResponse>> inventoryForEvent (@PathVariable("eventId") Long eventId){
+        EventInventoryCache.Entry event = inventoryService.getCachedEventInventory(eventId);
+        return ResponseEntity.ok()
+                .eTag(event.version())
+                .body(ApiResponse.success(event.response(), "Events retrieved successfully"));
     }
 
     @PostMapping("/inventory/events/create")
@@ -73,6 +167,122 @@ public class InventoryController {
         return ApiResponse.success(null, "Event capacity updated successfully");
     }
 
+    @PutMapping("/inventory/events/capacity:batch")
+    public @ResponseBody ApiResponse<BatchCapacityUpdateResponse> updateEventCapacities(
+            @RequestBody @Valid BatchCapacityUpdateRequest request) {
+        BatchCapacityUpdateResponse response = inventoryService.updateEventCapacities(request);
+        return ApiResponse.success(response, "Batch capacity update processed");
+    }
+
+    /**
+     * Bulk-loads venues and events from an NDJSON or CSV body, read as it arrives.
+     */
+    @PostMapping(value = "/inventory/import", consumes = {"application/x-ndjson", "text/csv"})
+    public @ResponseBody ApiResponse<InventoryImportResponse> importInventory(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body) throws IOException {
+        InventoryImportService.Format format = MediaType.parseMediaType("text/csv").isCompatibleWith(contentType)
+                ? InventoryImportService.Format.CSV
+                : InventoryImportService.Format.NDJSON;
+        InventoryImportResponse report = inventoryImportService.importInventory(body, format);
+        return ApiResponse.success(report, "Import processed");
+    }
+
+    /**
+     * Events and venues whose writes hit the most optimistic version conflicts.
+     */
+    @GetMapping("/inventory/contention")
+    public @ResponseBody ApiResponse<List<ContentionResponse>> mostContended(
+            @RequestParam(name = "limit", defaultValue = "20") int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be greater than 0");
+        }
+        return ApiResponse.success(optimisticRetryExecutor.mostContended(limit), "Contention retrieved successfully");
+    }
+
+    /**
+     * Report of the last reconciliation run; empty before the first one.
+     */
+    @GetMapping("/inventory/reconciliation")
+    public @ResponseBody ApiResponse<ReconciliationReportResponse> lastReconciliation() {
+        return ApiResponse.success(inventoryReconciliationService.lastReport(), "Reconciliation report retrieved successfully");
+    }
+
+    /**
+     * Reconciles everything changed since the last run right away, waiting for a run in progress.
+     */
+    @PostMapping("/inventory/reconciliation/run")
+    public @ResponseBody ApiResponse<ReconciliationReportResponse> runReconciliation() {
+        return ApiResponse.success(inventoryReconciliationService.run(), "Reconciliation completed");
+    }
+
+    //  Hold endpoints
+    @PostMapping("/inventory/event/{eventId}/holds")
+    public @ResponseBody ApiResponse<HoldResponse> placeHold(
+            @PathVariable("eventId") Long eventId,
+            @RequestBody @Valid CreateHoldRequest request) {
+        HoldResponse hold = seatHoldService.placeHold(eventId, request);
+        return ApiResponse.success(hold, "Hold placed successfully");
+    }
+
+    @GetMapping("/inventory/holds/{holdId}")
+    public @ResponseBody ApiResponse<HoldResponse> getHold(@PathVariable("holdId") String holdId) {
+        HoldResponse hold = seatHoldService.getHold(holdId);
+        return ApiResponse.success(hold, "Hold retrieved successfully");
+    }
+
+    @PostMapping("/inventory/holds/{holdId}/confirm")
+    public @ResponseBody ApiResponse<HoldResponse> confirmHold(@PathVariable("holdId") String holdId) {
+        HoldResponse hold = seatHoldService.confirmHold(holdId);
+        return ApiResponse.success(hold, "Hold confirmed successfully");
+    }
+
+    @DeleteMapping("/inventory/holds/{holdId}")
+    public @ResponseBody ApiResponse<HoldResponse> releaseHold(@PathVariable("holdId") String holdId) {
+        HoldResponse hold = seatHoldService.releaseHold(holdId);
+        return ApiResponse.success(hold, "Hold released successfully");
+    }
+
+    @PostMapping("/inventory/holds/{holdId}/cancel")
+    public @ResponseBody ApiResponse<HoldResponse> cancelHold(@PathVariable("holdId") String holdId) {
+        HoldResponse hold = seatHoldService.cancelHold(holdId);
+        return ApiResponse.success(hold, "Hold cancelled successfully");
+    }
+
+    //  Seat map endpoints
+    @PostMapping("/inventory/event/{eventId}/seat-map")
+    public @ResponseBody ApiResponse<SeatMapResponse> createSeatMap(
+            @PathVariable("eventId") Long eventId,
+            @RequestBody @Valid CreateSeatMapRequest request) {
+        SeatMapResponse seatMap = seatAllocationService.createSeatMap(eventId, request);
+        return ApiResponse.success(seatMap, "Seat map created successfully");
+    }
+
+    @GetMapping("/inventory/event/{eventId}/seat-map")
+    public @ResponseBody ApiResponse<SeatMapResponse> getSeatMap(@PathVariable("eventId") Long eventId) {
+        SeatMapResponse seatMap = seatAllocationService.getSeatMap(eventId);
+        return ApiResponse.success(seatMap, "Seat map retrieved successfully");
+    }
+
+    /**
+     * Best-available allocation: the best block of adjacent seats in one row for the whole party.
+     */
+    @PostMapping("/inventory/event/{eventId}/seats/allocate")
+    public @ResponseBody ApiResponse<SeatAllocationResponse> allocateSeats(
+            @PathVariable("eventId") Long eventId,
+            @RequestBody @Valid AllocateSeatsRequest request) {
+        SeatAllocationResponse allocation = seatAllocationService.allocateSeats(eventId, request);
+        return ApiResponse.success(allocation, "Seats allocated successfully");
+    }
+
+    @PostMapping("/inventory/event/{eventId}/seats/release")
+    public @ResponseBody ApiResponse<Void> releaseSeats(
+            @PathVariable("eventId") Long eventId,
+            @RequestBody @Valid ReleaseSeatsRequest request) {
+        seatAllocationService.releaseSeats(eventId, request);
+        return ApiResponse.success(null, "Seats released successfully");
+    }
+
     //  Venue endpoints
     @GetMapping("/inventory/venues")
     public @ResponseBody ApiResponse<List<VenueInventoryResponse>> getAllVenues() {
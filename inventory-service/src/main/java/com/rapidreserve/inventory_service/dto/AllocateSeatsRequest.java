@@ -0,0 +1,12 @@
+package com.rapidreserve.inventory_service.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class AllocateSeatsRequest {
+    @NotNull(message = "Seats is required")
+    @Min(value = 1, message = "Seats must be at least 1")
+    private Integer seats;
+}
@@ -0,0 +1,29 @@
+package com.rapidreserve.inventory_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+public class BatchCapacityUpdateRequest {
+    @NotEmpty(message = "Updates are required")
+    private List<@Valid @NotNull CapacityUpdate> updates;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CapacityUpdate {
+        @NotNull(message = "Event ID is required")
+        private Long eventId;
+
+        @NotNull(message = "Tickets is required")
+        @Min(value = 1, message = "Tickets must be at least 1")
+        private Long tickets;
+    }
+}
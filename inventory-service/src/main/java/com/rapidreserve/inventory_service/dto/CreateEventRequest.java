@@ -19,4 +19,7 @@ public class CreateEventRequest {
     @NotNull(message = "Ticket price is required")
     @DecimalMin(value = "0.0", inclusive = false, message = "Ticket price must be greater than 0")
     private BigDecimal ticketPrice;
+
+    // Serve capacity for this event from the in-memory hot capacity engine
+    private Boolean hot;
 }
\ No newline at end of file
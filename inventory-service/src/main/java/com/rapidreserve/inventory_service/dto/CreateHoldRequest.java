@@ -0,0 +1,15 @@
+package com.rapidreserve.inventory_service.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class CreateHoldRequest {
+    @NotNull(message = "Tickets is required")
+    @Min(value = 1, message = "Tickets must be at least 1")
+    private Long tickets;
+
+    @Min(value = 1, message = "TTL must be at least 1 second")
+    private Long ttlSeconds;
+}
@@ -0,0 +1,43 @@
+package com.rapidreserve.inventory_service.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+public class CreateSeatMapRequest {
+    @NotEmpty(message = "Sections are required")
+    private List<@Valid @NotNull Section> sections;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Section {
+        @NotBlank(message = "Section name is required")
+        @Size(max = 64, message = "Section name must be at most 64 characters")
+        private String name;
+
+        // Lower is better; best-available allocation tries sections in rank order
+        @NotNull(message = "Rank is required")
+        private Integer rank;
+
+        @NotNull(message = "Rows is required")
+        @Min(value = 1, message = "Rows must be at least 1")
+        @Max(value = 1000, message = "Rows must be at most 1000")
+        private Integer rows;
+
+        @NotNull(message = "Seats per row is required")
+        @Min(value = 1, message = "Seats per row must be at least 1")
+        @Max(value = 1000, message = "Seats per row must be at most 1000")
+        private Integer seatsPerRow;
+    }
+}
@@ -0,0 +1,22 @@
+package com.rapidreserve.inventory_service.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+/**
+ * One line of a bulk import. {@code type} is {@code venue} or {@code event}; venues may carry a
+ * {@code ref} that later event lines point at with {@code venueRef}, or an event can name an
+ * existing venue with {@code venueId}.
+ */
+@Data
+public class InventoryImportRow {
+    private String type;
+    private String ref;
+    private String name;
+    private String address;
+    private Long totalCapacity;
+    private String venueRef;
+    private Long venueId;
+    private BigDecimal ticketPrice;
+}
@@ -0,0 +1,31 @@
+package com.rapidreserve.inventory_service.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A block handed out by seat allocation; rows and seats are numbered from 1.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReleaseSeatsRequest {
+    @NotBlank(message = "Section is required")
+    private String section;
+
+    @NotNull(message = "Row is required")
+    @Min(value = 1, message = "Row must be at least 1")
+    private Integer row;
+
+    @NotNull(message = "First seat is required")
+    @Min(value = 1, message = "First seat must be at least 1")
+    private Integer firstSeat;
+
+    @NotNull(message = "Seats is required")
+    @Min(value = 1, message = "Seats must be at least 1")
+    private Integer seats;
+}
@@ -11,4 +11,6 @@ public class UpdateEventRequest {
 
     @DecimalMin(value = "0.0", inclusive = false, message = "Ticket price must be greater than 0")
     private BigDecimal ticketPrice;
+
+    private Boolean hot;
 }
\ No newline at end of file
@@ -5,10 +5,13 @@ import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
+@DynamicUpdate
 @Getter
 @Setter
 @AllArgsConstructor
@@ -36,4 +39,16 @@ public class Event {
     @Column(name = "ticket_price")
     private BigDecimal ticketPrice;
 
+    @Column(name = "hot")
+    private Boolean hot = Boolean.FALSE;
+
+    // Also bumped by the guarded capacity updates, so edits based on a stale read fail
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    // Set by the database on every write
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
+
 }
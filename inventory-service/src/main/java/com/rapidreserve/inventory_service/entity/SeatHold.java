@@ -0,0 +1,47 @@
+package com.rapidreserve.inventory_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "seat_hold")
+public class SeatHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private String id;
+
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(name = "tickets")
+    private Long tickets;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private HoldStatus status;
+
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public enum HoldStatus {
+        ACTIVE,
+        CONFIRMED,
+        RELEASED,
+        EXPIRED,
+        // A confirmed hold whose booking was cancelled; its tickets went back to inventory
+        CANCELLED
+    }
+}
@@ -0,0 +1,40 @@
+package com.rapidreserve.inventory_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "seat_section")
+public class SeatSection {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id")
+    private Long eventId;
+
+    @Column(name = "name")
+    private String name;
+
+    // Lower ranks are better sections and are offered first
+    @Column(name = "section_rank")
+    private Integer rank;
+
+    @Column(name = "row_count")
+    private Integer rowCount;
+
+    @Column(name = "seats_per_row")
+    private Integer seatsPerRow;
+
+    @Lob
+    @Column(name = "taken_seats")
+    private byte[] takenSeats;
+}
@@ -6,6 +6,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Getter
 @Setter
@@ -26,4 +28,12 @@ public class Venue {
 
     @Column(name = "total_capacity")
     private Long totalCapacity;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    // Set by the database on every write
+    @Column(name = "updated_at", insertable = false, updatable = false)
+    private LocalDateTime updatedAt;
 }
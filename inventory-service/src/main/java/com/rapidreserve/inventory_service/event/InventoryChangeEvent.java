@@ -0,0 +1,30 @@
+package com.rapidreserve.inventory_service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Full snapshot of an event's inventory, published keyed by event id whenever it changes.
+ * A deleted event is published as a tombstone (null value).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventoryChangeEvent {
+    private Long eventId;
+    private String event;
+    private Long totalCapacity;
+    private Long availableCapacity;
+    private BigDecimal ticketPrice;
+    private Boolean hot;
+    private Long venueId;
+    private String venueName;
+    private Long venueTotalCapacity;
+    // Epoch millis when the snapshot was taken; consumers use it to measure their lag
+    private Long publishedAt;
+}
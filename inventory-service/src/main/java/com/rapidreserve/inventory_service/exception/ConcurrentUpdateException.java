@@ -0,0 +1,7 @@
+package com.rapidreserve.inventory_service.exception;
+
+public class ConcurrentUpdateException extends RuntimeException {
+    public ConcurrentUpdateException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
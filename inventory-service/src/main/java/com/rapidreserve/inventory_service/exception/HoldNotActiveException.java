@@ -0,0 +1,7 @@
+package com.rapidreserve.inventory_service.exception;
+
+public class HoldNotActiveException extends RuntimeException {
+    public HoldNotActiveException(String message) {
+        super(message);
+    }
+}
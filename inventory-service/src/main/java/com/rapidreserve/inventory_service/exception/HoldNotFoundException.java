@@ -0,0 +1,7 @@
+package com.rapidreserve.inventory_service.exception;
+
+public class HoldNotFoundException extends RuntimeException {
+    public HoldNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.rapidreserve.inventory_service.exception;
+
+public class SeatMapNotFoundException extends RuntimeException {
+    public SeatMapNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -1,11 +1,146 @@
 package com.rapidreserve.inventory_service.repository;
 
 import com.rapidreserve.inventory_service.entity.Event;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
-    List<Event> findByVenueId(Long venueId);
+    long countByVenueId(Long venueId);
+
+    @Query("SELECT MAX(e.totalCapacity) FROM Event e WHERE e.venue.id = :venueId")
+    Optional<Long> findMaxTotalCapacityByVenueId(@Param("venueId") Long venueId);
+
+    @Query("SELECT e.id FROM Event e WHERE e.venue.id = :venueId")
+    List<Long> findIdsByVenueId(@Param("venueId") Long venueId);
+
+    /**
+     * Guarded decrement: only succeeds when enough capacity is left, so concurrent
+     * callers can never push available_capacity below zero. Returns the affected row count.
+     * Like the other capacity updates it bumps the row version, so an admin edit based on an
+     * earlier read fails its optimistic check instead of acting on stale capacity.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Event e SET e.availableCapacity = e.availableCapacity - :tickets, e.version = e.version + 1 " +
+            "WHERE e.id = :eventId AND e.availableCapacity >= :tickets")
+    int decrementAvailableCapacity(@Param("eventId") Long eventId, @Param("tickets") Long tickets);
+
+    /**
+     * Same guarded decrement, but refuses rows owned by the hot capacity engine so the
+     * database path can never race the in-memory counter.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Event e SET e.availableCapacity = e.availableCapacity - :tickets, e.version = e.version + 1 " +
+            "WHERE e.id = :eventId AND e.availableCapacity >= :tickets AND e.hot = false")
+    int decrementColdAvailableCapacity(@Param("eventId") Long eventId, @Param("tickets") Long tickets);
+
+    /**
+     * Gives tickets back, never raising available_capacity above total_capacity.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Event e SET e.availableCapacity = e.availableCapacity + :tickets, e.version = e.version + 1 " +
+            "WHERE e.id = :eventId AND e.availableCapacity + :tickets <= e.totalCapacity")
+    int incrementAvailableCapacity(@Param("eventId") Long eventId, @Param("tickets") Long tickets);
+
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Event e SET e.availableCapacity = e.availableCapacity + :tickets, e.version = e.version + 1 " +
+            "WHERE e.id = :eventId AND e.availableCapacity + :tickets <= e.totalCapacity AND e.hot = false")
+    int incrementColdAvailableCapacity(@Param("eventId") Long eventId, @Param("tickets") Long tickets);
+
+    /**
+     * Sets available_capacity on a cold event, provided it still holds the value the caller
+     * last saw. Used by reconciliation, so a concurrent sale makes the repair a no-op.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Event e SET e.availableCapacity = :repaired, e.version = e.version + 1 " +
+            "WHERE e.id = :eventId AND e.availableCapacity = :observed AND e.hot = false " +
+            "AND :repaired BETWEEN 0 AND e.totalCapacity")
+    int repairAvailableCapacity(@Param("eventId") Long eventId, @Param("observed") Long observed,
+                                @Param("repaired") Long repaired);
+
+    @Query("SELECT e.availableCapacity FROM Event e WHERE e.id = :eventId")
+    Optional<Long> findAvailableCapacityById(@Param("eventId") Long eventId);
+
+    @Query("SELECT e.id AS id, e.totalCapacity AS totalCapacity, e.availableCapacity AS availableCapacity " +
+            "FROM Event e WHERE e.id = :eventId AND e.hot = true")
+    Optional<CapacityView> findHotCapacityById(@Param("eventId") Long eventId);
+
+    @Query("SELECT e.id AS id, e.totalCapacity AS totalCapacity, e.availableCapacity AS availableCapacity " +
+            "FROM Event e WHERE e.hot = true")
+    List<CapacityView> findHotCapacities();
+
+    /**
+     * One keyset page of the event listing: events with an id above {@code afterId}, in id order,
+     * with the venue columns fetched by the same query.
+     */
+    @Query("SELECT e.id AS id, e.name AS name, e.totalCapacity AS totalCapacity, " +
+            "e.availableCapacity AS availableCapacity, e.ticketPrice AS ticketPrice, e.hot AS hot, " +
+            "v.id AS venueId, v.name AS venueName, v.address AS venueAddress, v.totalCapacity AS venueTotalCapacity " +
+            "FROM Event e JOIN e.venue v " +
+            "WHERE e.id > :afterId " +
+            "AND (:venueId IS NULL OR v.id = :venueId) " +
+            "AND (:onlyAvailable = false OR e.hot = true OR e.availableCapacity > 0) " +
+            "ORDER BY e.id")
+    List<EventListingView> findListingPage(@Param("afterId") Long afterId,
+                                           @Param("venueId") Long venueId,
+                                           @Param("onlyAvailable") boolean onlyAvailable,
+                                           Limit limit);
+
+    @Query("SELECT e.id AS id, e.name AS name, e.totalCapacity AS totalCapacity, " +
+            "e.availableCapacity AS availableCapacity, e.ticketPrice AS ticketPrice, e.hot AS hot, " +
+            "v.id AS venueId, v.name AS venueName, v.address AS venueAddress, v.totalCapacity AS venueTotalCapacity " +
+            "FROM Event e JOIN e.venue v WHERE e.id IN :eventIds")
+    List<EventListingView> findListingByIds(@Param("eventIds") Collection<Long> eventIds);
+
+    @Query("SELECT e.id FROM Event e")
+    List<Long> findAllIds();
+
+    /**
+     * Listing rows of the events written at or after {@code since}; see the updated_at columns.
+     */
+    @Query("SELECT e.id AS id, e.name AS name, e.totalCapacity AS totalCapacity, " +
+            "e.availableCapacity AS availableCapacity, e.ticketPrice AS ticketPrice, e.hot AS hot, " +
+            "v.id AS venueId, v.name AS venueName, v.address AS venueAddress, v.totalCapacity AS venueTotalCapacity " +
+            "FROM Event e JOIN e.venue v WHERE e.updatedAt >= :since")
+    List<EventListingView> findListingUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT e.id AS id, e.name AS name, e.totalCapacity AS totalCapacity, " +
+            "e.availableCapacity AS availableCapacity, e.ticketPrice AS ticketPrice, e.hot AS hot, " +
+            "v.id AS venueId, v.name AS venueName, v.address AS venueAddress, v.totalCapacity AS venueTotalCapacity " +
+            "FROM Event e JOIN e.venue v WHERE v.id IN :venueIds")
+    List<EventListingView> findListingByVenueIds(@Param("venueIds") Collection<Long> venueIds);
+
+    interface EventListingView {
+        Long getId();
+        String getName();
+        Long getTotalCapacity();
+        Long getAvailableCapacity();
+        BigDecimal getTicketPrice();
+        Boolean getHot();
+        Long getVenueId();
+        String getVenueName();
+        String getVenueAddress();
+        Long getVenueTotalCapacity();
+    }
+
+    interface CapacityView {
+        Long getId();
+        Long getTotalCapacity();
+        Long getAvailableCapacity();
+    }
 }
@@ -0,0 +1,49 @@
+package com.rapidreserve.inventory_service.repository;
+
+import com.rapidreserve.inventory_service.entity.SeatHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SeatHoldRepository extends JpaRepository<SeatHold, String> {
+
+    /**
+     * Moves an active hold that has not yet expired to a new status. Confirm, release and
+     * expiry all race on the same row, so exactly one of them wins.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SeatHold h SET h.status = :status " +
+            "WHERE h.id = :holdId AND h.status = 'ACTIVE' AND h.expiresAt > :now")
+    int transitionActive(@Param("holdId") String holdId,
+                         @Param("status") SeatHold.HoldStatus status,
+                         @Param("now") LocalDateTime now);
+
+    /**
+     * Cancels a confirmed hold. Repeated cancellations race on the same row, so exactly one of
+     * them gives the tickets back.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SeatHold h SET h.status = 'CANCELLED' WHERE h.id = :holdId AND h.status = 'CONFIRMED'")
+    int cancelConfirmed(@Param("holdId") String holdId);
+
+    /**
+     * Expiry does not check the deadline: the timing wheel only fires once it has passed.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE SeatHold h SET h.status = 'EXPIRED' WHERE h.id = :holdId AND h.status = 'ACTIVE'")
+    int expireActive(@Param("holdId") String holdId);
+
+    @Query("SELECT h.id AS id, h.expiresAt AS expiresAt FROM SeatHold h WHERE h.status = 'ACTIVE'")
+    List<ActiveHoldView> findActiveHolds();
+
+    interface ActiveHoldView {
+        String getId();
+        LocalDateTime getExpiresAt();
+    }
+}
@@ -0,0 +1,15 @@
+package com.rapidreserve.inventory_service.repository;
+
+import com.rapidreserve.inventory_service.entity.SeatSection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SeatSectionRepository extends JpaRepository<SeatSection, Long> {
+
+    List<SeatSection> findByEventIdOrderByRankAscIdAsc(Long eventId);
+
+    boolean existsByEventId(Long eventId);
+}
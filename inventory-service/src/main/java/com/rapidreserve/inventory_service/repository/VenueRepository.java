@@ -1,9 +1,28 @@
 package com.rapidreserve.inventory_service.repository;
 
 import com.rapidreserve.inventory_service.entity.Venue;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface VenueRepository extends JpaRepository<Venue, Long> {
+
+    /**
+     * Loads a venue whose version is verified again when the transaction commits, so an event
+     * validated against its capacity cannot commit after a concurrent venue update.
+     */
+    @Lock(LockModeType.OPTIMISTIC)
+    @Query("SELECT v FROM Venue v WHERE v.id = :venueId")
+    Optional<Venue> findByIdForCapacityCheck(@Param("venueId") Long venueId);
+
+    @Query("SELECT v.id FROM Venue v WHERE v.updatedAt >= :since")
+    List<Long> findIdsUpdatedSince(@Param("since") LocalDateTime since);
 }
@@ -0,0 +1,30 @@
+package com.rapidreserve.inventory_service.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCapacityUpdateResponse {
+    private int succeeded;
+    private int failed;
+    // One result per request entry, in request order
+    private List<Result> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        private Long eventId;
+        private Long tickets;
+        private boolean success;
+        private String message;
+    }
+}
@@ -0,0 +1,19 @@
+package com.rapidreserve.inventory_service.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentionResponse {
+    private String entity;
+    private Long id;
+    // Writes that committed, optimistic conflicts hit on the way, and writes that gave up
+    private long writes;
+    private long conflicts;
+    private long exhausted;
+}
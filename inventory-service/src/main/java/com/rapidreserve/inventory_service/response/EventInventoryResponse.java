@@ -9,7 +9,7 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class EventInventoryResponse {
@@ -19,4 +19,5 @@ public class EventInventoryResponse {
     private Long availableCapacity;
     private VenueInventoryResponse venue;
     private BigDecimal ticketPrice;
+    private Boolean hot;
 }
@@ -0,0 +1,24 @@
+package com.rapidreserve.inventory_service.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventSearchResponse {
+    private Long eventId;
+    private String event;
+    private Long venueId;
+    private String venueName;
+    private String venueAddress;
+    private BigDecimal ticketPrice;
+    private Long totalCapacity;
+    private Long availableCapacity;
+    private int score;
+}
@@ -0,0 +1,31 @@
+package com.rapidreserve.inventory_service.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryImportResponse {
+    private long rowsRead;
+    private long venuesImported;
+    private long eventsImported;
+    private long rejected;
+    // First rejected rows only; rejected holds the full count
+    private List<RejectedRow> rejectedRows;
+    private long elapsedMillis;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RejectedRow {
+        private long line;
+        private String reason;
+    }
+}
@@ -0,0 +1,37 @@
+package com.rapidreserve.inventory_service.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReconciliationReportResponse {
+    private LocalDateTime startedAt;
+    private long durationMillis;
+    // Changed booking, order and event rows read since the previous checkpoints
+    private long rowsScanned;
+    private long eventsChecked;
+    private long repaired;
+    private List<Mismatch> mismatches;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Mismatch {
+        private Long eventId;
+        // CAPACITY: tickets out of inventory vs holds, holdless bookings and seats;
+        // ORDERS: order rows vs booking rows
+        private String kind;
+        private long expected;
+        private long actual;
+        private boolean repaired;
+    }
+}
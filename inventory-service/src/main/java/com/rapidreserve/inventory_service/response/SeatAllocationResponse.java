@@ -0,0 +1,21 @@
+package com.rapidreserve.inventory_service.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A block of adjacent seats in one row; rows and seats are numbered from 1.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatAllocationResponse {
+    private Long eventId;
+    private String section;
+    private Integer row;
+    private Integer firstSeat;
+    private Integer seats;
+}
@@ -0,0 +1,32 @@
+package com.rapidreserve.inventory_service.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatMapResponse {
+    private Long eventId;
+    private Integer totalSeats;
+    private Integer availableSeats;
+    // In rank order
+    private List<Section> sections;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Section {
+        private String name;
+        private Integer rank;
+        private Integer rows;
+        private Integer seatsPerRow;
+        private Integer availableSeats;
+    }
+}
@@ -0,0 +1,90 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.rapidreserve.inventory_service.response.EventInventoryResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of event inventory responses keyed by event id.
+ * <p>
+ * Every load is stamped with a new version, and writers invalidate their entries only after
+ * their transaction commits, so an entry's version changes exactly when its content may have.
+ * The version is prefixed with the boot epoch so ETags handed out by a previous run never match.
+ */
+@Component
+public class EventInventoryCache {
+
+    public static final String CACHE_NAME = "event-inventory";
+
+    private final Cache<Long, Entry> cache;
+    private final long maximumSize;
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong versions = new AtomicLong();
+
+    @Autowired
+    public EventInventoryCache(final MeterRegistry meterRegistry,
+                               @Value("${inventory.cache.event.maximum-size:10000}") final long maximumSize,
+                               @Value("${inventory.cache.event.expire-after-write-seconds:30}") final long expireAfterWriteSeconds) {
+        this.maximumSize = maximumSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expireAfterWriteSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Entry get(final Long eventId, final Function<Long, EventInventoryResponse> loader) {
+        return cache.get(eventId, id -> new Entry(loader.apply(id), epoch + "-" + versions.incrementAndGet()));
+    }
+
+    /**
+     * Seeds entries without loading them, up to the size bound, keeping any entry already loaded.
+     * Returns how many were added.
+     */
+    public int preload(final Collection<EventInventoryResponse> responses) {
+        int added = 0;
+        for (EventInventoryResponse response : responses) {
+            if (added == maximumSize) {
+                break;
+            }
+            final Entry entry = new Entry(response, epoch + "-" + versions.incrementAndGet());
+            if (cache.asMap().putIfAbsent(response.getEventId(), entry) == null) {
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Drops the entry once the caller's transaction commits, or immediately outside a transaction.
+     * A load that is still running when the entry is dropped finishes first and is then discarded.
+     */
+    public void invalidate(final Long eventId) {
+        TransactionCallbacks.afterCommit(() -> cache.invalidate(eventId));
+    }
+
+    public void invalidateAll(final Collection<Long> eventIds) {
+        if (!eventIds.isEmpty()) {
+            TransactionCallbacks.afterCommit(() -> cache.invalidateAll(eventIds));
+        }
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    public record Entry(EventInventoryResponse response, String version) {
+    }
+}
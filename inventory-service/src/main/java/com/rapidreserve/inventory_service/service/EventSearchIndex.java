@@ -0,0 +1,587 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.entity.Event;
+import com.rapidreserve.inventory_service.repository.EventRepository;
+import com.rapidreserve.inventory_service.response.EventSearchResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over event name, venue name and venue address.
+ * <p>
+ * Terms live in a sorted dictionary, so a query token matches every term it is a prefix of with
+ * one range scan. Every query token must match somewhere in a document; a document scores the
+ * best field weight per token plus a bonus for whole-word matches, and ties go to events with
+ * more tickets left. Documents are numbered with dense ordinals and postings are primitive arrays,
+ * so scoring walks plain int arrays instead of boxed maps.
+ * <p>
+ * Writers keep the index current after each commit: event and venue edits re-index the affected
+ * documents, capacity changes only adjust the stored availability.
+ */
+@Component
+@Slf4j
+public class EventSearchIndex {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MAX_QUERY_TOKENS = 8;
+    private static final int REBUILD_PAGE_SIZE = 1_000;
+
+    // Field bits stored per posting; a posting weighs as much as its best field
+    private static final int FIELD_EVENT_NAME = 1;
+    private static final int FIELD_VENUE_NAME = 2;
+    private static final int FIELD_VENUE_ADDRESS = 4;
+    private static final int[] FIELD_WEIGHTS = {0, 3, 2, 3, 1, 3, 2, 3};
+    private static final int EXACT_TERM_BONUS = 1;
+    // Checking one candidate's terms costs about as much as walking this many postings
+    private static final int PROBE_COST_IN_POSTINGS = 64;
+
+    private static final Comparator<Hit> RANKING = Comparator.comparingInt(Hit::score)
+            .thenComparing(hit -> hit.available() > 0)
+            .thenComparingLong(Hit::available)
+            .thenComparing(hit -> hit.document().eventId, Comparator.reverseOrder());
+
+    private final EventRepository eventRepository;
+    private final EventShardRouter eventShardRouter;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by lock
+    private final TreeMap<String, Postings> terms = new TreeMap<>();
+    private final Map<Long, Set<Long>> eventsByVenue = new HashMap<>();
+    private final ArrayDeque<Integer> freeOrdinals = new ArrayDeque<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private Document[] byOrdinal = new Document[1024];
+    // Slots are updated in place under the read lock; the array is only replaced under the write lock
+    private AtomicLongArray availableByOrdinal = new AtomicLongArray(1024);
+    private int nextOrdinal;
+    // Scoring buffers, reused across searches so a query allocates almost nothing
+    private final Queue<Scratch> scratchPool = new ConcurrentLinkedQueue<>();
+    private volatile boolean restored;
+
+    @Autowired
+    public EventSearchIndex(final EventRepository eventRepository, final EventShardRouter eventShardRouter) {
+        this.eventRepository = eventRepository;
+        this.eventShardRouter = eventShardRouter;
+    }
+
+    /**
+     * Builds the index from the database at startup, unless it was already restored from a snapshot.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        if (restored) {
+            return;
+        }
+        rebuild();
+    }
+
+    /**
+     * Loads every event in id-ordered pages, from all shards in parallel.
+     */
+    public void rebuild() {
+        eventShardRouter.onEveryShard(shard -> {
+            long cursor = 0L;
+            while (true) {
+                final List<EventRepository.EventListingView> page =
+                        eventRepository.findListingPage(cursor, null, false, Limit.of(REBUILD_PAGE_SIZE));
+                page.forEach(this::index);
+                if (page.size() < REBUILD_PAGE_SIZE) {
+                    return null;
+                }
+                cursor = page.get(page.size() - 1).getId();
+            }
+        });
+        log.info("Event search index loaded {} event(s)", size());
+    }
+
+    /**
+     * Fills the index from already loaded listing rows instead of reading the event table,
+     * and skips the startup rebuild.
+     */
+    public void restore(final Collection<? extends EventRepository.EventListingView> views) {
+        views.forEach(this::index);
+        restored = true;
+    }
+
+    /**
+     * Adds or replaces the document for an event from its listing row.
+     */
+    public void index(final EventRepository.EventListingView view) {
+        put(new Document(view.getId(), view.getName(), view.getVenueId(), view.getVenueName(),
+                view.getVenueAddress(), view.getTicketPrice(), view.getTotalCapacity()),
+                view.getAvailableCapacity() == null ? 0L : view.getAvailableCapacity());
+    }
+
+    /**
+     * Adds or replaces the document for an event.
+     */
+    public void index(final Event event, final long availableCapacity) {
+        put(new Document(event.getId(), event.getName(), event.getVenue().getId(), event.getVenue().getName(),
+                event.getVenue().getAddress(), event.getTicketPrice(), event.getTotalCapacity()), availableCapacity);
+    }
+
+    public void remove(final Long eventId) {
+        lock.writeLock().lock();
+        try {
+            final Document document = documents.remove(eventId);
+            if (document != null) {
+                unlink(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Re-indexes every event of a venue after its name or address changed.
+     */
+    public void updateVenue(final Long venueId, final String venueName, final String venueAddress) {
+        lock.writeLock().lock();
+        try {
+            for (Long eventId : List.copyOf(eventsByVenue.getOrDefault(venueId, Set.of()))) {
+                final Document old = documents.get(eventId);
+                final long available = availableByOrdinal.get(old.ordinal);
+                final Document updated = new Document(old.eventId, old.eventName, venueId, venueName, venueAddress,
+                        old.ticketPrice, old.totalCapacity);
+                unlink(old);
+                link(updated, available);
+                documents.put(eventId, updated);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a committed capacity change to the stored availability used for ranking.
+     */
+    public void adjustAvailable(final Long eventId, final long delta) {
+        lock.readLock().lock();
+        try {
+            final Document document = documents.get(eventId);
+            if (document != null) {
+                availableByOrdinal.addAndGet(document.ordinal, delta);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} events matching every token of the query, best first.
+     */
+    public List<EventSearchResponse> search(final String query, final int limit, final boolean onlyAvailable) {
+        final List<String> queryTokens = new ArrayList<>(tokenize(query));
+        if (queryTokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        final Scratch scratch = borrowScratch();
+        final PriorityQueue<Hit> top = new PriorityQueue<>(limit + 1, RANKING);
+        lock.readLock().lock();
+        try {
+            final int candidates = score(queryTokens.subList(0, Math.min(queryTokens.size(), MAX_QUERY_TOKENS)),
+                    scratch);
+            for (int i = 0; i < candidates; i++) {
+                final int ordinal = scratch.candidates[i];
+                final int score = scratch.total[ordinal];
+                // Most candidates lose on score alone; only look further for the rest
+                if (top.size() == limit && score < top.peek().score()) {
+                    continue;
+                }
+                final long available = availableByOrdinal.get(ordinal);
+                if (onlyAvailable && available <= 0) {
+                    continue;
+                }
+                if (top.size() == limit && !outranks(score, available, ordinal, top.peek())) {
+                    continue;
+                }
+                top.add(new Hit(byOrdinal[ordinal], score, available));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+            scratchPool.offer(scratch);
+        }
+
+        final List<EventSearchResponse> results = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            results.add(mapToSearchResponse(top.poll()));
+        }
+        return results.reversed();
+    }
+
+    /**
+     * Leaves the ordinals of documents matching every token in {@code scratch.candidates} with their
+     * summed scores in {@code scratch.total}, and returns how many there are.
+     * <p>
+     * The token with the fewest postings seeds the candidates. Each further token either walks its
+     * postings or, when the candidates are fewer, checks the candidates' own terms, whichever
+     * touches less data.
+     */
+    private int score(final List<String> queryTokens, final Scratch scratch) {
+        final List<TokenMatch> matches = new ArrayList<>(queryTokens.size());
+        for (String token : queryTokens) {
+            final TokenMatch match = new TokenMatch(token, terms.subMap(token, true, token + Character.MAX_VALUE, false));
+            if (match.postings == 0) {
+                return 0;
+            }
+            matches.add(match);
+        }
+        matches.sort(Comparator.comparingLong(TokenMatch::postings));
+
+        scratch.begin();
+        int candidates = 0;
+        for (int t = 0; t < matches.size(); t++) {
+            final TokenMatch match = matches.get(t);
+            final int stamp = scratch.nextStamp();
+            if (t == 0) {
+                candidates = seed(match, scratch, stamp);
+            } else if ((long) candidates * PROBE_COST_IN_POSTINGS < match.postings) {
+                candidates = probe(match.token, scratch, candidates);
+            } else {
+                candidates = intersect(match, scratch, candidates, stamp);
+            }
+            if (candidates == 0) {
+                break;
+            }
+        }
+        return candidates;
+    }
+
+    private int seed(final TokenMatch match, final Scratch scratch, final int stamp) {
+        int candidates = 0;
+        for (Map.Entry<String, Postings> term : match.terms.entrySet()) {
+            final int bonus = term.getKey().length() == match.token.length() ? EXACT_TERM_BONUS : 0;
+            final Postings postings = term.getValue();
+            for (int p = 0; p < postings.size; p++) {
+                final int ordinal = postings.ordinals[p];
+                final int weight = FIELD_WEIGHTS[postings.fields[p]] + bonus;
+                if (scratch.mark[ordinal] != stamp) {
+                    scratch.mark[ordinal] = stamp;
+                    scratch.total[ordinal] = weight;
+                    scratch.addCandidate(candidates++, ordinal);
+                } else if (weight > scratch.total[ordinal]) {
+                    scratch.total[ordinal] = weight;
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Walks the token's postings, keeping only candidates they reach. {@code mark} holds the stamp of
+     * the previous token for live candidates and is re-stamped as each one is matched.
+     */
+    private int intersect(final TokenMatch match, final Scratch scratch, final int candidates, final int stamp) {
+        final int previousStamp = stamp - 1;
+        for (Map.Entry<String, Postings> term : match.terms.entrySet()) {
+            final int bonus = term.getKey().length() == match.token.length() ? EXACT_TERM_BONUS : 0;
+            final Postings postings = term.getValue();
+            for (int p = 0; p < postings.size; p++) {
+                final int ordinal = postings.ordinals[p];
+                final int mark = scratch.mark[ordinal];
+                if (mark != previousStamp && mark != stamp) {
+                    continue;
+                }
+                final int weight = FIELD_WEIGHTS[postings.fields[p]] + bonus;
+                if (mark != stamp) {
+                    scratch.mark[ordinal] = stamp;
+                    scratch.best[ordinal] = weight;
+                } else if (weight > scratch.best[ordinal]) {
+                    scratch.best[ordinal] = weight;
+                }
+            }
+        }
+        int kept = 0;
+        for (int i = 0; i < candidates; i++) {
+            final int ordinal = scratch.candidates[i];
+            if (scratch.mark[ordinal] == stamp) {
+                scratch.total[ordinal] += scratch.best[ordinal];
+                scratch.candidates[kept++] = ordinal;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Checks each candidate's own terms against the token, keeping those with a match. Dropped
+     * candidates keep an old stamp, so a later {@link #intersect} skips them.
+     */
+    private int probe(final String token, final Scratch scratch, final int candidates) {
+        final int stamp = scratch.stamp;
+        int kept = 0;
+        for (int i = 0; i < candidates; i++) {
+            final int ordinal = scratch.candidates[i];
+            final Document document = byOrdinal[ordinal];
+            int best = 0;
+            for (int j = 0; j < document.terms.length; j++) {
+                final String term = document.terms[j];
+                if (term.startsWith(token)) {
+                    final int bonus = term.length() == token.length() ? EXACT_TERM_BONUS : 0;
+                    best = Math.max(best, FIELD_WEIGHTS[document.termFields[j]] + bonus);
+                }
+            }
+            if (best > 0) {
+                scratch.mark[ordinal] = stamp;
+                scratch.total[ordinal] += best;
+                scratch.candidates[kept++] = ordinal;
+            }
+        }
+        return kept;
+    }
+
+    private boolean outranks(final int score, final long available, final int ordinal, final Hit worst) {
+        if (score != worst.score()) {
+            return score > worst.score();
+        }
+        if ((available > 0) != (worst.available() > 0)) {
+            return available > 0;
+        }
+        if (available != worst.available()) {
+            return available > worst.available();
+        }
+        return byOrdinal[ordinal].eventId < worst.document().eventId;
+    }
+
+    private Scratch borrowScratch() {
+        final Scratch scratch = scratchPool.poll();
+        return scratch != null ? scratch : new Scratch();
+    }
+
+    private void put(final Document document, final long available) {
+        lock.writeLock().lock();
+        try {
+            final Document old = documents.put(document.eventId, document);
+            if (old != null) {
+                unlink(old);
+            }
+            link(document, available);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void link(final Document document, final long available) {
+        final Integer free = freeOrdinals.poll();
+        document.ordinal = free != null ? free : nextOrdinal++;
+        if (document.ordinal >= byOrdinal.length) {
+            byOrdinal = Arrays.copyOf(byOrdinal, byOrdinal.length * 2);
+            final AtomicLongArray grown = new AtomicLongArray(byOrdinal.length);
+            for (int i = 0; i < availableByOrdinal.length(); i++) {
+                grown.set(i, availableByOrdinal.get(i));
+            }
+            availableByOrdinal = grown;
+        }
+        byOrdinal[document.ordinal] = document;
+        availableByOrdinal.set(document.ordinal, available);
+
+        for (int i = 0; i < document.terms.length; i++) {
+            terms.computeIfAbsent(document.terms[i], t -> new Postings()).add(document.ordinal, document.termFields[i]);
+        }
+        if (document.venueId != null) {
+            eventsByVenue.computeIfAbsent(document.venueId, v -> new HashSet<>()).add(document.eventId);
+        }
+    }
+
+    private void unlink(final Document document) {
+        for (String term : document.terms) {
+            final Postings postings = terms.get(term);
+            if (postings != null && postings.remove(document.ordinal) && postings.size == 0) {
+                terms.remove(term);
+            }
+        }
+        final Set<Long> venueEvents = eventsByVenue.get(document.venueId);
+        if (venueEvents != null) {
+            venueEvents.remove(document.eventId);
+            if (venueEvents.isEmpty()) {
+                eventsByVenue.remove(document.venueId);
+            }
+        }
+        byOrdinal[document.ordinal] = null;
+        freeOrdinals.push(document.ordinal);
+    }
+
+    private static Set<String> tokenize(final String text) {
+        final Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private EventSearchResponse mapToSearchResponse(final Hit hit) {
+        final Document document = hit.document();
+        return EventSearchResponse.builder()
+                .eventId(document.eventId)
+                .event(document.eventName)
+                .venueId(document.venueId)
+                .venueName(document.venueName)
+                .venueAddress(document.venueAddress)
+                .ticketPrice(document.ticketPrice)
+                .totalCapacity(document.totalCapacity)
+                .availableCapacity(hit.available())
+                .score(hit.score())
+                .build();
+    }
+
+    private record Hit(Document document, int score, long available) {
+    }
+
+    /**
+     * The dictionary terms a query token is a prefix of, with their combined posting count.
+     */
+    private record TokenMatch(String token, Map<String, Postings> terms, long postings) {
+        private TokenMatch(final String token, final Map<String, Postings> terms) {
+            this(token, terms, terms.values().stream().mapToLong(postings -> postings.size).sum());
+        }
+    }
+
+    private static final class Document {
+        private final Long eventId;
+        private final String eventName;
+        private final Long venueId;
+        private final String venueName;
+        private final String venueAddress;
+        private final BigDecimal ticketPrice;
+        private final Long totalCapacity;
+        // Each distinct term of the document with the bits of the fields it appears in
+        private final String[] terms;
+        private final byte[] termFields;
+        // Assigned when linked; guarded by the index lock
+        private int ordinal;
+
+        private Document(final Long eventId, final String eventName, final Long venueId, final String venueName,
+                         final String venueAddress, final BigDecimal ticketPrice, final Long totalCapacity) {
+            this.eventId = eventId;
+            this.eventName = eventName;
+            this.venueId = venueId;
+            this.venueName = venueName;
+            this.venueAddress = venueAddress;
+            this.ticketPrice = ticketPrice;
+            this.totalCapacity = totalCapacity;
+
+            final Map<String, Integer> fields = new LinkedHashMap<>();
+            tokenize(eventName).forEach(term -> fields.merge(term, FIELD_EVENT_NAME, (a, b) -> a | b));
+            tokenize(venueName).forEach(term -> fields.merge(term, FIELD_VENUE_NAME, (a, b) -> a | b));
+            tokenize(venueAddress).forEach(term -> fields.merge(term, FIELD_VENUE_ADDRESS, (a, b) -> a | b));
+            this.terms = fields.keySet().toArray(String[]::new);
+            this.termFields = new byte[terms.length];
+            for (int i = 0; i < terms.length; i++) {
+                termFields[i] = fields.get(terms[i]).byteValue();
+            }
+        }
+    }
+
+    /**
+     * Documents containing one term, as parallel ordinal and field-bit arrays in no particular order.
+     */
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private byte[] fields = new byte[4];
+        private int size;
+
+        private void add(final int ordinal, final int fieldBits) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                fields = Arrays.copyOf(fields, size * 2);
+            }
+            ordinals[size] = ordinal;
+            fields[size] = (byte) fieldBits;
+            size++;
+        }
+
+        private boolean remove(final int ordinal) {
+            for (int i = 0; i < size; i++) {
+                if (ordinals[i] == ordinal) {
+                    size--;
+                    ordinals[i] = ordinals[size];
+                    fields[i] = fields[size];
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Per-ordinal scoring state. Entries are tagged with a stamp instead of being cleared, so a
+     * search only touches the ordinals its postings reach.
+     */
+    private final class Scratch {
+        private int[] mark = new int[0];
+        private int[] best = new int[0];
+        private int[] total = new int[0];
+        private int[] candidates = new int[0];
+        private int stamp;
+
+        /**
+         * Sizes the buffers to the current ordinal range and makes sure the query's stamps cannot wrap.
+         */
+        private void begin() {
+            final int capacity = byOrdinal.length;
+            if (mark.length < capacity) {
+                mark = Arrays.copyOf(mark, capacity);
+                best = Arrays.copyOf(best, capacity);
+                total = Arrays.copyOf(total, capacity);
+            }
+            if (stamp > Integer.MAX_VALUE - MAX_QUERY_TOKENS - 1) {
+                Arrays.fill(mark, 0);
+                stamp = 0;
+            }
+        }
+
+        private int nextStamp() {
+            return ++stamp;
+        }
+
+        private void addCandidate(final int index, final int ordinal) {
+            if (index == candidates.length) {
+                candidates = Arrays.copyOf(candidates, Math.max(64, index * 2));
+            }
+            candidates[index] = ordinal;
+        }
+    }
+}
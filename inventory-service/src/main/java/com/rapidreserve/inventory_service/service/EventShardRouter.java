@@ -0,0 +1,174 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.config.ShardRoutingDataSource;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Decides which shard owns an event and runs work against it. Without sharding there is a single
+ * shard and every method just runs the work in place.
+ * <p>
+ * Work for one shard runs on the caller's thread and may start or join a transaction; a
+ * transaction stays on the shard it started on, so reaching another shard from inside it fails
+ * fast instead of silently reading the wrong database. Work for several shards runs in parallel on
+ * a scatter pool, one thread and at most one transaction per shard.
+ */
+@Component
+@Slf4j
+public class EventShardRouter {
+
+    public static final int PRIMARY_SHARD = 0;
+
+    private final int shardCount;
+    private final AtomicInteger nextShard = new AtomicInteger();
+    private final ExecutorService scatterExecutor;
+
+    @Autowired
+    public EventShardRouter(final ObjectProvider<ShardRoutingDataSource> shardRoutingDataSource) {
+        final ShardRoutingDataSource routing = shardRoutingDataSource.getIfAvailable();
+        this.shardCount = routing == null ? 1 : routing.shardCount();
+        this.scatterExecutor = shardCount == 1 ? null
+                : Executors.newCachedThreadPool(Thread.ofPlatform().name("shard-scatter-", 0).daemon().factory());
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    /**
+     * Shard that owns an event. Each shard allocates ids in its own residue class, so this is
+     * the id modulo the shard count.
+     */
+    public int shardOf(final Long eventId) {
+        return (int) Math.floorMod(eventId - 1, (long) shardCount);
+    }
+
+    /**
+     * Shard a new event is created on, round robin.
+     */
+    public int shardForNewEvent() {
+        return shardCount == 1 ? PRIMARY_SHARD : Math.floorMod(nextShard.getAndIncrement(), shardCount);
+    }
+
+    public <T> T onShard(final int shard, final Supplier<T> work) {
+        if (shardCount == 1) {
+            return work.get();
+        }
+        final Integer previous = ShardRoutingDataSource.currentShard();
+        if (previous != null ? previous != shard : TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot reach shard " + shard + " from a transaction on shard " +
+                    (previous == null ? PRIMARY_SHARD : previous));
+        }
+        ShardRoutingDataSource.bindShard(shard);
+        try {
+            return work.get();
+        } finally {
+            ShardRoutingDataSource.bindShard(previous);
+        }
+    }
+
+    public void runOnShard(final int shard, final Runnable work) {
+        onShard(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    public <T> T onEventShard(final Long eventId, final Supplier<T> work) {
+        return onShard(shardOf(eventId), work);
+    }
+
+    public void runOnEventShard(final Long eventId, final Runnable work) {
+        runOnShard(shardOf(eventId), work);
+    }
+
+    /**
+     * Runs {@code work} once per listed shard, in parallel when sharded, and returns the results by
+     * shard. If any shard fails the others are cancelled and the first failure is rethrown.
+     */
+    public <T> Map<Integer, T> onShards(final Collection<Integer> shards, final IntFunction<T> work) {
+        final Map<Integer, T> results = new TreeMap<>();
+        if (shardCount == 1) {
+            for (int shard : shards) {
+                results.put(shard, work.apply(shard));
+            }
+            return results;
+        }
+
+        final Map<Integer, Future<T>> futures = new TreeMap<>();
+        for (int shard : shards) {
+            futures.put(shard, scatterExecutor.submit(() -> onShard(shard, () -> work.apply(shard))));
+        }
+        try {
+            for (Map.Entry<Integer, Future<T>> future : futures.entrySet()) {
+                results.put(future.getKey(), future.getValue().get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            futures.values().forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Shard work failed", e.getCause());
+        } catch (InterruptedException e) {
+            futures.values().forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shard work", e);
+        }
+    }
+
+    /**
+     * Like {@link #onShards} for every shard; results are in shard order.
+     */
+    public <T> List<T> onEveryShard(final IntFunction<T> work) {
+        return new ArrayList<>(onShards(IntStream.range(0, shardCount).boxed().toList(), work).values());
+    }
+
+    /**
+     * Shards other than the primary, which hold venue replicas.
+     */
+    public List<Integer> replicaShards() {
+        return IntStream.range(PRIMARY_SHARD + 1, shardCount).boxed().toList();
+    }
+
+    /**
+     * Splits items by the shard of their event, in shard order and keeping the items' order.
+     */
+    public <T> Map<Integer, List<T>> groupByShard(final Collection<T> items, final Function<T, Long> eventId) {
+        final Map<Integer, List<T>> groups = new TreeMap<>();
+        for (T item : items) {
+            groups.computeIfAbsent(shardOf(eventId.apply(item)), shard -> new ArrayList<>()).add(item);
+        }
+        return groups;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scatterExecutor != null) {
+            scatterExecutor.shutdownNow();
+        }
+    }
+}
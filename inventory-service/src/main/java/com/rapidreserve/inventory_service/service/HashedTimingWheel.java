@@ -0,0 +1,259 @@
+package com.rapidreserve.inventory_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel for large numbers of coarse-grained timeouts.
+ * <p>
+ * Scheduling and cancelling are O(1) and lock-free: new timeouts go through a queue that the
+ * single worker thread drains into the wheel once per tick. Each tick the worker only looks at
+ * the timeouts hashed into the current bucket, so CPU cost depends on how many timeouts are
+ * due, not on how many are outstanding. Expired payloads are handed to the expiry handler in
+ * batches on a separate thread, so slow handlers never delay the wheel.
+ */
+@Slf4j
+public class HashedTimingWheel<T> implements AutoCloseable {
+
+    // Upper bound on timeouts moved from the queue into the wheel per tick
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Bucket<T>[] wheel;
+    private final int mask;
+    private final Queue<Timeout<T>> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicLong outstanding = new AtomicLong();
+    private final Consumer<List<T>> expiryHandler;
+    private final ExecutorService expiryExecutor;
+    private final Thread worker;
+    private final long startTime;
+
+    private volatile boolean running = true;
+    // Only touched by the worker thread
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(final String name,
+                             final Duration tickDuration,
+                             final int ticksPerWheel,
+                             final Consumer<List<T>> expiryHandler) {
+        if (tickDuration.toNanos() <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        final int size = Integer.highestOneBit(Math.max(ticksPerWheel, 1) * 2 - 1);
+        this.tickNanos = tickDuration.toNanos();
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket<>();
+        }
+        this.mask = size - 1;
+        this.expiryHandler = expiryHandler;
+        this.expiryExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name + "-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.startTime = System.nanoTime();
+        this.worker = new Thread(this::run, name + "-wheel");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public Timeout<T> schedule(final T payload, final Duration delay) {
+        if (!running) {
+            throw new IllegalStateException("Timing wheel has been stopped");
+        }
+        final Timeout<T> timeout = new Timeout<>(this, payload,
+                System.nanoTime() - startTime + Math.max(delay.toNanos(), 0));
+        outstanding.incrementAndGet();
+        incoming.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Number of timeouts scheduled that have neither expired nor been cancelled.
+     */
+    public long size() {
+        return outstanding.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        expiryExecutor.shutdown();
+    }
+
+    private void run() {
+        while (running) {
+            final long deadline = waitForNextTick();
+            if (deadline < 0) {
+                break;
+            }
+            transferIncoming();
+            final List<T> expired = wheel[(int) (tick & mask)].expire(deadline);
+            tick++;
+            if (!expired.isEmpty()) {
+                outstanding.addAndGet(-expired.size());
+                expiryExecutor.execute(() -> {
+                    try {
+                        expiryHandler.accept(expired);
+                    } catch (RuntimeException e) {
+                        log.error("Timing wheel expiry handler failed for {} timeout(s)", expired.size(), e);
+                    }
+                });
+            }
+        }
+    }
+
+    private void transferIncoming() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            final Timeout<T> timeout = incoming.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            final long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            // Deadlines already in the past land in the current bucket
+            final long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+        }
+    }
+
+    private long waitForNextTick() {
+        final long deadline = tickNanos * (tick + 1);
+        while (true) {
+            final long current = System.nanoTime() - startTime;
+            final long sleepMillis = (deadline - current + 999_999) / 1_000_000;
+            if (sleepMillis <= 0) {
+                return current;
+            }
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    public static final class Timeout<T> {
+        private static final int ST_PENDING = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+
+        private final HashedTimingWheel<T> owner;
+        private final T payload;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(ST_PENDING);
+
+        // Bucket bookkeeping, only touched by the worker thread
+        private long remainingRounds;
+        private Timeout<T> next;
+        private Timeout<T> prev;
+
+        private Timeout(final HashedTimingWheel<T> owner, final T payload, final long deadline) {
+            this.owner = owner;
+            this.payload = payload;
+            this.deadline = deadline;
+        }
+
+        public T payload() {
+            return payload;
+        }
+
+        /**
+         * Cancels the timeout. The entry is unlinked lazily when the worker next visits its bucket.
+         */
+        public boolean cancel() {
+            if (state.compareAndSet(ST_PENDING, ST_CANCELLED)) {
+                owner.outstanding.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        private boolean expire() {
+            return state.compareAndSet(ST_PENDING, ST_EXPIRED);
+        }
+    }
+
+    private static final class Bucket<T> {
+        private Timeout<T> head;
+        private Timeout<T> tail;
+
+        private void add(final Timeout<T> timeout) {
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        private List<T> expire(final long deadline) {
+            List<T> expired = List.of();
+            Timeout<T> timeout = head;
+            while (timeout != null) {
+                Timeout<T> next = timeout.next;
+                if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                    remove(timeout);
+                    if (timeout.expire()) {
+                        if (expired.isEmpty()) {
+                            expired = new ArrayList<>();
+                        }
+                        expired.add(timeout.payload);
+                    }
+                } else if (timeout.remainingRounds > 0) {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+            return expired;
+        }
+
+        private void remove(final Timeout<T> timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = timeout.next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.repository.EventRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Authoritative in-memory capacity for events flagged as hot.
+ * <p>
+ * Each tracked event owns a single atomic counter; decrements are a CAS loop and never touch
+ * the database. A scheduled flusher writes the difference between the last flushed value and
+ * the current counter back to the event table, so any number of decrements between two
+ * flushes costs one batched UPDATE per event. While an event is tracked the database path
+ * refuses to decrement it (see {@link EventRepository#decrementColdAvailableCapacity}).
+ */
+@Component
+@Slf4j
+public class HotCapacityEngine {
+
+    private static final String FLUSH_SQL =
+            "UPDATE event SET available_capacity = available_capacity - ? WHERE id = ?";
+
+    /** Marks a counter whose event has been handed back to the database. */
+    private static final long RETIRED = Long.MIN_VALUE;
+
+    public enum Decision {
+        ACCEPTED,
+        REJECTED,
+        NOT_TRACKED
+    }
+
+    private final EventRepository eventRepository;
+    private final EventShardRouter eventShardRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+
+    private final ConcurrentHashMap<Long, HotCounter> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Autowired
+    public HotCapacityEngine(final EventRepository eventRepository,
+                             final EventShardRouter eventShardRouter,
+                             final JdbcTemplate jdbcTemplate,
+                             final PlatformTransactionManager transactionManager,
+                             @Value("${inventory.hot-capacity.enabled:false}") final boolean enabled) {
+        this.eventRepository = eventRepository;
+        this.eventShardRouter = eventShardRouter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public OptionalLong availableCapacity(final Long eventId) {
+        final HotCounter counter = counters.get(eventId);
+        if (counter == null) {
+            return OptionalLong.empty();
+        }
+        final long available = counter.available.get();
+        return available == RETIRED ? OptionalLong.empty() : OptionalLong.of(available);
+    }
+
+    public Decision tryDecrement(final Long eventId, final long tickets) {
+        final HotCounter counter = counters.get(eventId);
+        return counter == null ? Decision.NOT_TRACKED : counter.tryDecrement(tickets);
+    }
+
+    /**
+     * Starts tracking an event that is flagged hot in the database but not yet held in memory,
+     * then applies the decrement. Once the hot flag is committed the database path no longer
+     * touches the row, so the value read here is stable and concurrent loaders agree on it.
+     */
+    public Decision trackAndDecrement(final Long eventId, final long tickets) {
+        final HotCounter counter = track(eventId);
+        return counter == null ? Decision.NOT_TRACKED : counter.tryDecrement(tickets);
+    }
+
+    /**
+     * Gives tickets back to a tracked event. Returns false when the event is not held in memory,
+     * or when the release would raise it above its total capacity.
+     */
+    public boolean release(final Long eventId, final long tickets) {
+        final HotCounter counter = counters.get(eventId);
+        return counter != null && counter.release(tickets);
+    }
+
+    /**
+     * Like {@link #release} but first loads the event if it is flagged hot and not tracked yet.
+     */
+    public boolean trackAndRelease(final Long eventId, final long tickets) {
+        final HotCounter counter = track(eventId);
+        return counter != null && counter.release(tickets);
+    }
+
+    private HotCounter track(final Long eventId) {
+        if (!enabled) {
+            return null;
+        }
+        final HotCounter counter = counters.get(eventId);
+        if (counter != null) {
+            return counter;
+        }
+        final EventRepository.CapacityView capacity = eventShardRouter.onEventShard(eventId,
+                () -> eventRepository.findHotCapacityById(eventId)).orElse(null);
+        if (capacity == null) {
+            return null;
+        }
+        final HotCounter existing = counters.putIfAbsent(eventId, new HotCounter(capacity));
+        if (existing == null) {
+            log.info("Tracking hot event {} with available capacity {}", eventId, capacity.getAvailableCapacity());
+        }
+        return counters.get(eventId);
+    }
+
+    /**
+     * Hands a tracked event back to the database inside the caller's transaction: the counter
+     * stops accepting decrements and its unflushed delta is written alongside the caller's
+     * changes. If the transaction rolls back the counter is restored. Returns the final
+     * available capacity, or empty when the event was not tracked.
+     * <p>
+     * The flush lock is only held while the delta is written. Until the transaction completes
+     * the counter holds {@link #RETIRED}, which the flusher skips, so a caller waiting on a row
+     * lock does not hold up the flush of every other hot event.
+     */
+    public OptionalLong retire(final Long eventId) {
+        final HotCounter counter = counters.get(eventId);
+        if (counter == null) {
+            return OptionalLong.empty();
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Retiring a hot event requires an active transaction");
+        }
+
+        final long last;
+        // Keeps a flush that already read the counter from writing its delta a second time
+        flushLock.lock();
+        try {
+            last = counter.available.getAndSet(RETIRED);
+            if (last == RETIRED) {
+                return OptionalLong.empty();
+            }
+            final long delta = counter.flushed - last;
+            if (delta != 0) {
+                try {
+                    jdbcTemplate.update(FLUSH_SQL, delta, eventId);
+                } catch (RuntimeException e) {
+                    counter.available.set(last);
+                    throw e;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    counters.remove(eventId, counter);
+                    log.info("Hot event {} handed back to the database with available capacity {}", eventId, last);
+                } else {
+                    // The delta was rolled back with the transaction, so flushed still matches the row
+                    counter.available.set(last);
+                }
+            }
+        });
+        return OptionalLong.of(last);
+    }
+
+    /**
+     * Loads a counter for every hot event in the event table that is not tracked yet.
+     * <p>
+     * Requests are served before this runs, so a counter may already have been loaded on demand
+     * and taken decrements that are not flushed; it is kept, as the event table is behind it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            eventShardRouter.onEveryShard(shard -> eventRepository.findHotCapacities()).forEach(views -> {
+                for (EventRepository.CapacityView view : views) {
+                    counters.putIfAbsent(view.getId(), new HotCounter(view));
+                }
+            });
+            log.info("Hot capacity engine tracking {} hot event(s)", counters.size());
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Writes the coalesced decrements of every tracked event in one batched transaction per shard.
+     * A failed flush leaves that shard's flushed marks untouched, so the next run retries the same deltas.
+     */
+    @Scheduled(fixedDelayString = "${inventory.hot-capacity.flush-interval-ms:200}")
+    public void flush() {
+        if (!enabled || counters.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            final List<PendingFlush> pending = new ArrayList<>();
+            counters.forEach((eventId, counter) -> {
+                final long snapshot = counter.available.get();
+                if (snapshot != RETIRED && snapshot != counter.flushed) {
+                    pending.add(new PendingFlush(eventId, counter, snapshot));
+                }
+            });
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            final Map<Integer, List<PendingFlush>> pendingByShard =
+                    eventShardRouter.groupByShard(pending, PendingFlush::eventId);
+            eventShardRouter.onShards(pendingByShard.keySet(), shard -> {
+                final List<PendingFlush> shardPending = pendingByShard.get(shard);
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                            jdbcTemplate.batchUpdate(FLUSH_SQL, shardPending, shardPending.size(), (ps, flush) -> {
+                                ps.setLong(1, flush.counter().flushed - flush.snapshot());
+                                ps.setLong(2, flush.eventId());
+                            }));
+                    shardPending.forEach(flush -> flush.counter().flushed = flush.snapshot());
+                    log.debug("Flushed hot capacity for {} event(s) on shard {}", shardPending.size(), shard);
+                } catch (DataAccessException e) {
+                    log.warn("Hot capacity flush failed on shard {}, retrying on next run: {}", shard, e.getMessage());
+                }
+                return null;
+            });
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private record PendingFlush(Long eventId, HotCounter counter, long snapshot) {
+    }
+
+    private static final class HotCounter {
+        private final AtomicLong available;
+        private final long totalCapacity;
+        // Value last written to the database; only touched while holding the flush lock
+        private volatile long flushed;
+
+        private HotCounter(final EventRepository.CapacityView capacity) {
+            this.available = new AtomicLong(capacity.getAvailableCapacity());
+            this.totalCapacity = capacity.getTotalCapacity();
+            this.flushed = capacity.getAvailableCapacity();
+        }
+
+        private Decision tryDecrement(final long tickets) {
+            while (true) {
+                final long current = available.get();
+                if (current == RETIRED) {
+                    return Decision.NOT_TRACKED;
+                }
+                if (current < tickets) {
+                    return Decision.REJECTED;
+                }
+                if (available.compareAndSet(current, current - tickets)) {
+                    return Decision.ACCEPTED;
+                }
+            }
+        }
+
+        private boolean release(final long tickets) {
+            while (true) {
+                final long current = available.get();
+                // Same bound as the database path, so a stray release cannot push it past total capacity
+                if (current == RETIRED || current + tickets > totalCapacity) {
+                    return false;
+                }
+                if (available.compareAndSet(current, current + tickets)) {
+                    return true;
+                }
+            }
+        }
+    }
+}
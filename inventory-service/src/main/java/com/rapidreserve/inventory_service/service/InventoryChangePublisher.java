@@ -0,0 +1,127 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.event.InventoryChangeEvent;
+import com.rapidreserve.inventory_service.repository.EventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes the current state of changed events to the inventory change topic, keyed by event id.
+ * <p>
+ * Writers only mark an event dirty once their transaction commits. A single scheduled drain then
+ * reads the latest state of every dirty event and sends one snapshot each, so bursts of changes to
+ * the same event collapse into one message and messages for an event are always sent in order.
+ */
+@Component
+@Slf4j
+public class InventoryChangePublisher {
+
+    public static final String TOPIC = "inventory-changes";
+
+    private static final int DRAIN_CHUNK_SIZE = 500;
+
+    private final EventRepository eventRepository;
+    private final EventShardRouter eventShardRouter;
+    private final HotCapacityEngine hotCapacityEngine;
+    private final KafkaTemplate<String, InventoryChangeEvent> kafkaTemplate;
+    private final boolean enabled;
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public InventoryChangePublisher(final EventRepository eventRepository,
+                                    final EventShardRouter eventShardRouter,
+                                    final HotCapacityEngine hotCapacityEngine,
+                                    final KafkaTemplate<String, InventoryChangeEvent> kafkaTemplate,
+                                    @Value("${inventory.changes.enabled:false}") final boolean enabled) {
+        this.eventRepository = eventRepository;
+        this.eventShardRouter = eventShardRouter;
+        this.hotCapacityEngine = hotCapacityEngine;
+        this.kafkaTemplate = kafkaTemplate;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Marks an event for publishing once the caller's transaction commits.
+     */
+    public void markChanged(final Long eventId) {
+        if (enabled) {
+            TransactionCallbacks.afterCommit(() -> dirty.add(eventId));
+        }
+    }
+
+    /**
+     * Number of events waiting to be published.
+     */
+    public int pending() {
+        return dirty.size();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.changes.publish-interval-ms:100}")
+    public void publish() {
+        if (!enabled || dirty.isEmpty()) {
+            return;
+        }
+        // Remove before reading: a change committed after this point marks the event again
+        final List<Long> eventIds = new ArrayList<>(dirty);
+        dirty.removeAll(eventIds);
+
+        for (int from = 0; from < eventIds.size(); from += DRAIN_CHUNK_SIZE) {
+            final List<Long> chunk = eventIds.subList(from, Math.min(from + DRAIN_CHUNK_SIZE, eventIds.size()));
+            try {
+                publishChunk(chunk);
+            } catch (RuntimeException e) {
+                log.warn("Failed to publish inventory changes for {} event(s), retrying: {}", chunk.size(), e.getMessage());
+                dirty.addAll(chunk);
+            }
+        }
+    }
+
+    private void publishChunk(final List<Long> eventIds) {
+        final Map<Integer, List<Long>> idsByShard = eventShardRouter.groupByShard(eventIds, id -> id);
+        final Map<Long, EventRepository.EventListingView> views = eventShardRouter
+                .onShards(idsByShard.keySet(), shard -> eventRepository.findListingByIds(idsByShard.get(shard)))
+                .values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toMap(EventRepository.EventListingView::getId, Function.identity()));
+        final long now = System.currentTimeMillis();
+        for (Long eventId : eventIds) {
+            final EventRepository.EventListingView view = views.get(eventId);
+            final InventoryChangeEvent change = view == null ? null : mapToChangeEvent(view, now);
+            kafkaTemplate.send(TOPIC, eventId.toString(), change).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    log.warn("Failed to publish inventory change for event ID: {}, retrying: {}", eventId, ex.getMessage());
+                    dirty.add(eventId);
+                }
+            });
+        }
+        log.debug("Published inventory changes for {} event(s)", eventIds.size());
+    }
+
+    private InventoryChangeEvent mapToChangeEvent(final EventRepository.EventListingView view, final long now) {
+        return InventoryChangeEvent.builder()
+                .eventId(view.getId())
+                .event(view.getName())
+                .totalCapacity(view.getTotalCapacity())
+                .availableCapacity(hotCapacityEngine.availableCapacity(view.getId())
+                        .orElse(view.getAvailableCapacity()))
+                .ticketPrice(view.getTicketPrice())
+                .hot(view.getHot())
+                .venueId(view.getVenueId())
+                .venueName(view.getVenueName())
+                .venueTotalCapacity(view.getVenueTotalCapacity())
+                .publishedAt(now)
+                .build();
+    }
+}
@@ -0,0 +1,452 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.rapidreserve.inventory_service.dto.InventoryImportRow;
+import com.rapidreserve.inventory_service.entity.Event;
+import com.rapidreserve.inventory_service.entity.Venue;
+import com.rapidreserve.inventory_service.repository.VenueRepository;
+import com.rapidreserve.inventory_service.response.InventoryImportResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Bulk import of venues and events from NDJSON or CSV.
+ * <p>
+ * The body is read line by line and rows are inserted with batched JDBC statements, one
+ * transaction per batch, so memory stays bounded by the batch size (plus one entry per venue for
+ * resolving references) however long the file is. Invalid rows are rejected and reported without
+ * stopping the import; batches committed before a database failure stay committed.
+ * <p>
+ * When sharded, each batch's events are spread round robin and every shard's share is written in
+ * its own transaction; venues go to the primary first and are copied to the other shards before
+ * any of their events.
+ */
+@Service
+@Slf4j
+public class InventoryImportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String INSERT_VENUE = "INSERT INTO venue (name, address, total_capacity) VALUES (?, ?, ?)";
+    private static final String INSERT_EVENT = "INSERT INTO event (name, venue_id, total_capacity, " +
+            "available_capacity, ticket_price, hot) VALUES (?, ?, ?, ?, ?, FALSE)";
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final long PROGRESS_LOG_INTERVAL = 100_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final VenueRepository venueRepository;
+    private final EventShardRouter eventShardRouter;
+    private final VenueReplicator venueReplicator;
+    private final EventSearchIndex eventSearchIndex;
+    private final InventoryChangePublisher inventoryChangePublisher;
+    private final ObjectReader rowReader;
+    private final int batchSize;
+    private final int maxReportedRejections;
+
+    @Autowired
+    public InventoryImportService(final JdbcTemplate jdbcTemplate,
+                                  final PlatformTransactionManager transactionManager,
+                                  final VenueRepository venueRepository,
+                                  final EventShardRouter eventShardRouter,
+                                  final VenueReplicator venueReplicator,
+                                  final EventSearchIndex eventSearchIndex,
+                                  final InventoryChangePublisher inventoryChangePublisher,
+                                  final ObjectMapper objectMapper,
+                                  @Value("${inventory.import.batch-size:1000}") final int batchSize,
+                                  @Value("${inventory.import.max-reported-rejections:1000}") final int maxReportedRejections) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.venueRepository = venueRepository;
+        this.eventShardRouter = eventShardRouter;
+        this.venueReplicator = venueReplicator;
+        this.eventSearchIndex = eventSearchIndex;
+        this.inventoryChangePublisher = inventoryChangePublisher;
+        this.rowReader = objectMapper.readerFor(InventoryImportRow.class);
+        this.batchSize = batchSize;
+        this.maxReportedRejections = maxReportedRejections;
+    }
+
+    public InventoryImportResponse importInventory(final InputStream body, final Format format) throws IOException {
+        final ImportRun run = new ImportRun();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            CsvColumns columns = null;
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && columns == null) {
+                    columns = CsvColumns.fromHeader(line);
+                    continue;
+                }
+
+                run.rowsRead++;
+                final InventoryImportRow row;
+                try {
+                    row = format == Format.CSV ? columns.parse(line) : rowReader.readValue(line);
+                } catch (JsonProcessingException | IllegalArgumentException e) {
+                    run.reject(lineNumber, "Malformed row: " + firstLine(e.getMessage()));
+                    continue;
+                }
+                run.accept(lineNumber, row);
+
+                if (run.rowsRead % PROGRESS_LOG_INTERVAL == 0) {
+                    log.info("Import progress: {} row(s) read, {} venue(s) and {} event(s) imported, {} rejected",
+                            run.rowsRead, run.venuesImported, run.eventsImported, run.rejected);
+                }
+            }
+        }
+        run.flush();
+
+        final long elapsedMillis = (System.nanoTime() - run.startNanos) / 1_000_000;
+        log.info("Import finished in {} ms: {} row(s) read, {} venue(s) and {} event(s) imported, {} rejected",
+                elapsedMillis, run.rowsRead, run.venuesImported, run.eventsImported, run.rejected);
+
+        return InventoryImportResponse.builder()
+                .rowsRead(run.rowsRead)
+                .venuesImported(run.venuesImported)
+                .eventsImported(run.eventsImported)
+                .rejected(run.rejected)
+                .rejectedRows(run.rejectedRows)
+                .elapsedMillis(elapsedMillis)
+                .build();
+    }
+
+    /**
+     * State of one import: the rows waiting for the next batch and the venues events can refer to.
+     */
+    private final class ImportRun {
+        private final long startNanos = System.nanoTime();
+        private final Map<String, Venue> venuesByRef = new HashMap<>();
+        private final Map<Long, Optional<Venue>> existingVenues = new HashMap<>();
+        private final List<InventoryImportResponse.RejectedRow> rejectedRows = new ArrayList<>();
+        private List<Venue> pendingVenues = new ArrayList<>();
+        private List<Event> pendingEvents = new ArrayList<>();
+        private long rowsRead;
+        private long venuesImported;
+        private long eventsImported;
+        private long rejected;
+
+        private void accept(final long lineNumber, final InventoryImportRow row) {
+            final String type = row == null || row.getType() == null ? "" : row.getType().trim().toLowerCase(Locale.ROOT);
+            final String problem = switch (type) {
+                case "venue" -> acceptVenue(row);
+                case "event" -> acceptEvent(row);
+                default -> "Row type must be venue or event";
+            };
+            if (problem != null) {
+                reject(lineNumber, problem);
+            } else if (pendingVenues.size() + pendingEvents.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private String acceptVenue(final InventoryImportRow row) {
+            final String problem = firstProblem(
+                    requireText(row.getName(), "Venue name"),
+                    requireText(row.getAddress(), "Address"),
+                    requireCapacity(row.getTotalCapacity()));
+            if (problem != null) {
+                return problem;
+            }
+            if (row.getRef() != null && venuesByRef.containsKey(row.getRef())) {
+                return "Duplicate venue ref: " + row.getRef();
+            }
+
+            Venue venue = new Venue();
+            venue.setName(row.getName());
+            venue.setAddress(row.getAddress());
+            venue.setTotalCapacity(row.getTotalCapacity());
+            pendingVenues.add(venue);
+            if (row.getRef() != null) {
+                venuesByRef.put(row.getRef(), venue);
+            }
+            return null;
+        }
+
+        private String acceptEvent(final InventoryImportRow row) {
+            String problem = firstProblem(
+                    requireText(row.getName(), "Event name"),
+                    requireCapacity(row.getTotalCapacity()),
+                    row.getTicketPrice() == null || row.getTicketPrice().signum() <= 0
+                            ? "Ticket price must be greater than 0" : null);
+            if (problem != null) {
+                return problem;
+            }
+
+            final Venue venue;
+            if (row.getVenueRef() != null && row.getVenueId() != null) {
+                return "Give either venueRef or venueId, not both";
+            } else if (row.getVenueRef() != null) {
+                venue = venuesByRef.get(row.getVenueRef());
+                if (venue == null) {
+                    return "Unknown venue ref: " + row.getVenueRef();
+                }
+            } else if (row.getVenueId() != null) {
+                venue = existingVenues.computeIfAbsent(row.getVenueId(), venueId -> eventShardRouter.onShard(
+                        EventShardRouter.PRIMARY_SHARD, () -> venueRepository.findById(venueId))).orElse(null);
+                if (venue == null) {
+                    return "Venue not found with id: " + row.getVenueId();
+                }
+            } else {
+                return "Venue ref or venue ID is required";
+            }
+            if (venue.getTotalCapacity() < row.getTotalCapacity()) {
+                return "Event capacity (" + row.getTotalCapacity() + ") exceeds venue capacity (" +
+                        venue.getTotalCapacity() + ")";
+            }
+
+            Event event = new Event();
+            event.setName(row.getName());
+            event.setTotalCapacity(row.getTotalCapacity());
+            event.setAvailableCapacity(row.getTotalCapacity());
+            event.setVenue(venue);
+            event.setTicketPrice(row.getTicketPrice());
+            pendingEvents.add(event);
+            return null;
+        }
+
+        private void reject(final long lineNumber, final String reason) {
+            rejected++;
+            if (rejectedRows.size() < maxReportedRejections) {
+                rejectedRows.add(InventoryImportResponse.RejectedRow.builder()
+                        .line(lineNumber)
+                        .reason(reason)
+                        .build());
+            }
+        }
+
+        /**
+         * Writes the pending rows in one transaction per shard. Venues go first so events in the same
+         * batch that refer to them see their generated ids.
+         */
+        private void flush() {
+            if (pendingVenues.isEmpty() && pendingEvents.isEmpty()) {
+                return;
+            }
+            final List<Venue> venues = pendingVenues;
+            final List<Event> events = pendingEvents;
+            pendingVenues = new ArrayList<>();
+            pendingEvents = new ArrayList<>();
+
+            final Map<Integer, List<Event>> eventsByShard = new TreeMap<>();
+            for (Event event : events) {
+                eventsByShard.computeIfAbsent(eventShardRouter.shardForNewEvent(), shard -> new ArrayList<>()).add(event);
+            }
+            final List<Event> primaryEvents = eventsByShard.remove(EventShardRouter.PRIMARY_SHARD);
+
+            eventShardRouter.runOnShard(EventShardRouter.PRIMARY_SHARD, () ->
+                    transactionTemplate.executeWithoutResult(status -> {
+                        insertBatch(INSERT_VENUE, venues, (statement, venue) -> {
+                            try {
+                                statement.setString(1, venue.getName());
+                                statement.setString(2, venue.getAddress());
+                                statement.setLong(3, venue.getTotalCapacity());
+                            } catch (SQLException e) {
+                                throw new IllegalStateException(e);
+                            }
+                        }, Venue::setId);
+                        insertEvents(primaryEvents == null ? List.of() : primaryEvents);
+                    }));
+            venueReplicator.replicate(venues);
+            eventShardRouter.onShards(eventsByShard.keySet(), shard -> transactionTemplate.execute(status -> {
+                insertEvents(eventsByShard.get(shard));
+                return null;
+            }));
+            venuesImported += venues.size();
+            eventsImported += events.size();
+
+            for (Event event : events) {
+                eventSearchIndex.index(event, event.getAvailableCapacity());
+                inventoryChangePublisher.markChanged(event.getId());
+            }
+        }
+    }
+
+    private void insertEvents(final List<Event> events) {
+        insertBatch(INSERT_EVENT, events, (statement, event) -> {
+            try {
+                statement.setString(1, event.getName());
+                statement.setLong(2, event.getVenue().getId());
+                statement.setLong(3, event.getTotalCapacity());
+                statement.setLong(4, event.getAvailableCapacity());
+                statement.setBigDecimal(5, event.getTicketPrice());
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }, Event::setId);
+    }
+
+    /**
+     * Inserts the rows with one batched statement and hands each its generated id.
+     */
+    private <T> void insertBatch(final String sql, final List<T> rows,
+                                 final BiConsumer<PreparedStatement, T> binder,
+                                 final BiConsumer<T, Long> idSetter) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        final KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(sql, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(final PreparedStatement statement, final int i) {
+                        binder.accept(statement, rows.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                }, keys);
+
+        final List<Map<String, Object>> keyList = keys.getKeyList();
+        if (keyList.size() != rows.size()) {
+            throw new IllegalStateException("Expected " + rows.size() + " generated id(s), got " + keyList.size());
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            idSetter.accept(rows.get(i), ((Number) keyList.get(i).values().iterator().next()).longValue());
+        }
+    }
+
+    private static String requireText(final String value, final String field) {
+        if (value == null || value.isBlank()) {
+            return field + " is required";
+        }
+        if (value.length() > MAX_TEXT_LENGTH) {
+            return field + " cannot exceed " + MAX_TEXT_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private static String requireCapacity(final Long totalCapacity) {
+        if (totalCapacity == null) {
+            return "Total capacity is required";
+        }
+        return totalCapacity < 1 ? "Capacity must be at least 1" : null;
+    }
+
+    private static String firstProblem(final String... problems) {
+        for (String problem : problems) {
+            if (problem != null) {
+                return problem;
+            }
+        }
+        return null;
+    }
+
+    private static String firstLine(final String message) {
+        if (message == null) {
+            return "unreadable";
+        }
+        final int newline = message.indexOf('\n');
+        return newline < 0 ? message : message.substring(0, newline);
+    }
+
+    /**
+     * Column layout of a CSV import, taken from its header line. Fields may be quoted with double
+     * quotes (a doubled quote inside is a literal quote) but cannot span lines.
+     */
+    private record CsvColumns(List<String> names) {
+
+        private static final List<String> KNOWN = List.of(
+                "type", "ref", "name", "address", "totalCapacity", "venueRef", "venueId", "ticketPrice");
+
+        private static CsvColumns fromHeader(final String header) {
+            final List<String> names = split(header).stream().map(String::trim).toList();
+            for (String name : names) {
+                if (!KNOWN.contains(name)) {
+                    throw new IllegalArgumentException("Unknown CSV column: " + name + ". Expected any of " + KNOWN);
+                }
+            }
+            if (!names.contains("type")) {
+                throw new IllegalArgumentException("CSV header must include a type column");
+            }
+            return new CsvColumns(names);
+        }
+
+        private InventoryImportRow parse(final String line) {
+            final List<String> values = split(line);
+            if (values.size() != names.size()) {
+                throw new IllegalArgumentException("Expected " + names.size() + " column(s), got " + values.size());
+            }
+            InventoryImportRow row = new InventoryImportRow();
+            for (int i = 0; i < values.size(); i++) {
+                final String value = values.get(i).isEmpty() ? null : values.get(i);
+                switch (names.get(i)) {
+                    case "type" -> row.setType(value);
+                    case "ref" -> row.setRef(value);
+                    case "name" -> row.setName(value);
+                    case "address" -> row.setAddress(value);
+                    case "totalCapacity" -> row.setTotalCapacity(value == null ? null : Long.valueOf(value.trim()));
+                    case "venueRef" -> row.setVenueRef(value);
+                    case "venueId" -> row.setVenueId(value == null ? null : Long.valueOf(value.trim()));
+                    case "ticketPrice" -> row.setTicketPrice(value == null ? null : new BigDecimal(value.trim()));
+                    default -> throw new IllegalStateException("Unexpected column " + names.get(i));
+                }
+            }
+            return row;
+        }
+
+        private static List<String> split(final String line) {
+            final List<String> values = new ArrayList<>();
+            final StringBuilder value = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                final char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        value.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        value.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(value.toString());
+                    value.setLength(0);
+                } else {
+                    value.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("Unterminated quoted field");
+            }
+            values.add(value.toString());
+            return values;
+        }
+    }
+}
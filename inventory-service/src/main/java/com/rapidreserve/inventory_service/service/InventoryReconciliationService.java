@@ -0,0 +1,452 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.response.ReconciliationReportResponse;
+import com.rapidreserve.inventory_service.response.SeatMapResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Checks that the three copies of what was sold agree: booking rows, order rows and
+ * event.available_capacity.
+ * <p>
+ * Each run reads only what changed since the previous one. Booking rows (by updated_at), order
+ * rows (by placed_at) and event rows on every shard (by updated_at, which every capacity change
+ * bumps) are scanned in keyset chunks from a per-source checkpoint, up to the database clock minus
+ * a settle delay so rows still being committed are left for the next run. The events touched by a
+ * chunk are checked, then the checkpoint moves past it, so an interrupted run resumes where it stopped.
+ * <p>
+ * For every touched event two things are compared:
+ * <ul>
+ *     <li>capacity: the tickets out of inventory (total minus available, read from the in-memory
+ *     counter for hot events) against the tickets accounted for by active and confirmed holds,
+ *     bookings placed without a hold and seats allocated from a seat map;</li>
+ *     <li>orders: the number of order rows against the number of bookings that are ordered, those
+ *     placed without a hold and held ones once confirmed; a held booking is only ordered when its
+ *     confirmation is published.</li>
+ * </ul>
+ * A difference can be a sale still in flight, so it is only confirmed when the next run finds
+ * the same difference again. Confirmed capacity drift on cold events can be repaired by resetting
+ * available_capacity to what the holds and bookings imply; everything else is reported only.
+ * <p>
+ * Meters: the {@code inventory.reconciliation.duration} timer (outcome {@code success} or
+ * {@code failed}), {@code inventory.reconciliation.rows.scanned} by source,
+ * {@code inventory.reconciliation.events.checked}, {@code inventory.reconciliation.mismatches}
+ * by kind and {@code inventory.reconciliation.repairs}.
+ */
+@Service
+@Slf4j
+public class InventoryReconciliationService {
+
+    public static final String CAPACITY = "CAPACITY";
+    public static final String ORDERS = "ORDERS";
+
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final String LOAD_CHECKPOINT_SQL =
+            "SELECT watermark, last_id FROM reconciliation_checkpoint WHERE source = ?";
+    private static final String SAVE_CHECKPOINT_SQL =
+            "INSERT INTO reconciliation_checkpoint (source, watermark, last_id, updated_at) VALUES (?, ?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE watermark = VALUES(watermark), last_id = VALUES(last_id), " +
+                    "updated_at = VALUES(updated_at)";
+    private static final String BOOKING_LEDGER_SQL =
+            "SELECT event_id, " +
+                    "COALESCE(SUM(CASE WHEN hold_id IS NULL OR status = 'CONFIRMED' THEN 1 ELSE 0 END), 0) AS bookings, " +
+                    "COALESCE(SUM(CASE WHEN hold_id IS NULL THEN ticket_count ELSE 0 END), 0) AS holdless_tickets " +
+                    "FROM booking WHERE event_id IN (:eventIds) GROUP BY event_id";
+    private static final String ORDER_LEDGER_SQL =
+            "SELECT event_id, COUNT(*) AS orders FROM `order` WHERE event_id IN (:eventIds) GROUP BY event_id";
+    private static final String EVENT_CAPACITY_SQL =
+            "SELECT id, total_capacity, available_capacity FROM event WHERE id IN (:eventIds)";
+    private static final String HELD_TICKETS_SQL =
+            "SELECT event_id, SUM(tickets) AS tickets FROM seat_hold " +
+                    "WHERE status IN ('ACTIVE', 'CONFIRMED') AND event_id IN (:eventIds) GROUP BY event_id";
+    private static final String SEATED_EVENTS_SQL =
+            "SELECT DISTINCT event_id FROM seat_section WHERE event_id IN (:eventIds)";
+
+    private final EventShardRouter eventShardRouter;
+    private final InventoryService inventoryService;
+    private final HotCapacityEngine hotCapacityEngine;
+    private final SeatAllocationService seatAllocationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final boolean repair;
+    private final int chunkSize;
+    private final Duration settleDelay;
+    private final ReentrantLock runLock = new ReentrantLock();
+    // Differences seen on the previous run and not yet confirmed or cleared
+    private final Map<DriftKey, Long> suspected = new ConcurrentHashMap<>();
+    private volatile ReconciliationReportResponse lastReport;
+
+    @Autowired
+    public InventoryReconciliationService(final EventShardRouter eventShardRouter,
+                                          final InventoryService inventoryService,
+                                          final HotCapacityEngine hotCapacityEngine,
+                                          final SeatAllocationService seatAllocationService,
+                                          final JdbcTemplate jdbcTemplate,
+                                          final PlatformTransactionManager transactionManager,
+                                          final MeterRegistry meterRegistry,
+                                          @Value("${inventory.reconciliation.enabled:false}") final boolean enabled,
+                                          @Value("${inventory.reconciliation.repair:false}") final boolean repair,
+                                          @Value("${inventory.reconciliation.chunk-size:500}") final int chunkSize,
+                                          @Value("${inventory.reconciliation.settle-seconds:30}") final long settleSeconds) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("inventory.reconciliation.chunk-size must be at least 1");
+        }
+        this.eventShardRouter = eventShardRouter;
+        this.inventoryService = inventoryService;
+        this.hotCapacityEngine = hotCapacityEngine;
+        this.seatAllocationService = seatAllocationService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.repair = repair;
+        this.chunkSize = chunkSize;
+        this.settleDelay = Duration.ofSeconds(settleSeconds);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reconciliation.interval-ms:60000}",
+            initialDelayString = "${inventory.reconciliation.interval-ms:60000}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            run();
+        } catch (DataAccessException e) {
+            log.warn("Inventory reconciliation failed, resuming from the last checkpoint on next run: {}",
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * The report of the last completed run, or null before the first one.
+     */
+    public ReconciliationReportResponse lastReport() {
+        return lastReport;
+    }
+
+    /**
+     * Reconciles everything that changed since the last checkpoints. Runs one at a time.
+     */
+    public ReconciliationReportResponse run() {
+        runLock.lock();
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            final ReconciliationReportResponse report = reconcile();
+            sample.stop(durationTimer("success"));
+            lastReport = report;
+            return report;
+        } catch (RuntimeException e) {
+            sample.stop(durationTimer("failed"));
+            throw e;
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    private ReconciliationReportResponse reconcile() {
+        final long startedAt = System.nanoTime();
+        final Run run = new Run(LocalDateTime.now());
+        final LocalDateTime until = databaseTime().minus(settleDelay);
+
+        // Last run's suspects first: they are confirmed or cleared whether or not they changed again
+        final Set<Long> recheck = new HashSet<>();
+        suspected.keySet().forEach(key -> recheck.add(key.eventId()));
+        check(recheck, run);
+
+        for (Source source : sources()) {
+            Checkpoint checkpoint = eventShardRouter.onShard(EventShardRouter.PRIMARY_SHARD,
+                    () -> loadCheckpoint(source.name()));
+            while (true) {
+                final Checkpoint after = checkpoint;
+                final List<ChangedRow> rows = eventShardRouter.onShard(source.shard(),
+                        () -> jdbcTemplate.query(source.chunkSql(), (rs, rowNum) -> new ChangedRow(
+                                        rs.getLong(1), rs.getObject(2, LocalDateTime.class), rs.getObject(3, Long.class)),
+                                until, after.watermark(), after.watermark(), after.lastId(), chunkSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                run.rowsScanned += rows.size();
+                rowsScannedCounter(source.kind()).increment(rows.size());
+
+                final Set<Long> eventIds = new LinkedHashSet<>();
+                for (ChangedRow row : rows) {
+                    if (row.eventId() != null) {
+                        eventIds.add(row.eventId());
+                    }
+                }
+                check(eventIds, run);
+
+                final ChangedRow last = rows.get(rows.size() - 1);
+                checkpoint = new Checkpoint(last.changedAt(), last.id());
+                saveCheckpoint(source.name(), checkpoint);
+                if (rows.size() < chunkSize) {
+                    break;
+                }
+            }
+        }
+
+        final ReconciliationReportResponse report = ReconciliationReportResponse.builder()
+                .startedAt(run.startedAt)
+                .durationMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt))
+                .rowsScanned(run.rowsScanned)
+                .eventsChecked(run.checked.size())
+                .repaired(run.mismatches.stream().filter(ReconciliationReportResponse.Mismatch::isRepaired).count())
+                .mismatches(run.mismatches)
+                .build();
+        if (report.getMismatches().isEmpty()) {
+            log.info("Inventory reconciliation scanned {} row(s) and checked {} event(s) in {} ms, no drift",
+                    report.getRowsScanned(), report.getEventsChecked(), report.getDurationMillis());
+        } else {
+            log.warn("Inventory reconciliation scanned {} row(s) and checked {} event(s) in {} ms: {} mismatch(es), {} repaired",
+                    report.getRowsScanned(), report.getEventsChecked(), report.getDurationMillis(),
+                    report.getMismatches().size(), report.getRepaired());
+        }
+        return report;
+    }
+
+    // =============================================
+    // CHECKS
+    // =============================================
+
+    /**
+     * Compares the copies for the events not checked yet in this run and records what disagrees.
+     */
+    private void check(final Collection<Long> eventIds, final Run run) {
+        final List<Long> unchecked = eventIds.stream().filter(run.checked::add).toList();
+        if (unchecked.isEmpty()) {
+            return;
+        }
+        eventsCheckedCounter().increment(unchecked.size());
+
+        final Map<Long, Ledger> ledgers = new HashMap<>();
+        eventShardRouter.onShard(EventShardRouter.PRIMARY_SHARD, () -> transactionTemplate.execute(status -> {
+            namedJdbcTemplate.query(BOOKING_LEDGER_SQL, Map.of("eventIds", unchecked), rs -> {
+                final Ledger ledger = ledgers.computeIfAbsent(rs.getLong("event_id"), id -> new Ledger());
+                ledger.bookings = rs.getLong("bookings");
+                ledger.holdlessTickets = rs.getLong("holdless_tickets");
+            });
+            namedJdbcTemplate.query(ORDER_LEDGER_SQL, Map.of("eventIds", unchecked), rs -> {
+                ledgers.computeIfAbsent(rs.getLong("event_id"), id -> new Ledger()).orders = rs.getLong("orders");
+            });
+            return null;
+        }));
+
+        final Map<Integer, List<Long>> idsByShard = eventShardRouter.groupByShard(unchecked, id -> id);
+        final Map<Integer, List<Inventory>> inventoriesByShard = eventShardRouter.onShards(idsByShard.keySet(),
+                shard -> transactionTemplate.execute(status -> readInventory(idsByShard.get(shard))));
+
+        final Set<Long> deleted = new HashSet<>(unchecked);
+        for (List<Inventory> inventories : inventoriesByShard.values()) {
+            for (Inventory inventory : inventories) {
+                deleted.remove(inventory.eventId());
+                final Ledger ledger = ledgers.getOrDefault(inventory.eventId(), new Ledger());
+                final long seated = inventory.seated() ? seatedTickets(inventory.eventId()) : 0L;
+                final OptionalLong hotAvailable = hotCapacityEngine.availableCapacity(inventory.eventId());
+                final long available = hotAvailable.orElse(inventory.availableCapacity());
+                final long expectedOut = inventory.heldTickets() + ledger.holdlessTickets + seated;
+                final long actualOut = inventory.totalCapacity() - available;
+
+                compare(run, inventory.eventId(), CAPACITY, expectedOut, actualOut,
+                        hotAvailable.isPresent() ? null : inventory);
+                compare(run, inventory.eventId(), ORDERS, ledger.bookings, ledger.orders, null);
+            }
+        }
+        suspected.keySet().removeIf(key -> deleted.contains(key.eventId()));
+    }
+
+    private List<Inventory> readInventory(final List<Long> eventIds) {
+        final Map<String, List<Long>> params = Map.of("eventIds", eventIds);
+        final Map<Long, Long> held = new HashMap<>();
+        namedJdbcTemplate.query(HELD_TICKETS_SQL, params,
+                rs -> { held.put(rs.getLong("event_id"), rs.getLong("tickets")); });
+        final Set<Long> seated = new HashSet<>(namedJdbcTemplate.queryForList(SEATED_EVENTS_SQL, params, Long.class));
+        return namedJdbcTemplate.query(EVENT_CAPACITY_SQL, params, (rs, rowNum) -> {
+            final long eventId = rs.getLong("id");
+            return new Inventory(eventId, rs.getLong("total_capacity"), rs.getLong("available_capacity"),
+                    held.getOrDefault(eventId, 0L), seated.contains(eventId));
+        });
+    }
+
+    /**
+     * Seats taken in an event's seat map, which are taken from capacity without a hold.
+     */
+    private long seatedTickets(final Long eventId) {
+        final SeatMapResponse seatMap = seatAllocationService.getSeatMap(eventId);
+        return seatMap.getTotalSeats() - seatMap.getAvailableSeats();
+    }
+
+    /**
+     * Confirms a difference seen with the same size on the previous run, repairing it when
+     * allowed and possible, and remembers a new one for the next run.
+     *
+     * @param repairable the cold event row to reset when confirmed capacity drift is repaired, or null
+     */
+    private void compare(final Run run, final Long eventId, final String kind, final long expected,
+                         final long actual, final Inventory repairable) {
+        final DriftKey key = new DriftKey(eventId, kind);
+        final long drift = actual - expected;
+        if (drift == 0) {
+            suspected.remove(key);
+            return;
+        }
+        final Long previous = suspected.put(key, drift);
+        if (previous == null || previous != drift) {
+            log.debug("{} drift of {} on event ID: {} suspected, checking again on next run", kind, drift, eventId);
+            return;
+        }
+
+        boolean repaired = false;
+        if (repair && repairable != null) {
+            final long repairedAvailable = repairable.totalCapacity() - expected;
+            repaired = inventoryService.repairAvailableCapacity(eventId, repairable.availableCapacity(), repairedAvailable);
+        }
+        if (repaired) {
+            suspected.remove(key);
+            repairsCounter().increment();
+        }
+        mismatchesCounter(kind).increment();
+        log.warn("{} mismatch on event ID: {}, expected {} but found {}{}", kind, eventId, expected, actual,
+                repaired ? ", repaired" : "");
+        run.mismatches.add(ReconciliationReportResponse.Mismatch.builder()
+                .eventId(eventId)
+                .kind(kind)
+                .expected(expected)
+                .actual(actual)
+                .repaired(repaired)
+                .build());
+    }
+
+    // =============================================
+    // HELPER METHODS
+    // =============================================
+
+    private List<Source> sources() {
+        final List<Source> sources = new ArrayList<>();
+        sources.add(new Source("booking", "booking", EventShardRouter.PRIMARY_SHARD, "booking", "updated_at", "event_id"));
+        sources.add(new Source("order", "order", EventShardRouter.PRIMARY_SHARD, "`order`", "placed_at", "event_id"));
+        for (int shard = 0; shard < eventShardRouter.shardCount(); shard++) {
+            final String name = eventShardRouter.isSharded() ? "event-" + shard : "event";
+            sources.add(new Source(name, "event", shard, "event", "updated_at", "id"));
+        }
+        return sources;
+    }
+
+    private Checkpoint loadCheckpoint(final String source) {
+        return jdbcTemplate.query(LOAD_CHECKPOINT_SQL,
+                        (rs, rowNum) -> new Checkpoint(rs.getObject(1, LocalDateTime.class), rs.getLong(2)), source)
+                .stream()
+                .findFirst()
+                .orElse(new Checkpoint(BEGINNING, 0L));
+    }
+
+    private void saveCheckpoint(final String source, final Checkpoint checkpoint) {
+        eventShardRouter.onShard(EventShardRouter.PRIMARY_SHARD, () -> jdbcTemplate.update(SAVE_CHECKPOINT_SQL,
+                source, checkpoint.watermark(), checkpoint.lastId(), LocalDateTime.now()));
+    }
+
+    private LocalDateTime databaseTime() {
+        return eventShardRouter.onShard(EventShardRouter.PRIMARY_SHARD,
+                () -> jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP(6)", LocalDateTime.class));
+    }
+
+    private Timer durationTimer(final String outcome) {
+        return Timer.builder("inventory.reconciliation.duration")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private Counter rowsScannedCounter(final String source) {
+        return Counter.builder("inventory.reconciliation.rows.scanned")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    private Counter eventsCheckedCounter() {
+        return Counter.builder("inventory.reconciliation.events.checked").register(meterRegistry);
+    }
+
+    private Counter mismatchesCounter(final String kind) {
+        return Counter.builder("inventory.reconciliation.mismatches")
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+
+    private Counter repairsCounter() {
+        return Counter.builder("inventory.reconciliation.repairs").register(meterRegistry);
+    }
+
+    /**
+     * A table whose changed rows point at events to check. {@code name} keys the checkpoint and
+     * {@code kind} tags the meters, so the event shards share one tag.
+     */
+    private record Source(String name, String kind, int shard, String table, String timestampColumn,
+                          String eventIdColumn) {
+
+        private String chunkSql() {
+            return "SELECT id, " + timestampColumn + ", " + eventIdColumn + " FROM " + table +
+                    " WHERE " + timestampColumn + " < ? AND (" + timestampColumn + " > ? OR (" +
+                    timestampColumn + " = ? AND id > ?)) ORDER BY " + timestampColumn + ", id LIMIT ?";
+        }
+    }
+
+    private record Checkpoint(LocalDateTime watermark, long lastId) {
+    }
+
+    private record ChangedRow(long id, LocalDateTime changedAt, Long eventId) {
+    }
+
+    private record Inventory(long eventId, long totalCapacity, long availableCapacity, long heldTickets,
+                             boolean seated) {
+    }
+
+    private record DriftKey(Long eventId, String kind) {
+    }
+
+    private static final class Ledger {
+        private long bookings;
+        private long orders;
+        private long holdlessTickets;
+    }
+
+    private static final class Run {
+        private final LocalDateTime startedAt;
+        private final Set<Long> checked = new HashSet<>();
+        private final List<ReconciliationReportResponse.Mismatch> mismatches = new ArrayList<>();
+        private long rowsScanned;
+
+        private Run(final LocalDateTime startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.rapidreserve.inventory_service.service;
 
+import com.rapidreserve.inventory_service.dto.BatchCapacityUpdateRequest;
 import com.rapidreserve.inventory_service.dto.CreateEventRequest;
 import com.rapidreserve.inventory_service.dto.CreateVenueRequest;
 import com.rapidreserve.inventory_service.dto.UpdateEventRequest;
@@ -11,49 +12,193 @@ import com.rapidreserve.inventory_service.exception.InsufficientCapacityExceptio
 import com.rapidreserve.inventory_service.exception.VenueNotFoundException;
 import com.rapidreserve.inventory_service.repository.EventRepository;
 import com.rapidreserve.inventory_service.repository.VenueRepository;
+import com.rapidreserve.inventory_service.response.BatchCapacityUpdateResponse;
 import com.rapidreserve.inventory_service.response.EventInventoryResponse;
+import com.rapidreserve.inventory_service.response.EventSearchResponse;
 import com.rapidreserve.inventory_service.response.VenueInventoryResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 public class InventoryService {
 
+    private static final int LISTING_PAGE_SIZE = 500;
+    private static final int MAX_SEARCH_RESULTS = 100;
+    private static final int MAX_BATCH_EVENTS = 100;
+
     private final EventRepository eventRepository;
     private final VenueRepository venueRepository;
+    private final HotCapacityEngine hotCapacityEngine;
+    private final EventInventoryCache eventInventoryCache;
+    private final InventoryChangePublisher inventoryChangePublisher;
+    private final EventSearchIndex eventSearchIndex;
+    private final OptimisticRetryExecutor optimisticRetryExecutor;
+    private final EventShardRouter eventShardRouter;
+    private final VenueReplicator venueReplicator;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransactionTemplate;
 
     @Autowired
-    public InventoryService(final EventRepository eventRepository, final VenueRepository venueRepository ){
+    public InventoryService(final EventRepository eventRepository, final VenueRepository venueRepository,
+                            final HotCapacityEngine hotCapacityEngine, final EventInventoryCache eventInventoryCache,
+                            final InventoryChangePublisher inventoryChangePublisher,
+                            final EventSearchIndex eventSearchIndex,
+                            final OptimisticRetryExecutor optimisticRetryExecutor,
+                            final EventShardRouter eventShardRouter, final VenueReplicator venueReplicator,
+                            final PlatformTransactionManager transactionManager){
         this.eventRepository = eventRepository;
         this.venueRepository = venueRepository;
+        this.hotCapacityEngine = hotCapacityEngine;
+        this.eventInventoryCache = eventInventoryCache;
+        this.inventoryChangePublisher = inventoryChangePublisher;
+        this.eventSearchIndex = eventSearchIndex;
+        this.optimisticRetryExecutor = optimisticRetryExecutor;
+        this.eventShardRouter = eventShardRouter;
+        this.venueReplicator = venueReplicator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
     }
 
     // =============================================
     // EVENT METHODS
     // =============================================
 
-    public List<EventInventoryResponse> getAllEvents(){
-        final List<Event> events = eventRepository.findAll();
-        return events.stream().map(this::mapToEventInventoryResponse).collect(Collectors.toList());
+    /**
+     * Streams events in id order with keyset pagination. Each page is one projection query that
+     * joins the venue and starts after the last id already handed out, so memory stays flat however
+     * many events match. Stops after {@code limit} events when a limit is given.
+     * <p>
+     * When sharded, the shards are paged in parallel and their pages merged by id; a shard is only
+     * asked for its next page once the merge has used up the previous one. Pages are read-only
+     * transactions, so they are served by the read replica when there is one.
+     */
+    public void streamEvents(final Long afterId, final Integer limit, final Long venueId,
+                             final boolean onlyAvailable, final Consumer<EventInventoryResponse> consumer) {
+        final ShardCursor[] cursors = new ShardCursor[eventShardRouter.shardCount()];
+        for (int shard = 0; shard < cursors.length; shard++) {
+            cursors[shard] = new ShardCursor(afterId == null ? 0L : afterId);
+        }
+        long remaining = limit == null ? Long.MAX_VALUE : limit;
+        while (remaining > 0) {
+            final List<Integer> refill = new ArrayList<>();
+            for (int shard = 0; shard < cursors.length; shard++) {
+                if (cursors[shard].needsPage()) {
+                    refill.add(shard);
+                }
+            }
+            if (!refill.isEmpty()) {
+                final int pageSize = (int) Math.min(LISTING_PAGE_SIZE, remaining);
+                eventShardRouter.onShards(refill, shard -> readOnlyTransactionTemplate.execute(status ->
+                                eventRepository.findListingPage(cursors[shard].after, venueId, onlyAvailable,
+                                        Limit.of(pageSize))))
+                        .forEach((shard, page) -> cursors[shard].load(page, pageSize));
+            }
+
+            ShardCursor next = null;
+            for (ShardCursor cursor : cursors) {
+                if (cursor.hasNext() && (next == null || cursor.peekId() < next.peekId())) {
+                    next = cursor;
+                }
+            }
+            if (next == null) {
+                return;
+            }
+            final EventInventoryResponse event = mapToEventInventoryResponse(next.next());
+            // Hot events are filtered on their in-memory capacity rather than the flushed value
+            if (onlyAvailable && event.getAvailableCapacity() <= 0) {
+                continue;
+            }
+            consumer.accept(event);
+            remaining--;
+        }
+    }
+
+    public List<EventSearchResponse> searchEvents(final String query, final int limit, final boolean onlyAvailable) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query is required");
+        }
+        if (limit <= 0 || limit > MAX_SEARCH_RESULTS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SEARCH_RESULTS);
+        }
+        return eventSearchIndex.search(query, limit, onlyAvailable);
     }
 
     public EventInventoryResponse getEventInventory(final Long eventId){
-        final Event event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new EventNotFoundException("Event not found with id: " + eventId));
+        return getCachedEventInventory(eventId).response();
+    }
 
-        return mapToEventInventoryResponse(event);
+    /**
+     * Inventory of several events, in the order asked for, with one query per shard. Like cache
+     * misses it reads the primary; hot events carry their live in-memory capacity.
+     */
+    public List<EventInventoryResponse> getEventInventories(final List<Long> eventIds) {
+        final Set<Long> distinctIds = new LinkedHashSet<>(eventIds);
+        if (distinctIds.isEmpty() || distinctIds.size() > MAX_BATCH_EVENTS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_BATCH_EVENTS + " event ids are required");
+        }
+
+        final Map<Integer, List<Long>> idsByShard = eventShardRouter.groupByShard(distinctIds, id -> id);
+        final Map<Long, EventRepository.EventListingView> views = eventShardRouter
+                .onShards(idsByShard.keySet(), shard -> transactionTemplate.execute(status ->
+                        eventRepository.findListingByIds(idsByShard.get(shard))))
+                .values().stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toMap(EventRepository.EventListingView::getId, Function.identity()));
+
+        final List<Long> missing = distinctIds.stream().filter(id -> !views.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            throw new EventNotFoundException("Events not found with ids: " + missing);
+        }
+        return distinctIds.stream()
+                .map(id -> mapToEventInventoryResponse(views.get(id)))
+                .toList();
+    }
+
+    /**
+     * Event inventory served from the read cache, with a version that changes whenever the
+     * response may have. Hot events carry their live in-memory capacity and fold it into the version.
+     */
+    public EventInventoryCache.Entry getCachedEventInventory(final Long eventId) {
+        // Misses load from the primary: a lagging replica's value would stay cached as the current state
+        final EventInventoryCache.Entry entry = eventInventoryCache.get(eventId, id -> eventShardRouter.onEventShard(id,
+                () -> transactionTemplate.execute(status -> loadEventInventory(id))));
+        final OptionalLong hotAvailable = hotCapacityEngine.availableCapacity(eventId);
+        if (hotAvailable.isEmpty()) {
+            return entry;
+        }
+        return new EventInventoryCache.Entry(
+                entry.response().toBuilder().availableCapacity(hotAvailable.getAsLong()).build(),
+                entry.version() + "-" + hotAvailable.getAsLong());
     }
 
-    @Transactional
     public EventInventoryResponse createEvent(CreateEventRequest request) {
-        // Validate venue exists
-        Venue venue = venueRepository.findById(request.getVenueId())
+        return eventShardRouter.onShard(eventShardRouter.shardForNewEvent(), () ->
+                optimisticRetryExecutor.execute("createEvent", OptimisticRetryExecutor.Entity.VENUE,
+                        request.getVenueId(), () -> doCreateEvent(request)));
+    }
+
+    private EventInventoryResponse doCreateEvent(CreateEventRequest request) {
+        // Validate venue exists; its version is checked again at commit in case the capacity changes meanwhile
+        Venue venue = venueRepository.findByIdForCapacityCheck(request.getVenueId())
                 .orElseThrow(() -> new VenueNotFoundException("Venue not found with id: " + request.getVenueId()));
 
         // Validate venue capacity
@@ -68,15 +213,23 @@ public class InventoryService {
         event.setAvailableCapacity(request.getTotalCapacity());
         event.setVenue(venue);
         event.setTicketPrice(request.getTicketPrice());
+        event.setHot(Boolean.TRUE.equals(request.getHot()));
 
         Event savedEvent = eventRepository.save(event);
+        inventoryChangePublisher.markChanged(savedEvent.getId());
+        TransactionCallbacks.afterCommit(() -> eventSearchIndex.index(savedEvent, savedEvent.getAvailableCapacity()));
         log.info("Created new event: {} with ID: {}", request.getEvent(), savedEvent.getId());
 
         return mapToEventInventoryResponse(savedEvent);
     }
 
-    @Transactional
     public EventInventoryResponse updateEvent(Long eventId, UpdateEventRequest request) {
+        return eventShardRouter.onEventShard(eventId, () ->
+                optimisticRetryExecutor.execute("updateEvent", OptimisticRetryExecutor.Entity.EVENT, eventId,
+                        () -> doUpdateEvent(eventId, request)));
+    }
+
+    private EventInventoryResponse doUpdateEvent(Long eventId, UpdateEventRequest request) {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new EventNotFoundException("Event not found with id: " + eventId));
 
@@ -87,44 +240,156 @@ public class InventoryService {
         if (request.getTicketPrice() != null) {
             event.setTicketPrice(request.getTicketPrice());
         }
+        if (request.getHot() != null && !request.getHot().equals(event.getHot())) {
+            if (!request.getHot()) {
+                // Write the in-memory counter back before the database path takes the event over again
+                hotCapacityEngine.retire(eventId).ifPresent(event::setAvailableCapacity);
+            }
+            event.setHot(request.getHot());
+        }
 
         Event updatedEvent = eventRepository.save(event);
+        eventChanged(eventId);
+        final long availableCapacity = hotCapacityEngine.availableCapacity(eventId)
+                .orElse(updatedEvent.getAvailableCapacity());
+        TransactionCallbacks.afterCommit(() -> eventSearchIndex.index(updatedEvent, availableCapacity));
         log.info("Updated event with ID: {}", eventId);
 
         return mapToEventInventoryResponse(updatedEvent);
     }
 
-    @Transactional
     public void deleteEvent(Long eventId) {
+        eventShardRouter.runOnEventShard(eventId, () ->
+                optimisticRetryExecutor.run("deleteEvent", OptimisticRetryExecutor.Entity.EVENT, eventId,
+                        () -> doDeleteEvent(eventId)));
+    }
+
+    private void doDeleteEvent(Long eventId) {
         Event event = eventRepository.findById(eventId)
                 .orElseThrow(() -> new EventNotFoundException("Event not found with id: " + eventId));
 
         // Check if event has bookings (available capacity < total capacity)
-        if (!event.getAvailableCapacity().equals(event.getTotalCapacity())) {
+        final long availableCapacity = hotCapacityEngine.availableCapacity(eventId)
+                .orElse(event.getAvailableCapacity());
+        if (availableCapacity != event.getTotalCapacity()) {
             throw new IllegalStateException("Cannot delete event with existing bookings");
         }
 
+        hotCapacityEngine.retire(eventId);
         eventRepository.delete(event);
+        eventChanged(eventId);
+        TransactionCallbacks.afterCommit(() -> eventSearchIndex.remove(eventId));
         log.info("Deleted event with ID: {}", eventId);
     }
 
-    @Transactional
     public void updateEventCapacity(final Long eventId, final Long ticketsBooked) {
-        Event event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new EventNotFoundException("Event not found with id: " + eventId));
+        if (ticketsBooked == null || ticketsBooked <= 0) {
+            throw new IllegalArgumentException("Tickets booked must be greater than 0");
+        }
 
-        // Validate available capacity
-        if (event.getAvailableCapacity() < ticketsBooked) {
-            throw new InsufficientCapacityException(
-                    "Not enough tickets available. Requested: " + ticketsBooked + ", Available: " + event.getAvailableCapacity());
+        reserveCapacity(eventId, ticketsBooked);
+        log.info("Updated event capacity for event ID: {}. Tickets booked: {}", eventId, ticketsBooked);
+    }
+
+    /**
+     * Applies many decrements in one transaction per shard. Entries for the same event are combined
+     * into a single guarded UPDATE, and events are updated in id order so concurrent batches lock
+     * rows in the same order. When an event cannot take its combined count, its entries are applied
+     * one by one in request order so as many as possible still succeed.
+     */
+    public BatchCapacityUpdateResponse updateEventCapacities(final BatchCapacityUpdateRequest request) {
+        final List<BatchCapacityUpdateRequest.CapacityUpdate> updates = request.getUpdates();
+        final Map<Long, List<Integer>> entriesByEvent = new TreeMap<>();
+        for (int i = 0; i < updates.size(); i++) {
+            entriesByEvent.computeIfAbsent(updates.get(i).getEventId(), id -> new ArrayList<>()).add(i);
         }
 
-        // Update capacity
-        event.setAvailableCapacity(event.getAvailableCapacity() - ticketsBooked);
-        eventRepository.save(event);
+        final BatchCapacityUpdateResponse.Result[] results = new BatchCapacityUpdateResponse.Result[updates.size()];
+        final Map<Integer, List<Long>> eventsByShard = eventShardRouter.groupByShard(entriesByEvent.keySet(), id -> id);
+        eventShardRouter.onShards(eventsByShard.keySet(), shard -> transactionTemplate.execute(status -> {
+            for (Long eventId : eventsByShard.get(shard)) {
+                final List<Integer> entries = entriesByEvent.get(eventId);
+                final long combined = entries.stream().mapToLong(i -> updates.get(i).getTickets()).sum();
+                if (entries.size() > 1 && tryReserveCapacity(eventId, combined)) {
+                    entries.forEach(i -> results[i] = batchResult(updates.get(i), null));
+                    continue;
+                }
+                for (int i : entries) {
+                    final long tickets = updates.get(i).getTickets();
+                    results[i] = batchResult(updates.get(i),
+                            tryReserveCapacity(eventId, tickets) ? null : capacityRejectionMessage(eventId, tickets));
+                }
+            }
+            return null;
+        }));
+
+        final int succeeded = (int) Arrays.stream(results).filter(BatchCapacityUpdateResponse.Result::isSuccess).count();
+        log.info("Batch capacity update applied {} of {} entries across {} event(s)",
+                succeeded, updates.size(), entriesByEvent.size());
 
-        log.info("Updated event capacity for event ID: {}. Tickets booked: {}, Remaining: {}",
-                eventId, ticketsBooked, event.getAvailableCapacity());
+        return BatchCapacityUpdateResponse.builder()
+                .succeeded(succeeded)
+                .failed(updates.size() - succeeded)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    /**
+     * Takes capacity from an event, joining the caller's transaction when there is one.
+     * Hot events are served from memory and given back automatically if that transaction rolls back.
+     */
+    public void reserveCapacity(final Long eventId, final long tickets) {
+        eventShardRouter.runOnEventShard(eventId, () -> {
+            if (!tryReserveCapacity(eventId, tickets)) {
+                throw capacityRejection(eventId, tickets);
+            }
+        });
+    }
+
+    /**
+     * Gives capacity back to an event. For hot events the in-memory counter is only credited
+     * once the caller's transaction commits.
+     */
+    public void releaseCapacity(final Long eventId, final long tickets) {
+        eventShardRouter.runOnEventShard(eventId, () -> doReleaseCapacity(eventId, tickets));
+    }
+
+    /**
+     * Overwrites the available capacity of a cold event that has drifted from its bookings, as
+     * long as it is still at {@code observed}. Returns false when the row moved on in the meantime.
+     */
+    public boolean repairAvailableCapacity(final Long eventId, final long observed, final long repaired) {
+        return eventShardRouter.onEventShard(eventId, () -> {
+            if (eventRepository.repairAvailableCapacity(eventId, observed, repaired) == 0) {
+                return false;
+            }
+            log.warn("Repaired available capacity of event ID: {} from {} to {}", eventId, observed, repaired);
+            capacityChanged(eventId, repaired - observed);
+            return true;
+        });
+    }
+
+    private void doReleaseCapacity(final Long eventId, final long tickets) {
+        if (!hotCapacityEngine.isEnabled()) {
+            if (eventRepository.incrementAvailableCapacity(eventId, tickets) == 0) {
+                log.warn("Could not release {} ticket(s) for event ID: {}", tickets, eventId);
+            } else {
+                capacityChanged(eventId, tickets);
+            }
+            return;
+        }
+        if (eventRepository.incrementColdAvailableCapacity(eventId, tickets) > 0) {
+            capacityChanged(eventId, tickets);
+            return;
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            if (!hotCapacityEngine.release(eventId, tickets) && !hotCapacityEngine.trackAndRelease(eventId, tickets)) {
+                log.warn("Could not release {} ticket(s) for event ID: {}", tickets, eventId);
+            } else {
+                inventoryChangePublisher.markChanged(eventId);
+                eventSearchIndex.adjustAvailable(eventId, tickets);
+            }
+        });
     }
 
     // =============================================
@@ -132,7 +397,8 @@ public class InventoryService {
     // =============================================
 
     public VenueInventoryResponse getVenueInformation(final Long venueId) {
-        final Venue venue = venueRepository.findById(venueId)
+        final Venue venue = eventShardRouter.onShard(EventShardRouter.PRIMARY_SHARD,
+                        () -> readOnlyTransactionTemplate.execute(status -> venueRepository.findById(venueId)))
                 .orElseThrow(() -> new VenueNotFoundException("Venue not found with id: " + venueId));
 
         return VenueInventoryResponse.builder()
@@ -143,27 +409,43 @@ public class InventoryService {
     }
 
     public List<VenueInventoryResponse> getAllVenues() {
-        final List<Venue> venues = venueRepository.findAll();
+        final List<Venue> venues = eventShardRouter.onShard(EventShardRouter.PRIMARY_SHARD,
+                () -> readOnlyTransactionTemplate.execute(status -> venueRepository.findAll()));
         return venues.stream()
                 .map(this::mapToVenueResponse)
                 .collect(Collectors.toList());
     }
 
-    @Transactional
+    /**
+     * Venues are created on the primary shard, which allocates their ids, and then copied to the others.
+     */
     public VenueInventoryResponse createVenue(CreateVenueRequest request) {
         Venue venue = new Venue();
         venue.setName(request.getName());
         venue.setAddress(request.getAddress());
         venue.setTotalCapacity(request.getTotalCapacity());
 
-        Venue savedVenue = venueRepository.save(venue);
+        Venue savedVenue = eventShardRouter.onShard(EventShardRouter.PRIMARY_SHARD,
+                () -> transactionTemplate.execute(status -> venueRepository.save(venue)));
+        venueReplicator.replicate(List.of(savedVenue));
         log.info("Created new venue: {} with ID: {}", request.getName(), savedVenue.getId());
 
         return mapToVenueResponse(savedVenue);
     }
 
-    @Transactional
+    /**
+     * Updates the venue on the primary shard, where its version is checked, then refreshes the copies.
+     * The capacity check looks at events on every shard.
+     */
     public VenueInventoryResponse updateVenue(Long venueId, UpdateVenueRequest request) {
+        final VenueInventoryResponse response = eventShardRouter.onShard(EventShardRouter.PRIMARY_SHARD, () ->
+                optimisticRetryExecutor.execute("updateVenue", OptimisticRetryExecutor.Entity.VENUE, venueId,
+                        () -> doUpdateVenue(venueId, request)));
+        venueReplicator.replicate(venueId);
+        return response;
+    }
+
+    private VenueInventoryResponse doUpdateVenue(Long venueId, UpdateVenueRequest request) {
         Venue venue = venueRepository.findById(venueId)
                 .orElseThrow(() -> new VenueNotFoundException("Venue not found with id: " + venueId));
 
@@ -181,35 +463,61 @@ public class InventoryService {
         }
 
         Venue updatedVenue = venueRepository.save(venue);
+        // Event responses embed the venue
+        final List<Long> eventIds = eventShardRouter.onEveryShard(shard -> eventRepository.findIdsByVenueId(venueId))
+                .stream().flatMap(List::stream).toList();
+        eventInventoryCache.invalidateAll(eventIds);
+        eventIds.forEach(inventoryChangePublisher::markChanged);
+        TransactionCallbacks.afterCommit(() ->
+                eventSearchIndex.updateVenue(venueId, updatedVenue.getName(), updatedVenue.getAddress()));
         log.info("Updated venue with ID: {}", venueId);
 
         return mapToVenueResponse(updatedVenue);
     }
 
     private void validateCapacityForEvents(Long venueId, Long newCapacity) {
-        List<Event> events = eventRepository.findByVenueId(venueId);
-        for (Event event : events) {
-            if (event.getTotalCapacity() > newCapacity) {
-                throw new InsufficientCapacityException(
-                        String.format("Cannot reduce venue capacity. Event '%s' has capacity %d which exceeds new venue capacity %d",
-                                event.getName(), event.getTotalCapacity(), newCapacity));
-            }
-        }
+        eventShardRouter.onEveryShard(shard -> eventRepository.findMaxTotalCapacityByVenueId(venueId)).stream()
+                .flatMap(Optional::stream)
+                .max(Long::compare)
+                .filter(largestEventCapacity -> largestEventCapacity > newCapacity)
+                .ifPresent(largestEventCapacity -> {
+                    throw new InsufficientCapacityException(
+                            String.format("Cannot reduce venue capacity. An event has capacity %d which exceeds new venue capacity %d",
+                                    largestEventCapacity, newCapacity));
+                });
     }
 
-    @Transactional
+    /**
+     * Removes the copies before the primary row, so a shard that gained an event at the venue in the
+     * meantime refuses the delete through its foreign key. If the delete does not go through, the
+     * copies are restored from the primary.
+     */
     public void deleteVenue(Long venueId) {
+        try {
+            eventShardRouter.runOnShard(EventShardRouter.PRIMARY_SHARD, () ->
+                    optimisticRetryExecutor.run("deleteVenue", OptimisticRetryExecutor.Entity.VENUE, venueId,
+                            () -> doDeleteVenue(venueId)));
+        } catch (RuntimeException e) {
+            venueReplicator.replicate(venueId);
+            throw e;
+        }
+    }
+
+    private void doDeleteVenue(Long venueId) {
         Venue venue = venueRepository.findById(venueId)
                 .orElseThrow(() -> new VenueNotFoundException("Venue not found with id: " + venueId));
 
         // Check if venue has associated events
-        List<Event> events = eventRepository.findByVenueId(venueId);
-        if (!events.isEmpty()) {
+        long eventCount = eventShardRouter.onEveryShard(shard -> eventRepository.countByVenueId(venueId)).stream()
+                .mapToLong(Long::longValue)
+                .sum();
+        if (eventCount > 0) {
             throw new IllegalStateException(
                     "Cannot delete venue with ID: " + venueId +
-                            " because it has " + events.size() + " associated event(s)");
+                            " because it has " + eventCount + " associated event(s)");
         }
 
+        venueReplicator.drop(venueId);
         venueRepository.delete(venue);
         log.info("Deleted venue with ID: {}", venueId);
     }
@@ -218,6 +526,88 @@ public class InventoryService {
     // HELPER METHODS
     // =============================================
 
+    /**
+     * Takes capacity from the in-memory counter for hot events, otherwise with a single guarded
+     * UPDATE. Returns false when the event is unknown or does not have enough capacity left.
+     */
+    private boolean tryReserveCapacity(final Long eventId, final long tickets) {
+        if (!hotCapacityEngine.isEnabled()) {
+            if (eventRepository.decrementAvailableCapacity(eventId, tickets) == 0) {
+                return false;
+            }
+            capacityChanged(eventId, -tickets);
+            return true;
+        }
+
+        HotCapacityEngine.Decision decision = hotCapacityEngine.tryDecrement(eventId, tickets);
+        if (decision == HotCapacityEngine.Decision.NOT_TRACKED) {
+            // A refused row may be a hot event that has not been loaded into memory yet
+            if (eventRepository.decrementColdAvailableCapacity(eventId, tickets) > 0) {
+                capacityChanged(eventId, -tickets);
+                return true;
+            }
+            decision = hotCapacityEngine.trackAndDecrement(eventId, tickets);
+        }
+        if (decision != HotCapacityEngine.Decision.ACCEPTED) {
+            return false;
+        }
+        TransactionCallbacks.afterRollback(() -> hotCapacityEngine.release(eventId, tickets));
+        // Cached responses overlay the live counter, so the cache entry stays valid
+        inventoryChangePublisher.markChanged(eventId);
+        TransactionCallbacks.afterCommit(() -> eventSearchIndex.adjustAvailable(eventId, -tickets));
+        return true;
+    }
+
+    private RuntimeException capacityRejection(final Long eventId, final long tickets) {
+        final OptionalLong hotAvailable = hotCapacityEngine.availableCapacity(eventId);
+        final Long available = hotAvailable.isPresent()
+                ? Long.valueOf(hotAvailable.getAsLong())
+                : eventRepository.findAvailableCapacityById(eventId)
+                        .orElseThrow(() -> new EventNotFoundException("Event not found with id: " + eventId));
+        return new InsufficientCapacityException(
+                "Not enough tickets available. Requested: " + tickets + ", Available: " + available);
+    }
+
+    /**
+     * Drops the cached response and queues a change event, both once the caller's transaction commits.
+     */
+    private void eventChanged(final Long eventId) {
+        eventInventoryCache.invalidate(eventId);
+        inventoryChangePublisher.markChanged(eventId);
+    }
+
+    /**
+     * Like {@link #eventChanged}, and also moves the search index's availability by {@code delta} on commit.
+     */
+    private void capacityChanged(final Long eventId, final long delta) {
+        eventChanged(eventId);
+        TransactionCallbacks.afterCommit(() -> eventSearchIndex.adjustAvailable(eventId, delta));
+    }
+
+    private EventInventoryResponse loadEventInventory(final Long eventId) {
+        final Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new EventNotFoundException("Event not found with id: " + eventId));
+        return mapToEventInventoryResponse(event);
+    }
+
+    private String capacityRejectionMessage(final Long eventId, final long tickets) {
+        try {
+            return capacityRejection(eventId, tickets).getMessage();
+        } catch (EventNotFoundException e) {
+            return e.getMessage();
+        }
+    }
+
+    private BatchCapacityUpdateResponse.Result batchResult(final BatchCapacityUpdateRequest.CapacityUpdate update,
+                                                           final String failure) {
+        return BatchCapacityUpdateResponse.Result.builder()
+                .eventId(update.getEventId())
+                .tickets(update.getTickets())
+                .success(failure == null)
+                .message(failure == null ? "Capacity updated" : failure)
+                .build();
+    }
+
     private EventInventoryResponse mapToEventInventoryResponse(Event event) {
         VenueInventoryResponse venueResponse = VenueInventoryResponse.builder()
                 .Id(event.getVenue().getId())
@@ -229,9 +619,30 @@ public class InventoryService {
                 .eventId(event.getId())
                 .event(event.getName())
                 .totalCapacity(event.getTotalCapacity())
-                .availableCapacity(event.getAvailableCapacity())
+                .availableCapacity(hotCapacityEngine.availableCapacity(event.getId())
+                        .orElse(event.getAvailableCapacity()))
                 .venue(venueResponse)
                 .ticketPrice(event.getTicketPrice())
+                .hot(event.getHot())
+                .build();
+    }
+
+    private EventInventoryResponse mapToEventInventoryResponse(EventRepository.EventListingView view) {
+        VenueInventoryResponse venueResponse = VenueInventoryResponse.builder()
+                .Id(view.getVenueId())
+                .name(view.getVenueName())
+                .totalCapacity(view.getVenueTotalCapacity())
+                .build();
+
+        return EventInventoryResponse.builder()
+                .eventId(view.getId())
+                .event(view.getName())
+                .totalCapacity(view.getTotalCapacity())
+                .availableCapacity(hotCapacityEngine.availableCapacity(view.getId())
+                        .orElse(view.getAvailableCapacity()))
+                .venue(venueResponse)
+                .ticketPrice(view.getTicketPrice())
+                .hot(view.getHot())
                 .build();
     }
 
@@ -243,4 +654,43 @@ public class InventoryService {
         response.setTotalCapacity(venue.getTotalCapacity());
         return response;
     }
-}
\ No newline at end of file
+
+    /**
+     * One shard's position in a merged listing: the page fetched last and how far the merge has read it.
+     */
+    private static final class ShardCursor {
+        private long after;
+        private List<EventRepository.EventListingView> page = List.of();
+        private int position;
+        private boolean exhausted;
+
+        private ShardCursor(final long after) {
+            this.after = after;
+        }
+
+        private boolean needsPage() {
+            return position == page.size() && !exhausted;
+        }
+
+        private void load(final List<EventRepository.EventListingView> page, final int pageSize) {
+            this.page = page;
+            this.position = 0;
+            this.exhausted = page.size() < pageSize;
+            if (!page.isEmpty()) {
+                after = page.get(page.size() - 1).getId();
+            }
+        }
+
+        private boolean hasNext() {
+            return position < page.size();
+        }
+
+        private long peekId() {
+            return page.get(position).getId();
+        }
+
+        private EventRepository.EventListingView next() {
+            return page.get(position++);
+        }
+    }
+}
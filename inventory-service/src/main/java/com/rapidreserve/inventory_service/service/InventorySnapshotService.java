@@ -0,0 +1,500 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.repository.EventRepository;
+import com.rapidreserve.inventory_service.repository.VenueRepository;
+import com.rapidreserve.inventory_service.response.EventInventoryResponse;
+import com.rapidreserve.inventory_service.response.VenueInventoryResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+/**
+ * Warm restarts for the event inventory cache and search index.
+ * <p>
+ * Every few minutes, and on shutdown, the listing row of every event is written to a binary
+ * snapshot through memory-mapped chunks: a fixed header, then one record per venue (written the
+ * first time it is seen) and one per event, with a CRC32C over the records. The snapshot is
+ * stamped with the database clock taken before the first row was read.
+ * <p>
+ * At startup the snapshot is mapped and decoded, and only what changed since is read from the
+ * database: events and venues whose updated_at is at or after the stamp, minus a replay margin
+ * that covers transactions still in flight when the snapshot was taken, plus the list of event
+ * ids to drop deleted events. The result seeds the cache and the search index, which then skips
+ * its full rebuild. A missing or unreadable snapshot just means a cold start.
+ */
+@Service
+@Slf4j
+public class InventorySnapshotService {
+
+    private static final int MAGIC = 0x52524953;
+    private static final int FORMAT_VERSION = 1;
+    // magic, format, stamp seconds, stamp nanos, written at, venue count, event count, checksum
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 8 + 4 + 4 + 8;
+    private static final int MAP_CHUNK_BYTES = 8 << 20;
+    private static final int PAGE_SIZE = 1_000;
+    private static final byte VENUE_RECORD = 'V';
+    private static final byte EVENT_RECORD = 'E';
+    private static final int NULL_PRICE_SCALE = Integer.MIN_VALUE;
+
+    private final EventRepository eventRepository;
+    private final VenueRepository venueRepository;
+    private final EventShardRouter eventShardRouter;
+    private final EventInventoryCache eventInventoryCache;
+    private final EventSearchIndex eventSearchIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Path path;
+    private final Duration replayMargin;
+
+    @Autowired
+    public InventorySnapshotService(final EventRepository eventRepository,
+                                    final VenueRepository venueRepository,
+                                    final EventShardRouter eventShardRouter,
+                                    final EventInventoryCache eventInventoryCache,
+                                    final EventSearchIndex eventSearchIndex,
+                                    final JdbcTemplate jdbcTemplate,
+                                    final PlatformTransactionManager transactionManager,
+                                    @org.springframework.beans.factory.annotation.Value("${inventory.snapshot.enabled:false}") final boolean enabled,
+                                    @org.springframework.beans.factory.annotation.Value("${inventory.snapshot.path:data/inventory-snapshot.bin}") final String path,
+                                    @org.springframework.beans.factory.annotation.Value("${inventory.snapshot.replay-margin-seconds:60}") final long replayMarginSeconds) {
+        this.eventRepository = eventRepository;
+        this.venueRepository = venueRepository;
+        this.eventShardRouter = eventShardRouter;
+        this.eventInventoryCache = eventInventoryCache;
+        this.eventSearchIndex = eventSearchIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.replayMargin = Duration.ofSeconds(replayMarginSeconds);
+    }
+
+    /**
+     * Runs ahead of the other startup listeners so the search index sees the restored state.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void warmStart() {
+        if (enabled) {
+            restore();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.snapshot.interval-ms:300000}",
+            initialDelayString = "${inventory.snapshot.interval-ms:300000}")
+    public void scheduledWrite() {
+        if (enabled) {
+            writeQuietly();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (enabled) {
+            writeQuietly();
+        }
+    }
+
+    // =============================================
+    // WRITING
+    // =============================================
+
+    /**
+     * Writes a new snapshot next to the current one and moves it into place.
+     */
+    public SnapshotInfo write() throws IOException {
+        final long startedAt = System.nanoTime();
+        final LocalDateTime stamp = databaseTime();
+        final Path absolute = path.toAbsolutePath();
+        Files.createDirectories(absolute.getParent());
+        final Path temp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+
+        final Set<Long> venuesWritten = new HashSet<>();
+        int events = 0;
+        final long bytes;
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            final MappedWriter writer = new MappedWriter(channel);
+            // Shards are read one after the other, the writer is single-threaded
+            for (int shard = 0; shard < eventShardRouter.shardCount(); shard++) {
+                long cursor = 0L;
+                while (true) {
+                    final long after = cursor;
+                    final List<EventRepository.EventListingView> page = eventShardRouter.onShard(shard,
+                            () -> transactionTemplate.execute(status ->
+                                    eventRepository.findListingPage(after, null, false, Limit.of(PAGE_SIZE))));
+                    for (EventRepository.EventListingView view : page) {
+                        if (venuesWritten.add(view.getVenueId())) {
+                            writer.writeVenue(view);
+                        }
+                        writer.writeEvent(view);
+                        events++;
+                    }
+                    if (page.size() < PAGE_SIZE) {
+                        break;
+                    }
+                    cursor = page.get(page.size() - 1).getId();
+                }
+            }
+            bytes = writer.finish(stamp, venuesWritten.size(), events);
+        }
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        final SnapshotInfo info = new SnapshotInfo(stamp, venuesWritten.size(), events, bytes);
+        log.info("Wrote inventory snapshot of {} event(s) and {} venue(s), {} bytes, in {} ms",
+                events, venuesWritten.size(), bytes, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        return info;
+    }
+
+    private void writeQuietly() {
+        try {
+            write();
+        } catch (IOException | DataAccessException e) {
+            log.warn("Failed to write inventory snapshot to {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * The earliest clock across shards, so nothing written after the stamp on any shard predates it.
+     */
+    private LocalDateTime databaseTime() {
+        return eventShardRouter.onEveryShard(shard ->
+                        jdbcTemplate.queryForObject("SELECT LOCALTIMESTAMP(6)", LocalDateTime.class))
+                .stream()
+                .min(Comparator.naturalOrder())
+                .orElseThrow();
+    }
+
+    // =============================================
+    // RESTORING
+    // =============================================
+
+    /**
+     * Loads the snapshot, brings it up to date from the database and seeds the cache and search
+     * index with it. Returns empty, leaving both untouched, when there is no usable snapshot.
+     */
+    public Optional<RestoreInfo> restore() {
+        final long startedAt = System.nanoTime();
+        final Snapshot snapshot;
+        try {
+            snapshot = read();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable inventory snapshot {}: {}", path, e.getMessage());
+            return Optional.empty();
+        }
+        if (snapshot == null) {
+            log.info("No inventory snapshot at {}, starting cold", path);
+            return Optional.empty();
+        }
+        final long loadedAt = System.nanoTime();
+
+        final LocalDateTime since = snapshot.stamp().minus(replayMargin);
+        final List<ShardChanges> changes = eventShardRouter.onEveryShard(shard ->
+                transactionTemplate.execute(status -> {
+                    final List<Long> changedVenues = venueRepository.findIdsUpdatedSince(since);
+                    final List<EventRepository.EventListingView> changed =
+                            new ArrayList<>(eventRepository.findListingUpdatedSince(since));
+                    if (!changedVenues.isEmpty()) {
+                        changed.addAll(eventRepository.findListingByVenueIds(changedVenues));
+                    }
+                    return new ShardChanges(eventRepository.findAllIds(), changed);
+                }));
+
+        final Map<Long, EventRepository.EventListingView> events = snapshot.events();
+        final Set<Long> live = new HashSet<>();
+        changes.forEach(shard -> live.addAll(shard.eventIds()));
+        final int snapshotEvents = events.size();
+        events.keySet().retainAll(live);
+        final int deleted = snapshotEvents - events.size();
+        final Set<Long> replayed = new HashSet<>();
+        for (ShardChanges shard : changes) {
+            for (EventRepository.EventListingView view : shard.changed()) {
+                events.put(view.getId(), view);
+                replayed.add(view.getId());
+            }
+        }
+
+        eventSearchIndex.restore(events.values());
+        // Hot events first: they take the most reads after a restart
+        final List<EventInventoryResponse> responses = events.values().stream()
+                .sorted(Comparator.comparing((EventRepository.EventListingView view) -> !Boolean.TRUE.equals(view.getHot())))
+                .map(this::mapToEventInventoryResponse)
+                .toList();
+        final int cached = eventInventoryCache.preload(responses);
+
+        final RestoreInfo info = new RestoreInfo(snapshot.stamp(), snapshotEvents, replayed.size(), deleted, cached,
+                TimeUnit.NANOSECONDS.toMillis(loadedAt - startedAt),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        log.info("Restored {} event(s) from the inventory snapshot of {} ({} replayed, {} deleted since, {} cached) in {} ms",
+                events.size(), snapshot.stamp(), info.replayed(), deleted, cached, info.totalMillis());
+        return Optional.of(info);
+    }
+
+    private Snapshot read() throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Unexpected snapshot size " + size);
+            }
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("Not an inventory snapshot of format " + FORMAT_VERSION);
+            }
+            final LocalDateTime stamp = LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+            buffer.getLong();
+            final int venueCount = buffer.getInt();
+            final int eventCount = buffer.getInt();
+            final long checksum = buffer.getLong();
+
+            final CRC32C crc = new CRC32C();
+            crc.update(buffer.slice(HEADER_BYTES, (int) size - HEADER_BYTES));
+            if (crc.getValue() != checksum) {
+                throw new IOException("Snapshot checksum mismatch");
+            }
+
+            final Map<Long, SnapshotVenue> venues = new HashMap<>(venueCount * 2);
+            final Map<Long, EventRepository.EventListingView> events = new LinkedHashMap<>(eventCount * 2);
+            while (buffer.hasRemaining()) {
+                final byte type = buffer.get();
+                if (type == VENUE_RECORD) {
+                    final SnapshotVenue venue = new SnapshotVenue(buffer.getLong(), buffer.getLong(),
+                            readString(buffer), readString(buffer));
+                    venues.put(venue.id(), venue);
+                } else if (type == EVENT_RECORD) {
+                    final long id = buffer.getLong();
+                    final SnapshotVenue venue = venues.get(buffer.getLong());
+                    final long totalCapacity = buffer.getLong();
+                    final long availableCapacity = buffer.getLong();
+                    final boolean hot = buffer.get() != 0;
+                    final BigDecimal ticketPrice = readPrice(buffer);
+                    final String name = readString(buffer);
+                    if (venue == null) {
+                        throw new IOException("Event " + id + " refers to a venue that is not in the snapshot");
+                    }
+                    events.put(id, new SnapshotEvent(id, name, totalCapacity, availableCapacity, ticketPrice, hot,
+                            venue.id(), venue.name(), venue.address(), venue.totalCapacity()));
+                } else {
+                    throw new IOException("Unknown snapshot record type " + type);
+                }
+            }
+            if (venues.size() != venueCount || events.size() != eventCount) {
+                throw new IOException("Snapshot holds " + events.size() + " event(s) and " + venues.size()
+                        + " venue(s), the header says " + eventCount + " and " + venueCount);
+            }
+            return new Snapshot(stamp, events);
+        }
+    }
+
+    // =============================================
+    // HELPER METHODS
+    // =============================================
+
+    private EventInventoryResponse mapToEventInventoryResponse(final EventRepository.EventListingView view) {
+        final VenueInventoryResponse venueResponse = VenueInventoryResponse.builder()
+                .Id(view.getVenueId())
+                .name(view.getVenueName())
+                .totalCapacity(view.getVenueTotalCapacity())
+                .build();
+
+        return EventInventoryResponse.builder()
+                .eventId(view.getId())
+                .event(view.getName())
+                .totalCapacity(view.getTotalCapacity())
+                .availableCapacity(view.getAvailableCapacity())
+                .venue(venueResponse)
+                .ticketPrice(view.getTicketPrice())
+                .hot(view.getHot())
+                .build();
+    }
+
+    private static String readString(final MappedByteBuffer buffer) {
+        final int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static BigDecimal readPrice(final MappedByteBuffer buffer) {
+        final int scale = buffer.getInt();
+        final long unscaled = buffer.getLong();
+        return scale == NULL_PRICE_SCALE ? null : BigDecimal.valueOf(unscaled, scale);
+    }
+
+    /**
+     * Appends records to the file through memory-mapped chunks, leaving room for the header,
+     * which is written last along with the checksum of everything after it.
+     */
+    private static final class MappedWriter {
+        private final FileChannel channel;
+        private final CRC32C crc = new CRC32C();
+        private MappedByteBuffer buffer;
+        private long chunkStart = HEADER_BYTES;
+
+        private MappedWriter(final FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, chunkStart, MAP_CHUNK_BYTES);
+        }
+
+        private void writeVenue(final EventRepository.EventListingView view) throws IOException {
+            final byte[] name = bytes(view.getVenueName());
+            final byte[] address = bytes(view.getVenueAddress());
+            ensure(1 + 8 + 8 + stringBytes(name) + stringBytes(address));
+            buffer.put(VENUE_RECORD);
+            buffer.putLong(view.getVenueId());
+            buffer.putLong(view.getVenueTotalCapacity() == null ? 0L : view.getVenueTotalCapacity());
+            putString(name);
+            putString(address);
+        }
+
+        private void writeEvent(final EventRepository.EventListingView view) throws IOException {
+            final byte[] name = bytes(view.getName());
+            ensure(1 + 8 + 8 + 8 + 8 + 1 + 4 + 8 + stringBytes(name));
+            buffer.put(EVENT_RECORD);
+            buffer.putLong(view.getId());
+            buffer.putLong(view.getVenueId());
+            buffer.putLong(view.getTotalCapacity() == null ? 0L : view.getTotalCapacity());
+            buffer.putLong(view.getAvailableCapacity() == null ? 0L : view.getAvailableCapacity());
+            buffer.put((byte) (Boolean.TRUE.equals(view.getHot()) ? 1 : 0));
+            final BigDecimal price = view.getTicketPrice();
+            if (price == null) {
+                buffer.putInt(NULL_PRICE_SCALE);
+                buffer.putLong(0L);
+            } else {
+                final BigInteger unscaled = price.unscaledValue();
+                buffer.putInt(price.scale());
+                buffer.putLong(unscaled.longValueExact());
+            }
+            putString(name);
+        }
+
+        /**
+         * Writes the header, trims the file to the records and forces it to disk. Returns the file size.
+         */
+        private long finish(final LocalDateTime stamp, final int venues, final int events) throws IOException {
+            checksumChunk();
+            buffer.force();
+            final long end = chunkStart + buffer.position();
+            final MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+            header.putInt(MAGIC);
+            header.putInt(FORMAT_VERSION);
+            header.putLong(stamp.toEpochSecond(ZoneOffset.UTC));
+            header.putInt(stamp.getNano());
+            header.putLong(System.currentTimeMillis());
+            header.putInt(venues);
+            header.putInt(events);
+            header.putLong(crc.getValue());
+            header.force();
+            channel.truncate(end);
+            channel.force(true);
+            return end;
+        }
+
+        private void ensure(final int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            checksumChunk();
+            buffer.force();
+            chunkStart += buffer.position();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, chunkStart, Math.max(MAP_CHUNK_BYTES, bytes));
+        }
+
+        private void checksumChunk() {
+            crc.update(buffer.slice(0, buffer.position()));
+        }
+
+        private void putString(final byte[] value) {
+            if (value == null) {
+                buffer.putInt(-1);
+                return;
+            }
+            buffer.putInt(value.length);
+            buffer.put(value);
+        }
+
+        private static byte[] bytes(final String value) {
+            return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        private static int stringBytes(final byte[] value) {
+            return 4 + (value == null ? 0 : value.length);
+        }
+    }
+
+    public record SnapshotInfo(LocalDateTime stamp, int venues, int events, long bytes) {
+    }
+
+    public record RestoreInfo(LocalDateTime stamp, int snapshotEvents, int replayed, int deleted, int cached,
+                              long loadMillis, long totalMillis) {
+    }
+
+    private record Snapshot(LocalDateTime stamp, Map<Long, EventRepository.EventListingView> events) {
+    }
+
+    private record ShardChanges(List<Long> eventIds, List<EventRepository.EventListingView> changed) {
+    }
+
+    private record SnapshotVenue(long id, long totalCapacity, String name, String address) {
+    }
+
+    /**
+     * An event decoded from the snapshot, in the shape of a listing row.
+     */
+    @Value
+    private static class SnapshotEvent implements EventRepository.EventListingView {
+        Long id;
+        String name;
+        Long totalCapacity;
+        Long availableCapacity;
+        BigDecimal ticketPrice;
+        Boolean hot;
+        Long venueId;
+        String venueName;
+        String venueAddress;
+        Long venueTotalCapacity;
+    }
+}
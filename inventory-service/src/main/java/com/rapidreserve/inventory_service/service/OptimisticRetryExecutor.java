@@ -0,0 +1,160 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.rapidreserve.inventory_service.exception.ConcurrentUpdateException;
+import com.rapidreserve.inventory_service.response.ContentionResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs entity writes in their own transaction and retries them when an optimistic version check
+ * fails, with a bounded number of attempts and full-jitter exponential backoff.
+ * <p>
+ * Conflicts are counted per entity so the most contended events and venues can be listed, and
+ * exported as meters tagged by operation: {@code inventory.optimistic.conflicts} and the
+ * {@code inventory.optimistic.writes} timer (outcome {@code success} or {@code exhausted}),
+ * whose count over time is the write throughput.
+ */
+@Component
+@Slf4j
+public class OptimisticRetryExecutor {
+
+    public enum Entity { EVENT, VENUE }
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Cache<Key, Stats> stats;
+    private final int maxAttempts;
+    private final long backoffBaseMillis;
+    private final long backoffMaxMillis;
+
+    @Autowired
+    public OptimisticRetryExecutor(final PlatformTransactionManager transactionManager,
+                                   final MeterRegistry meterRegistry,
+                                   @Value("${inventory.optimistic.max-attempts:5}") final int maxAttempts,
+                                   @Value("${inventory.optimistic.backoff-base-ms:5}") final long backoffBaseMillis,
+                                   @Value("${inventory.optimistic.backoff-max-ms:100}") final long backoffMaxMillis,
+                                   @Value("${inventory.optimistic.tracked-entities:10000}") final long trackedEntities) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("inventory.optimistic.max-attempts must be at least 1");
+        }
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.stats = Caffeine.newBuilder().maximumSize(trackedEntities).build();
+        this.maxAttempts = maxAttempts;
+        this.backoffBaseMillis = backoffBaseMillis;
+        this.backoffMaxMillis = backoffMaxMillis;
+    }
+
+    /**
+     * Runs {@code work} in a new transaction, retrying it from the start on a version conflict.
+     * Inside an existing transaction the work just joins it: a conflict has to roll back the
+     * caller's transaction too, so only the outermost caller can retry.
+     */
+    public <T> T execute(final String operation, final Entity entity, final Long id, final Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+
+        final Stats entityStats = stats.get(new Key(entity, id), key -> new Stats());
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                final T result = transactionTemplate.execute(status -> work.get());
+                entityStats.writes.increment();
+                sample.stop(writeTimer(operation, "success"));
+                return result;
+            } catch (OptimisticLockingFailureException e) {
+                entityStats.conflicts.increment();
+                conflictCounter(operation).increment();
+                if (attempt >= maxAttempts) {
+                    entityStats.exhausted.increment();
+                    sample.stop(writeTimer(operation, "exhausted"));
+                    log.warn("{} on {} {} still conflicting after {} attempt(s)", operation, entity, id, attempt);
+                    throw new ConcurrentUpdateException(
+                            "Concurrent updates to " + entity.name().toLowerCase() + " " + id + ", please retry", e);
+                }
+                log.debug("{} on {} {} conflicted on attempt {}, retrying", operation, entity, id, attempt);
+                backoff(attempt);
+            }
+        }
+    }
+
+    public void run(final String operation, final Entity entity, final Long id, final Runnable work) {
+        execute(operation, entity, id, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * The tracked entities with the most conflicts, most contended first.
+     */
+    public List<ContentionResponse> mostContended(final int limit) {
+        return stats.asMap().entrySet().stream()
+                .filter(entry -> entry.getValue().conflicts.sum() > 0)
+                .map(entry -> ContentionResponse.builder()
+                        .entity(entry.getKey().entity().name())
+                        .id(entry.getKey().id())
+                        .writes(entry.getValue().writes.sum())
+                        .conflicts(entry.getValue().conflicts.sum())
+                        .exhausted(entry.getValue().exhausted.sum())
+                        .build())
+                .sorted(Comparator.comparingLong(ContentionResponse::getConflicts).reversed()
+                        .thenComparing(ContentionResponse::getId))
+                .limit(limit)
+                .toList();
+    }
+
+    private void backoff(final int attempt) {
+        final long ceiling = Math.min(backoffMaxMillis, backoffBaseMillis << Math.min(attempt - 1, 20));
+        final long sleepMillis = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        if (sleepMillis == 0) {
+            return;
+        }
+        try {
+            Thread.sleep(sleepMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off a conflicting update", e);
+        }
+    }
+
+    private Counter conflictCounter(final String operation) {
+        return Counter.builder("inventory.optimistic.conflicts")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private Timer writeTimer(final String operation, final String outcome) {
+        return Timer.builder("inventory.optimistic.writes")
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private record Key(Entity entity, Long id) {
+    }
+
+    private static final class Stats {
+        private final LongAdder writes = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+        private final LongAdder exhausted = new LongAdder();
+    }
+}
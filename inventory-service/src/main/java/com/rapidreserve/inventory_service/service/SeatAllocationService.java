@@ -0,0 +1,282 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.dto.AllocateSeatsRequest;
+import com.rapidreserve.inventory_service.dto.CreateSeatMapRequest;
+import com.rapidreserve.inventory_service.dto.ReleaseSeatsRequest;
+import com.rapidreserve.inventory_service.entity.Event;
+import com.rapidreserve.inventory_service.entity.SeatSection;
+import com.rapidreserve.inventory_service.exception.EventNotFoundException;
+import com.rapidreserve.inventory_service.exception.InsufficientCapacityException;
+import com.rapidreserve.inventory_service.exception.SeatMapNotFoundException;
+import com.rapidreserve.inventory_service.repository.EventRepository;
+import com.rapidreserve.inventory_service.repository.SeatSectionRepository;
+import com.rapidreserve.inventory_service.response.SeatAllocationResponse;
+import com.rapidreserve.inventory_service.response.SeatMapResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reserved seating. The sections of an event are held in memory as {@link SeatMap}s, and
+ * best-available allocation picks a block from them with CAS alone.
+ * <p>
+ * The database row of a section stays the record of which seats are taken: the chosen block is
+ * checked against it and written to it under the row's lock, in the same transaction as the
+ * event's capacity. Seats and ticket counts therefore commit or roll back together, a crash loses
+ * neither, and instances sharing an event never hand out the same seat. When the row shows
+ * seats this instance did not know were taken, the section is reloaded from the row and the
+ * allocation tried again. A section lives on the shard of its event.
+ */
+@Service
+@Slf4j
+public class SeatAllocationService {
+
+    private static final String LOCK_SQL = "SELECT taken_seats FROM seat_section WHERE id = ? FOR UPDATE";
+    private static final String WRITE_SQL = "UPDATE seat_section SET taken_seats = ? WHERE id = ?";
+
+    private final SeatSectionRepository seatSectionRepository;
+    private final EventRepository eventRepository;
+    private final InventoryService inventoryService;
+    private final EventShardRouter eventShardRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // Sections of each loaded event, in rank order
+    private final ConcurrentHashMap<Long, List<Section>> seatMaps = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SeatAllocationService(final SeatSectionRepository seatSectionRepository,
+                                 final EventRepository eventRepository,
+                                 final InventoryService inventoryService,
+                                 final EventShardRouter eventShardRouter,
+                                 final JdbcTemplate jdbcTemplate,
+                                 final PlatformTransactionManager transactionManager) {
+        this.seatSectionRepository = seatSectionRepository;
+        this.eventRepository = eventRepository;
+        this.inventoryService = inventoryService;
+        this.eventShardRouter = eventShardRouter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Lays out the sections of an event. An event gets its seat map once, and the map may not
+     * have more seats than the event has capacity.
+     */
+    public SeatMapResponse createSeatMap(final Long eventId, final CreateSeatMapRequest request) {
+        final Set<String> names = new HashSet<>();
+        for (CreateSeatMapRequest.Section section : request.getSections()) {
+            if (!names.add(section.getName())) {
+                throw new IllegalArgumentException("Duplicate section name: " + section.getName());
+            }
+        }
+        return eventShardRouter.onEventShard(eventId,
+                () -> transactionTemplate.execute(status -> doCreateSeatMap(eventId, request)));
+    }
+
+    private SeatMapResponse doCreateSeatMap(final Long eventId, final CreateSeatMapRequest request) {
+        final Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new EventNotFoundException("Event not found with id: " + eventId));
+        if (seatSectionRepository.existsByEventId(eventId)) {
+            throw new IllegalArgumentException("Event " + eventId + " already has a seat map");
+        }
+        final long seats = request.getSections().stream()
+                .mapToLong(section -> (long) section.getRows() * section.getSeatsPerRow())
+                .sum();
+        if (seats > event.getTotalCapacity()) {
+            throw new InsufficientCapacityException(
+                    "Seat map has " + seats + " seats, more than the event capacity (" + event.getTotalCapacity() + ")");
+        }
+
+        final List<Section> sections = new ArrayList<>();
+        for (CreateSeatMapRequest.Section requested : request.getSections()) {
+            final SeatMap seatMap = new SeatMap(requested.getRows(), requested.getSeatsPerRow());
+            final SeatSection saved = seatSectionRepository.save(new SeatSection(null, eventId, requested.getName(),
+                    requested.getRank(), requested.getRows(), requested.getSeatsPerRow(), seatMap.toBytes()));
+            sections.add(new Section(saved.getId(), saved.getName(), saved.getRank(), seatMap));
+        }
+        sections.sort((a, b) -> a.rank != b.rank ? Integer.compare(a.rank, b.rank) : Long.compare(a.id, b.id));
+        final List<Section> loaded = List.copyOf(sections);
+        TransactionCallbacks.afterCommit(() -> seatMaps.putIfAbsent(eventId, loaded));
+        log.info("Created seat map for event ID: {} with {} section(s) and {} seat(s)", eventId, loaded.size(), seats);
+        return mapToSeatMapResponse(eventId, loaded);
+    }
+
+    public SeatMapResponse getSeatMap(final Long eventId) {
+        return eventShardRouter.onEventShard(eventId,
+                () -> mapToSeatMapResponse(eventId, transactionTemplate.execute(status -> sections(eventId))));
+    }
+
+    /**
+     * Takes the best block of adjacent seats: the best-ranked section with a row that fits the
+     * whole party, front row first, as central as the row allows.
+     */
+    public SeatAllocationResponse allocateSeats(final Long eventId, final AllocateSeatsRequest request) {
+        final int count = request.getSeats();
+        return eventShardRouter.onEventShard(eventId, () -> transactionTemplate.execute(status -> {
+            // Each pass that finds the map stale reloads a section whose row this transaction
+            // now holds locked, so the next pass cannot trip over the same seats again
+            boolean stale;
+            do {
+                stale = false;
+                for (Section section : sections(eventId)) {
+                    final SeatMap.Block block = section.seats.allocate(count);
+                    if (block == null) {
+                        continue;
+                    }
+                    final SeatMap persisted = lockSection(eventId, section);
+                    if (!persisted.take(block)) {
+                        section.seats.release(block);
+                        reload(eventId, section, persisted);
+                        stale = true;
+                        break;
+                    }
+                    TransactionCallbacks.afterRollback(() -> section.seats.release(block));
+                    writeSection(section, persisted);
+                    inventoryService.reserveCapacity(eventId, count);
+                    log.debug("Allocated {} seat(s) in section {} row {} for event ID: {}",
+                            count, section.name, block.row() + 1, eventId);
+                    return mapToSeatAllocationResponse(eventId, section, block);
+                }
+            } while (stale);
+            throw new InsufficientCapacityException(
+                    "No " + count + " adjacent seats available for event " + eventId);
+        }));
+    }
+
+    /**
+     * Gives an allocated block back, along with its capacity.
+     */
+    public void releaseSeats(final Long eventId, final ReleaseSeatsRequest request) {
+        eventShardRouter.runOnEventShard(eventId, () -> transactionTemplate.executeWithoutResult(status -> {
+            final Section section = sections(eventId).stream()
+                    .filter(candidate -> candidate.name.equals(request.getSection()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException(
+                            "Event " + eventId + " has no section " + request.getSection()));
+            final SeatMap.Block block = new SeatMap.Block(request.getRow() - 1, request.getFirstSeat() - 1, request.getSeats());
+            final SeatMap persisted = lockSection(eventId, section);
+            persisted.release(block);
+            writeSection(section, persisted);
+            try {
+                section.seats.release(block);
+                TransactionCallbacks.afterRollback(() -> {
+                    if (!section.seats.take(block)) {
+                        log.warn("Seats {} of event ID: {} were allocated again before their release rolled back", block, eventId);
+                    }
+                });
+            } catch (IllegalArgumentException e) {
+                // Allocated by another instance, so this one never saw the seats taken
+                reload(eventId, section, persisted);
+            }
+            inventoryService.releaseCapacity(eventId, request.getSeats());
+        }));
+    }
+
+    // =============================================
+    // HELPER METHODS
+    // =============================================
+
+    /**
+     * The event's sections, loaded from the database on first use. Must run on the event's shard,
+     * in a read-write transaction so the maps come from the primary.
+     */
+    private List<Section> sections(final Long eventId) {
+        final List<Section> cached = seatMaps.get(eventId);
+        if (cached != null) {
+            return cached;
+        }
+        final List<Section> loaded = seatSectionRepository.findByEventIdOrderByRankAscIdAsc(eventId).stream()
+                .map(section -> new Section(section.getId(), section.getName(), section.getRank(),
+                        SeatMap.fromBytes(section.getRowCount(), section.getSeatsPerRow(), section.getTakenSeats())))
+                .toList();
+        if (loaded.isEmpty()) {
+            if (!eventRepository.existsById(eventId)) {
+                throw new EventNotFoundException("Event not found with id: " + eventId);
+            }
+            throw new SeatMapNotFoundException("Event " + eventId + " has no seat map");
+        }
+        final List<Section> existing = seatMaps.putIfAbsent(eventId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    /**
+     * Reads a section's row for the rest of the transaction, locking it against other allocations
+     * and releases, on this instance or another.
+     */
+    private SeatMap lockSection(final Long eventId, final Section section) {
+        final List<byte[]> rows = jdbcTemplate.query(LOCK_SQL, (rs, rowNum) -> rs.getBytes(1), section.id);
+        if (rows.isEmpty()) {
+            seatMaps.remove(eventId);
+            throw new EventNotFoundException("Event not found with id: " + eventId);
+        }
+        return SeatMap.fromBytes(section.seats.rows(), section.seats.seatsPerRow(), rows.get(0));
+    }
+
+    private void writeSection(final Section section, final SeatMap persisted) {
+        jdbcTemplate.update(WRITE_SQL, persisted.toBytes(), section.id);
+    }
+
+    /**
+     * Replaces a section whose map fell behind its row. Blocks being allocated from the old map
+     * right now are still checked against the row, so they cannot be lost or handed out twice.
+     */
+    private void reload(final Long eventId, final Section stale, final SeatMap persisted) {
+        final Section reloaded = new Section(stale.id, stale.name, stale.rank, persisted);
+        seatMaps.computeIfPresent(eventId, (id, sections) -> sections.stream()
+                .map(section -> section == stale ? reloaded : section)
+                .toList());
+        log.info("Reloaded section {} of event ID: {}, seats were taken or released elsewhere", stale.name, eventId);
+    }
+
+    private SeatMapResponse mapToSeatMapResponse(final Long eventId, final List<Section> sections) {
+        return SeatMapResponse.builder()
+                .eventId(eventId)
+                .totalSeats(sections.stream().mapToInt(section -> section.seats.capacity()).sum())
+                .availableSeats(sections.stream().mapToInt(section -> section.seats.available()).sum())
+                .sections(sections.stream()
+                        .map(section -> SeatMapResponse.Section.builder()
+                                .name(section.name)
+                                .rank(section.rank)
+                                .rows(section.seats.rows())
+                                .seatsPerRow(section.seats.seatsPerRow())
+                                .availableSeats(section.seats.available())
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    private SeatAllocationResponse mapToSeatAllocationResponse(final Long eventId, final Section section,
+                                                               final SeatMap.Block block) {
+        return SeatAllocationResponse.builder()
+                .eventId(eventId)
+                .section(section.name)
+                .row(block.row() + 1)
+                .firstSeat(block.firstSeat() + 1)
+                .seats(block.count())
+                .build();
+    }
+
+    private static final class Section {
+        private final long id;
+        private final String name;
+        private final int rank;
+        private final SeatMap seats;
+
+        private Section(final long id, final String name, final int rank, final SeatMap seats) {
+            this.id = id;
+            this.name = name;
+            this.rank = rank;
+            this.seats = seats;
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.dto.CreateHoldRequest;
+import com.rapidreserve.inventory_service.entity.SeatHold;
+import com.rapidreserve.inventory_service.exception.HoldNotActiveException;
+import com.rapidreserve.inventory_service.exception.HoldNotFoundException;
+import com.rapidreserve.inventory_service.repository.SeatHoldRepository;
+import com.rapidreserve.inventory_service.response.HoldResponse;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time-limited holds on event capacity. Placing a hold takes the tickets immediately; the hold
+ * is then confirmed (tickets stay sold), released, or expires and gives the tickets back. A
+ * confirmed hold gives its tickets back only when it is cancelled.
+ * Expiry is driven by a {@link HashedTimingWheel} rather than by scanning the hold table.
+ * <p>
+ * A hold lives on the shard of its event. Calls that only know the hold id look it up on every
+ * shard first.
+ */
+@Service
+@Slf4j
+public class SeatHoldService {
+
+    private static final int EXPIRY_CHUNK_SIZE = 500;
+    private static final Duration EXPIRY_RETRY_DELAY = Duration.ofSeconds(5);
+
+    private final SeatHoldRepository seatHoldRepository;
+    private final InventoryService inventoryService;
+    private final EventShardRouter eventShardRouter;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration defaultTtl;
+    private final Duration maxTtl;
+    private final HashedTimingWheel<String> expiryWheel;
+    private final Map<String, HashedTimingWheel.Timeout<String>> expiries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public SeatHoldService(final SeatHoldRepository seatHoldRepository,
+                           final InventoryService inventoryService,
+                           final EventShardRouter eventShardRouter,
+                           final PlatformTransactionManager transactionManager,
+                           @Value("${inventory.holds.default-ttl-seconds:600}") final long defaultTtlSeconds,
+                           @Value("${inventory.holds.max-ttl-seconds:3600}") final long maxTtlSeconds,
+                           @Value("${inventory.holds.wheel-tick-ms:100}") final long wheelTickMillis,
+                           @Value("${inventory.holds.wheel-size:512}") final int wheelSize) {
+        this.seatHoldRepository = seatHoldRepository;
+        this.inventoryService = inventoryService;
+        this.eventShardRouter = eventShardRouter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.defaultTtl = Duration.ofSeconds(defaultTtlSeconds);
+        this.maxTtl = Duration.ofSeconds(maxTtlSeconds);
+        this.expiryWheel = new HashedTimingWheel<>("seat-hold", Duration.ofMillis(wheelTickMillis), wheelSize,
+                this::expireHolds);
+    }
+
+    public HoldResponse placeHold(final Long eventId, final CreateHoldRequest request) {
+        final Duration ttl = resolveTtl(request.getTtlSeconds());
+        return eventShardRouter.onEventShard(eventId,
+                () -> transactionTemplate.execute(status -> doPlaceHold(eventId, request, ttl)));
+    }
+
+    private HoldResponse doPlaceHold(final Long eventId, final CreateHoldRequest request, final Duration ttl) {
+        inventoryService.reserveCapacity(eventId, request.getTickets());
+
+        final LocalDateTime now = LocalDateTime.now();
+        SeatHold hold = new SeatHold();
+        hold.setEventId(eventId);
+        hold.setTickets(request.getTickets());
+        hold.setStatus(SeatHold.HoldStatus.ACTIVE);
+        hold.setCreatedAt(now);
+        hold.setExpiresAt(now.plus(ttl));
+        SeatHold savedHold = seatHoldRepository.save(hold);
+
+        TransactionCallbacks.afterCommit(() -> scheduleExpiry(savedHold.getId(), ttl));
+        log.info("Placed hold {} for event ID: {}, tickets: {}, expires at: {}",
+                savedHold.getId(), eventId, request.getTickets(), savedHold.getExpiresAt());
+
+        return mapToHoldResponse(savedHold);
+    }
+
+    public HoldResponse getHold(final String holdId) {
+        return mapToHoldResponse(eventShardRouter.onShard(holdShard(holdId), () -> findHold(holdId)));
+    }
+
+    /**
+     * Confirms an active hold; the tickets stay taken. Confirming twice is a no-op.
+     */
+    public HoldResponse confirmHold(final String holdId) {
+        return eventShardRouter.onShard(holdShard(holdId),
+                () -> transactionTemplate.execute(status -> doConfirmHold(holdId)));
+    }
+
+    private HoldResponse doConfirmHold(final String holdId) {
+        final SeatHold hold = findHold(holdId);
+        if (hold.getStatus() == SeatHold.HoldStatus.CONFIRMED) {
+            return mapToHoldResponse(hold);
+        }
+
+        if (seatHoldRepository.transitionActive(holdId, SeatHold.HoldStatus.CONFIRMED, LocalDateTime.now()) == 0) {
+            throw new HoldNotActiveException("Hold " + holdId + " can no longer be confirmed");
+        }
+        hold.setStatus(SeatHold.HoldStatus.CONFIRMED);
+
+        TransactionCallbacks.afterCommit(() -> cancelExpiry(holdId));
+        log.info("Confirmed hold {} for event ID: {}", holdId, hold.getEventId());
+        return mapToHoldResponse(hold);
+    }
+
+    /**
+     * Releases an active hold and gives its tickets back. Releasing a hold that already
+     * expired or was released is a no-op.
+     */
+    public HoldResponse releaseHold(final String holdId) {
+        return eventShardRouter.onShard(holdShard(holdId),
+                () -> transactionTemplate.execute(status -> doReleaseHold(holdId)));
+    }
+
+    private HoldResponse doReleaseHold(final String holdId) {
+        final SeatHold hold = findHold(holdId);
+        if (hold.getStatus() == SeatHold.HoldStatus.RELEASED || hold.getStatus() == SeatHold.HoldStatus.EXPIRED) {
+            return mapToHoldResponse(hold);
+        }
+
+        if (seatHoldRepository.transitionActive(holdId, SeatHold.HoldStatus.RELEASED, LocalDateTime.now()) == 0) {
+            if (hold.getStatus() == SeatHold.HoldStatus.CONFIRMED) {
+                throw new HoldNotActiveException("Hold " + holdId + " is already confirmed");
+            }
+            // Past its deadline; the expiry path gives the tickets back
+            return mapToHoldResponse(hold);
+        }
+        inventoryService.releaseCapacity(hold.getEventId(), hold.getTickets());
+        hold.setStatus(SeatHold.HoldStatus.RELEASED);
+
+        TransactionCallbacks.afterCommit(() -> cancelExpiry(holdId));
+        log.info("Released hold {} for event ID: {}, tickets: {}", holdId, hold.getEventId(), hold.getTickets());
+        return mapToHoldResponse(hold);
+    }
+
+    /**
+     * Gives a hold's tickets back whatever state it is in: an active hold is released and a
+     * confirmed one cancelled. Cancelling a hold that no longer holds tickets is a no-op, so
+     * callers can retry until they get an answer.
+     */
+    public HoldResponse cancelHold(final String holdId) {
+        return eventShardRouter.onShard(holdShard(holdId),
+                () -> transactionTemplate.execute(status -> doCancelHold(holdId)));
+    }
+
+    private HoldResponse doCancelHold(final String holdId) {
+        final SeatHold hold = findHold(holdId);
+        if (hold.getStatus() == SeatHold.HoldStatus.ACTIVE) {
+            if (seatHoldRepository.transitionActive(holdId, SeatHold.HoldStatus.RELEASED, LocalDateTime.now()) > 0) {
+                return giveBack(hold, SeatHold.HoldStatus.RELEASED);
+            }
+            // Confirmed or expired since it was read
+            hold.setStatus(findHold(holdId).getStatus());
+        }
+        if (hold.getStatus() == SeatHold.HoldStatus.CONFIRMED && seatHoldRepository.cancelConfirmed(holdId) > 0) {
+            return giveBack(hold, SeatHold.HoldStatus.CANCELLED);
+        }
+        return mapToHoldResponse(findHold(holdId));
+    }
+
+    private HoldResponse giveBack(final SeatHold hold, final SeatHold.HoldStatus status) {
+        inventoryService.releaseCapacity(hold.getEventId(), hold.getTickets());
+        hold.setStatus(status);
+
+        TransactionCallbacks.afterCommit(() -> cancelExpiry(hold.getId()));
+        log.info("Cancelled hold {} for event ID: {}, tickets: {}", hold.getId(), hold.getEventId(), hold.getTickets());
+        return mapToHoldResponse(hold);
+    }
+
+    /**
+     * Number of holds currently waiting to expire.
+     */
+    public long pendingExpiries() {
+        return expiryWheel.size();
+    }
+
+    /**
+     * Re-arms the wheel for holds that were active when the service last stopped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreActiveHolds() {
+        final LocalDateTime now = LocalDateTime.now();
+        final List<SeatHoldRepository.ActiveHoldView> activeHolds =
+                eventShardRouter.onEveryShard(shard -> seatHoldRepository.findActiveHolds()).stream()
+                        .flatMap(List::stream)
+                        .toList();
+        for (SeatHoldRepository.ActiveHoldView hold : activeHolds) {
+            scheduleExpiry(hold.getId(), Duration.between(now, hold.getExpiresAt()));
+        }
+        log.info("Restored {} active seat hold(s)", activeHolds.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        expiryWheel.close();
+    }
+
+    private void scheduleExpiry(final String holdId, final Duration ttl) {
+        expiries.put(holdId, expiryWheel.schedule(holdId, ttl));
+    }
+
+    private void cancelExpiry(final String holdId) {
+        final HashedTimingWheel.Timeout<String> timeout = expiries.remove(holdId);
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    /**
+     * Called by the timing wheel with the holds whose deadline has passed. Each chunk is one
+     * transaction per shard, each expiring the holds it finds; releases are summed per event and
+     * applied in event id order.
+     */
+    private void expireHolds(final List<String> holdIds) {
+        for (int from = 0; from < holdIds.size(); from += EXPIRY_CHUNK_SIZE) {
+            final List<String> chunk = holdIds.subList(from, Math.min(from + EXPIRY_CHUNK_SIZE, holdIds.size()));
+            chunk.forEach(expiries::remove);
+            try {
+                final int expired = eventShardRouter.onEveryShard(shard ->
+                                transactionTemplate.execute(status -> expireChunk(chunk))).stream()
+                        .mapToInt(Integer::intValue)
+                        .sum();
+                log.debug("Expired {} of {} seat hold(s)", expired, chunk.size());
+            } catch (RuntimeException e) {
+                log.warn("Failed to expire {} seat hold(s), retrying in {}: {}",
+                        chunk.size(), EXPIRY_RETRY_DELAY, e.getMessage());
+                chunk.forEach(holdId -> scheduleExpiry(holdId, EXPIRY_RETRY_DELAY));
+            }
+        }
+    }
+
+    private int expireChunk(final List<String> holdIds) {
+        final Map<Long, Long> releasedByEvent = new TreeMap<>();
+        int expired = 0;
+        for (SeatHold hold : seatHoldRepository.findAllById(holdIds)) {
+            if (hold.getStatus() == SeatHold.HoldStatus.ACTIVE && seatHoldRepository.expireActive(hold.getId()) > 0) {
+                releasedByEvent.merge(hold.getEventId(), hold.getTickets(), Long::sum);
+                expired++;
+            }
+        }
+        releasedByEvent.forEach(inventoryService::releaseCapacity);
+        return expired;
+    }
+
+    private Duration resolveTtl(final Long ttlSeconds) {
+        if (ttlSeconds == null) {
+            return defaultTtl;
+        }
+        final Duration ttl = Duration.ofSeconds(ttlSeconds);
+        if (ttl.compareTo(maxTtl) > 0) {
+            throw new IllegalArgumentException("Hold TTL cannot exceed " + maxTtl.toSeconds() + " seconds");
+        }
+        return ttl;
+    }
+
+    /**
+     * Shard holding a hold; unknown holds resolve to the primary, where the lookup then fails.
+     */
+    private int holdShard(final String holdId) {
+        if (!eventShardRouter.isSharded()) {
+            return EventShardRouter.PRIMARY_SHARD;
+        }
+        final List<Boolean> found = eventShardRouter.onEveryShard(shard -> seatHoldRepository.existsById(holdId));
+        final int shard = found.indexOf(Boolean.TRUE);
+        return shard < 0 ? EventShardRouter.PRIMARY_SHARD : shard;
+    }
+
+    private SeatHold findHold(final String holdId) {
+        return seatHoldRepository.findById(holdId)
+                .orElseThrow(() -> new HoldNotFoundException("Hold not found with id: " + holdId));
+    }
+
+    private HoldResponse mapToHoldResponse(final SeatHold hold) {
+        return HoldResponse.builder()
+                .holdId(hold.getId())
+                .eventId(hold.getEventId())
+                .tickets(hold.getTickets())
+                .status(hold.getStatus().toString())
+                .expiresAt(hold.getExpiresAt())
+                .build();
+    }
+}
@@ -0,0 +1,257 @@
+package com.rapidreserve.inventory_service.service;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Seats of one section as a bitset with one bit per seat, set while the seat is taken.
+ * <p>
+ * Every row starts on a fresh 64-bit word and the spare bits after its last seat are set, so a
+ * run of free seats never crosses into the next row. Taking or giving back a block is one CAS per
+ * word it covers; a block spanning two words is taken word by word and undone if a later word
+ * was taken in the meantime, so allocations never lock and never leave half a block behind.
+ * Rows and seats are numbered from 0; row 0 is the front.
+ */
+public final class SeatMap {
+
+    private final int rows;
+    private final int seatsPerRow;
+    private final int wordsPerRow;
+    private final AtomicLongArray taken;
+    // Hints only: updated after the bits, so they can briefly disagree with them
+    private final AtomicIntegerArray freeInRow;
+    private final AtomicInteger free;
+
+    public SeatMap(final int rows, final int seatsPerRow) {
+        if (rows <= 0 || seatsPerRow <= 0) {
+            throw new IllegalArgumentException("A section needs at least one row and one seat per row");
+        }
+        this.rows = rows;
+        this.seatsPerRow = seatsPerRow;
+        this.wordsPerRow = (seatsPerRow + 63) >>> 6;
+        this.taken = new AtomicLongArray(rows * wordsPerRow);
+        this.freeInRow = new AtomicIntegerArray(rows);
+        this.free = new AtomicInteger(rows * seatsPerRow);
+
+        final int spare = wordsPerRow * 64 - seatsPerRow;
+        for (int row = 0; row < rows; row++) {
+            freeInRow.set(row, seatsPerRow);
+            if (spare > 0) {
+                taken.set(row * wordsPerRow + wordsPerRow - 1, -1L << (64 - spare));
+            }
+        }
+    }
+
+    /**
+     * Rebuilds a map from {@link #toBytes()}.
+     */
+    public static SeatMap fromBytes(final int rows, final int seatsPerRow, final byte[] packed) {
+        final SeatMap map = new SeatMap(rows, seatsPerRow);
+        if (packed.length != packedLength(rows, seatsPerRow)) {
+            throw new IllegalArgumentException("Seat map of " + packed.length + " bytes does not match "
+                    + rows + " rows of " + seatsPerRow + " seats");
+        }
+        int bit = 0;
+        int takenSeats = 0;
+        for (int row = 0; row < rows; row++) {
+            int takenInRow = 0;
+            for (int seat = 0; seat < seatsPerRow; seat++, bit++) {
+                if ((packed[bit >>> 3] & (1 << (bit & 7))) != 0) {
+                    final int index = row * map.wordsPerRow + (seat >>> 6);
+                    map.taken.set(index, map.taken.get(index) | 1L << seat);
+                    takenInRow++;
+                }
+            }
+            map.freeInRow.set(row, seatsPerRow - takenInRow);
+            takenSeats += takenInRow;
+        }
+        map.free.set(rows * seatsPerRow - takenSeats);
+        return map;
+    }
+
+    /**
+     * The taken bits packed seat after seat, row after row, without the per-row padding:
+     * one bit per seat rounded up to a whole byte.
+     */
+    public byte[] toBytes() {
+        final byte[] packed = new byte[packedLength(rows, seatsPerRow)];
+        int bit = 0;
+        for (int row = 0; row < rows; row++) {
+            for (int word = 0; word < wordsPerRow; word++) {
+                final long bits = taken.get(row * wordsPerRow + word);
+                final int seatsInWord = Math.min(64, seatsPerRow - (word << 6));
+                for (int i = 0; i < seatsInWord; i++, bit++) {
+                    if ((bits & 1L << i) != 0) {
+                        packed[bit >>> 3] |= (byte) (1 << (bit & 7));
+                    }
+                }
+            }
+        }
+        return packed;
+    }
+
+    public int rows() {
+        return rows;
+    }
+
+    public int seatsPerRow() {
+        return seatsPerRow;
+    }
+
+    public int capacity() {
+        return rows * seatsPerRow;
+    }
+
+    public int available() {
+        return free.get();
+    }
+
+    public boolean isTaken(final int row, final int seat) {
+        checkBlock(row, seat, 1);
+        return (taken.get(row * wordsPerRow + (seat >>> 6)) & 1L << seat) != 0;
+    }
+
+    /**
+     * Takes the best block of {@code count} adjacent seats: in the frontmost row that has one,
+     * as close to the middle of the row as possible. Returns null when no row has such a block.
+     */
+    public Block allocate(final int count) {
+        if (count <= 0 || count > seatsPerRow) {
+            return null;
+        }
+        for (int row = 0; row < rows && free.get() >= count; row++) {
+            while (freeInRow.get(row) >= count) {
+                final int first = bestStart(row, count);
+                if (first < 0) {
+                    break;
+                }
+                if (flip(row, first, count, true)) {
+                    return new Block(row, first, count);
+                }
+                // Lost part of the block to another allocation, look at the row again
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes a specific block. Returns false without changing anything if any of its seats is taken.
+     */
+    public boolean take(final Block block) {
+        checkBlock(block.row(), block.firstSeat(), block.count());
+        return flip(block.row(), block.firstSeat(), block.count(), true);
+    }
+
+    /**
+     * Gives a block back. Fails without changing anything if any of its seats is not taken.
+     */
+    public void release(final Block block) {
+        checkBlock(block.row(), block.firstSeat(), block.count());
+        if (!flip(block.row(), block.firstSeat(), block.count(), false)) {
+            throw new IllegalArgumentException("Seats " + (block.firstSeat() + 1) + "-" + (block.firstSeat() + block.count())
+                    + " in row " + (block.row() + 1) + " are not all taken");
+        }
+    }
+
+    private int bestStart(final int row, final int count) {
+        final long[] snapshot = new long[wordsPerRow];
+        for (int word = 0; word < wordsPerRow; word++) {
+            snapshot[word] = taken.get(row * wordsPerRow + word);
+        }
+        final int ideal = (seatsPerRow - count) / 2;
+        int best = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        int start = nextBit(snapshot, 0, false);
+        while (start < seatsPerRow) {
+            final int end = nextBit(snapshot, start, true);
+            if (end - start >= count) {
+                final int candidate = Math.max(start, Math.min(ideal, end - count));
+                final int distance = Math.abs(candidate - ideal);
+                if (distance < bestDistance) {
+                    best = candidate;
+                    bestDistance = distance;
+                    if (distance == 0) {
+                        break;
+                    }
+                }
+            }
+            start = nextBit(snapshot, end, false);
+        }
+        return best;
+    }
+
+    private boolean flip(final int row, final int first, final int count, final boolean take) {
+        final int base = row * wordsPerRow;
+        final int last = first + count - 1;
+        for (int word = first >>> 6; word <= last >>> 6; word++) {
+            if (!flipWord(base + word, mask(word, first, last), take)) {
+                for (int undo = first >>> 6; undo < word; undo++) {
+                    flipWord(base + undo, mask(undo, first, last), !take);
+                }
+                return false;
+            }
+        }
+        final int delta = take ? -count : count;
+        freeInRow.addAndGet(row, delta);
+        free.addAndGet(delta);
+        return true;
+    }
+
+    /**
+     * Sets (take) or clears the masked bits in one CAS, provided none of them is already in that state.
+     */
+    private boolean flipWord(final int index, final long mask, final boolean take) {
+        final long expected = take ? 0 : mask;
+        while (true) {
+            final long current = taken.get(index);
+            if ((current & mask) != expected) {
+                return false;
+            }
+            if (taken.compareAndSet(index, current, current ^ mask)) {
+                return true;
+            }
+        }
+    }
+
+    private void checkBlock(final int row, final int first, final int count) {
+        if (row < 0 || row >= rows || first < 0 || count <= 0 || first + count > seatsPerRow) {
+            throw new IllegalArgumentException("Seats " + (first + 1) + "-" + (first + count) + " in row " + (row + 1)
+                    + " are outside a section of " + rows + " rows of " + seatsPerRow + " seats");
+        }
+    }
+
+    /**
+     * Bits of {@code word} that fall within the seats {@code first..last} of a row.
+     */
+    private static long mask(final int word, final int first, final int last) {
+        final int from = Math.max(first, word << 6) & 63;
+        final int to = Math.min(last, (word << 6) + 63) & 63;
+        return (-1L >>> (63 - to)) & (-1L << from);
+    }
+
+    /**
+     * Index of the first bit at or after {@code from} that is set (or clear), or the number of bits when there is none.
+     */
+    private static int nextBit(final long[] words, final int from, final boolean set) {
+        int word = from >>> 6;
+        if (word >= words.length) {
+            return words.length << 6;
+        }
+        long bits = (set ? words[word] : ~words[word]) & (-1L << from);
+        while (bits == 0) {
+            if (++word == words.length) {
+                return words.length << 6;
+            }
+            bits = set ? words[word] : ~words[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    private static int packedLength(final int rows, final int seatsPerRow) {
+        return (int) (((long) rows * seatsPerRow + 7) >>> 3);
+    }
+
+    public record Block(int row, int firstSeat, int count) {
+    }
+}
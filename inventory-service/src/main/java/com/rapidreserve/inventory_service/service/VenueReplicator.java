@@ -0,0 +1,93 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.entity.Venue;
+import com.rapidreserve.inventory_service.repository.VenueRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps the venue table of every shard a copy of the primary's. Venues are written on the primary
+ * first, which allocates their ids and checks their version; the copies are then upserted with the
+ * same id and version, so an event created on any shard validates against the same venue state.
+ * <p>
+ * Copies are written after the primary has committed. A failed copy is repaired by the next write
+ * to the venue or by the full sync on startup. Without sharding every method is a no-op.
+ */
+@Component
+@Slf4j
+public class VenueReplicator {
+
+    private static final String UPSERT_VENUE =
+            "INSERT INTO venue (id, name, address, total_capacity, version) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE name = VALUES(name), address = VALUES(address), " +
+            "total_capacity = VALUES(total_capacity), version = VALUES(version)";
+    private static final String DELETE_VENUE = "DELETE FROM venue WHERE id = ?";
+
+    private final EventShardRouter eventShardRouter;
+    private final JdbcTemplate jdbcTemplate;
+    private final VenueRepository venueRepository;
+
+    @Autowired
+    public VenueReplicator(final EventShardRouter eventShardRouter,
+                           final JdbcTemplate jdbcTemplate,
+                           final VenueRepository venueRepository) {
+        this.eventShardRouter = eventShardRouter;
+        this.jdbcTemplate = jdbcTemplate;
+        this.venueRepository = venueRepository;
+    }
+
+    /**
+     * Copies the given venues, as committed on the primary, to every other shard.
+     */
+    public void replicate(final Collection<Venue> venues) {
+        if (!eventShardRouter.isSharded() || venues.isEmpty()) {
+            return;
+        }
+        eventShardRouter.onShards(eventShardRouter.replicaShards(), shard ->
+                jdbcTemplate.batchUpdate(UPSERT_VENUE, venues, venues.size(), (statement, venue) -> {
+                    statement.setLong(1, venue.getId());
+                    statement.setString(2, venue.getName());
+                    statement.setString(3, venue.getAddress());
+                    statement.setLong(4, venue.getTotalCapacity());
+                    statement.setLong(5, venue.getVersion() == null ? 0L : venue.getVersion());
+                }));
+    }
+
+    /**
+     * Copies the primary's current state of one venue, or removes the copies if it is gone.
+     */
+    public void replicate(final Long venueId) {
+        if (!eventShardRouter.isSharded()) {
+            return;
+        }
+        eventShardRouter.onShard(EventShardRouter.PRIMARY_SHARD, () -> venueRepository.findById(venueId))
+                .ifPresentOrElse(venue -> replicate(List.of(venue)), () -> drop(venueId));
+    }
+
+    /**
+     * Removes the copies of a venue. Fails if a shard still has events at the venue.
+     */
+    public void drop(final Long venueId) {
+        if (!eventShardRouter.isSharded()) {
+            return;
+        }
+        eventShardRouter.onShards(eventShardRouter.replicaShards(), shard -> jdbcTemplate.update(DELETE_VENUE, venueId));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void sync() {
+        if (!eventShardRouter.isSharded()) {
+            return;
+        }
+        final List<Venue> venues = eventShardRouter.onShard(EventShardRouter.PRIMARY_SHARD, venueRepository::findAll);
+        replicate(venues);
+        log.info("Synced {} venue(s) to {} replica shard(s)", venues.size(), eventShardRouter.replicaShards().size());
+    }
+}
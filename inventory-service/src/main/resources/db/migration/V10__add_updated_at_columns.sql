@@ -0,0 +1,9 @@
+-- Maintained by the database on every write, so rows changed since a point in time can be found
+ALTER TABLE event
+ADD COLUMN updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+
+ALTER TABLE venue
+ADD COLUMN updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6);
+
+CREATE INDEX idx_event_updated_at ON event (updated_at);
+CREATE INDEX idx_venue_updated_at ON venue (updated_at);
@@ -0,0 +1,9 @@
+-- How far each change source has been reconciled: the last row seen, by timestamp then id
+CREATE TABLE reconciliation_checkpoint (
+    source VARCHAR(64) PRIMARY KEY,
+    watermark TIMESTAMP(6) NOT NULL,
+    last_id BIGINT NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE INDEX idx_order_placed_at ON `order` (placed_at);
@@ -0,0 +1,2 @@
+ALTER TABLE event
+ADD COLUMN hot BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,11 @@
+CREATE TABLE seat_hold (
+    id VARCHAR(36) PRIMARY KEY,
+    event_id BIGINT NOT NULL,
+    tickets BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    expires_at TIMESTAMP(6) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    CONSTRAINT fk_seat_hold_event FOREIGN KEY (event_id) REFERENCES event(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_seat_hold_status ON seat_hold (status);
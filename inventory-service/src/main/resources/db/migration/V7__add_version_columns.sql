@@ -0,0 +1,5 @@
+ALTER TABLE event
+ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE venue
+ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,5 @@
+-- One row per service, written on the primary and read back on the read replica to measure its lag
+CREATE TABLE IF NOT EXISTS replica_heartbeat (
+    source VARCHAR(64) PRIMARY KEY,
+    beat_millis BIGINT NOT NULL
+);
@@ -0,0 +1,12 @@
+CREATE TABLE seat_section (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_id BIGINT NOT NULL,
+    name VARCHAR(64) NOT NULL,
+    section_rank INT NOT NULL,
+    row_count INT NOT NULL,
+    seats_per_row INT NOT NULL,
+    -- One bit per seat, set when taken, packed row after row
+    taken_seats MEDIUMBLOB NOT NULL,
+    CONSTRAINT fk_seat_section_event FOREIGN KEY (event_id) REFERENCES event(id) ON DELETE CASCADE,
+    CONSTRAINT uq_seat_section_event_name UNIQUE (event_id, name)
+);
@@ -0,0 +1,158 @@
+package com.rapidreserve.inventory_service.config;
+
+import com.rapidreserve.inventory_service.dto.CreateEventRequest;
+import com.rapidreserve.inventory_service.dto.CreateVenueRequest;
+import com.rapidreserve.inventory_service.response.VenueInventoryResponse;
+import com.rapidreserve.inventory_service.service.InventoryService;
+import com.rapidreserve.read_replica.ReadYourWritesFilter;
+import com.rapidreserve.read_replica.ReplicaLagMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The replica is a separate in-memory database that nothing replicates to, so every read shows
+ * which side served it. Heartbeats are copied over by hand to play the part of replication.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=" + ReadReplicaRoutingTests.PRIMARY_URL,
+        "inventory.read-replica.enabled=true",
+        "inventory.read-replica.url=" + ReadReplicaRoutingTests.REPLICA_URL,
+        "inventory.read-replica.username=sa",
+        "inventory.read-replica.max-lag-ms=500",
+        // Checks are driven by the tests
+        "inventory.read-replica.heartbeat-interval-ms=3600000"})
+@ActiveProfiles("test")
+class ReadReplicaRoutingTests {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:inventory-rw;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:inventory-ro;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    static {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").load().migrate();
+    }
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private ReadYourWritesFilter readYourWritesFilter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final JdbcTemplate replica = new JdbcTemplate(
+            new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @BeforeEach
+    void replicaHasOneVenueOfItsOwn() {
+        replica.update("DELETE FROM venue");
+        replica.update("INSERT INTO venue (id, name, address, total_capacity) VALUES (900, 'Replica Hall', 'Far Away', 10)");
+    }
+
+    @Test
+    void readOnlyWorkGoesToTheReplicaAndWritesToThePrimary() {
+        final Long venueId = createVenue("Primary Hall");
+        replicateHeartbeat();
+        replicaLagMonitor.check();
+        assertThat(replicaLagMonitor.isUsable()).isTrue();
+
+        assertThat(venueNames()).containsExactly("Replica Hall");
+        assertThat(inventoryService.getVenueInformation(900L).getName()).isEqualTo("Replica Hall");
+        // Writes and cache loads stay on the primary
+        final Long eventId = createEvent(venueId);
+        assertThat(inventoryService.getEventInventory(eventId).getVenue().getName()).isEqualTo("Primary Hall");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM venue WHERE id = ?", Long.class, venueId))
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("inventory.read-replica.routed")
+                .tags("target", "replica", "reason", "read-only").counter().count()).isPositive();
+    }
+
+    @Test
+    void lagOverTheLimitFailsOverToThePrimary() {
+        createVenue("Lag Hall");
+        replica.update("UPDATE replica_heartbeat SET beat_millis = ?", System.currentTimeMillis() - 10_000);
+        replicaLagMonitor.check();
+
+        assertThat(replicaLagMonitor.isUsable()).isFalse();
+        assertThat(replicaLagMonitor.lagMillis()).isGreaterThanOrEqualTo(10_000);
+        assertThat(venueNames()).contains("Lag Hall").doesNotContain("Replica Hall");
+
+        replicateHeartbeat();
+        replicaLagMonitor.check();
+        assertThat(venueNames()).containsExactly("Replica Hall");
+    }
+
+    @Test
+    void requestIsPinnedToThePrimaryAfterItWrites() throws Exception {
+        replicateHeartbeat();
+        replicaLagMonitor.check();
+        final List<List<String>> seen = new ArrayList<>();
+
+        readYourWritesFilter.doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(), (request, response) -> {
+            seen.add(venueNames());
+            createVenue("Pinned Hall");
+            seen.add(venueNames());
+        });
+
+        assertThat(seen.get(0)).containsExactly("Replica Hall");
+        assertThat(seen.get(1)).contains("Pinned Hall").doesNotContain("Replica Hall");
+        // The next request starts unpinned
+        assertThat(venueNames()).containsExactly("Replica Hall");
+    }
+
+    private List<String> venueNames() {
+        return inventoryService.getAllVenues().stream().map(VenueInventoryResponse::getName).toList();
+    }
+
+    private void replicateHeartbeat() {
+        final List<Map<String, Object>> beats = jdbcTemplate.queryForList("SELECT source, beat_millis FROM replica_heartbeat");
+        replica.update("DELETE FROM replica_heartbeat");
+        for (Map<String, Object> beat : beats) {
+            replica.update("INSERT INTO replica_heartbeat (source, beat_millis) VALUES (?, ?)",
+                    beat.get("source"), System.currentTimeMillis());
+        }
+        if (beats.isEmpty()) {
+            replica.update("INSERT INTO replica_heartbeat (source, beat_millis) VALUES ('inventory-service', ?)",
+                    System.currentTimeMillis());
+        }
+    }
+
+    private Long createVenue(final String name) {
+        CreateVenueRequest venueRequest = new CreateVenueRequest();
+        venueRequest.setName(name);
+        venueRequest.setAddress("5 Test Street");
+        venueRequest.setTotalCapacity(100L);
+        return inventoryService.createVenue(venueRequest).getId();
+    }
+
+    private Long createEvent(final Long venueId) {
+        CreateEventRequest eventRequest = new CreateEventRequest();
+        eventRequest.setEvent("Replica Night");
+        eventRequest.setTotalCapacity(10L);
+        eventRequest.setVenueId(venueId);
+        eventRequest.setTicketPrice(BigDecimal.TEN);
+        return inventoryService.createEvent(eventRequest).getEventId();
+    }
+}
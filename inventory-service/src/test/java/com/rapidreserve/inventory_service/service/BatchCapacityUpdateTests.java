@@ -0,0 +1,121 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.dto.BatchCapacityUpdateRequest;
+import com.rapidreserve.inventory_service.dto.CreateEventRequest;
+import com.rapidreserve.inventory_service.dto.CreateVenueRequest;
+import com.rapidreserve.inventory_service.repository.EventRepository;
+import com.rapidreserve.inventory_service.response.BatchCapacityUpdateResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class BatchCapacityUpdateTests {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Test
+    void combinesEntriesPerEventAndReportsInRequestOrder() {
+        final Long first = createEvent(10);
+        final Long second = createEvent(10);
+
+        final BatchCapacityUpdateResponse response = inventoryService.updateEventCapacities(request(
+                update(second, 3), update(first, 2), update(second, 4), update(first, 1)));
+
+        assertThat(response.getSucceeded()).isEqualTo(4);
+        assertThat(response.getFailed()).isZero();
+        assertThat(response.getResults()).extracting(BatchCapacityUpdateResponse.Result::getEventId)
+                .containsExactly(second, first, second, first);
+        assertThat(available(first)).isEqualTo(7);
+        assertThat(available(second)).isEqualTo(3);
+    }
+
+    @Test
+    void appliesWhatFitsWhenTheCombinedCountDoesNot() {
+        final Long eventId = createEvent(5);
+        final Long missingEventId = -1L;
+
+        final BatchCapacityUpdateResponse response = inventoryService.updateEventCapacities(request(
+                update(eventId, 3), update(missingEventId, 1), update(eventId, 4), update(eventId, 2)));
+
+        assertThat(response.getResults()).extracting(BatchCapacityUpdateResponse.Result::isSuccess)
+                .containsExactly(true, false, false, true);
+        assertThat(response.getResults().get(1).getMessage()).contains("Event not found");
+        assertThat(response.getResults().get(2).getMessage()).contains("Not enough tickets available");
+        assertThat(response.getSucceeded()).isEqualTo(2);
+        assertThat(available(eventId)).isZero();
+    }
+
+    @Test
+    void concurrentBatchesInOppositeOrderNeverOversell() throws Exception {
+        final Long first = createEvent(500);
+        final Long second = createEvent(500);
+        final int batches = 300;
+
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final List<Future<BatchCapacityUpdateResponse>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < batches; i++) {
+                final boolean reversed = i % 2 == 0;
+                futures.add(executor.submit(() -> inventoryService.updateEventCapacities(reversed
+                        ? request(update(second, 2), update(first, 2))
+                        : request(update(first, 2), update(second, 2)))));
+            }
+            long succeeded = 0;
+            for (Future<BatchCapacityUpdateResponse> future : futures) {
+                succeeded += future.get().getSucceeded();
+            }
+
+            // 600 tickets requested per event against 500 seats
+            assertThat(succeeded).isEqualTo(500);
+            assertThat(available(first)).isZero();
+            assertThat(available(second)).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long available(final Long eventId) {
+        return eventRepository.findAvailableCapacityById(eventId).orElseThrow();
+    }
+
+    private BatchCapacityUpdateRequest.CapacityUpdate update(final Long eventId, final long tickets) {
+        return new BatchCapacityUpdateRequest.CapacityUpdate(eventId, tickets);
+    }
+
+    private BatchCapacityUpdateRequest request(final BatchCapacityUpdateRequest.CapacityUpdate... updates) {
+        BatchCapacityUpdateRequest request = new BatchCapacityUpdateRequest();
+        request.setUpdates(List.of(updates));
+        return request;
+    }
+
+    private Long createEvent(final long capacity) {
+        CreateVenueRequest venueRequest = new CreateVenueRequest();
+        venueRequest.setName("Batch Hall");
+        venueRequest.setAddress("3 Test Street");
+        venueRequest.setTotalCapacity(capacity);
+        Long venueId = inventoryService.createVenue(venueRequest).getId();
+
+        CreateEventRequest eventRequest = new CreateEventRequest();
+        eventRequest.setEvent("Batch Night");
+        eventRequest.setTotalCapacity(capacity);
+        eventRequest.setVenueId(venueId);
+        eventRequest.setTicketPrice(BigDecimal.TEN);
+        return inventoryService.createEvent(eventRequest).getEventId();
+    }
+}
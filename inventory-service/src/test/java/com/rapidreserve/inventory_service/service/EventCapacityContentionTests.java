@@ -0,0 +1,143 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.dto.CreateEventRequest;
+import com.rapidreserve.inventory_service.dto.CreateVenueRequest;
+import com.rapidreserve.inventory_service.entity.Event;
+import com.rapidreserve.inventory_service.exception.InsufficientCapacityException;
+import com.rapidreserve.inventory_service.repository.EventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+@Slf4j(topic = "benchmark")
+class EventCapacityContentionTests {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 100;
+    private static final long CAPACITY = 500;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void guardedDecrementNeverOversells() throws Exception {
+        final Long eventId = createEvent(CAPACITY);
+
+        final Result result = hammer(() -> inventoryService.updateEventCapacity(eventId, 1L));
+
+        assertThat(result.accepted()).isEqualTo(CAPACITY);
+        assertThat(result.rejected()).isEqualTo(THREADS * ATTEMPTS_PER_THREAD - CAPACITY);
+        assertThat(eventRepository.findAvailableCapacityById(eventId)).contains(0L);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void reportsThroughputAgainstReadCheckWrite() throws Exception {
+        final Long guardedId = createEvent(CAPACITY);
+        final Result guarded = hammer(() -> inventoryService.updateEventCapacity(guardedId, 1L));
+
+        final Long legacyId = createEvent(CAPACITY);
+        final Result legacy = hammer(() -> readCheckWriteDecrement(legacyId, 1L));
+        final long legacyRemaining = eventRepository.findAvailableCapacityById(legacyId).orElseThrow();
+
+        log.info("guarded update: {} ops/sec, accepted={}, remaining={}",
+                Math.round(guarded.opsPerSecond()), guarded.accepted(),
+                eventRepository.findAvailableCapacityById(guardedId).orElseThrow());
+        log.info("read-check-write: {} ops/sec, accepted={}, remaining={}, oversold={}",
+                Math.round(legacy.opsPerSecond()), legacy.accepted(), legacyRemaining,
+                Math.max(0, legacy.accepted() - (CAPACITY - legacyRemaining)));
+
+        assertThat(guarded.accepted()).isEqualTo(CAPACITY);
+    }
+
+    /**
+     * The previous implementation of updateEventCapacity, kept here as the baseline.
+     */
+    private void readCheckWriteDecrement(final Long eventId, final Long ticketsBooked) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Event event = eventRepository.findById(eventId).orElseThrow();
+            if (event.getAvailableCapacity() < ticketsBooked) {
+                throw new InsufficientCapacityException("Not enough tickets available");
+            }
+            event.setAvailableCapacity(event.getAvailableCapacity() - ticketsBooked);
+            eventRepository.save(event);
+        });
+    }
+
+    private Result hammer(final Runnable decrement) throws Exception {
+        final AtomicInteger accepted = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        try {
+                            decrement.run();
+                            accepted.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            final long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            final long elapsed = System.nanoTime() - startedAt;
+            return new Result(accepted.get(), rejected.get(), elapsed);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Long createEvent(final long capacity) {
+        CreateVenueRequest venueRequest = new CreateVenueRequest();
+        venueRequest.setName("Contention Arena");
+        venueRequest.setAddress("1 Test Street");
+        venueRequest.setTotalCapacity(capacity);
+        Long venueId = inventoryService.createVenue(venueRequest).getId();
+
+        CreateEventRequest eventRequest = new CreateEventRequest();
+        eventRequest.setEvent("Contention Night");
+        eventRequest.setTotalCapacity(capacity);
+        eventRequest.setVenueId(venueId);
+        eventRequest.setTicketPrice(BigDecimal.TEN);
+        return inventoryService.createEvent(eventRequest).getEventId();
+    }
+
+    private record Result(long accepted, long rejected, long elapsedNanos) {
+        double opsPerSecond() {
+            return (accepted + rejected) / (elapsedNanos / 1_000_000_000.0);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.dto.CreateEventRequest;
+import com.rapidreserve.inventory_service.dto.CreateVenueRequest;
+import com.rapidreserve.inventory_service.dto.UpdateEventRequest;
+import com.rapidreserve.inventory_service.dto.UpdateVenueRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EventInventoryCacheTests {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private EventInventoryCache eventInventoryCache;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void servesRepeatedReadsFromCacheUntilAWriteCommits() {
+        final Long venueId = createVenue();
+        final Long eventId = createEvent(venueId, 10);
+
+        final long hitsBefore = eventInventoryCache.stats().hitCount();
+        final EventInventoryCache.Entry first = inventoryService.getCachedEventInventory(eventId);
+        final EventInventoryCache.Entry second = inventoryService.getCachedEventInventory(eventId);
+        assertThat(second.version()).isEqualTo(first.version());
+        assertThat(eventInventoryCache.stats().hitCount()).isEqualTo(hitsBefore + 1);
+
+        inventoryService.updateEventCapacity(eventId, 3L);
+        final EventInventoryCache.Entry afterCapacity = inventoryService.getCachedEventInventory(eventId);
+        assertThat(afterCapacity.version()).isNotEqualTo(first.version());
+        assertThat(afterCapacity.response().getAvailableCapacity()).isEqualTo(7);
+
+        UpdateEventRequest eventUpdate = new UpdateEventRequest();
+        eventUpdate.setEvent("Renamed Night");
+        inventoryService.updateEvent(eventId, eventUpdate);
+        assertThat(inventoryService.getEventInventory(eventId).getEvent()).isEqualTo("Renamed Night");
+
+        UpdateVenueRequest venueUpdate = new UpdateVenueRequest();
+        venueUpdate.setName("Renamed Hall");
+        inventoryService.updateVenue(venueId, venueUpdate);
+        assertThat(inventoryService.getEventInventory(eventId).getVenue().getName()).isEqualTo("Renamed Hall");
+    }
+
+    @Test
+    void exposesCacheCountersAsMetrics() {
+        final Long eventId = createEvent(createVenue(), 10);
+        inventoryService.getEventInventory(eventId);
+        inventoryService.getEventInventory(eventId);
+
+        assertThat(meterRegistry.get("cache.gets").tag("cache", EventInventoryCache.CACHE_NAME)
+                .tag("result", "hit").functionCounter().count()).isPositive();
+        assertThat(meterRegistry.get("cache.gets").tag("cache", EventInventoryCache.CACHE_NAME)
+                .tag("result", "miss").functionCounter().count()).isPositive();
+        assertThat(meterRegistry.find("cache.evictions").tag("cache", EventInventoryCache.CACHE_NAME)
+                .functionCounter()).isNotNull();
+    }
+
+    @Test
+    void answersMatchingIfNoneMatchWithNotModified() throws Exception {
+        final Long eventId = createEvent(createVenue(), 10);
+
+        final String etag = mockMvc.perform(get("/api/v1/inventory/event/{eventId}", eventId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.availableCapacity").value(10))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+
+        mockMvc.perform(get("/api/v1/inventory/event/{eventId}", eventId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        inventoryService.updateEventCapacity(eventId, 1L);
+        mockMvc.perform(get("/api/v1/inventory/event/{eventId}", eventId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, not(etag)))
+                .andExpect(jsonPath("$.data.availableCapacity").value(9));
+    }
+
+    private Long createVenue() {
+        CreateVenueRequest venueRequest = new CreateVenueRequest();
+        venueRequest.setName("Cache Hall");
+        venueRequest.setAddress("5 Test Street");
+        venueRequest.setTotalCapacity(100L);
+        return inventoryService.createVenue(venueRequest).getId();
+    }
+
+    private Long createEvent(final Long venueId, final long capacity) {
+        CreateEventRequest eventRequest = new CreateEventRequest();
+        eventRequest.setEvent("Cache Night");
+        eventRequest.setTotalCapacity(capacity);
+        eventRequest.setVenueId(venueId);
+        eventRequest.setTicketPrice(BigDecimal.TEN);
+        return inventoryService.createEvent(eventRequest).getEventId();
+    }
+}
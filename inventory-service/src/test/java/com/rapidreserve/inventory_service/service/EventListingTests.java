@@ -0,0 +1,116 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.dto.CreateEventRequest;
+import com.rapidreserve.inventory_service.dto.CreateVenueRequest;
+import com.rapidreserve.inventory_service.exception.EventNotFoundException;
+import com.rapidreserve.inventory_service.response.EventInventoryResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class EventListingTests {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void pagesWithKeysetCursorAndOneQueryPerPage() {
+        final Long venueId = createVenue(100);
+        final List<Long> eventIds = new ArrayList<>();
+        for (int i = 0; i < 1_200; i++) {
+            eventIds.add(createEvent(venueId, 10));
+        }
+
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        final List<EventInventoryResponse> all = list(null, null, venueId, false);
+
+        assertThat(all).extracting(EventInventoryResponse::getEventId).containsExactlyElementsOf(eventIds);
+        assertThat(all.get(0).getVenue().getId()).isEqualTo(venueId);
+        assertThat(all.get(0).getVenue().getName()).isEqualTo("Listing Hall");
+        // Three pages of up to 500 rows, venue columns included; no per-event venue lookups
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+
+        final List<EventInventoryResponse> firstPage = list(null, 50, venueId, false);
+        final List<EventInventoryResponse> secondPage =
+                list(firstPage.get(firstPage.size() - 1).getEventId(), 50, venueId, false);
+        assertThat(firstPage).extracting(EventInventoryResponse::getEventId)
+                .containsExactlyElementsOf(eventIds.subList(0, 50));
+        assertThat(secondPage).extracting(EventInventoryResponse::getEventId)
+                .containsExactlyElementsOf(eventIds.subList(50, 100));
+    }
+
+    @Test
+    void filtersByVenueAndAvailability() {
+        final Long venueId = createVenue(100);
+        final Long soldOut = createEvent(venueId, 2);
+        final Long open = createEvent(venueId, 2);
+        createEvent(createVenue(100), 2);
+        inventoryService.updateEventCapacity(soldOut, 2L);
+
+        assertThat(list(null, null, venueId, false)).extracting(EventInventoryResponse::getEventId)
+                .containsExactly(soldOut, open);
+        assertThat(list(null, null, venueId, true)).extracting(EventInventoryResponse::getEventId)
+                .containsExactly(open);
+    }
+
+    @Test
+    void looksUpSeveralEventsInOneQuery() {
+        final Long venueId = createVenue(100);
+        final Long first = createEvent(venueId, 5);
+        final Long second = createEvent(venueId, 7);
+        inventoryService.updateEventCapacity(second, 3L);
+
+        final Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        final List<EventInventoryResponse> events = inventoryService.getEventInventories(List.of(second, first, second));
+
+        assertThat(events).extracting(EventInventoryResponse::getEventId).containsExactly(second, first);
+        assertThat(events).extracting(EventInventoryResponse::getAvailableCapacity).containsExactly(4L, 5L);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThatThrownBy(() -> inventoryService.getEventInventories(List.of(first, -1L)))
+                .isInstanceOf(EventNotFoundException.class)
+                .hasMessage("Events not found with ids: [-1]");
+    }
+
+    private List<EventInventoryResponse> list(final Long afterId, final Integer limit, final Long venueId,
+                                              final boolean onlyAvailable) {
+        final List<EventInventoryResponse> events = new ArrayList<>();
+        inventoryService.streamEvents(afterId, limit, venueId, onlyAvailable, events::add);
+        return events;
+    }
+
+    private Long createVenue(final long capacity) {
+        CreateVenueRequest venueRequest = new CreateVenueRequest();
+        venueRequest.setName("Listing Hall");
+        venueRequest.setAddress("4 Test Street");
+        venueRequest.setTotalCapacity(capacity);
+        return inventoryService.createVenue(venueRequest).getId();
+    }
+
+    private Long createEvent(final Long venueId, final long capacity) {
+        CreateEventRequest eventRequest = new CreateEventRequest();
+        eventRequest.setEvent("Listing Night");
+        eventRequest.setTotalCapacity(capacity);
+        eventRequest.setVenueId(venueId);
+        eventRequest.setTicketPrice(BigDecimal.TEN);
+        return inventoryService.createEvent(eventRequest).getEventId();
+    }
+}
@@ -0,0 +1,153 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.entity.Event;
+import com.rapidreserve.inventory_service.entity.Venue;
+import com.rapidreserve.inventory_service.response.EventSearchResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j(topic = "benchmark")
+class EventSearchIndexTests {
+
+    private static final String[] WORDS = {
+            "rock", "jazz", "opera", "summer", "winter", "festival", "night", "live", "acoustic", "symphony",
+            "comedy", "gala", "classic", "indie", "metal", "blues", "folk", "electronic", "dance", "orchestra",
+            "choir", "tour", "anniversary", "reunion", "premiere", "showcase", "session", "unplugged", "revival",
+            "tribute", "marathon", "weekend", "midnight", "sunrise", "harbour", "garden", "city", "river", "valley",
+            "mountain", "coast", "island", "royal", "grand", "little", "big", "golden", "silver", "crimson", "velvet"
+    };
+
+    private final EventSearchIndex index = new EventSearchIndex(null, null);
+
+    @Test
+    void requiresEveryTokenAndMatchesPrefixes() {
+        final Venue arena = venue(1L, "Harbour Arena", "12 Dock Road");
+        index.index(event(1L, "Summer Jazz Night", arena), 100);
+        index.index(event(2L, "Winter Jazz Gala", arena), 100);
+        index.index(event(3L, "Summer Rock", venue(2L, "Jazz Cellar", "5 Summit Lane")), 100);
+
+        assertThat(ids(index.search("jaz", 10, false))).containsExactlyInAnyOrder(1L, 2L, 3L);
+        assertThat(ids(index.search("summer jazz", 10, false))).containsExactly(1L, 3L);
+        assertThat(ids(index.search("dock", 10, false))).containsExactly(1L, 2L);
+        assertThat(index.search("opera", 10, false)).isEmpty();
+    }
+
+    @Test
+    void ranksByFieldWeightThenAvailability() {
+        final Venue jazzClub = venue(1L, "Jazz Club", "1 Main Street");
+        final Venue hall = venue(2L, "Town Hall", "9 Jazz Avenue");
+        index.index(event(1L, "Evening Session", jazzClub), 50);
+        index.index(event(2L, "Evening Session", hall), 50);
+        index.index(event(3L, "Jazz Evening", hall), 0);
+        index.index(event(4L, "Jazz Evening", hall), 20);
+
+        // Event name beats venue name beats address; sold-out events sort after available ones
+        assertThat(ids(index.search("jazz", 10, false))).containsExactly(4L, 3L, 1L, 2L);
+        assertThat(ids(index.search("jazz", 2, false))).containsExactly(4L, 3L);
+        assertThat(ids(index.search("jazz", 10, true))).containsExactly(4L, 1L, 2L);
+    }
+
+    @Test
+    void appliesIncrementalUpdates() {
+        final Venue venue = venue(1L, "Grand Hall", "3 Park Road");
+        final Event event = event(1L, "Opera Night", venue);
+        index.index(event, 10);
+
+        event.setName("Ballet Night");
+        index.index(event, 10);
+        assertThat(index.search("opera", 10, false)).isEmpty();
+        assertThat(ids(index.search("ballet", 10, false))).containsExactly(1L);
+
+        index.updateVenue(1L, "Royal Hall", "3 Park Road");
+        assertThat(index.search("grand", 10, false)).isEmpty();
+        assertThat(ids(index.search("royal ballet", 10, false))).containsExactly(1L);
+
+        index.adjustAvailable(1L, -10);
+        assertThat(index.search("ballet", 10, true)).isEmpty();
+        index.adjustAvailable(1L, 4);
+        assertThat(index.search("ballet", 10, true).get(0).getAvailableCapacity()).isEqualTo(4);
+
+        index.remove(1L);
+        assertThat(index.search("ballet", 10, false)).isEmpty();
+        assertThat(index.size()).isZero();
+    }
+
+    /**
+     * 100k events over 2,000 venues; every name and venue is three or two words from a 50-word vocabulary,
+     * so single-word queries match thousands of events and the top-k selection does real work.
+     */
+    @Test
+    @Tag("benchmark")
+    void answersTopTwentyForOneHundredThousandEventsInUnderAMillisecond() {
+        final Random random = new Random(42);
+        final Venue[] venues = new Venue[2_000];
+        for (int i = 0; i < venues.length; i++) {
+            venues[i] = venue((long) i + 1, phrase(random, 2) + " Arena", (i + 1) + " " + phrase(random, 1) + " Street");
+        }
+        final long buildStart = System.nanoTime();
+        for (long id = 1; id <= 100_000; id++) {
+            index.index(event(id, phrase(random, 3), venues[random.nextInt(venues.length)]), random.nextInt(500));
+        }
+        final long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+        final String[] queries = {"jazz", "summer fest", "rock night", "gold", "grand opera", "harbour arena",
+                "velvet river", "classic symphony", "midnight", "co", "indie tour street", "royal gala"};
+        for (int warmup = 0; warmup < 2_000; warmup++) {
+            index.search(queries[warmup % queries.length], 20, warmup % 2 == 0);
+        }
+
+        final int runs = 5_000;
+        final long[] nanos = new long[runs];
+        for (int run = 0; run < runs; run++) {
+            final long start = System.nanoTime();
+            index.search(queries[run % queries.length], 20, run % 2 == 0);
+            nanos[run] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        final double medianMicros = nanos[runs / 2] / 1_000.0;
+        final double p99Micros = nanos[runs * 99 / 100] / 1_000.0;
+        log.info("Search index over 100k events: built in {} ms, median {} us, p99 {} us",
+                buildMillis, String.format("%.1f", medianMicros), String.format("%.1f", p99Micros));
+
+        assertThat(index.search("jazz", 20, false)).hasSize(20);
+        assertThat(medianMicros).isLessThan(1_000.0);
+    }
+
+    private static String phrase(final Random random, final int words) {
+        final StringBuilder phrase = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                phrase.append(' ');
+            }
+            final String word = WORDS[random.nextInt(WORDS.length)];
+            phrase.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+        }
+        return phrase.toString();
+    }
+
+    private static List<Long> ids(final List<EventSearchResponse> results) {
+        return results.stream().map(EventSearchResponse::getEventId).toList();
+    }
+
+    private static Venue venue(final Long id, final String name, final String address) {
+        return new Venue(id, name, address, 1_000L, null, null);
+    }
+
+    private static Event event(final Long id, final String name, final Venue venue) {
+        Event event = new Event();
+        event.setId(id);
+        event.setName(name);
+        event.setVenue(venue);
+        event.setTotalCapacity(500L);
+        event.setTicketPrice(BigDecimal.TEN);
+        return event;
+    }
+}
@@ -0,0 +1,86 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.dto.CreateEventRequest;
+import com.rapidreserve.inventory_service.dto.CreateVenueRequest;
+import com.rapidreserve.inventory_service.dto.UpdateEventRequest;
+import com.rapidreserve.inventory_service.dto.UpdateVenueRequest;
+import com.rapidreserve.inventory_service.response.EventSearchResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class EventSearchTests {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Test
+    void keepsIndexInStepWithWrites() {
+        final Long venueId = createVenue("Quasar Hall", 10);
+        final Long eventId = createEvent(venueId, "Zephyr Nocturne", 10);
+
+        final List<EventSearchResponse> hits = inventoryService.searchEvents("zeph quasar", 10, false);
+        assertThat(hits).extracting(EventSearchResponse::getEventId).containsExactly(eventId);
+        assertThat(hits.get(0).getVenueName()).isEqualTo("Quasar Hall");
+
+        inventoryService.updateEventCapacity(eventId, 10L);
+        assertThat(inventoryService.searchEvents("zephyr", 10, true)).isEmpty();
+        inventoryService.releaseCapacity(eventId, 3L);
+        assertThat(inventoryService.searchEvents("zephyr", 10, true))
+                .extracting(EventSearchResponse::getAvailableCapacity).containsExactly(3L);
+
+        UpdateEventRequest eventRequest = new UpdateEventRequest();
+        eventRequest.setEvent("Zephyr Matinee");
+        inventoryService.updateEvent(eventId, eventRequest);
+        assertThat(inventoryService.searchEvents("nocturne", 10, false)).isEmpty();
+        assertThat(inventoryService.searchEvents("zephyr matinee", 10, false))
+                .extracting(EventSearchResponse::getAvailableCapacity).containsExactly(3L);
+
+        UpdateVenueRequest venueRequest = new UpdateVenueRequest();
+        venueRequest.setName("Pulsar Hall");
+        inventoryService.updateVenue(venueId, venueRequest);
+        assertThat(inventoryService.searchEvents("quasar", 10, false)).isEmpty();
+        assertThat(inventoryService.searchEvents("pulsar zephyr", 10, false))
+                .extracting(EventSearchResponse::getEventId).containsExactly(eventId);
+
+        final Long unsoldId = createEvent(venueId, "Zephyr Encore", 10);
+        assertThat(inventoryService.searchEvents("zephyr", 10, false)).hasSize(2);
+        inventoryService.deleteEvent(unsoldId);
+        assertThat(inventoryService.searchEvents("zephyr", 10, false))
+                .extracting(EventSearchResponse::getEventId).containsExactly(eventId);
+    }
+
+    @Test
+    void rejectsBlankQueriesAndOversizedLimits() {
+        assertThatThrownBy(() -> inventoryService.searchEvents(" ", 10, false))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> inventoryService.searchEvents("jazz", 101, false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Long createVenue(final String name, final long capacity) {
+        CreateVenueRequest venueRequest = new CreateVenueRequest();
+        venueRequest.setName(name);
+        venueRequest.setAddress("6 Test Street");
+        venueRequest.setTotalCapacity(capacity);
+        return inventoryService.createVenue(venueRequest).getId();
+    }
+
+    private Long createEvent(final Long venueId, final String name, final long capacity) {
+        CreateEventRequest eventRequest = new CreateEventRequest();
+        eventRequest.setEvent(name);
+        eventRequest.setTotalCapacity(capacity);
+        eventRequest.setVenueId(venueId);
+        eventRequest.setTicketPrice(BigDecimal.TEN);
+        return inventoryService.createEvent(eventRequest).getEventId();
+    }
+}
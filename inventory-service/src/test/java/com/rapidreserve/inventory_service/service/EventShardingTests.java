@@ -0,0 +1,264 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.config.ShardRoutingDataSource;
+import com.rapidreserve.inventory_service.dto.BatchCapacityUpdateRequest;
+import com.rapidreserve.inventory_service.dto.CreateEventRequest;
+import com.rapidreserve.inventory_service.dto.CreateHoldRequest;
+import com.rapidreserve.inventory_service.dto.CreateVenueRequest;
+import com.rapidreserve.inventory_service.dto.UpdateEventRequest;
+import com.rapidreserve.inventory_service.dto.UpdateVenueRequest;
+import com.rapidreserve.inventory_service.exception.InsufficientCapacityException;
+import com.rapidreserve.inventory_service.repository.EventRepository;
+import com.rapidreserve.inventory_service.response.BatchCapacityUpdateResponse;
+import com.rapidreserve.inventory_service.response.EventInventoryResponse;
+import com.rapidreserve.inventory_service.response.HoldResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Three in-memory databases stand in for the shards
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "inventory.sharding.enabled=true",
+        "inventory.sharding.shards[0].url=jdbc:h2:mem:inventory-shard0;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "inventory.sharding.shards[0].username=sa",
+        "inventory.sharding.shards[1].url=jdbc:h2:mem:inventory-shard1;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "inventory.sharding.shards[1].username=sa",
+        "inventory.sharding.shards[2].url=jdbc:h2:mem:inventory-shard2;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "inventory.sharding.shards[2].username=sa"})
+@ActiveProfiles("test")
+class EventShardingTests {
+
+    private static final int SHARDS = 3;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private SeatHoldService seatHoldService;
+
+    @Autowired
+    private InventoryImportService inventoryImportService;
+
+    @Autowired
+    private EventShardRouter eventShardRouter;
+
+    @Autowired
+    private ShardRoutingDataSource shardRoutingDataSource;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void eventsAreSpreadAcrossShardsAndRoutedById() {
+        final Long venueId = createVenue(100);
+        final List<Long> eventIds = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            eventIds.add(createEvent(venueId, 10));
+        }
+
+        // Round robin placement, and each id names its own shard
+        assertThat(eventIds).extracting(eventShardRouter::shardOf).containsOnly(0, 1, 2);
+        for (Long eventId : eventIds) {
+            final int owner = eventShardRouter.shardOf(eventId);
+            for (int shard = 0; shard < SHARDS; shard++) {
+                assertThat(count(shard, "SELECT COUNT(*) FROM event WHERE id = ?", eventId))
+                        .isEqualTo(shard == owner ? 1 : 0);
+            }
+        }
+
+        for (Long eventId : eventIds) {
+            UpdateEventRequest update = new UpdateEventRequest();
+            update.setEvent("Renamed " + eventId);
+            inventoryService.updateEvent(eventId, update);
+            inventoryService.updateEventCapacity(eventId, 3L);
+
+            final EventInventoryResponse event = inventoryService.getEventInventory(eventId);
+            assertThat(event.getEvent()).isEqualTo("Renamed " + eventId);
+            assertThat(event.getAvailableCapacity()).isEqualTo(7);
+            assertThat(event.getVenue().getId()).isEqualTo(venueId);
+        }
+
+        final Long deleted = createEvent(venueId, 10);
+        inventoryService.deleteEvent(deleted);
+        assertThat(count(eventShardRouter.shardOf(deleted), "SELECT COUNT(*) FROM event WHERE id = ?", deleted)).isZero();
+    }
+
+    @Test
+    void listingMergesShardsInIdOrder() {
+        final Long venueId = createVenue(100);
+        final List<Long> eventIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            eventIds.add(createEvent(venueId, 10));
+        }
+        inventoryService.updateEventCapacity(eventIds.get(4), 10L);
+        inventoryService.updateEventCapacity(eventIds.get(5), 10L);
+
+        assertThat(list(null, null, venueId, false)).containsExactlyElementsOf(eventIds);
+
+        // Keyset pages across the merge line up without gaps or repeats
+        final List<Long> paged = new ArrayList<>();
+        Long cursor = null;
+        while (true) {
+            final List<Long> page = list(cursor, 7, venueId, false);
+            paged.addAll(page);
+            if (page.size() < 7) {
+                break;
+            }
+            cursor = page.get(page.size() - 1);
+        }
+        assertThat(paged).containsExactlyElementsOf(eventIds);
+
+        final List<Long> available = new ArrayList<>(eventIds);
+        available.remove(5);
+        available.remove(4);
+        assertThat(list(null, null, venueId, true)).containsExactlyElementsOf(available);
+    }
+
+    @Test
+    void venuesAreReplicatedAndCheckedAgainstEveryShard() {
+        final Long venueId = createVenue(100);
+        for (int shard = 0; shard < SHARDS; shard++) {
+            assertThat(count(shard, "SELECT COUNT(*) FROM venue WHERE id = ?", venueId)).isEqualTo(1);
+        }
+
+        Long largest = null;
+        while (largest == null || eventShardRouter.shardOf(largest) != 2) {
+            largest = createEvent(venueId, 80);
+        }
+        final Long largestOnShardTwo = largest;
+
+        UpdateVenueRequest shrink = new UpdateVenueRequest();
+        shrink.setTotalCapacity(50L);
+        assertThatThrownBy(() -> inventoryService.updateVenue(venueId, shrink))
+                .isInstanceOf(InsufficientCapacityException.class);
+
+        UpdateVenueRequest rename = new UpdateVenueRequest();
+        rename.setName("Sharded Arena");
+        inventoryService.updateVenue(venueId, rename);
+        for (int shard = 0; shard < SHARDS; shard++) {
+            assertThat(jdbc(shard).queryForObject("SELECT name FROM venue WHERE id = ?", String.class, venueId))
+                    .isEqualTo("Sharded Arena");
+        }
+        assertThat(inventoryService.getEventInventory(largestOnShardTwo).getVenue().getName()).isEqualTo("Sharded Arena");
+
+        assertThatThrownBy(() -> inventoryService.deleteVenue(venueId))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("associated event");
+        final Long emptyVenueId = createVenue(10);
+        inventoryService.deleteVenue(emptyVenueId);
+        for (int shard = 0; shard < SHARDS; shard++) {
+            assertThat(count(shard, "SELECT COUNT(*) FROM venue WHERE id = ?", venueId)).isEqualTo(1);
+            assertThat(count(shard, "SELECT COUNT(*) FROM venue WHERE id = ?", emptyVenueId)).isZero();
+        }
+    }
+
+    @Test
+    void holdsLiveOnTheirEventsShard() {
+        final Long venueId = createVenue(100);
+        Long eventId = null;
+        while (eventId == null || eventShardRouter.shardOf(eventId) != 1) {
+            eventId = createEvent(venueId, 10);
+        }
+
+        CreateHoldRequest request = new CreateHoldRequest();
+        request.setTickets(4L);
+        final HoldResponse hold = seatHoldService.placeHold(eventId, request);
+        assertThat(count(1, "SELECT COUNT(*) FROM seat_hold WHERE id = ?", hold.getHoldId())).isEqualTo(1);
+        assertThat(count(0, "SELECT COUNT(*) FROM seat_hold WHERE id = ?", hold.getHoldId())).isZero();
+
+        assertThat(seatHoldService.getHold(hold.getHoldId()).getStatus()).isEqualTo("ACTIVE");
+        seatHoldService.releaseHold(hold.getHoldId());
+        assertThat(seatHoldService.getHold(hold.getHoldId()).getStatus()).isEqualTo("RELEASED");
+        assertThat(inventoryService.getEventInventory(eventId).getAvailableCapacity()).isEqualTo(10);
+    }
+
+    @Test
+    void batchAndImportSpanShards() throws Exception {
+        final Long venueId = createVenue(100);
+        final List<BatchCapacityUpdateRequest.CapacityUpdate> updates = new ArrayList<>();
+        final List<Long> eventIds = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            final Long eventId = createEvent(venueId, 10);
+            eventIds.add(eventId);
+            BatchCapacityUpdateRequest.CapacityUpdate update = new BatchCapacityUpdateRequest.CapacityUpdate();
+            update.setEventId(eventId);
+            update.setTickets(4L);
+            updates.add(update);
+        }
+        BatchCapacityUpdateRequest batch = new BatchCapacityUpdateRequest();
+        batch.setUpdates(updates);
+        final BatchCapacityUpdateResponse response = inventoryService.updateEventCapacities(batch);
+        assertThat(response.getSucceeded()).isEqualTo(SHARDS);
+        for (Long eventId : eventIds) {
+            assertThat(inventoryService.getEventInventory(eventId).getAvailableCapacity()).isEqualTo(6);
+        }
+
+        final String body = String.join("\n",
+                "{\"type\":\"venue\",\"ref\":\"hub\",\"name\":\"Shard Hub\",\"address\":\"3 Split Street\",\"totalCapacity\":40}",
+                "{\"type\":\"event\",\"venueRef\":\"hub\",\"name\":\"Shard Import A\",\"totalCapacity\":40,\"ticketPrice\":5}",
+                "{\"type\":\"event\",\"venueRef\":\"hub\",\"name\":\"Shard Import B\",\"totalCapacity\":40,\"ticketPrice\":5}",
+                "{\"type\":\"event\",\"venueRef\":\"hub\",\"name\":\"Shard Import C\",\"totalCapacity\":40,\"ticketPrice\":5}");
+        assertThat(inventoryImportService.importInventory(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)),
+                InventoryImportService.Format.NDJSON).getEventsImported()).isEqualTo(3);
+        for (int shard = 0; shard < SHARDS; shard++) {
+            assertThat(count(shard, "SELECT COUNT(*) FROM event e JOIN venue v ON v.id = e.venue_id " +
+                    "WHERE v.name = ?", "Shard Hub")).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void transactionCannotReachAnotherShard() {
+        final TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        assertThatThrownBy(() -> eventShardRouter.runOnShard(0, () -> transactionTemplate.executeWithoutResult(status ->
+                eventShardRouter.runOnShard(1, eventRepository::count))))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("shard 1");
+    }
+
+    private List<Long> list(final Long afterId, final Integer limit, final Long venueId, final boolean onlyAvailable) {
+        final List<Long> ids = new ArrayList<>();
+        inventoryService.streamEvents(afterId, limit, venueId, onlyAvailable, event -> ids.add(event.getEventId()));
+        return ids;
+    }
+
+    private JdbcTemplate jdbc(final int shard) {
+        return new JdbcTemplate(shardRoutingDataSource.shard(shard));
+    }
+
+    private long count(final int shard, final String sql, final Object argument) {
+        return jdbc(shard).queryForObject(sql, Long.class, argument);
+    }
+
+    private Long createVenue(final long capacity) {
+        CreateVenueRequest venueRequest = new CreateVenueRequest();
+        venueRequest.setName("Shard Hall");
+        venueRequest.setAddress("7 Test Street");
+        venueRequest.setTotalCapacity(capacity);
+        return inventoryService.createVenue(venueRequest).getId();
+    }
+
+    private Long createEvent(final Long venueId, final long capacity) {
+        CreateEventRequest eventRequest = new CreateEventRequest();
+        eventRequest.setEvent("Shard Night");
+        eventRequest.setTotalCapacity(capacity);
+        eventRequest.setVenueId(venueId);
+        eventRequest.setTicketPrice(BigDecimal.TEN);
+        return inventoryService.createEvent(eventRequest).getEventId();
+    }
+}
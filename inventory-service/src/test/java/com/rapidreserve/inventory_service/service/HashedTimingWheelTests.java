@@ -0,0 +1,138 @@
+package com.rapidreserve.inventory_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j(topic = "benchmark")
+class HashedTimingWheelTests {
+
+    @Test
+    void expiresTimeoutsAfterTheirDelay() throws Exception {
+        final Set<String> expired = ConcurrentHashMap.newKeySet();
+        try (HashedTimingWheel<String> wheel = new HashedTimingWheel<>("test", Duration.ofMillis(10), 8, expired::addAll)) {
+            final long startedAt = System.nanoTime();
+            wheel.schedule("short", Duration.ofMillis(50));
+            // Longer than one full rotation of the wheel
+            wheel.schedule("long", Duration.ofMillis(250));
+
+            awaitCondition(() -> expired.contains("short"), Duration.ofSeconds(2));
+            assertThat(expired).doesNotContain("long");
+            awaitCondition(() -> expired.contains("long"), Duration.ofSeconds(2));
+
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt)).isGreaterThanOrEqualTo(250);
+            assertThat(wheel.size()).isZero();
+        }
+    }
+
+    @Test
+    void cancelledTimeoutsNeverExpire() throws Exception {
+        final Set<String> expired = ConcurrentHashMap.newKeySet();
+        try (HashedTimingWheel<String> wheel = new HashedTimingWheel<>("test", Duration.ofMillis(10), 8, expired::addAll)) {
+            HashedTimingWheel.Timeout<String> cancelled = wheel.schedule("cancelled", Duration.ofMillis(30));
+            wheel.schedule("kept", Duration.ofMillis(60));
+
+            assertThat(cancelled.cancel()).isTrue();
+            awaitCondition(() -> expired.contains("kept"), Duration.ofSeconds(2));
+
+            assertThat(expired).containsExactly("kept");
+            assertThat(cancelled.cancel()).isFalse();
+        }
+    }
+
+    @Test
+    void expiresEveryTimeoutNotCancelled() throws Exception {
+        final int holds = 10_000;
+        final AtomicLong expiredCount = new AtomicLong();
+        try (HashedTimingWheel<Integer> wheel = new HashedTimingWheel<>("test", Duration.ofMillis(10), 64,
+                (List<Integer> expired) -> expiredCount.addAndGet(expired.size()))) {
+            for (int i = 0; i < holds; i++) {
+                final Duration delay = Duration.ofMillis(50 + i % 200);
+                wheel.schedule(i, delay);
+                if (i % 4 == 0) {
+                    wheel.schedule(i, delay).cancel();
+                }
+            }
+
+            awaitCondition(() -> expiredCount.get() == holds, Duration.ofSeconds(5));
+            assertThat(wheel.size()).isZero();
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    void handlesHundredsOfThousandsOfConcurrentTimeoutsWithBoundedCpu() throws Exception {
+        final int holds = 250_000;
+        final Duration spread = Duration.ofSeconds(2);
+        final AtomicLong expiredCount = new AtomicLong();
+        final AtomicLong maxLatenessMillis = new AtomicLong();
+
+        try (HashedTimingWheel<Long> wheel = new HashedTimingWheel<>("bench", Duration.ofMillis(20), 512,
+                (List<Long> deadlines) -> {
+                    final long now = System.nanoTime();
+                    for (Long deadline : deadlines) {
+                        maxLatenessMillis.accumulateAndGet(TimeUnit.NANOSECONDS.toMillis(now - deadline), Math::max);
+                    }
+                    expiredCount.addAndGet(deadlines.size());
+                })) {
+            final long scheduleStart = System.nanoTime();
+            for (int i = 0; i < holds; i++) {
+                final long delayNanos = spread.toNanos() / 2 + (spread.toNanos() * i) / holds;
+                final long deadline = System.nanoTime() + delayNanos;
+                wheel.schedule(deadline, Duration.ofNanos(delayNanos));
+                if (i % 4 == 0) {
+                    // A quarter of the holds get confirmed before they expire
+                    wheel.schedule(deadline, Duration.ofNanos(delayNanos)).cancel();
+                }
+            }
+            final double scheduleMillis = (System.nanoTime() - scheduleStart) / 1e6;
+            final long outstandingAtPeak = wheel.size();
+
+            final long workerCpuStart = workerCpuNanos("bench-wheel");
+            final long wallStart = System.nanoTime();
+            awaitCondition(() -> expiredCount.get() == holds, Duration.ofSeconds(15));
+            final double wallMillis = (System.nanoTime() - wallStart) / 1e6;
+            final double workerCpuMillis = (workerCpuNanos("bench-wheel") - workerCpuStart) / 1e6;
+
+            log.info("scheduled {} timeouts (+{} cancelled) in {} ms, outstanding at peak: {}",
+                    holds, holds / 4, Math.round(scheduleMillis), outstandingAtPeak);
+            log.info("expired all in {} ms wall, wheel worker CPU {} ms ({}% of one core), max lateness {} ms",
+                    Math.round(wallMillis), Math.round(workerCpuMillis),
+                    String.format("%.1f", 100 * workerCpuMillis / wallMillis), maxLatenessMillis.get());
+
+            assertThat(expiredCount.get()).isEqualTo(holds);
+            assertThat(wheel.size()).isZero();
+            assertThat(workerCpuMillis).isLessThan(wallMillis);
+        }
+    }
+
+    private static long workerCpuNanos(final String threadName) {
+        final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals(threadName))
+                .mapToLong(thread -> threads.getThreadCpuTime(thread.threadId()))
+                .sum();
+    }
+
+    private static void awaitCondition(final java.util.function.BooleanSupplier condition, final Duration timeout)
+            throws InterruptedException {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within " + timeout);
+            }
+            Thread.sleep(5);
+        }
+    }
+}
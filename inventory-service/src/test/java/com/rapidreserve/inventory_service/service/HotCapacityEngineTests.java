@@ -0,0 +1,264 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.dto.CreateEventRequest;
+import com.rapidreserve.inventory_service.dto.CreateVenueRequest;
+import com.rapidreserve.inventory_service.dto.UpdateEventRequest;
+import com.rapidreserve.inventory_service.repository.EventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "inventory.hot-capacity.enabled=true",
+        // Flushes are driven explicitly by the tests
+        "inventory.hot-capacity.flush-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+@Slf4j(topic = "benchmark")
+class HotCapacityEngineTests {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private HotCapacityEngine hotCapacityEngine;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void neverOversellsAndFlushesAcceptedDecrements() throws Exception {
+        final Long eventId = createEvent(1_000, true);
+
+        final long accepted = hammer(16, 200, thread -> eventId);
+        hotCapacityEngine.flush();
+
+        assertThat(accepted).isEqualTo(1_000);
+        assertThat(hotCapacityEngine.availableCapacity(eventId)).hasValue(0);
+        assertThat(eventRepository.findAvailableCapacityById(eventId)).contains(0L);
+    }
+
+    @Test
+    void databaseMatchesAcceptedDecrementsOnOwnAndSharedEvents() throws Exception {
+        final long capacity = 1_000_000L;
+        final List<Long> eventIds = List.of(createEvent(capacity, true), createEvent(capacity, true));
+        final Long sharedId = createEvent(capacity, true);
+
+        final long perEventAccepted = hammer(2, 5_000, eventIds::get);
+        final long sharedAccepted = hammer(2, 5_000, thread -> sharedId);
+        hotCapacityEngine.flush();
+
+        assertThat(perEventAccepted).isEqualTo(10_000);
+        assertThat(sharedAccepted).isEqualTo(10_000);
+        for (Long eventId : eventIds) {
+            assertThat(eventRepository.findAvailableCapacityById(eventId)).contains(capacity - 5_000);
+        }
+        assertThat(eventRepository.findAvailableCapacityById(sharedId)).contains(capacity - 10_000);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void throughputScalesWithThreadsAndDatabaseMatchesAcceptedDecrements() throws Exception {
+        final int maxThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        final int opsPerThread = 200_000;
+        final long capacity = 100_000_000L;
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            final List<Long> eventIds = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                eventIds.add(createEvent(capacity, true));
+            }
+            final Long sharedId = createEvent(capacity, true);
+
+            long startedAt = System.nanoTime();
+            final long perEventAccepted = hammer(threads, opsPerThread, eventIds::get);
+            final double perEventOps = perEventAccepted / ((System.nanoTime() - startedAt) / 1e9);
+
+            startedAt = System.nanoTime();
+            final long sharedAccepted = hammer(threads, opsPerThread, thread -> sharedId);
+            final double sharedOps = sharedAccepted / ((System.nanoTime() - startedAt) / 1e9);
+
+            log.info("threads={}  one event per thread: {} ops/sec   single shared event: {} ops/sec",
+                    threads, Math.round(perEventOps), Math.round(sharedOps));
+
+            hotCapacityEngine.flush();
+            long persistedDecrements = 0;
+            for (Long eventId : eventIds) {
+                persistedDecrements += capacity - eventRepository.findAvailableCapacityById(eventId).orElseThrow();
+            }
+            assertThat(persistedDecrements).isEqualTo(perEventAccepted);
+            assertThat(capacity - eventRepository.findAvailableCapacityById(sharedId).orElseThrow())
+                    .isEqualTo(sharedAccepted);
+        }
+    }
+
+    @Test
+    void rebuildsCountersFromDatabase() {
+        final Long eventId = createEvent(100, true);
+        inventoryService.updateEventCapacity(eventId, 30L);
+        hotCapacityEngine.flush();
+
+        hotCapacityEngine.rebuild();
+
+        assertThat(hotCapacityEngine.availableCapacity(eventId)).hasValue(70);
+        assertThat(inventoryService.getEventInventory(eventId).getAvailableCapacity()).isEqualTo(70L);
+    }
+
+    @Test
+    void rebuildKeepsCountersWithUnflushedDecrements() {
+        final Long eventId = createEvent(100, true);
+        inventoryService.updateEventCapacity(eventId, 30L);
+
+        // Requests reach the engine before the application is ready
+        hotCapacityEngine.rebuild();
+
+        assertThat(hotCapacityEngine.availableCapacity(eventId)).hasValue(70);
+        hotCapacityEngine.flush();
+        assertThat(eventRepository.findAvailableCapacityById(eventId)).contains(70L);
+    }
+
+    @Test
+    void clearingHotFlagHandsUnflushedCapacityBackToDatabase() {
+        final Long eventId = createEvent(100, true);
+        inventoryService.updateEventCapacity(eventId, 40L);
+
+        final UpdateEventRequest request = new UpdateEventRequest();
+        request.setHot(false);
+        inventoryService.updateEvent(eventId, request);
+
+        assertThat(hotCapacityEngine.availableCapacity(eventId)).isEmpty();
+        assertThat(eventRepository.findAvailableCapacityById(eventId)).contains(60L);
+
+        inventoryService.updateEventCapacity(eventId, 10L);
+        assertThat(eventRepository.findAvailableCapacityById(eventId)).contains(50L);
+    }
+
+    @Test
+    void releasesNeverRaiseAnEventAboveItsTotalCapacity() {
+        final Long eventId = createEvent(100, true);
+        inventoryService.updateEventCapacity(eventId, 10L);
+
+        assertThat(hotCapacityEngine.release(eventId, 11)).isFalse();
+        assertThat(hotCapacityEngine.release(eventId, 10)).isTrue();
+        // A duplicate of the same release
+        assertThat(hotCapacityEngine.release(eventId, 10)).isFalse();
+
+        hotCapacityEngine.flush();
+        assertThat(hotCapacityEngine.availableCapacity(eventId)).hasValue(100);
+        assertThat(eventRepository.findAvailableCapacityById(eventId)).contains(100L);
+    }
+
+    @Test
+    void otherEventsKeepFlushingWhileARetiringTransactionIsOpen() throws Exception {
+        final Long retiringId = createEvent(100, true);
+        final Long otherId = createEvent(100, true);
+        inventoryService.updateEventCapacity(retiringId, 10L);
+        inventoryService.updateEventCapacity(otherId, 20L);
+
+        final CountDownLatch retired = new CountDownLatch(1);
+        final CountDownLatch finish = new CountDownLatch(1);
+        final ExecutorService admin = Executors.newSingleThreadExecutor();
+        try {
+            final Future<?> rolledBack = admin.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                assertThat(hotCapacityEngine.retire(retiringId)).hasValue(90);
+                retired.countDown();
+                try {
+                    finish.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                status.setRollbackOnly();
+            }));
+            assertThat(retired.await(5, TimeUnit.SECONDS)).isTrue();
+
+            CompletableFuture.runAsync(hotCapacityEngine::flush).get(5, TimeUnit.SECONDS);
+            assertThat(eventRepository.findAvailableCapacityById(otherId)).contains(80L);
+
+            finish.countDown();
+            rolledBack.get(5, TimeUnit.SECONDS);
+        } finally {
+            finish.countDown();
+            admin.shutdownNow();
+        }
+
+        // The rollback hands the event back to its counter, delta still to be flushed
+        assertThat(hotCapacityEngine.availableCapacity(retiringId)).hasValue(90);
+        hotCapacityEngine.flush();
+        assertThat(eventRepository.findAvailableCapacityById(retiringId)).contains(90L);
+    }
+
+    private long hammer(final int threads, final int opsPerThread, final IntFunction<Long> eventForThread)
+            throws Exception {
+        final AtomicLong accepted = new AtomicLong();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final Long eventId = eventForThread.apply(t);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    long local = 0;
+                    for (int i = 0; i < opsPerThread; i++) {
+                        if (hotCapacityEngine.tryDecrement(eventId, 1) == HotCapacityEngine.Decision.ACCEPTED) {
+                            local++;
+                        } else {
+                            try {
+                                inventoryService.updateEventCapacity(eventId, 1L);
+                                local++;
+                            } catch (RuntimeException e) {
+                                // rejected, not enough capacity
+                            }
+                        }
+                    }
+                    accepted.addAndGet(local);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            return accepted.get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Long createEvent(final long capacity, final boolean hot) {
+        CreateVenueRequest venueRequest = new CreateVenueRequest();
+        venueRequest.setName("Hot Arena");
+        venueRequest.setAddress("1 Stadium Way");
+        venueRequest.setTotalCapacity(capacity);
+        Long venueId = inventoryService.createVenue(venueRequest).getId();
+
+        CreateEventRequest eventRequest = new CreateEventRequest();
+        eventRequest.setEvent("On-sale");
+        eventRequest.setTotalCapacity(capacity);
+        eventRequest.setVenueId(venueId);
+        eventRequest.setTicketPrice(BigDecimal.TEN);
+        eventRequest.setHot(hot);
+        return inventoryService.createEvent(eventRequest).getEventId();
+    }
+}
@@ -0,0 +1,106 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.dto.CreateEventRequest;
+import com.rapidreserve.inventory_service.dto.CreateVenueRequest;
+import com.rapidreserve.inventory_service.dto.UpdateEventRequest;
+import com.rapidreserve.inventory_service.event.InventoryChangeEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "inventory.changes.enabled=true",
+        "inventory.changes.publish-interval-ms=3600000",
+        "spring.kafka.admin.auto-create=false"
+})
+@ActiveProfiles("test")
+class InventoryChangePublisherTests {
+
+    @MockitoBean
+    private KafkaTemplate<String, InventoryChangeEvent> kafkaTemplate;
+
+    @Autowired
+    private InventoryChangePublisher inventoryChangePublisher;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @BeforeEach
+    void setUp() {
+        when(kafkaTemplate.send(anyString(), anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        inventoryChangePublisher.publish();
+        clearInvocations(kafkaTemplate);
+    }
+
+    @Test
+    void coalescesChangesIntoOneSnapshotPerEvent() {
+        final Long eventId = createEvent(10);
+        inventoryService.updateEventCapacity(eventId, 2L);
+        inventoryService.updateEventCapacity(eventId, 3L);
+        UpdateEventRequest update = new UpdateEventRequest();
+        update.setTicketPrice(BigDecimal.valueOf(25));
+        inventoryService.updateEvent(eventId, update);
+
+        inventoryChangePublisher.publish();
+
+        final ArgumentCaptor<InventoryChangeEvent> captor = ArgumentCaptor.forClass(InventoryChangeEvent.class);
+        verify(kafkaTemplate, times(1)).send(eq(InventoryChangePublisher.TOPIC), eq(eventId.toString()), captor.capture());
+        assertThat(captor.getValue().getAvailableCapacity()).isEqualTo(5);
+        assertThat(captor.getValue().getTicketPrice()).isEqualByComparingTo("25");
+        assertThat(captor.getValue().getVenueName()).isEqualTo("Stream Hall");
+        assertThat(inventoryChangePublisher.pending()).isZero();
+    }
+
+    @Test
+    void publishesTombstoneForDeletedEvent() {
+        final Long eventId = createEvent(10);
+        inventoryService.deleteEvent(eventId);
+
+        inventoryChangePublisher.publish();
+
+        verify(kafkaTemplate).send(eq(InventoryChangePublisher.TOPIC), eq(eventId.toString()), isNull());
+    }
+
+    @Test
+    void republishesWhenSendFails() {
+        final Long eventId = createEvent(10);
+        when(kafkaTemplate.send(anyString(), eq(eventId.toString()), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        inventoryChangePublisher.publish();
+        assertThat(inventoryChangePublisher.pending()).isEqualTo(1);
+    }
+
+    private Long createEvent(final long capacity) {
+        CreateVenueRequest venueRequest = new CreateVenueRequest();
+        venueRequest.setName("Stream Hall");
+        venueRequest.setAddress("6 Test Street");
+        venueRequest.setTotalCapacity(capacity);
+        Long venueId = inventoryService.createVenue(venueRequest).getId();
+
+        CreateEventRequest eventRequest = new CreateEventRequest();
+        eventRequest.setEvent("Stream Night");
+        eventRequest.setTotalCapacity(capacity);
+        eventRequest.setVenueId(venueId);
+        eventRequest.setTicketPrice(BigDecimal.TEN);
+        return inventoryService.createEvent(eventRequest).getEventId();
+    }
+}
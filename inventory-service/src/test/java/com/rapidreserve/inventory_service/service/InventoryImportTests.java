@@ -0,0 +1,189 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.dto.CreateEventRequest;
+import com.rapidreserve.inventory_service.dto.CreateVenueRequest;
+import com.rapidreserve.inventory_service.repository.EventRepository;
+import com.rapidreserve.inventory_service.response.InventoryImportResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.function.LongFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Own database so the benchmark rows do not slow down other test contexts
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:inventory-import;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "inventory.import.batch-size=500"})
+@ActiveProfiles("test")
+@Slf4j(topic = "benchmark")
+class InventoryImportTests {
+
+    @Autowired
+    private InventoryImportService inventoryImportService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventSearchIndex eventSearchIndex;
+
+    @Test
+    void importsNdjsonAndReportsRejectedRows() throws Exception {
+        final Long existingVenueId = createVenue(50);
+        final String body = String.join("\n",
+                "{\"type\":\"venue\",\"ref\":\"dome\",\"name\":\"Importer Dome\",\"address\":\"1 Import Way\",\"totalCapacity\":100}",
+                "{\"type\":\"event\",\"venueRef\":\"dome\",\"name\":\"Importer Opening\",\"totalCapacity\":80,\"ticketPrice\":25.50}",
+                "{\"type\":\"event\",\"venueId\":" + existingVenueId + ",\"name\":\"Importer Matinee\",\"totalCapacity\":50,\"ticketPrice\":10}",
+                "",
+                "{\"type\":\"event\",\"venueRef\":\"dome\",\"name\":\"Too Big\",\"totalCapacity\":101,\"ticketPrice\":10}",
+                "{\"type\":\"event\",\"venueRef\":\"arena\",\"name\":\"Nowhere\",\"totalCapacity\":1,\"ticketPrice\":10}",
+                "{\"type\":\"venue\",\"ref\":\"dome\",\"name\":\"Second Dome\",\"address\":\"2 Import Way\",\"totalCapacity\":10}",
+                "{\"type\":\"concert\"}",
+                "{not json");
+
+        final InventoryImportResponse report = inventoryImportService.importInventory(
+                stream(body), InventoryImportService.Format.NDJSON);
+
+        assertThat(report.getRowsRead()).isEqualTo(8);
+        assertThat(report.getVenuesImported()).isEqualTo(1);
+        assertThat(report.getEventsImported()).isEqualTo(2);
+        assertThat(report.getRejected()).isEqualTo(5);
+        assertThat(report.getRejectedRows())
+                .extracting(InventoryImportResponse.RejectedRow::getLine)
+                .containsExactly(5L, 6L, 7L, 8L, 9L);
+        assertThat(report.getRejectedRows().get(0).getReason())
+                .isEqualTo("Event capacity (101) exceeds venue capacity (100)");
+        assertThat(report.getRejectedRows().get(1).getReason()).isEqualTo("Unknown venue ref: arena");
+        assertThat(report.getRejectedRows().get(2).getReason()).isEqualTo("Duplicate venue ref: dome");
+        assertThat(report.getRejectedRows().get(4).getReason()).startsWith("Malformed row");
+
+        // Imported events are live for reads, listing and search
+        final var hits = eventSearchIndex.search("importer opening", 10, false);
+        assertThat(hits).hasSize(1);
+        assertThat(hits.get(0).getVenueName()).isEqualTo("Importer Dome");
+        assertThat(inventoryService.getEventInventory(hits.get(0).getEventId()).getAvailableCapacity()).isEqualTo(80);
+    }
+
+    @Test
+    void importsCsvWithQuotedFields() throws Exception {
+        final String body = String.join("\n",
+                "type,ref,name,address,totalCapacity,venueRef,ticketPrice",
+                "venue,hall,\"Quoted Hall, East\",\"9 \"\"Q\"\" Street\",20,,",
+                "event,,Csv Night,,20,hall,12.00",
+                "event,,Csv Broken,,twenty,hall,12.00");
+
+        final InventoryImportResponse report = inventoryImportService.importInventory(
+                stream(body), InventoryImportService.Format.CSV);
+
+        assertThat(report.getVenuesImported()).isEqualTo(1);
+        assertThat(report.getEventsImported()).isEqualTo(1);
+        assertThat(report.getRejectedRows()).singleElement()
+                .satisfies(rejected -> assertThat(rejected.getLine()).isEqualTo(4));
+        final var hits = eventSearchIndex.search("csv night", 10, false);
+        assertThat(hits).singleElement().satisfies(hit -> {
+            assertThat(hit.getVenueName()).isEqualTo("Quoted Hall, East");
+            assertThat(hit.getVenueAddress()).isEqualTo("9 \"Q\" Street");
+        });
+    }
+
+    @Test
+    void importsAStreamLongerThanSeveralBatches() throws Exception {
+        final int venues = 5;
+        final int importEvents = 2_000;
+        final long before = eventRepository.count();
+
+        final InventoryImportResponse report = inventoryImportService.importInventory(
+                generated(venues + importEvents, row -> bulkRow(row, venues)), InventoryImportService.Format.NDJSON);
+
+        assertThat(report.getEventsImported()).isEqualTo(importEvents);
+        assertThat(report.getRejected()).isZero();
+        assertThat(eventRepository.count() - before).isEqualTo(importEvents);
+    }
+
+    /**
+     * Same rows through the per-row API and the import, compared by rows per second. The import
+     * body is generated while it is read, so neither side holds the file in memory.
+     */
+    @Test
+    @Tag("benchmark")
+    void importIsMuchFasterThanPerRowApi() throws Exception {
+        final int perRowEvents = 2_000;
+        final Long venueId = createVenue(1_000);
+        final long perRowStart = System.nanoTime();
+        for (int i = 0; i < perRowEvents; i++) {
+            CreateEventRequest request = new CreateEventRequest();
+            request.setEvent("Per Row " + i);
+            request.setTotalCapacity(100L);
+            request.setVenueId(venueId);
+            request.setTicketPrice(BigDecimal.TEN);
+            inventoryService.createEvent(request);
+        }
+        final double perRowRate = perRowEvents / ((System.nanoTime() - perRowStart) / 1e9);
+
+        final int venues = 100;
+        final int importEvents = 100_000;
+        final long before = eventRepository.count();
+        final InventoryImportResponse report = inventoryImportService.importInventory(
+                generated(venues + importEvents, row -> bulkRow(row, venues)), InventoryImportService.Format.NDJSON);
+        final double importRate = importEvents / (report.getElapsedMillis() / 1e3);
+
+        log.info("Per-row API: {} events/s; import: {} events/s ({} events in {} ms)",
+                Math.round(perRowRate), Math.round(importRate), importEvents, report.getElapsedMillis());
+        assertThat(report.getEventsImported()).isEqualTo(importEvents);
+        assertThat(report.getRejected()).isZero();
+        assertThat(eventRepository.count() - before).isEqualTo(importEvents);
+        assertThat(importRate).isGreaterThan(perRowRate * 5);
+    }
+
+    private Long createVenue(final long capacity) {
+        CreateVenueRequest venueRequest = new CreateVenueRequest();
+        venueRequest.setName("Import Hall");
+        venueRequest.setAddress("8 Test Street");
+        venueRequest.setTotalCapacity(capacity);
+        return inventoryService.createVenue(venueRequest).getId();
+    }
+
+    private static String bulkRow(final long row, final int venues) {
+        return row < venues
+                ? "{\"type\":\"venue\",\"ref\":\"v" + row + "\",\"name\":\"Bulk Venue " + row
+                + "\",\"address\":\"" + row + " Bulk Road\",\"totalCapacity\":1000}"
+                : "{\"type\":\"event\",\"venueRef\":\"v" + (row % venues) + "\",\"name\":\"Bulk Event " + row
+                + "\",\"totalCapacity\":100,\"ticketPrice\":10}";
+    }
+
+    private static InputStream stream(final String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static InputStream generated(final long rows, final LongFunction<String> line) {
+        return new InputStream() {
+            private long next;
+            private byte[] buffer = new byte[0];
+            private int position;
+
+            @Override
+            public int read() {
+                if (position == buffer.length) {
+                    if (next == rows) {
+                        return -1;
+                    }
+                    buffer = (line.apply(next++) + "\n").getBytes(StandardCharsets.UTF_8);
+                    position = 0;
+                }
+                return buffer[position++] & 0xff;
+            }
+        };
+    }
+}
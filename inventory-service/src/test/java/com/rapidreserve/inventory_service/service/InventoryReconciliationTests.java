@@ -0,0 +1,185 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.dto.CreateEventRequest;
+import com.rapidreserve.inventory_service.dto.CreateHoldRequest;
+import com.rapidreserve.inventory_service.dto.CreateVenueRequest;
+import com.rapidreserve.inventory_service.repository.EventRepository;
+import com.rapidreserve.inventory_service.response.HoldResponse;
+import com.rapidreserve.inventory_service.response.ReconciliationReportResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The booking table belongs to booking-service, which creates it in the shared database; the
+ * tests create a copy of it in their own database.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:inventory-reconciliation;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "inventory.reconciliation.settle-seconds=0",
+        "inventory.reconciliation.chunk-size=2",
+        "inventory.reconciliation.repair=true"})
+@ActiveProfiles("test")
+class InventoryReconciliationTests {
+
+    @Autowired
+    private InventoryReconciliationService inventoryReconciliationService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private SeatHoldService seatHoldService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void createBookingTable() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS booking (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+                "user_id BIGINT, event_id BIGINT, ticket_count BIGINT, total_price DECIMAL(38,2), hold_id VARCHAR(255), " +
+                "status VARCHAR(255), created_at TIMESTAMP(6), updated_at TIMESTAMP(6))");
+        // Start every test from an up-to-date checkpoint
+        inventoryReconciliationService.run();
+    }
+
+    @Test
+    void agreeingCopiesAreCheckedOnceAndNotScannedAgain() {
+        final Long heldEventId = createEvent(100);
+        final HoldResponse hold = seatHoldService.placeHold(heldEventId, holdRequest(10));
+        book(heldEventId, 10, hold.getHoldId(), "CONFIRMED", true);
+        seatHoldService.confirmHold(hold.getHoldId());
+
+        // The legacy path: a booking without a hold, taken from capacity when its order is processed
+        final Long legacyEventId = createEvent(100);
+        book(legacyEventId, 5, null, "PENDING", true);
+        inventoryService.updateEventCapacity(legacyEventId, 5L);
+
+        final ReconciliationReportResponse report = inventoryReconciliationService.run();
+        assertThat(report.getRowsScanned()).isGreaterThanOrEqualTo(4);
+        assertThat(report.getEventsChecked()).isGreaterThanOrEqualTo(2);
+        assertThat(mismatches(report, heldEventId)).isEmpty();
+        assertThat(mismatches(report, legacyEventId)).isEmpty();
+
+        final ReconciliationReportResponse nothingNew = inventoryReconciliationService.run();
+        assertThat(nothingNew.getRowsScanned()).isZero();
+        assertThat(meterRegistry.get("inventory.reconciliation.rows.scanned").tag("source", "booking")
+                .counter().count()).isGreaterThanOrEqualTo(2);
+        assertThat(meterRegistry.get("inventory.reconciliation.duration").tag("outcome", "success")
+                .timer().count()).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void capacityDriftIsConfirmedOnTheNextRunAndRepaired() {
+        final Long eventId = createEvent(100);
+        final HoldResponse hold = seatHoldService.placeHold(eventId, holdRequest(10));
+        book(eventId, 10, hold.getHoldId(), "CONFIRMED", true);
+        inventoryReconciliationService.run();
+
+        // Ten tickets vanish from inventory without a hold or booking behind them
+        jdbcTemplate.update("UPDATE event SET available_capacity = 80 WHERE id = ?", eventId);
+
+        assertThat(mismatches(inventoryReconciliationService.run(), eventId)).isEmpty();
+        assertThat(available(eventId)).isEqualTo(80);
+
+        final List<ReconciliationReportResponse.Mismatch> confirmed =
+                mismatches(inventoryReconciliationService.run(), eventId);
+        assertThat(confirmed).containsExactly(new ReconciliationReportResponse.Mismatch(
+                eventId, InventoryReconciliationService.CAPACITY, 10, 20, true));
+        assertThat(available(eventId)).isEqualTo(90);
+        assertThat(inventoryService.getEventInventory(eventId).getAvailableCapacity()).isEqualTo(90);
+
+        assertThat(mismatches(inventoryReconciliationService.run(), eventId)).isEmpty();
+    }
+
+    @Test
+    void driftThatSettlesBeforeTheNextRunIsNotReported() {
+        final Long eventId = createEvent(100);
+        final HoldResponse hold = seatHoldService.placeHold(eventId, holdRequest(10));
+        book(eventId, 10, hold.getHoldId(), "CONFIRMED", false);
+
+        // The booking is written but order-service has not processed it yet
+        assertThat(mismatches(inventoryReconciliationService.run(), eventId)).isEmpty();
+        jdbcTemplate.update("INSERT INTO `order` (total, quantity, event_id) VALUES (100, 10, ?)", eventId);
+
+        assertThat(mismatches(inventoryReconciliationService.run(), eventId)).isEmpty();
+        assertThat(mismatches(inventoryReconciliationService.run(), eventId)).isEmpty();
+    }
+
+    @Test
+    void missingOrdersOfConfirmedBookingsAreReportedButNotRepaired() {
+        final Long eventId = createEvent(100);
+        // Held bookings that are pending or cancelled have no order yet, or never will
+        book(eventId, 3, seatHoldService.placeHold(eventId, holdRequest(3)).getHoldId(), "PENDING", false);
+        book(eventId, 1, seatHoldService.placeHold(eventId, holdRequest(1)).getHoldId(), "CANCELLED", false);
+        book(eventId, 2, seatHoldService.placeHold(eventId, holdRequest(2)).getHoldId(), "CONFIRMED", false);
+
+        inventoryReconciliationService.run();
+        final List<ReconciliationReportResponse.Mismatch> confirmed =
+                mismatches(inventoryReconciliationService.run(), eventId);
+
+        assertThat(confirmed).containsExactly(new ReconciliationReportResponse.Mismatch(
+                eventId, InventoryReconciliationService.ORDERS, 1, 0, false));
+        assertThat(available(eventId)).isEqualTo(94);
+    }
+
+    private void book(final Long eventId, final long tickets, final String holdId, final String status,
+                      final boolean withOrder) {
+        final LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO booking (user_id, event_id, ticket_count, total_price, hold_id, status, " +
+                "created_at, updated_at) VALUES (1, ?, ?, ?, ?, ?, ?, ?)",
+                eventId, tickets, BigDecimal.TEN.multiply(BigDecimal.valueOf(tickets)), holdId, status, now, now);
+        if (withOrder) {
+            jdbcTemplate.update("INSERT INTO `order` (total, quantity, event_id) VALUES (?, ?, ?)",
+                    BigDecimal.TEN.multiply(BigDecimal.valueOf(tickets)), tickets, eventId);
+        }
+    }
+
+    private List<ReconciliationReportResponse.Mismatch> mismatches(final ReconciliationReportResponse report,
+                                                                   final Long eventId) {
+        return report.getMismatches().stream()
+                .filter(mismatch -> mismatch.getEventId().equals(eventId))
+                .toList();
+    }
+
+    private CreateHoldRequest holdRequest(final long tickets) {
+        CreateHoldRequest request = new CreateHoldRequest();
+        request.setTickets(tickets);
+        return request;
+    }
+
+    private long available(final Long eventId) {
+        return eventRepository.findAvailableCapacityById(eventId).orElseThrow();
+    }
+
+    private Long createEvent(final long capacity) {
+        CreateVenueRequest venueRequest = new CreateVenueRequest();
+        venueRequest.setName("Ledger Hall");
+        venueRequest.setAddress("16 Test Street");
+        venueRequest.setTotalCapacity(capacity);
+        Long venueId = inventoryService.createVenue(venueRequest).getId();
+
+        CreateEventRequest eventRequest = new CreateEventRequest();
+        eventRequest.setEvent("Ledger Night");
+        eventRequest.setTotalCapacity(capacity);
+        eventRequest.setVenueId(venueId);
+        eventRequest.setTicketPrice(BigDecimal.TEN);
+        return inventoryService.createEvent(eventRequest).getEventId();
+    }
+}
@@ -0,0 +1,188 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.repository.EventRepository;
+import com.rapidreserve.inventory_service.repository.VenueRepository;
+import com.rapidreserve.inventory_service.response.EventInventoryResponse;
+import com.rapidreserve.inventory_service.response.EventSearchResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Restores into a fresh cache and search index, as a restarted instance would, and compares the
+ * warm restart with rebuilding both from the database.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties =
+        "spring.datasource.url=jdbc:h2:mem:inventory-snapshot;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("test")
+@Slf4j(topic = "benchmark")
+class InventorySnapshotTests {
+
+    private static final int VENUES = 20;
+    private static final int EVENTS_PER_VENUE = 500;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private VenueRepository venueRepository;
+
+    @Autowired
+    private EventShardRouter eventShardRouter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    private Path directory;
+
+    private EventInventoryCache cache;
+    private EventSearchIndex index;
+    private InventorySnapshotService snapshots;
+
+    @BeforeEach
+    void seedInventory() {
+        jdbcTemplate.update("DELETE FROM venue");
+        for (long venue = 1; venue <= VENUES; venue++) {
+            jdbcTemplate.update("INSERT INTO venue (id, name, address, total_capacity) VALUES (?, ?, ?, ?)",
+                    venue, "Arena " + venue, venue + " Snapshot Road", 50_000L);
+            final List<Object[]> events = new ArrayList<>();
+            for (int i = 0; i < EVENTS_PER_VENUE; i++) {
+                final long id = (venue - 1) * EVENTS_PER_VENUE + i + 1;
+                events.add(new Object[]{id, "Show " + id, venue, 500L, 500L - i % 400, new BigDecimal("49.90"), i == 0});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO event (id, name, venue_id, total_capacity, available_capacity, "
+                    + "ticket_price, hot) VALUES (?, ?, ?, ?, ?, ?, ?)", events);
+        }
+        restartWith(directory.resolve("inventory-snapshot.bin"));
+    }
+
+    @Test
+    void restoresTheSnapshotAndReplaysOnlyWhatChangedSince() throws IOException {
+        final InventorySnapshotService.SnapshotInfo written = snapshots.write();
+        assertThat(written.events()).isEqualTo(VENUES * EVENTS_PER_VENUE);
+        assertThat(written.venues()).isEqualTo(VENUES);
+
+        jdbcTemplate.update("UPDATE event SET available_capacity = 7 WHERE id = 4001");
+        jdbcTemplate.update("DELETE FROM event WHERE id = 4002");
+        jdbcTemplate.update("INSERT INTO event (id, name, venue_id, total_capacity, available_capacity) "
+                + "VALUES (90001, 'Late Addition', 1, 100, 100)");
+        jdbcTemplate.update("UPDATE venue SET name = 'Renamed Arena' WHERE id = 3");
+
+        restartWith(directory.resolve("inventory-snapshot.bin"));
+        final InventorySnapshotService.RestoreInfo restored = snapshots.restore().orElseThrow();
+
+        assertThat(restored.snapshotEvents()).isEqualTo(VENUES * EVENTS_PER_VENUE);
+        assertThat(restored.deleted()).isEqualTo(1);
+        // The changed and new events plus every event of the renamed venue
+        assertThat(restored.replayed()).isEqualTo(2 + EVENTS_PER_VENUE);
+        assertThat(restored.cached()).isEqualTo(VENUES * EVENTS_PER_VENUE);
+        assertThat(index.size()).isEqualTo(VENUES * EVENTS_PER_VENUE);
+
+        assertThat(cached(4001L).getAvailableCapacity()).isEqualTo(7);
+        assertThat(cached(90001L).getEvent()).isEqualTo("Late Addition");
+        assertThat(cached(1001L).getVenue().getName()).isEqualTo("Renamed Arena");
+        assertThat(cached(1L).getHot()).isTrue();
+        assertThat(cached(1L).getTicketPrice()).isEqualByComparingTo("49.90");
+        assertThat(cached(1L).getVenue().getTotalCapacity()).isEqualTo(50_000L);
+        assertThat(search("Show 4002")).extracting(EventSearchResponse::getEventId).doesNotContain(4002L);
+        assertThat(search("Late Addition")).extracting(EventSearchResponse::getEventId).containsExactly(90001L);
+        assertThat(search("Renamed Arena Show 1001")).extracting(EventSearchResponse::getVenueName)
+                .first().isEqualTo("Renamed Arena");
+    }
+
+    @Test
+    void startsColdWithoutAUsableSnapshot() throws IOException {
+        final Path path = directory.resolve("inventory-snapshot.bin");
+        assertThat(snapshots.restore()).isEmpty();
+
+        snapshots.write();
+        final byte[] bytes = Files.readAllBytes(path);
+        bytes[bytes.length / 2] ^= 1;
+        Files.write(path, bytes);
+
+        restartWith(path);
+        assertThat(snapshots.restore()).isEmpty();
+        assertThat(index.size()).isZero();
+        assertThat(cache.stats().requestCount()).isZero();
+    }
+
+    /**
+     * Warm restart against what an instance without a snapshot does: a full index rebuild and one
+     * query per event as the cache fills up.
+     */
+    @Test
+    @Tag("benchmark")
+    void warmRestartBenchmark() throws IOException {
+        final InventorySnapshotService.SnapshotInfo written = snapshots.write();
+
+        long startedAt = System.nanoTime();
+        index.rebuild();
+        for (long id = 1; id <= VENUES * EVENTS_PER_VENUE; id++) {
+            cache.get(id, eventId -> map(eventRepository.findListingByIds(List.of(eventId)).get(0)));
+        }
+        final long coldMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        restartWith(directory.resolve("inventory-snapshot.bin"));
+        startedAt = System.nanoTime();
+        final Optional<InventorySnapshotService.RestoreInfo> restored = snapshots.restore();
+        final long warmMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        assertThat(restored).isPresent();
+        assertThat(index.size()).isEqualTo(VENUES * EVENTS_PER_VENUE);
+
+        log.info("inventory snapshot: {} events in {} bytes; cold start {} ms, warm start {} ms "
+                        + "({} ms reading the snapshot)",
+                written.events(), written.bytes(), coldMillis, warmMillis, restored.get().loadMillis());
+    }
+
+    /**
+     * A fresh cache, index and snapshot service, as after a restart. Nothing is replayed from before
+     * the snapshot was taken, so the test sees exactly which rows were read again.
+     */
+    private void restartWith(final Path path) {
+        cache = new EventInventoryCache(new SimpleMeterRegistry(), 100_000, 3_600);
+        index = new EventSearchIndex(eventRepository, eventShardRouter);
+        snapshots = new InventorySnapshotService(eventRepository, venueRepository, eventShardRouter, cache, index,
+                jdbcTemplate, transactionManager, true, path.toString(), 0);
+    }
+
+    private EventInventoryResponse cached(final Long eventId) {
+        return cache.get(eventId, id -> {
+            throw new AssertionError("Event " + id + " was not restored");
+        }).response();
+    }
+
+    private List<EventSearchResponse> search(final String query) {
+        return index.search(query, 10, false);
+    }
+
+    private static EventInventoryResponse map(final EventRepository.EventListingView view) {
+        return EventInventoryResponse.builder()
+                .eventId(view.getId())
+                .event(view.getName())
+                .availableCapacity(view.getAvailableCapacity())
+                .build();
+    }
+}
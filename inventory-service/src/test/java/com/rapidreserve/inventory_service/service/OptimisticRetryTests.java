@@ -0,0 +1,170 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.dto.CreateEventRequest;
+import com.rapidreserve.inventory_service.dto.CreateVenueRequest;
+import com.rapidreserve.inventory_service.dto.UpdateEventRequest;
+import com.rapidreserve.inventory_service.entity.Event;
+import com.rapidreserve.inventory_service.exception.ConcurrentUpdateException;
+import com.rapidreserve.inventory_service.repository.EventRepository;
+import com.rapidreserve.inventory_service.response.ContentionResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "inventory.optimistic.max-attempts=20",
+        "inventory.optimistic.backoff-base-ms=1",
+        "inventory.optimistic.backoff-max-ms=10"})
+@ActiveProfiles("test")
+class OptimisticRetryTests {
+
+    @Autowired
+    private OptimisticRetryExecutor optimisticRetryExecutor;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void staleEditIsRetriedAfterConcurrentBooking() {
+        final Long eventId = createEvent(10);
+        final AtomicInteger attempts = new AtomicInteger();
+
+        optimisticRetryExecutor.run("test", OptimisticRetryExecutor.Entity.EVENT, eventId, () -> {
+            final Event event = eventRepository.findById(eventId).orElseThrow();
+            if (attempts.incrementAndGet() == 1) {
+                // A booking commits between this read and the write below
+                CompletableFuture.runAsync(() -> inventoryService.updateEventCapacity(eventId, 2L)).join();
+            }
+            event.setName("Edited");
+            eventRepository.save(event);
+        });
+
+        assertThat(attempts).hasValue(2);
+        final Event event = eventRepository.findById(eventId).orElseThrow();
+        assertThat(event.getName()).isEqualTo("Edited");
+        assertThat(event.getAvailableCapacity()).isEqualTo(8);
+        assertThat(optimisticRetryExecutor.mostContended(10_000))
+                .filteredOn(stats -> stats.getId().equals(eventId))
+                .singleElement()
+                .satisfies(stats -> {
+                    assertThat(stats.getEntity()).isEqualTo("EVENT");
+                    assertThat(stats.getConflicts()).isEqualTo(1);
+                    assertThat(stats.getWrites()).isEqualTo(1);
+                });
+    }
+
+    @Test
+    void deleteRechecksBookingsAfterConflict() {
+        final Long eventId = createEvent(10);
+        final AtomicInteger attempts = new AtomicInteger();
+
+        // The first attempt saw no bookings; the retry sees the one that slipped in
+        assertThatThrownBy(() -> optimisticRetryExecutor.run("test", OptimisticRetryExecutor.Entity.EVENT, eventId, () -> {
+            final Event event = eventRepository.findById(eventId).orElseThrow();
+            if (!event.getAvailableCapacity().equals(event.getTotalCapacity())) {
+                throw new IllegalStateException("Cannot delete event with existing bookings");
+            }
+            if (attempts.incrementAndGet() == 1) {
+                CompletableFuture.runAsync(() -> inventoryService.updateEventCapacity(eventId, 1L)).join();
+            }
+            eventRepository.delete(event);
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(eventRepository.findById(eventId)).isPresent();
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        final Long eventId = createEvent(100);
+
+        assertThatThrownBy(() -> optimisticRetryExecutor.run("test", OptimisticRetryExecutor.Entity.EVENT, eventId, () -> {
+            final Event event = eventRepository.findById(eventId).orElseThrow();
+            CompletableFuture.runAsync(() -> inventoryService.updateEventCapacity(eventId, 1L)).join();
+            event.setName("Never");
+            eventRepository.save(event);
+        })).isInstanceOf(ConcurrentUpdateException.class);
+
+        assertThat(eventRepository.findById(eventId).orElseThrow().getName()).isEqualTo("Version Night");
+        assertThat(optimisticRetryExecutor.mostContended(10_000))
+                .filteredOn(stats -> stats.getId().equals(eventId))
+                .extracting(ContentionResponse::getConflicts, ContentionResponse::getExhausted)
+                .containsExactly(tuple(20L, 1L));
+    }
+
+    /**
+     * Admin edits racing bookings on one event: every edit lands, no booking is lost, and the
+     * writes timer counts every edit.
+     */
+    @Test
+    void concurrentEditsAndBookingsAllApply() throws Exception {
+        final Long eventId = createEvent(1_000);
+        final int threads = 4;
+        final int editsPerThread = 25;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads * 2);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < editsPerThread; i++) {
+                    UpdateEventRequest request = new UpdateEventRequest();
+                    request.setTicketPrice(BigDecimal.valueOf(thread * 100 + i + 1));
+                    inventoryService.updateEvent(eventId, request);
+                }
+            }));
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < editsPerThread; i++) {
+                    inventoryService.updateEventCapacity(eventId, 1L);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        final Event event = eventRepository.findById(eventId).orElseThrow();
+        assertThat(event.getAvailableCapacity()).isEqualTo(1_000 - threads * editsPerThread);
+        // One version per edit and one per booking
+        assertThat(event.getVersion()).isEqualTo(2L * threads * editsPerThread);
+
+        final long edits = meterRegistry.get("inventory.optimistic.writes")
+                .tags("operation", "updateEvent", "outcome", "success").timer().count();
+        assertThat(edits).isGreaterThanOrEqualTo(threads * editsPerThread);
+    }
+
+    private Long createEvent(final long capacity) {
+        CreateVenueRequest venueRequest = new CreateVenueRequest();
+        venueRequest.setName("Version Hall");
+        venueRequest.setAddress("10 Test Street");
+        venueRequest.setTotalCapacity(capacity);
+        Long venueId = inventoryService.createVenue(venueRequest).getId();
+
+        CreateEventRequest eventRequest = new CreateEventRequest();
+        eventRequest.setEvent("Version Night");
+        eventRequest.setTotalCapacity(capacity);
+        eventRequest.setVenueId(venueId);
+        eventRequest.setTicketPrice(BigDecimal.TEN);
+        return inventoryService.createEvent(eventRequest).getEventId();
+    }
+}
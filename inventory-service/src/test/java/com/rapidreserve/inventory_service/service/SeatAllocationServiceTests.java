@@ -0,0 +1,204 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.dto.AllocateSeatsRequest;
+import com.rapidreserve.inventory_service.dto.CreateEventRequest;
+import com.rapidreserve.inventory_service.dto.CreateSeatMapRequest;
+import com.rapidreserve.inventory_service.dto.CreateVenueRequest;
+import com.rapidreserve.inventory_service.dto.ReleaseSeatsRequest;
+import com.rapidreserve.inventory_service.entity.SeatSection;
+import com.rapidreserve.inventory_service.exception.InsufficientCapacityException;
+import com.rapidreserve.inventory_service.exception.SeatMapNotFoundException;
+import com.rapidreserve.inventory_service.repository.EventRepository;
+import com.rapidreserve.inventory_service.repository.SeatSectionRepository;
+import com.rapidreserve.inventory_service.response.SeatAllocationResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@ActiveProfiles("test")
+class SeatAllocationServiceTests {
+
+    @Autowired
+    private SeatAllocationService seatAllocationService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private SeatSectionRepository seatSectionRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void allocatesBestRankedSectionFirstAndTakesCapacity() {
+        final Long eventId = createEventWithSeatMap(100);
+
+        assertThat(allocate(eventId, 3)).isEqualTo(allocation(eventId, "Front", 1, 2, 3));
+        // Row 1 only has single seats left on either side
+        assertThat(allocate(eventId, 2)).isEqualTo(allocation(eventId, "Front", 2, 2, 2));
+        assertThat(allocate(eventId, 5)).isEqualTo(allocation(eventId, "Back", 1, 3, 5));
+        assertThat(available(eventId)).isEqualTo(90);
+        assertThat(seatAllocationService.getSeatMap(eventId).getAvailableSeats()).isEqualTo(60 - 10);
+
+        assertThatThrownBy(() -> allocate(eventId, 11)).isInstanceOf(InsufficientCapacityException.class);
+        assertThat(available(eventId)).isEqualTo(90);
+    }
+
+    @Test
+    void releaseGivesSeatsAndCapacityBack() {
+        final Long eventId = createEventWithSeatMap(100);
+        final SeatAllocationResponse allocation = allocate(eventId, 4);
+
+        seatAllocationService.releaseSeats(eventId, release(allocation));
+
+        assertThat(available(eventId)).isEqualTo(100);
+        assertThat(seatAllocationService.getSeatMap(eventId).getAvailableSeats()).isEqualTo(60);
+        assertThatThrownBy(() -> seatAllocationService.releaseSeats(eventId, release(allocation)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(available(eventId)).isEqualTo(100);
+        // The same block is the best one again
+        assertThat(allocate(eventId, 4)).isEqualTo(allocation);
+    }
+
+    @Test
+    void rolledBackAllocationGivesItsSeatsBack() {
+        final Long eventId = createEventWithSeatMap(100);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            allocate(eventId, 5);
+            status.setRollbackOnly();
+        });
+
+        assertThat(available(eventId)).isEqualTo(100);
+        assertThat(seatAllocationService.getSeatMap(eventId).getAvailableSeats()).isEqualTo(60);
+        assertThat(persisted(eventId, "Front").available()).isEqualTo(10);
+    }
+
+    @Test
+    void allocationIsWrittenWithItsCapacity() {
+        final Long eventId = createEventWithSeatMap(100);
+        final SeatAllocationResponse allocation = allocate(eventId, 3);
+
+        final SeatSection front = seatSectionRepository.findByEventIdOrderByRankAscIdAsc(eventId).get(0);
+        assertThat(front.getTakenSeats()).hasSize(2);
+        final SeatMap persisted = persisted(eventId, "Front");
+        assertThat(persisted.available()).isEqualTo(7);
+        for (int seat = 0; seat < 5; seat++) {
+            final boolean allocated = seat >= allocation.getFirstSeat() - 1 && seat < allocation.getFirstSeat() + 2;
+            assertThat(persisted.isTaken(0, seat)).isEqualTo(allocated);
+        }
+
+        seatAllocationService.releaseSeats(eventId, release(allocation));
+        assertThat(persisted(eventId, "Front").available()).isEqualTo(10);
+    }
+
+    @Test
+    void seatsTakenByAnotherInstanceAreNotHandedOutTwice() {
+        final Long eventId = createEventWithSeatMap(100);
+        assertThat(allocate(eventId, 1)).isEqualTo(allocation(eventId, "Front", 1, 3, 1));
+        // Another instance takes seats 1-2 of the front row, which this one still sees free
+        final SeatMap elsewhere = persisted(eventId, "Front");
+        assertThat(elsewhere.take(new SeatMap.Block(0, 0, 2))).isTrue();
+        jdbcTemplate.update("UPDATE seat_section SET taken_seats = ? WHERE event_id = ? AND name = 'Front'",
+                elsewhere.toBytes(), eventId);
+
+        assertThat(allocate(eventId, 2)).isEqualTo(allocation(eventId, "Front", 1, 4, 2));
+        assertThat(persisted(eventId, "Front").available()).isEqualTo(5);
+        assertThat(available(eventId)).isEqualTo(97);
+
+        // And gives them back through this one
+        seatAllocationService.releaseSeats(eventId, new ReleaseSeatsRequest("Front", 1, 1, 2));
+        assertThat(persisted(eventId, "Front").available()).isEqualTo(7);
+    }
+
+    @Test
+    void rejectsInvalidSeatMaps() {
+        final Long eventId = createEvent(50);
+
+        assertThatThrownBy(() -> seatAllocationService.getSeatMap(eventId))
+                .isInstanceOf(SeatMapNotFoundException.class);
+        assertThatThrownBy(() -> seatAllocationService.createSeatMap(eventId, seatMapRequest()))
+                .isInstanceOf(InsufficientCapacityException.class);
+
+        final Long seatedEventId = createEventWithSeatMap(60);
+        assertThatThrownBy(() -> seatAllocationService.createSeatMap(seatedEventId, seatMapRequest()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Long createEventWithSeatMap(final long capacity) {
+        final Long eventId = createEvent(capacity);
+        seatAllocationService.createSeatMap(eventId, seatMapRequest());
+        return eventId;
+    }
+
+    /**
+     * Two rows of five at the front and five rows of ten behind: 60 seats.
+     */
+    private CreateSeatMapRequest seatMapRequest() {
+        CreateSeatMapRequest request = new CreateSeatMapRequest();
+        request.setSections(List.of(
+                new CreateSeatMapRequest.Section("Back", 2, 5, 10),
+                new CreateSeatMapRequest.Section("Front", 1, 2, 5)));
+        return request;
+    }
+
+    private SeatAllocationResponse allocate(final Long eventId, final int seats) {
+        AllocateSeatsRequest request = new AllocateSeatsRequest();
+        request.setSeats(seats);
+        return seatAllocationService.allocateSeats(eventId, request);
+    }
+
+    private SeatAllocationResponse allocation(final Long eventId, final String section, final int row,
+                                              final int firstSeat, final int seats) {
+        return new SeatAllocationResponse(eventId, section, row, firstSeat, seats);
+    }
+
+    private ReleaseSeatsRequest release(final SeatAllocationResponse allocation) {
+        return new ReleaseSeatsRequest(allocation.getSection(), allocation.getRow(), allocation.getFirstSeat(),
+                allocation.getSeats());
+    }
+
+    private SeatMap persisted(final Long eventId, final String name) {
+        final SeatSection section = seatSectionRepository.findByEventIdOrderByRankAscIdAsc(eventId).stream()
+                .filter(candidate -> candidate.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+        return SeatMap.fromBytes(section.getRowCount(), section.getSeatsPerRow(), section.getTakenSeats());
+    }
+
+    private long available(final Long eventId) {
+        return eventRepository.findAvailableCapacityById(eventId).orElseThrow();
+    }
+
+    private Long createEvent(final long capacity) {
+        CreateVenueRequest venueRequest = new CreateVenueRequest();
+        venueRequest.setName("Seated Hall");
+        venueRequest.setAddress("14 Test Street");
+        venueRequest.setTotalCapacity(capacity);
+        Long venueId = inventoryService.createVenue(venueRequest).getId();
+
+        CreateEventRequest eventRequest = new CreateEventRequest();
+        eventRequest.setEvent("Seated Night");
+        eventRequest.setTotalCapacity(capacity);
+        eventRequest.setVenueId(venueId);
+        eventRequest.setTicketPrice(BigDecimal.TEN);
+        return inventoryService.createEvent(eventRequest).getEventId();
+    }
+}
@@ -0,0 +1,169 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.dto.CreateEventRequest;
+import com.rapidreserve.inventory_service.dto.CreateHoldRequest;
+import com.rapidreserve.inventory_service.dto.CreateVenueRequest;
+import com.rapidreserve.inventory_service.exception.HoldNotActiveException;
+import com.rapidreserve.inventory_service.exception.InsufficientCapacityException;
+import com.rapidreserve.inventory_service.repository.EventRepository;
+import com.rapidreserve.inventory_service.response.HoldResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = "inventory.holds.wheel-tick-ms=10")
+@ActiveProfiles("test")
+class SeatHoldServiceTests {
+
+    @Autowired
+    private SeatHoldService seatHoldService;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Test
+    void holdTakesCapacityImmediatelyAndConfirmKeepsIt() {
+        final Long eventId = createEvent(10);
+
+        final HoldResponse hold = seatHoldService.placeHold(eventId, holdRequest(4, null));
+        assertThat(hold.getStatus()).isEqualTo("ACTIVE");
+        assertThat(available(eventId)).isEqualTo(6);
+
+        assertThat(seatHoldService.confirmHold(hold.getHoldId()).getStatus()).isEqualTo("CONFIRMED");
+        // Confirming again is a no-op
+        assertThat(seatHoldService.confirmHold(hold.getHoldId()).getStatus()).isEqualTo("CONFIRMED");
+        assertThat(available(eventId)).isEqualTo(6);
+        assertThatThrownBy(() -> seatHoldService.releaseHold(hold.getHoldId()))
+                .isInstanceOf(HoldNotActiveException.class);
+    }
+
+    @Test
+    void releaseGivesCapacityBackOnce() {
+        final Long eventId = createEvent(10);
+        final HoldResponse hold = seatHoldService.placeHold(eventId, holdRequest(4, null));
+
+        seatHoldService.releaseHold(hold.getHoldId());
+        seatHoldService.releaseHold(hold.getHoldId());
+
+        assertThat(available(eventId)).isEqualTo(10);
+        assertThat(seatHoldService.getHold(hold.getHoldId()).getStatus()).isEqualTo("RELEASED");
+    }
+
+    @Test
+    void holdsCannotOversell() {
+        final Long eventId = createEvent(5);
+        seatHoldService.placeHold(eventId, holdRequest(3, null));
+
+        assertThatThrownBy(() -> seatHoldService.placeHold(eventId, holdRequest(3, null)))
+                .isInstanceOf(InsufficientCapacityException.class);
+        assertThat(available(eventId)).isEqualTo(2);
+    }
+
+    @Test
+    void cancelGivesConfirmedTicketsBackOnce() {
+        final Long eventId = createEvent(10);
+        final HoldResponse confirmed = seatHoldService.placeHold(eventId, holdRequest(4, null));
+        seatHoldService.confirmHold(confirmed.getHoldId());
+        final HoldResponse active = seatHoldService.placeHold(eventId, holdRequest(3, null));
+        assertThat(available(eventId)).isEqualTo(3);
+
+        assertThat(seatHoldService.cancelHold(confirmed.getHoldId()).getStatus()).isEqualTo("CANCELLED");
+        assertThat(seatHoldService.cancelHold(active.getHoldId()).getStatus()).isEqualTo("RELEASED");
+        // Retried compensations are no-ops
+        assertThat(seatHoldService.cancelHold(confirmed.getHoldId()).getStatus()).isEqualTo("CANCELLED");
+        assertThat(seatHoldService.cancelHold(active.getHoldId()).getStatus()).isEqualTo("RELEASED");
+
+        assertThat(available(eventId)).isEqualTo(10);
+        assertThatThrownBy(() -> seatHoldService.confirmHold(confirmed.getHoldId()))
+                .isInstanceOf(HoldNotActiveException.class);
+    }
+
+    @Test
+    void concurrentBookingsNeverOversell() throws Exception {
+        final Long eventId = createEvent(100);
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(32);
+        final List<Future<Boolean>> attempts = new ArrayList<>();
+        try {
+            for (int i = 0; i < 1_000; i++) {
+                attempts.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        seatHoldService.placeHold(eventId, holdRequest(1, null));
+                        return true;
+                    } catch (InsufficientCapacityException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int held = 0;
+            for (Future<Boolean> attempt : attempts) {
+                held += attempt.get() ? 1 : 0;
+            }
+            assertThat(held).isEqualTo(100);
+            assertThat(available(eventId)).isZero();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void expiredHoldIsReleasedByTheWheel() throws Exception {
+        final Long eventId = createEvent(10);
+        final HoldResponse hold = seatHoldService.placeHold(eventId, holdRequest(7, 1L));
+        assertThat(available(eventId)).isEqualTo(3);
+
+        final long deadline = System.currentTimeMillis() + 5_000;
+        while (available(eventId) != 10 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+
+        assertThat(available(eventId)).isEqualTo(10);
+        assertThat(seatHoldService.getHold(hold.getHoldId()).getStatus()).isEqualTo("EXPIRED");
+        assertThatThrownBy(() -> seatHoldService.confirmHold(hold.getHoldId()))
+                .isInstanceOf(HoldNotActiveException.class);
+    }
+
+    private long available(final Long eventId) {
+        return eventRepository.findAvailableCapacityById(eventId).orElseThrow();
+    }
+
+    private CreateHoldRequest holdRequest(final long tickets, final Long ttlSeconds) {
+        CreateHoldRequest request = new CreateHoldRequest();
+        request.setTickets(tickets);
+        request.setTtlSeconds(ttlSeconds);
+        return request;
+    }
+
+    private Long createEvent(final long capacity) {
+        CreateVenueRequest venueRequest = new CreateVenueRequest();
+        venueRequest.setName("Hold Hall");
+        venueRequest.setAddress("2 Test Street");
+        venueRequest.setTotalCapacity(capacity);
+        Long venueId = inventoryService.createVenue(venueRequest).getId();
+
+        CreateEventRequest eventRequest = new CreateEventRequest();
+        eventRequest.setEvent("Hold Night");
+        eventRequest.setTotalCapacity(capacity);
+        eventRequest.setVenueId(venueId);
+        eventRequest.setTicketPrice(BigDecimal.TEN);
+        return inventoryService.createEvent(eventRequest).getEventId();
+    }
+}
@@ -0,0 +1,177 @@
+package com.rapidreserve.inventory_service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@Slf4j(topic = "benchmark")
+class SeatMapTests {
+
+    private static final int STADIUM_SECTIONS = 16;
+    private static final int STADIUM_ROWS = 50;
+    private static final int STADIUM_SEATS_PER_ROW = 100;
+    private static final int THREADS = 16;
+
+    @Test
+    void takesTheFrontRowAsCentrallyAsPossible() {
+        final SeatMap seatMap = new SeatMap(10, 20);
+
+        assertThat(seatMap.allocate(4)).isEqualTo(new SeatMap.Block(0, 8, 4));
+        // The middle is gone, so the next party sits right next to it
+        assertThat(seatMap.allocate(4)).isEqualTo(new SeatMap.Block(0, 4, 4));
+        assertThat(seatMap.allocate(8)).isEqualTo(new SeatMap.Block(0, 12, 8));
+        // Four seats are left in row 0, but not four together
+        assertThat(seatMap.allocate(3)).isEqualTo(new SeatMap.Block(0, 1, 3));
+        assertThat(seatMap.allocate(2)).isEqualTo(new SeatMap.Block(1, 9, 2));
+        assertThat(seatMap.available()).isEqualTo(200 - 21);
+    }
+
+    @Test
+    void blocksCanSpanWordsButNeverRows() {
+        final SeatMap seatMap = new SeatMap(3, 100);
+
+        assertThat(seatMap.allocate(100)).isEqualTo(new SeatMap.Block(0, 0, 100));
+        assertThat(seatMap.allocate(90)).isEqualTo(new SeatMap.Block(1, 5, 90));
+        assertThat(seatMap.allocate(6)).isEqualTo(new SeatMap.Block(2, 47, 6));
+        assertThat(seatMap.allocate(101)).isNull();
+        assertThat(seatMap.isTaken(1, 63)).isTrue();
+        assertThat(seatMap.isTaken(1, 4)).isFalse();
+    }
+
+    @Test
+    void releaseAndTakeAreAllOrNothing() {
+        final SeatMap seatMap = new SeatMap(1, 10);
+        final SeatMap.Block block = seatMap.allocate(4);
+
+        assertThat(seatMap.take(new SeatMap.Block(0, 0, 4))).isFalse();
+        assertThat(seatMap.isTaken(0, 0)).isFalse();
+        assertThatThrownBy(() -> seatMap.release(new SeatMap.Block(0, 2, 4)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(seatMap.available()).isEqualTo(6);
+
+        seatMap.release(block);
+        assertThat(seatMap.available()).isEqualTo(10);
+        assertThat(seatMap.take(new SeatMap.Block(0, 0, 4))).isTrue();
+        assertThatThrownBy(() -> seatMap.release(new SeatMap.Block(0, 8, 4)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void packsOneBitPerSeat() {
+        final SeatMap seatMap = new SeatMap(800, 100);
+        for (int i = 0; i < 500; i++) {
+            seatMap.allocate(1 + i % 7);
+        }
+
+        final byte[] packed = seatMap.toBytes();
+        assertThat(packed).hasSize(10_000);
+
+        final SeatMap restored = SeatMap.fromBytes(800, 100, packed);
+        assertThat(restored.available()).isEqualTo(seatMap.available());
+        for (int row = 0; row < 800; row++) {
+            for (int seat = 0; seat < 100; seat++) {
+                assertThat(restored.isTaken(row, seat)).isEqualTo(seatMap.isTaken(row, seat));
+            }
+        }
+        assertThat(restored.allocate(7)).isEqualTo(seatMap.allocate(7));
+        assertThatThrownBy(() -> SeatMap.fromBytes(800, 99, packed)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    /**
+     * Sells out sections from many threads at once, walking them in rank order as the allocation
+     * service does, and checks that no seat was handed out twice.
+     */
+    @Test
+    void sellsOutSectionsUnderContention() throws Exception {
+        sellOut(2);
+    }
+
+    @Test
+    @Tag("benchmark")
+    void sellsOutAStadiumUnderContention() throws Exception {
+        final int sectionCount = STADIUM_SECTIONS;
+        final long startedAt = System.nanoTime();
+        final int allocations = sellOut(sectionCount);
+        final double seconds = (System.nanoTime() - startedAt) / 1e9;
+
+        log.info("seat map: {} seats in {} allocations by {} threads in {} s, {} allocations/sec",
+                sectionCount * STADIUM_ROWS * STADIUM_SEATS_PER_ROW, allocations, THREADS,
+                String.format("%.3f", seconds), Math.round(allocations / seconds));
+    }
+
+    /**
+     * @return the number of allocations it took
+     */
+    private static int sellOut(final int sectionCount) throws Exception {
+        final List<SeatMap> sections = new ArrayList<>();
+        for (int i = 0; i < sectionCount; i++) {
+            sections.add(new SeatMap(STADIUM_ROWS, STADIUM_SEATS_PER_ROW));
+        }
+        final ConcurrentLinkedQueue<Allocation> allocations = new ConcurrentLinkedQueue<>();
+
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                while (true) {
+                    // Parties of one to six, falling back to singles once larger blocks run out
+                    Allocation allocation = allocate(sections, ThreadLocalRandom.current().nextInt(1, 7));
+                    if (allocation == null) {
+                        allocation = allocate(sections, 1);
+                    }
+                    if (allocation == null) {
+                        return null;
+                    }
+                    allocations.add(allocation);
+                }
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        final boolean[][] sold = new boolean[sectionCount][STADIUM_ROWS * STADIUM_SEATS_PER_ROW];
+        int seatsSold = 0;
+        for (Allocation allocation : allocations) {
+            final SeatMap.Block block = allocation.block();
+            for (int seat = block.firstSeat(); seat < block.firstSeat() + block.count(); seat++) {
+                final int index = block.row() * STADIUM_SEATS_PER_ROW + seat;
+                assertThat(sold[allocation.section()][index]).as("seat sold twice").isFalse();
+                sold[allocation.section()][index] = true;
+                seatsSold++;
+            }
+        }
+        assertThat(seatsSold).isEqualTo(sectionCount * STADIUM_ROWS * STADIUM_SEATS_PER_ROW);
+        assertThat(sections).allSatisfy(section -> assertThat(section.available()).isZero());
+        return allocations.size();
+    }
+
+    private static Allocation allocate(final List<SeatMap> sections, final int count) {
+        for (int i = 0; i < sections.size(); i++) {
+            final SeatMap.Block block = sections.get(i).allocate(count);
+            if (block != null) {
+                return new Allocation(i, block);
+            }
+        }
+        return null;
+    }
+
+    private record Allocation(int section, SeatMap.Block block) {
+    }
+}
@@ -0,0 +1,99 @@
+package com.rapidreserve.inventory_service.service;
+
+import com.rapidreserve.inventory_service.dto.CreateEventRequest;
+import com.rapidreserve.inventory_service.dto.CreateVenueRequest;
+import com.rapidreserve.inventory_service.dto.UpdateVenueRequest;
+import com.rapidreserve.inventory_service.entity.Event;
+import com.rapidreserve.inventory_service.exception.InsufficientCapacityException;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class VenueValidationQueryTests {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void capacityCheckCostsTheSameForOneOrManyEvents() {
+        final Long smallVenue = createVenueWithEvents(1);
+        final Long largeVenue = createVenueWithEvents(300);
+
+        final Statistics statistics = statistics();
+        statistics.clear();
+        inventoryService.updateVenue(smallVenue, capacityUpdate(900L));
+        final long smallStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        inventoryService.updateVenue(largeVenue, capacityUpdate(900L));
+        final long largeStatements = statistics.getPrepareStatementCount();
+
+        assertThat(largeStatements).isEqualTo(smallStatements);
+        assertThat(statistics.getEntityStatistics(Event.class.getName()).getLoadCount()).isZero();
+
+        statistics.clear();
+        assertThatThrownBy(() -> inventoryService.updateVenue(largeVenue, capacityUpdate(5L)))
+                .isInstanceOf(InsufficientCapacityException.class)
+                .hasMessageContaining("capacity 10");
+        // Venue lookup plus the single MAX query
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityStatistics(Event.class.getName()).getLoadCount()).isZero();
+    }
+
+    @Test
+    void deleteCheckCountsInsteadOfLoadingEvents() {
+        final Long venueId = createVenueWithEvents(300);
+
+        final Statistics statistics = statistics();
+        statistics.clear();
+        assertThatThrownBy(() -> inventoryService.deleteVenue(venueId))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("300 associated event(s)");
+        // Venue lookup plus the single COUNT query
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityStatistics(Event.class.getName()).getLoadCount()).isZero();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private UpdateVenueRequest capacityUpdate(final long capacity) {
+        UpdateVenueRequest request = new UpdateVenueRequest();
+        request.setTotalCapacity(capacity);
+        return request;
+    }
+
+    private Long createVenueWithEvents(final int events) {
+        CreateVenueRequest venueRequest = new CreateVenueRequest();
+        venueRequest.setName("Festival Grounds");
+        venueRequest.setAddress("7 Test Street");
+        venueRequest.setTotalCapacity(1_000L);
+        Long venueId = inventoryService.createVenue(venueRequest).getId();
+
+        for (int i = 0; i < events; i++) {
+            CreateEventRequest eventRequest = new CreateEventRequest();
+            eventRequest.setEvent("Stage " + i);
+            eventRequest.setTotalCapacity(10L);
+            eventRequest.setVenueId(venueId);
+            eventRequest.setTicketPrice(BigDecimal.TEN);
+            inventoryService.createEvent(eventRequest);
+        }
+        return venueId;
+    }
+}
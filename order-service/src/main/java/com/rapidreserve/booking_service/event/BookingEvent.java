@@ -15,4 +15,5 @@ public class BookingEvent {
     private Long eventId;
     private Long ticketCount;
     private BigDecimal totalPrice;
+    private String holdId;
 }
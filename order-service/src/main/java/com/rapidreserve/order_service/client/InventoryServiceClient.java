@@ -1,20 +1,26 @@
 package com.rapidreserve.order_service.client;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.ResponseEntity;
+import com.rapidreserve.inventory_client.InventoryHttpClient;
+import com.rapidreserve.order_service.dto.BatchCapacityUpdateRequest;
+import com.rapidreserve.order_service.response.BatchCapacityUpdateResponse;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
 @Service
 public class InventoryServiceClient {
 
-    @Value("${inventory.service.url}")
-    private String inventoryServiceUrl;
+    private final InventoryHttpClient inventoryHttpClient;
 
-    public ResponseEntity<Void> updateInventory(final Long eventId,
-                                                final Long ticketCount) {
-        RestTemplate restTemplate = new RestTemplate();
-        restTemplate.put(inventoryServiceUrl + "/event/" + eventId + "/capacity/" + ticketCount, null);
-        return ResponseEntity.ok().build();
+    @Autowired
+    public InventoryServiceClient(final InventoryHttpClient inventoryHttpClient) {
+        this.inventoryHttpClient = inventoryHttpClient;
     }
-}
\ No newline at end of file
+
+    /**
+     * Applies many capacity decrements in one call; the response reports each entry separately.
+     */
+    public BatchCapacityUpdateResponse updateInventories(final BatchCapacityUpdateRequest request) {
+        return inventoryHttpClient.put("updateCapacityBatch", "/events/capacity:batch", request,
+                BatchCapacityUpdateResponse.class);
+    }
+}
@@ -0,0 +1,22 @@
+package com.rapidreserve.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCapacityUpdateRequest {
+    private List<CapacityUpdate> updates;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CapacityUpdate {
+        private Long eventId;
+        private Long tickets;
+    }
+}
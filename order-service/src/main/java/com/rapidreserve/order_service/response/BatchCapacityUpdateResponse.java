@@ -0,0 +1,26 @@
+package com.rapidreserve.order_service.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCapacityUpdateResponse {
+    private int succeeded;
+    private int failed;
+    private List<Result> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+        private Long eventId;
+        private Long tickets;
+        private boolean success;
+        private String message;
+    }
+}
@@ -3,13 +3,17 @@ package com.rapidreserve.order_service.service;
 
 import com.rapidreserve.booking_service.event.BookingEvent;
 import com.rapidreserve.order_service.client.InventoryServiceClient;
+import com.rapidreserve.order_service.dto.BatchCapacityUpdateRequest;
 import com.rapidreserve.order_service.entity.Order;
 import com.rapidreserve.order_service.repository.OrderRepository;
+import com.rapidreserve.order_service.response.BatchCapacityUpdateResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+
 @Service
 @Slf4j
 public class OrderService {
@@ -23,17 +27,57 @@ public class OrderService {
         this.inventoryServiceClient = inventoryServiceClient;
     }
 
-    @KafkaListener(topics = "booking", groupId = "order-service")
-    public void orderEvent(BookingEvent bookingEvent){
-        log.info("Received order event: {}", bookingEvent);
+    /**
+     * Consumes booking events in batches so a burst of orders costs one inventory call
+     * instead of one per order. Only bookings made without a hold are ordered here; a held
+     * booking can still lapse, so it is ordered once it is confirmed.
+     */
+    @KafkaListener(topics = "booking", groupId = "order-service", batch = "true")
+    public void orderEvents(List<BookingEvent> bookingEvents){
+        log.info("Received {} order event(s)", bookingEvents.size());
+
+        //Tickets behind a hold were already taken from inventory when the hold was placed
+        List<BookingEvent> unheld = bookingEvents.stream()
+                .filter(bookingEvent -> bookingEvent.getHoldId() == null)
+                .toList();
+        if (unheld.isEmpty()) {
+            return;
+        }
+
+        //Create order objects for DB
+        List<Order> orders = unheld.stream().map(this::createOrder).toList();
+        orderRepository.saveAllAndFlush(orders);
 
-        //Create order object for DB
-        Order order = createOrder(bookingEvent);
-        orderRepository.saveAndFlush(order);
+        List<BatchCapacityUpdateRequest.CapacityUpdate> updates = unheld.stream()
+                .map(bookingEvent -> new BatchCapacityUpdateRequest.CapacityUpdate(
+                        bookingEvent.getEventId(), bookingEvent.getTicketCount()))
+                .toList();
 
         //Update Inventory
-        inventoryServiceClient.updateInventory(order.getEventId(), order.getTicketCount());
-        log.info("Inventory updated for event: {}, less tickets: {}", order.getEventId(), order.getTicketCount());
+        BatchCapacityUpdateResponse response =
+                inventoryServiceClient.updateInventories(new BatchCapacityUpdateRequest(updates));
+        log.info("Inventory updated for {} of {} order(s)", response.getSucceeded(), updates.size());
+        response.getResults().stream()
+                .filter(result -> !result.isSuccess())
+                .forEach(result -> log.warn("Inventory update failed for event: {}, tickets: {}: {}",
+                        result.getEventId(), result.getTickets(), result.getMessage()));
+    }
+
+    /**
+     * Orders held bookings once they are confirmed; a confirmed hold keeps its tickets.
+     */
+    @KafkaListener(topics = "booking-confirmation", groupId = "order-service", batch = "true")
+    public void confirmationEvents(List<BookingEvent> confirmationEvents){
+        log.info("Received {} confirmation event(s)", confirmationEvents.size());
+
+        //Bookings without a hold were ordered when they were made
+        List<Order> orders = confirmationEvents.stream()
+                .filter(bookingEvent -> bookingEvent.getHoldId() != null)
+                .map(this::createOrder)
+                .toList();
+        if (!orders.isEmpty()) {
+            orderRepository.saveAllAndFlush(orders);
+        }
     }
 
     private Order createOrder(BookingEvent bookingEvent){
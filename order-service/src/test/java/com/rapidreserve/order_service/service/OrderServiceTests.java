@@ -0,0 +1,70 @@
+package com.rapidreserve.order_service.service;
+
+import com.rapidreserve.booking_service.event.BookingEvent;
+import com.rapidreserve.order_service.client.InventoryServiceClient;
+import com.rapidreserve.order_service.entity.Order;
+import com.rapidreserve.order_service.repository.OrderRepository;
+import com.rapidreserve.order_service.response.BatchCapacityUpdateResponse;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderServiceTests {
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final InventoryServiceClient inventoryServiceClient = mock(InventoryServiceClient.class);
+    private final OrderService orderService = new OrderService(orderRepository, inventoryServiceClient);
+
+    @Test
+    void heldBookingsAreOrderedOnlyOnceConfirmed() {
+        orderService.orderEvents(List.of(event(10L, "hold-1")));
+        verify(orderRepository, never()).saveAllAndFlush(anyList());
+        verify(inventoryServiceClient, never()).updateInventories(any());
+
+        orderService.confirmationEvents(List.of(event(10L, "hold-1")));
+
+        assertThat(savedOrders()).extracting(Order::getEventId).containsExactly(10L);
+        verify(inventoryServiceClient, never()).updateInventories(any());
+    }
+
+    @Test
+    void bookingsWithoutAHoldAreOrderedWhenMade() {
+        when(inventoryServiceClient.updateInventories(any())).thenReturn(new BatchCapacityUpdateResponse(1, 0, List.of()));
+
+        orderService.orderEvents(List.of(event(20L, null), event(30L, "hold-2")));
+
+        assertThat(savedOrders()).extracting(Order::getEventId).containsExactly(20L);
+        verify(inventoryServiceClient).updateInventories(any());
+
+        // Their confirmation does not order them again
+        orderService.confirmationEvents(List.of(event(20L, null)));
+        verify(orderRepository).saveAllAndFlush(anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Order> savedOrders() {
+        final ArgumentCaptor<List<Order>> orders = ArgumentCaptor.forClass(List.class);
+        verify(orderRepository).saveAllAndFlush(orders.capture());
+        return orders.getValue();
+    }
+
+    private static BookingEvent event(final Long eventId, final String holdId) {
+        return BookingEvent.builder()
+                .userId(1L)
+                .eventId(eventId)
+                .ticketCount(2L)
+                .totalPrice(new BigDecimal("50.00"))
+                .holdId(holdId)
+                .build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.rapidreserve.read_replica;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Measures how far the read replica is behind the primary with a heartbeat row: each check reads
+ * the last beat that reached the replica, then writes a new one on the primary. The lag is the age
+ * of the beat the replica has, so it overstates the real lag by up to one heartbeat interval.
+ * <p>
+ * The replica is only used while its lag is within the limit. Until the first check, and whenever
+ * the replica cannot be read, reads stay on the primary.
+ * <p>
+ * {@link #check()} is not scheduled here; the service that creates the monitor runs it at its
+ * heartbeat interval.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private static final String WRITE_BEAT = "INSERT INTO replica_heartbeat (source, beat_millis) VALUES (?, ?) " +
+            "ON DUPLICATE KEY UPDATE beat_millis = VALUES(beat_millis)";
+    private static final String READ_BEAT = "SELECT beat_millis FROM replica_heartbeat WHERE source = ?";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final String source;
+    private final long maxLagMillis;
+    private volatile long lagMillis = -1;
+    private volatile boolean usable;
+
+    /**
+     * @param source       heartbeat row this service writes, usually its application name
+     * @param metricPrefix prefix of the meter names, e.g. {@code booking} for {@code booking.read-replica.lag}
+     */
+    public ReplicaLagMonitor(final DataSource primary, final DataSource replica, final String source,
+                             final long maxLagMillis, final String metricPrefix, final MeterRegistry meterRegistry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.source = source;
+        this.maxLagMillis = maxLagMillis;
+        Gauge.builder(metricPrefix + ".read-replica.lag", this, monitor -> monitor.lagMillis)
+                .description("Age of the newest heartbeat on the read replica, -1 when it cannot be read")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder(metricPrefix + ".read-replica.usable", this, monitor -> monitor.usable ? 1 : 0)
+                .register(meterRegistry);
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    public long lagMillis() {
+        return lagMillis;
+    }
+
+    public void check() {
+        final long now = System.currentTimeMillis();
+        try {
+            final List<Long> beats = replica.queryForList(READ_BEAT, Long.class, source);
+            lagMillis = beats.isEmpty() ? Long.MAX_VALUE : Math.max(0, now - beats.get(0));
+        } catch (DataAccessException e) {
+            lagMillis = -1;
+            log.debug("Read replica heartbeat check failed: {}", e.getMessage());
+        }
+        updateUsable(lagMillis >= 0 && lagMillis <= maxLagMillis);
+
+        try {
+            primary.update(WRITE_BEAT, source, now);
+        } catch (DataAccessException e) {
+            log.warn("Failed to write replica heartbeat on the primary: {}", e.getMessage());
+        }
+    }
+
+    private void updateUsable(final boolean nowUsable) {
+        if (nowUsable == usable) {
+            return;
+        }
+        usable = nowUsable;
+        if (nowUsable) {
+            log.info("Read replica is back within {} ms of the primary, routing read-only work to it", maxLagMillis);
+        } else {
+            log.warn("Read replica lag is {} ms (limit {} ms), routing read-only work to the primary",
+                    lagMillis < 0 ? "unknown" : lagMillis, maxLagMillis);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.rapidreserve.read_replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the read replica and everything else to the primary.
+ * <p>
+ * Reads fall back to the primary when the replica lags (see {@link ReplicaLagMonitor}) and, for
+ * read-your-writes, for the rest of a request once that request has taken a connection for writing.
+ * The decision is made when a connection is first needed, so this sits behind a lazy connection
+ * proxy that lets the transaction's read-only flag be set first.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Target { PRIMARY, REPLICA }
+
+    private static final ThreadLocal<RequestPin> REQUEST_PIN = new ThreadLocal<>();
+
+    private final ReplicaLagMonitor lagMonitor;
+    private final Counter writes;
+    private final Counter replicaReads;
+    private final Counter pinnedReads;
+    private final Counter laggingReads;
+
+    /**
+     * @param metricPrefix prefix of the meter names, e.g. {@code booking} for {@code booking.read-replica.routed}
+     */
+    public ReplicaRoutingDataSource(final DataSource primary, final DataSource replica, final ReplicaLagMonitor lagMonitor,
+                                    final String metricPrefix, final MeterRegistry meterRegistry) {
+        this.lagMonitor = lagMonitor;
+        setTargetDataSources(Map.of(Target.PRIMARY, primary, Target.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        this.writes = routedCounter(meterRegistry, metricPrefix, Target.PRIMARY, "write");
+        this.replicaReads = routedCounter(meterRegistry, metricPrefix, Target.REPLICA, "read-only");
+        this.pinnedReads = routedCounter(meterRegistry, metricPrefix, Target.PRIMARY, "pinned");
+        this.laggingReads = routedCounter(meterRegistry, metricPrefix, Target.PRIMARY, "replica-lagging");
+    }
+
+    /**
+     * Starts tracking writes for the current request; reads after its first write go to the primary.
+     */
+    public static void beginRequest() {
+        REQUEST_PIN.set(new RequestPin());
+    }
+
+    public static void endRequest() {
+        REQUEST_PIN.remove();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        final RequestPin pin = REQUEST_PIN.get();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (pin != null) {
+                pin.wrote = true;
+            }
+            writes.increment();
+            return Target.PRIMARY;
+        }
+        if (pin != null && pin.wrote) {
+            pinnedReads.increment();
+            return Target.PRIMARY;
+        }
+        if (!lagMonitor.isUsable()) {
+            laggingReads.increment();
+            return Target.PRIMARY;
+        }
+        replicaReads.increment();
+        return Target.REPLICA;
+    }
+
+    private static Counter routedCounter(final MeterRegistry meterRegistry, final String metricPrefix,
+                                         final Target target, final String reason) {
+        return Counter.builder(metricPrefix + ".read-replica.routed")
+                .description("Connections handed out, by target and routing reason")
+                .tag("target", target.name().toLowerCase())
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static final class RequestPin {
+        private boolean wrote;
+    }
+}
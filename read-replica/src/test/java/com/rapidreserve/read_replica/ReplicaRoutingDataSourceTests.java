@@ -0,0 +1,134 @@
+package com.rapidreserve.read_replica;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The replica is a separate in-memory database that nothing replicates to, so every read shows
+ * which side served it. Heartbeats are copied over by hand to play the part of replication.
+ */
+class ReplicaRoutingDataSourceTests {
+
+    private final JdbcTemplate primary = new JdbcTemplate(database("routing-rw"));
+    private final JdbcTemplate replica = new JdbcTemplate(database("routing-ro"));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReplicaLagMonitor lagMonitor = new ReplicaLagMonitor(primary.getDataSource(),
+            replica.getDataSource(), "test-service", 500, "test", meterRegistry);
+    private final DataSource dataSource = new LazyConnectionDataSourceProxy(routing());
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+    private final TransactionTemplate writing = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    private final TransactionTemplate reading = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+    @BeforeEach
+    void bothSidesHaveTheirOwnRow() {
+        reading.setReadOnly(true);
+        for (JdbcTemplate side : List.of(primary, replica)) {
+            side.execute("CREATE TABLE IF NOT EXISTS replica_heartbeat (source VARCHAR(64) PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+            side.execute("CREATE TABLE IF NOT EXISTS item (name VARCHAR(64))");
+            side.update("DELETE FROM replica_heartbeat");
+            side.update("DELETE FROM item");
+        }
+        primary.update("INSERT INTO item (name) VALUES ('primary')");
+        replica.update("INSERT INTO item (name) VALUES ('replica')");
+    }
+
+    @Test
+    void readsStayOnThePrimaryUntilTheReplicaIsKnownToBeCurrent() {
+        assertThat(lagMonitor.isUsable()).isFalse();
+        assertThat(read()).containsExactly("primary");
+
+        lagMonitor.check();
+        replicateHeartbeat();
+        lagMonitor.check();
+
+        assertThat(lagMonitor.isUsable()).isTrue();
+        assertThat(read()).containsExactly("replica");
+        assertThat(meterRegistry.get("test.read-replica.routed")
+                .tags("target", "replica", "reason", "read-only").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void writesGoToThePrimary() {
+        replicaIsCurrent();
+
+        writing.executeWithoutResult(status -> jdbcTemplate.update("INSERT INTO item (name) VALUES ('written')"));
+
+        assertThat(primary.queryForList("SELECT name FROM item", String.class)).contains("written");
+        assertThat(replica.queryForList("SELECT name FROM item", String.class)).doesNotContain("written");
+    }
+
+    @Test
+    void lagOverTheLimitFailsOverToThePrimary() {
+        replicaIsCurrent();
+        replica.update("UPDATE replica_heartbeat SET beat_millis = ?", System.currentTimeMillis() - 10_000);
+        lagMonitor.check();
+
+        assertThat(lagMonitor.isUsable()).isFalse();
+        assertThat(lagMonitor.lagMillis()).isGreaterThanOrEqualTo(10_000);
+        assertThat(read()).containsExactly("primary");
+        assertThat(meterRegistry.get("test.read-replica.usable").gauge().value()).isZero();
+    }
+
+    @Test
+    void requestIsPinnedToThePrimaryAfterItWrites() throws Exception {
+        replicaIsCurrent();
+        final List<List<String>> seen = new ArrayList<>();
+
+        new ReadYourWritesFilter().doFilter(new MockHttpServletRequest(), new MockHttpServletResponse(),
+                (request, response) -> {
+                    seen.add(read());
+                    writing.executeWithoutResult(status -> jdbcTemplate.update("INSERT INTO item (name) VALUES ('pinned')"));
+                    seen.add(read());
+                });
+
+        assertThat(seen.get(0)).containsExactly("replica");
+        assertThat(seen.get(1)).contains("pinned");
+        // The next request starts unpinned
+        assertThat(read()).containsExactly("replica");
+        assertThat(meterRegistry.get("test.read-replica.routed")
+                .tags("target", "primary", "reason", "pinned").counter().count()).isEqualTo(1);
+    }
+
+    private List<String> read() {
+        return reading.execute(status -> jdbcTemplate.queryForList("SELECT name FROM item", String.class));
+    }
+
+    private void replicaIsCurrent() {
+        lagMonitor.check();
+        replicateHeartbeat();
+        lagMonitor.check();
+        // Also lets the lazy proxy read its connection defaults, which it does outside any transaction
+        assertThat(read()).containsExactly("replica");
+    }
+
+    private void replicateHeartbeat() {
+        replica.update("DELETE FROM replica_heartbeat");
+        replica.update("INSERT INTO replica_heartbeat (source, beat_millis) VALUES ('test-service', ?)",
+                System.currentTimeMillis());
+    }
+
+    private ReplicaRoutingDataSource routing() {
+        final ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary.getDataSource(),
+                replica.getDataSource(), lagMonitor, "test", meterRegistry);
+        routing.afterPropertiesSet();
+        return routing;
+    }
+
+    private static DataSource database(final String name) {
+        return new DriverManagerDataSource("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+}